@@ -0,0 +1,106 @@
+package uk.co.ramp;
+
+import static uk.co.ramp.people.VirusStatus.EXPOSED;
+import static uk.co.ramp.people.VirusStatus.PRESYMPTOMATIC;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+import uk.co.ramp.people.AlertStatus;
+import uk.co.ramp.people.Case;
+import uk.co.ramp.people.ColumnarPopulationStore;
+import uk.co.ramp.people.Gender;
+import uk.co.ramp.people.Human;
+import uk.co.ramp.people.ImmutableHuman;
+import uk.co.ramp.people.MapPopulationStore;
+import uk.co.ramp.people.PopulationStore;
+import uk.co.ramp.people.PopulationStoreType;
+import uk.co.ramp.statistics.StatisticsRecorder;
+import uk.co.ramp.statistics.StatisticsRecorderImpl;
+
+/** Synthetic populations and contacts for the benchmarks, generated from a fixed seed. */
+public final class BenchmarkFixtures {
+  public static final long SEED = 123;
+
+  // the proportion of the population that is infectious when a benchmark starts
+  private static final double INFECTIOUS_PROPORTION = 0.1;
+
+  private BenchmarkFixtures() {}
+
+  public static Population population(int size, PopulationStoreType storeType) {
+    Random random = new Random(SEED);
+    List<Human> humans = new ArrayList<>(size);
+    for (int id = 0; id < size; id++) {
+      humans.add(
+          ImmutableHuman.builder()
+              .id(id)
+              .age(random.nextInt(90))
+              .gender(random.nextBoolean() ? Gender.FEMALE : Gender.MALE)
+              .isolationCompliance(random.nextDouble())
+              .reportingCompliance(random.nextDouble())
+              .health(random.nextDouble())
+              .hasApp(true)
+              .build());
+    }
+
+    PopulationStore store;
+    if (storeType == PopulationStoreType.COLUMNAR) {
+      ColumnarPopulationStore columnarStore = new ColumnarPopulationStore(size);
+      humans.forEach(columnarStore::add);
+      store = columnarStore;
+    } else {
+      Map<Integer, Case> cases = new HashMap<>();
+      humans.forEach(human -> cases.put(human.id(), new Case(human)));
+      store = new MapPopulationStore(cases);
+    }
+
+    for (int id = 0; id < size; id++) {
+      if (random.nextDouble() < INFECTIOUS_PROPORTION) {
+        store.setVirusStatus(id, EXPOSED);
+        store.setVirusStatus(id, PRESYMPTOMATIC);
+      }
+    }
+    return new Population(store);
+  }
+
+  /** Contacts between random pairs of people, the given number in each time step from zero. */
+  public static List<ContactEvent> contacts(int populationSize, int contactsPerStep, int steps) {
+    Random random = new Random(SEED);
+    ImmutableContactEvent template =
+        ImmutableContactEvent.builder().time(0).from(0).to(0).weight(1).label("").build();
+    List<ContactEvent> contacts = new ArrayList<>(contactsPerStep * steps);
+    for (int time = 0; time < steps; time++) {
+      for (int i = 0; i < contactsPerStep; i++) {
+        contacts.add(
+            template
+                .withTime(time)
+                .withFrom(random.nextInt(populationSize))
+                .withTo(random.nextInt(populationSize))
+                .withWeight(1 + random.nextInt(100)));
+      }
+    }
+    return contacts;
+  }
+
+  public static StatisticsRecorder statisticsRecorder() {
+    return new StatisticsRecorderImpl(
+        TestUtils.standardProperties(),
+        new ConcurrentHashMap<>(),
+        new HashMap<>(),
+        new HashMap<>(),
+        new HashMap<>(),
+        new EnumMap<>(AlertStatus.class),
+        new EnumMap<>(AlertStatus.class));
+  }
+
+  public static DistributionSampler distributionSampler() {
+    return new DistributionSampler(TestUtils.dataGenerator(), null);
+  }
+}
@@ -0,0 +1,67 @@
+package uk.co.ramp.event;
+
+import static uk.co.ramp.people.VirusStatus.PRESYMPTOMATIC;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.co.ramp.BenchmarkFixtures;
+import uk.co.ramp.TestUtils;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.EventBuffers;
+import uk.co.ramp.io.InfectionRates;
+import uk.co.ramp.people.PopulationStoreType;
+
+/** Evaluates a time step of contacts, ignoring isolation, into reused event buffers. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactEventProcessorBenchmark {
+  @Param({"10000", "100000"})
+  private int populationSize;
+
+  @Param({"1000", "10000"})
+  private int contactsPerStep;
+
+  @Param({"MAP", "COLUMNAR"})
+  private PopulationStoreType populationStore;
+
+  private ContactEventProcessor contactEventProcessor;
+  private List<ContactEvent> contacts;
+  private final EventBuffers buffers = new EventBuffers();
+
+  @Setup
+  public void setUp() {
+    contactEventProcessor =
+        new ContactEventProcessor(
+            BenchmarkFixtures.population(populationSize, populationStore),
+            TestUtils.diseaseProperties(),
+            BenchmarkFixtures.distributionSampler(),
+            (caseA, caseB, weight, proportionInfectious, time) -> false,
+            new InfectionRates(Map.of(PRESYMPTOMATIC, 1d)));
+    contacts = BenchmarkFixtures.contacts(populationSize, contactsPerStep, 1);
+  }
+
+  @Benchmark
+  public EventBuffers processContacts() {
+    buffers.clear();
+    for (ContactEvent contact : contacts) {
+      contactEventProcessor.processEvent(contact, buffers);
+    }
+    return buffers;
+  }
+}
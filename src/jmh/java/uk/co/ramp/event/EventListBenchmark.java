@@ -0,0 +1,72 @@
+package uk.co.ramp.event;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.co.ramp.BenchmarkFixtures;
+import uk.co.ramp.event.types.ContactEvent;
+
+/**
+ * Looks up the recent contacts of one person, as contact tracing does, by filtering the completed
+ * contacts and from the contact index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventListBenchmark {
+  private static final int TIME_STEPS = 28;
+  private static final int LOOK_BACK_TIME = 14;
+
+  @Param({"10000", "100000"})
+  private int populationSize;
+
+  @Param({"1000", "10000"})
+  private int contactsPerStep;
+
+  @Param({"MAP", "CALENDAR"})
+  private EventListType eventListType;
+
+  private EventList<ContactEvent> completedContacts;
+  private CompletionEventListGroup eventListGroup;
+  private int personId;
+
+  @Setup
+  public void setUp() {
+    List<ContactEvent> contacts =
+        BenchmarkFixtures.contacts(populationSize, contactsPerStep, TIME_STEPS);
+    completedContacts = EventListFixtures.eventList(eventListType, TIME_STEPS);
+    completedContacts.addEvents(contacts);
+    eventListGroup = EventListFixtures.completedContacts(contacts, eventListType, TIME_STEPS);
+  }
+
+  private int nextPersonId() {
+    personId = (personId + 1) % populationSize;
+    return personId;
+  }
+
+  @Benchmark
+  public List<ContactEvent> filterCompletedContacts() {
+    int id = nextPersonId();
+    return completedContacts.getEventsInPeriod(
+        TIME_STEPS - LOOK_BACK_TIME, TIME_STEPS, e -> e.from() == id || e.to() == id);
+  }
+
+  @Benchmark
+  public List<ContactEvent> indexedCompletedContacts() {
+    return eventListGroup.getCompletedContactEventsInPeriod(
+        TIME_STEPS - LOOK_BACK_TIME, TIME_STEPS, nextPersonId());
+  }
+}
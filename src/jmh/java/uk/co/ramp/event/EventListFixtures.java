@@ -0,0 +1,36 @@
+package uk.co.ramp.event;
+
+import java.util.List;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.Event;
+
+/** Event lists for the benchmarks, built as they are for a run. */
+public final class EventListFixtures {
+
+  private EventListFixtures() {}
+
+  public static <T extends Event> EventList<T> eventList(EventListType type, int timeSteps) {
+    return type == EventListType.CALENDAR
+        ? new CalendarEventList<>(timeSteps)
+        : new MapEventList<>();
+  }
+
+  /** An event list group holding the given contacts as completed contacts. */
+  public static CompletionEventListGroup completedContacts(
+      List<ContactEvent> contacts, EventListType type, int timeSteps) {
+    CompletionEventListGroup eventList =
+        new CompletionEventListGroup(
+            new EventListGroup(
+                eventList(type, timeSteps),
+                eventList(type, timeSteps),
+                eventList(type, timeSteps),
+                eventList(type, timeSteps)),
+            new EventListGroup(
+                eventList(type, timeSteps),
+                eventList(type, timeSteps),
+                eventList(type, timeSteps),
+                eventList(type, timeSteps)));
+    eventList.addCompletedContactEvents(contacts);
+    return eventList;
+  }
+}
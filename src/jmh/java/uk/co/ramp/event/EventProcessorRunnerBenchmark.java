@@ -0,0 +1,74 @@
+package uk.co.ramp.event;
+
+import static uk.co.ramp.people.VirusStatus.PRESYMPTOMATIC;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.co.ramp.BenchmarkFixtures;
+import uk.co.ramp.TestUtils;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.EventBuffers;
+import uk.co.ramp.event.types.ProcessedEventResult;
+import uk.co.ramp.io.InfectionRates;
+import uk.co.ramp.people.PopulationStoreType;
+
+/**
+ * Runs a time step of contacts, none of which leads to an infection, by building a result per
+ * contact and grouping them, and by adding to reused event buffers. The gc profiler reports the
+ * bytes allocated by each, which for the buffers should be close to nothing per contact.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventProcessorRunnerBenchmark {
+  @Param({"10000"})
+  private int populationSize;
+
+  @Param({"10000", "100000"})
+  private int contactsPerStep;
+
+  private EventProcessorRunner<ContactEvent> runner;
+  private List<ContactEvent> contacts;
+  private final EventBuffers buffers = new EventBuffers();
+
+  @Setup
+  public void setUp() {
+    // a zero infection rate means no contact leads to an infection
+    ContactEventProcessor contactEventProcessor =
+        new ContactEventProcessor(
+            BenchmarkFixtures.population(populationSize, PopulationStoreType.MAP),
+            TestUtils.diseaseProperties(),
+            BenchmarkFixtures.distributionSampler(),
+            (caseA, caseB, weight, proportionInfectious, time) -> false,
+            new InfectionRates(Map.of(PRESYMPTOMATIC, 0d)));
+    runner = new EventProcessorRunner<>(contactEventProcessor, new ProcessedEventsGrouper());
+    contacts = BenchmarkFixtures.contacts(populationSize, contactsPerStep, 1);
+  }
+
+  @Benchmark
+  public ProcessedEventResult runToResult() {
+    return runner.run(contacts);
+  }
+
+  @Benchmark
+  public EventBuffers runToBuffers() {
+    buffers.clear();
+    runner.run(contacts, buffers);
+    return buffers;
+  }
+}
@@ -0,0 +1,65 @@
+package uk.co.ramp.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.co.ramp.BenchmarkFixtures;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.EventBuffers;
+import uk.co.ramp.event.types.ImmutableProcessedEventResult;
+import uk.co.ramp.event.types.ProcessedEventResult;
+
+/**
+ * Combines the results of a time step of contacts, one per contact, by grouping them and by
+ * draining them into reused event buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessedEventsGrouperBenchmark {
+  @Param({"10000", "100000"})
+  private int populationSize;
+
+  @Param({"1000", "10000"})
+  private int contactsPerStep;
+
+  private final ProcessedEventsGrouper processedEventsGrouper = new ProcessedEventsGrouper();
+  private final EventBuffers buffers = new EventBuffers();
+  private List<ProcessedEventResult> results;
+
+  @Setup
+  public void setUp() {
+    List<ContactEvent> contacts = BenchmarkFixtures.contacts(populationSize, contactsPerStep, 1);
+    results = new ArrayList<>(contacts.size());
+    for (ContactEvent contact : contacts) {
+      results.add(
+          ImmutableProcessedEventResult.builder().addNewCompletedContactEvents(contact).build());
+    }
+  }
+
+  @Benchmark
+  public ProcessedEventResult groupResults() {
+    return processedEventsGrouper.groupProcessedEventResults(results);
+  }
+
+  @Benchmark
+  public EventBuffers drainResults() {
+    buffers.clear();
+    results.forEach(buffers::addAll);
+    return buffers;
+  }
+}
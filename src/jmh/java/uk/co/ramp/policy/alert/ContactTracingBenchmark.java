@@ -0,0 +1,75 @@
+package uk.co.ramp.policy.alert;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.co.ramp.BenchmarkFixtures;
+import uk.co.ramp.TestUtils;
+import uk.co.ramp.event.EventListFixtures;
+import uk.co.ramp.event.EventListType;
+import uk.co.ramp.people.PopulationStoreType;
+
+/** Traces the recent contacts of one person to the given number of levels. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactTracingBenchmark {
+  private static final int TIME_STEPS = 28;
+  private static final int LOOK_BACK_TIME = 14;
+
+  @Param({"10000", "100000"})
+  private int populationSize;
+
+  @Param({"1000", "10000"})
+  private int contactsPerStep;
+
+  @Param({"1", "2", "3"})
+  private int tracingLevels;
+
+  @Param({"input/scenarios/scenario3/tracingPolicies.json"})
+  private String tracingPolicies;
+
+  private AlertContactTracer alertContactTracer;
+  private int personId;
+
+  @Setup
+  public void setUp() throws IOException {
+    TracingPolicy tracingPolicy;
+    try (Reader reader = new FileReader(tracingPolicies)) {
+      tracingPolicy =
+          new TracingPolicyReader(TestUtils.dataGenerator().getRandomGenerator()).read(reader);
+    }
+    alertContactTracer =
+        new AlertContactTracer(
+            ImmutableTracingPolicy.copyOf(tracingPolicy).withNoOfTracingLevels(tracingLevels),
+            EventListFixtures.completedContacts(
+                BenchmarkFixtures.contacts(populationSize, contactsPerStep, TIME_STEPS),
+                EventListType.CALENDAR,
+                TIME_STEPS),
+            BenchmarkFixtures.population(populationSize, PopulationStoreType.COLUMNAR),
+            BenchmarkFixtures.statisticsRecorder());
+  }
+
+  @Benchmark
+  public Set<Integer> traceRecentContacts() {
+    personId = (personId + 1) % populationSize;
+    return alertContactTracer.traceRecentContacts(
+        TIME_STEPS - LOOK_BACK_TIME, TIME_STEPS, personId);
+  }
+}
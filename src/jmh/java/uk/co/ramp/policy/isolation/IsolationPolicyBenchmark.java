@@ -0,0 +1,72 @@
+package uk.co.ramp.policy.isolation;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.math3.random.RandomDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.ramp.BenchmarkFixtures;
+import uk.co.ramp.Population;
+import uk.co.ramp.TestUtils;
+import uk.co.ramp.people.PopulationStoreType;
+
+/**
+ * Decides whether each person in the population is in isolation for one time step, under the
+ * policies of a scenario. Each invocation is a new time step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IsolationPolicyBenchmark {
+  @Param({"10000", "100000"})
+  private int populationSize;
+
+  @Param({"input/scenarios/scenario3/isolationPolicies.json"})
+  private String isolationPolicies;
+
+  private Population population;
+  private SingleCaseIsolationPolicy isolationPolicy;
+  private int time;
+
+  @Setup
+  public void setUp() throws IOException {
+    RandomDataGenerator rng = TestUtils.dataGenerator();
+    IsolationProperties isolationProperties;
+    try (Reader reader = new FileReader(isolationPolicies)) {
+      isolationProperties = new IsolationPropertiesReader(rng.getRandomGenerator()).read(reader);
+    }
+    population = BenchmarkFixtures.population(populationSize, PopulationStoreType.COLUMNAR);
+    isolationPolicy =
+        new SingleCaseIsolationPolicy(
+            isolationProperties,
+            BenchmarkFixtures.distributionSampler(),
+            TestUtils.standardProperties(),
+            BenchmarkFixtures.statisticsRecorder(),
+            rng.getRandomGenerator());
+  }
+
+  @Benchmark
+  public void isolateEveryone(Blackhole blackhole) {
+    time++;
+    double proportionInfectious = population.proportionInfectious(time);
+    for (int id = 0; id < populationSize; id++) {
+      blackhole.consume(
+          isolationPolicy.isIndividualInIsolation(population.get(id), proportionInfectious, time));
+    }
+  }
+}
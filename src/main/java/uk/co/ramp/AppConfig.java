@@ -7,6 +7,7 @@ import java.nio.file.Paths;
 import java.util.Optional;
 import java.util.OptionalLong;
 import org.apache.commons.math3.random.RandomDataGenerator;
+import org.apache.commons.math3.random.Well19937c;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,7 +15,11 @@ import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.RandomStreams;
+import uk.co.ramp.distribution.RestorableRandomGenerator;
+import uk.co.ramp.distribution.ThreadBoundRandomGenerator;
 import uk.co.ramp.io.InfectionRates;
+import uk.co.ramp.io.PrefixCache;
 import uk.co.ramp.io.readers.*;
 import uk.co.ramp.io.types.*;
 import uk.co.ramp.people.AgeRetriever;
@@ -33,14 +38,17 @@ public class AppConfig {
   private final String seed;
   private final String overrideInputFolderLocation;
   private final String overrideOutputFolderLocation;
+  private final String scenarios;
 
   AppConfig(
       @Value("${seed:#{null}}") String seed,
       @Value("${overrideInputFolderLocation:#{null}}") String overrideInputFolderLocation,
-      @Value("${overrideOutputFolderLocation:#{null}}") String overrideOutputFolderLocation) {
+      @Value("${overrideOutputFolderLocation:#{null}}") String overrideOutputFolderLocation,
+      @Value("${scenarios:#{null}}") String scenarios) {
     this.overrideInputFolderLocation = overrideInputFolderLocation;
     this.overrideOutputFolderLocation = overrideOutputFolderLocation;
     this.seed = seed;
+    this.scenarios = scenarios;
   }
 
   @Bean
@@ -110,10 +118,28 @@ public class AppConfig {
 
   @Bean
   public InputFiles inputFiles() {
+    return readInputFiles(
+        Optional.ofNullable(overrideInputFolderLocation).orElse(DEFAULT_INPUT_FOLDER));
+  }
+
+  @Bean
+  public ScenarioSweep scenarioSweep() {
+    var scenarioSweep = ImmutableScenarioSweep.builder();
+    if (scenarios != null) {
+      for (String folder : scenarios.split(",")) {
+        scenarioSweep.addScenarios(
+            ImmutableScenario.builder()
+                .name(Paths.get(folder.trim()).getFileName().toString())
+                .inputFiles(readInputFiles(folder.trim()))
+                .build());
+      }
+    }
+    return scenarioSweep.build();
+  }
+
+  private InputFiles readInputFiles(String overrideInputFolder) {
     var baseInputFilesReader = new InputFilesReader();
     var directoryList = new DirectoryList();
-    var overrideInputFolder =
-        Optional.ofNullable(overrideInputFolderLocation).orElse(DEFAULT_INPUT_FOLDER);
     var inputFilesReader =
         new FullPathInputFilesReader(
             baseInputFilesReader, directoryList, overrideInputFolder, DEFAULT_INPUT_FOLDER);
@@ -149,6 +175,13 @@ public class AppConfig {
     return new PopulationPropertiesReader(dataPipelineApi).read();
   }
 
+  @Bean
+  public PrefixCache prefixCache(
+      DiseaseProperties diseaseProperties, PopulationProperties populationProperties) {
+    return new PrefixCache(
+        standardProperties(), inputFiles(), diseaseProperties, populationProperties);
+  }
+
   @Bean
   public AgeRetriever ageRetriever(PopulationProperties populationProperties) {
     try (Reader reader = getReader(inputFiles().ageData())) {
@@ -176,7 +209,12 @@ public class AppConfig {
   @Bean
   public RandomDataGenerator randomDataGenerator() {
     var seed = parsedSeed();
-    RandomDataGenerator rdg = new RandomDataGenerator();
+    // the runs of an ensemble or sweep share the parsed inputs, but each draws from its own
+    // generator
+    RandomDataGenerator rdg =
+        standardProperties().ensembleSize().isPresent() || scenarios != null
+            ? new RandomDataGenerator(new ThreadBoundRandomGenerator(new Well19937c()))
+            : new RandomDataGenerator(new RestorableRandomGenerator(new Well19937c()));
 
     if (seed.isPresent()) {
       rdg.reSeed(seed.getAsLong());
@@ -185,8 +223,17 @@ public class AppConfig {
   }
 
   @Bean
-  public DistributionSampler distributionSampler(RandomDataGenerator randomDataGenerator) {
-    return new DistributionSampler(randomDataGenerator);
+  public RandomStreams randomStreams() {
+    return new RandomStreams(
+        parsedSeed()
+            .orElseGet(() -> new RandomDataGenerator().nextLong(Long.MIN_VALUE, Long.MAX_VALUE)));
+  }
+
+  @Bean
+  public DistributionSampler distributionSampler(
+      RandomDataGenerator randomDataGenerator, RandomStreams randomStreams) {
+    return new DistributionSampler(
+        randomDataGenerator, standardProperties().usesRandomStreams() ? randomStreams : null);
   }
 
   Reader getReader(String input) throws FileNotFoundException {
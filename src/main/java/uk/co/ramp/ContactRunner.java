@@ -1,38 +1,56 @@
 package uk.co.ramp;
 
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.stereotype.Service;
+import uk.co.ramp.distribution.RandomStreams;
 import uk.co.ramp.event.CompletionEventListGroup;
-import uk.co.ramp.io.CompartmentWriter;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+import uk.co.ramp.io.ContactArchive;
 import uk.co.ramp.io.ContactReader;
 import uk.co.ramp.io.csv.CsvException;
+import uk.co.ramp.io.csv.CsvWriter;
 import uk.co.ramp.io.types.CmptRecord;
 import uk.co.ramp.io.types.InputFiles;
 import uk.co.ramp.io.types.OutputFolder;
+import uk.co.ramp.io.types.ScenarioSweep;
+import uk.co.ramp.io.types.ScenarioSweep.Scenario;
+import uk.co.ramp.io.types.StandardProperties;
+import uk.co.ramp.statistics.StatisticsRecorder;
+import uk.co.ramp.statistics.types.ImmutableScenarioOutcome;
 import uk.ramp.api.StandardApi;
 
 @Service
 public class ContactRunner implements CommandLineRunner {
 
   private static final Logger LOGGER = LogManager.getLogger(ContactRunner.class);
-  public static final String COMPARTMENTS_CSV = "Compartments.csv";
+  public static final String SCENARIO_COMPARISON_CSV = "scenarioComparison.csv";
   private InputFiles inputFileLocation;
   private File outputFolder;
   private ApplicationContext ctx;
   private StandardApi dataPipelineApi;
+  private StandardProperties properties;
+  private ScenarioSweep scenarioSweep;
+  private String restoreCheckpoint;
 
   @Autowired
   public void setApplicationContext(ApplicationContext applicationContext) {
@@ -54,15 +72,37 @@ public class ContactRunner implements CommandLineRunner {
     this.dataPipelineApi = dataPipelineApi;
   }
 
-  @Override
-  public void run(String... args) throws IOException {
+  @Autowired
+  public void setStandardProperties(StandardProperties properties) {
+    this.properties = properties;
+  }
 
-    try (Reader reader = new FileReader(inputFileLocation.contactData())) {
+  @Autowired
+  public void setScenarioSweep(ScenarioSweep scenarioSweep) {
+    this.scenarioSweep = scenarioSweep;
+  }
 
-      ContactReader contactReader = ctx.getBean(ContactReader.class);
-      CompletionEventListGroup eventList = ctx.getBean(CompletionEventListGroup.class);
+  /** A checkpoint from which a single run is resumed, rather than started from the beginning. */
+  @Autowired
+  public void setRestoreCheckpoint(
+      @Value("${restoreCheckpoint:#{null}}") String restoreCheckpoint) {
+    this.restoreCheckpoint = restoreCheckpoint;
+  }
 
-      eventList.addNewContactEvents(contactReader.readEvents(reader));
+  @Override
+  public void run(String... args) throws IOException {
+    if (scenarioSweep != null && !scenarioSweep.scenarios().isEmpty()) {
+      runSweep(scenarioSweep.scenarios());
+      dataPipelineApi.close();
+      return;
+    }
+    if (properties.ensembleSize().isPresent()) {
+      runEnsemble(properties.ensembleSize().getAsInt());
+      dataPipelineApi.close();
+      return;
+    }
+
+    try (Closeable contactData = readContactData()) {
 
       LOGGER.info("Generated Population and Parsed Contact data");
 
@@ -70,24 +110,212 @@ public class ContactRunner implements CommandLineRunner {
 
       LOGGER.info("Initialised Outbreak");
 
-      Map<Integer, CmptRecord> records = infection.propagate();
+      if (restoreCheckpoint != null) {
+        infection.restore(Path.of(restoreCheckpoint));
+      } else {
+        infection.propagate();
+      }
 
-      LOGGER.info("Writing Compartment Records");
-      writeCompartments(
-          new ArrayList<>(records.values()), new File(outputFolder, COMPARTMENTS_CSV));
       LOGGER.info("Completed. Tidying up.");
     }
     dataPipelineApi.close();
   }
 
-  void writeCompartments(List<CmptRecord> cmptRecords, File file) {
-    try (FileWriter fw = new FileWriter(file);
-        BufferedWriter bw = new BufferedWriter(fw)) {
-      ctx.getBean(CompartmentWriter.class).write(bw, cmptRecords);
+  // the returned file must stay open for the run, as streamed contacts are read as they are needed
+  private Closeable readContactData() throws IOException {
+    ContactReader contactReader = ctx.getBean(ContactReader.class);
+    CompletionEventListGroup eventList = ctx.getBean(CompletionEventListGroup.class);
+    Path path = Path.of(inputFileLocation.contactData());
+
+    if (ContactArchive.isArchive(path)) {
+      ContactArchive archive = ContactArchive.open(path);
+      if (contactReader.isStreaming()) {
+        eventList.setContactSource(contactReader.streamArchive(archive));
+      } else {
+        eventList.addNewContactEvents(contactReader.readArchive(archive));
+      }
+      return archive;
+    }
+
+    Reader reader = new FileReader(path.toFile());
+    if (contactReader.isStreaming()) {
+      eventList.setContactSource(contactReader.streamEvents(reader));
+    } else {
+      eventList.addNewContactEvents(contactReader.readEvents(reader));
+    }
+    return reader;
+  }
+
+  private void runEnsemble(int size) throws IOException {
+    List<ImmutableContactEvent> contacts = readAllContactData();
+    LOGGER.info("Parsed Contact data for an ensemble of {} runs", size);
+
+    long baseSeed = ctx.getBean(RandomStreams.class).seed();
+    List<Runnable> runs = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      long seed = baseSeed + i;
+      runs.add(newRun(ctx, seed, new File(outputFolder, "seed-" + seed), contacts, null, r -> {}));
+    }
+
+    newEnsembleRunner().run(runs);
+    LOGGER.info("Completed. Tidying up.");
+  }
+
+  private void runSweep(List<Scenario> scenarios) throws IOException {
+    List<ImmutableContactEvent> contacts = readAllContactData();
+    int seeds = properties.ensembleSize().orElse(1);
+    LOGGER.info(
+        "Parsed Contact data for a sweep of {} scenarios with {} seeds each",
+        scenarios.size(),
+        seeds);
+
+    // every scenario uses the same seeds, so that they differ only by their policies
+    long baseSeed = ctx.getBean(RandomStreams.class).seed();
+    byte[][] branchCheckpoints = new byte[seeds][];
+    if (properties.branchTimeStep().isPresent()) {
+      branchCheckpoints = runToBranch(baseSeed, seeds, contacts);
+    }
+
+    ImmutableScenarioOutcome[] outcomes = new ImmutableScenarioOutcome[scenarios.size() * seeds];
+    List<ConfigurableApplicationContext> scenarioContexts = new ArrayList<>();
+    List<Runnable> runs = new ArrayList<>(outcomes.length);
+    try {
+      for (Scenario scenario : scenarios) {
+        warnIfSharedInputsDiffer(scenario);
+        ConfigurableApplicationContext scenarioContext =
+            RunContext.createScenario(ctx, scenario.inputFiles());
+        scenarioContexts.add(scenarioContext);
+
+        File scenarioFolder = new File(outputFolder, scenario.name());
+        for (int i = 0; i < seeds; i++) {
+          long seed = baseSeed + i;
+          int index = runs.size();
+          runs.add(
+              newRun(
+                  scenarioContext,
+                  seed,
+                  new File(scenarioFolder, "seed-" + seed),
+                  contacts,
+                  branchCheckpoints[i],
+                  result -> outcomes[index] = outcome(scenario.name(), seed, result)));
+        }
+      }
+
+      newEnsembleRunner().run(runs);
+    } finally {
+      scenarioContexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    LOGGER.info("Writing Scenario Comparison");
+    writeComparison(List.of(outcomes), new File(outputFolder, SCENARIO_COMPARISON_CSV));
+    LOGGER.info("Completed. Tidying up.");
+  }
+
+  /**
+   * Runs each seed with the policies of the base inputs up to the branch time step, returning the
+   * checkpoints from which the scenarios with that seed continue.
+   */
+  private byte[][] runToBranch(long baseSeed, int seeds, List<ImmutableContactEvent> contacts) {
+    int branchTime = properties.branchTimeStep().getAsInt();
+    LOGGER.info("Running {} seeds to the branch time step {}", seeds, branchTime);
+    byte[][] branchCheckpoints = new byte[seeds][];
+    List<Runnable> runs = new ArrayList<>(seeds);
+    for (int i = 0; i < seeds; i++) {
+      long seed = baseSeed + i;
+      int index = i;
+      runs.add(
+          () ->
+              branchCheckpoints[index] =
+                  RunContext.runToBranch(ctx, seed, outputFolder, contacts, branchTime));
+    }
+    newEnsembleRunner().run(runs);
+    return branchCheckpoints;
+  }
+
+  private Runnable newRun(
+      ApplicationContext parent,
+      long seed,
+      File runFolder,
+      List<ImmutableContactEvent> contacts,
+      byte[] branchCheckpoint,
+      Consumer<RunResult> onCompletion) {
+    return () -> {
+      onCompletion.accept(RunContext.run(parent, seed, runFolder, contacts, branchCheckpoint));
+    };
+  }
+
+  private EnsembleRunner newEnsembleRunner() {
+    return new EnsembleRunner(
+        properties.ensembleThreads().orElse(Runtime.getRuntime().availableProcessors()));
+  }
+
+  // only the policies and initial exposures are read for each scenario
+  private void warnIfSharedInputsDiffer(Scenario scenario) {
+    InputFiles files = scenario.inputFiles();
+    Map<String, Boolean> sharedInputsMatch =
+        Map.of(
+            "run settings", files.runSettings().equals(inputFileLocation.runSettings()),
+            "contact data", files.contactData().equals(inputFileLocation.contactData()),
+            "age data", files.ageData().equals(inputFileLocation.ageData()),
+            "infection rates", files.infectionRates().equals(inputFileLocation.infectionRates()),
+            "population overrides",
+                files.populationOverrides().equals(inputFileLocation.populationOverrides()));
+    sharedInputsMatch.forEach(
+        (input, matches) -> {
+          if (!matches) {
+            LOGGER.warn(
+                "The {} of scenario {} are ignored, as they are shared by all scenarios",
+                input,
+                scenario.name());
+          }
+        });
+  }
+
+  private ImmutableScenarioOutcome outcome(String scenario, long seed, RunResult result) {
+    CmptRecord last = result.records().get(Collections.max(result.records().keySet()));
+    StatisticsRecorder statistics = result.statistics();
+    return ImmutableScenarioOutcome.builder()
+        .scenario(scenario)
+        .seed(seed)
+        .s(last.s())
+        .e(last.e())
+        .a(last.a())
+        .p(last.p())
+        .sym(last.sym())
+        .sev(last.sev())
+        .r(last.r())
+        .d(last.d())
+        .personDaysIsolated(
+            statistics.getPersonDaysIsolation().values().stream().mapToInt(Integer::intValue).sum()
+                / (double) properties.timeStepsPerDay())
+        .testsConducted(
+            statistics.getTestsConducted().values().stream().mapToInt(Integer::intValue).sum())
+        .build();
+  }
+
+  // a stream of contacts can only be consumed by one run, so shared contacts are read in full, and
+  // left timed by day for each run to spread over its time steps with its own draws
+  private List<ImmutableContactEvent> readAllContactData() throws IOException {
+    ContactReader contactReader = ctx.getBean(ContactReader.class);
+    Path path = Path.of(inputFileLocation.contactData());
+
+    if (ContactArchive.isArchive(path)) {
+      try (ContactArchive archive = ContactArchive.open(path)) {
+        return contactReader.parseArchive(archive);
+      }
+    }
+    try (Reader reader = new FileReader(path.toFile())) {
+      return contactReader.parseEvents(reader);
+    }
+  }
+
+  void writeComparison(List<ImmutableScenarioOutcome> outcomes, File file) {
+    try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+      new CsvWriter().write(writer, outcomes, ImmutableScenarioOutcome.class);
     } catch (IOException e) {
       String message =
           "An IO error occured when trying to write to "
-              + COMPARTMENTS_CSV
+              + SCENARIO_COMPARISON_CSV
               + ". Please ensure the file is not locked or open.";
       LOGGER.fatal(message);
       throw new CsvException(message);
@@ -0,0 +1,72 @@
+package uk.co.ramp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs independent realisations of the model concurrently on a fixed number of threads, each run
+ * staying on the thread it starts on, and logs the throughput achieved.
+ */
+class EnsembleRunner {
+  private static final Logger LOGGER = LogManager.getLogger(EnsembleRunner.class);
+
+  private final int threads;
+
+  EnsembleRunner(int threads) {
+    this.threads = threads;
+  }
+
+  /** Runs all of the given runs, rethrowing the first failure once the others have finished. */
+  void run(List<Runnable> runs) {
+    LOGGER.info("Starting {} runs on {} threads", runs.size(), threads);
+    long start = System.nanoTime();
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<?>> futures = new ArrayList<>(runs.size());
+    try {
+      runs.forEach(run -> futures.add(executor.submit(run)));
+      RuntimeException failure = null;
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          LOGGER.error("A run failed", e.getCause());
+          if (failure == null) {
+            failure = asRuntimeException(e.getCause());
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for runs to complete", e);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    double seconds = (System.nanoTime() - start) / 1e9;
+    LOGGER.info(
+        "Completed {} runs in {} s, {} runs per hour",
+        runs.size(),
+        String.format("%.1f", seconds),
+        String.format("%.0f", runs.size() * 3600 / seconds));
+  }
+
+  private static RuntimeException asRuntimeException(Throwable cause) {
+    if (cause instanceof RuntimeException) {
+      return (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return new IllegalStateException(cause);
+  }
+}
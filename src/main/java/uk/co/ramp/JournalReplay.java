@@ -0,0 +1,89 @@
+package uk.co.ramp;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.co.ramp.event.EventJournal;
+import uk.co.ramp.io.InfectionMap;
+import uk.co.ramp.io.InfectionMapFormat;
+import uk.co.ramp.io.types.StandardProperties;
+import uk.co.ramp.people.AlertStatus;
+import uk.co.ramp.people.ColumnarPopulationStore;
+import uk.co.ramp.people.Gender;
+import uk.co.ramp.people.ImmutableHuman;
+import uk.co.ramp.statistics.StatisticsRecorder;
+import uk.co.ramp.statistics.StatisticsRecorderImpl;
+import uk.co.ramp.statistics.StatisticsWriter;
+
+/**
+ * Writes the events, infection map and statistics of a run again from its {@link EventJournal},
+ * without rerunning the model.
+ *
+ * <p>Run as {@code JournalReplay <journal> <output folder>}. The journal holds only the state the
+ * events change, so the people of the replayed population have no other attributes.
+ */
+public class JournalReplay {
+  private static final Logger LOGGER = LogManager.getLogger(JournalReplay.class);
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      LOGGER.error("Usage: JournalReplay <journal> <output folder>");
+      System.exit(2);
+    }
+    new JournalReplay().replay(Path.of(args[0]), new File(args[1]));
+  }
+
+  public void replay(Path journalPath, File outputFolder) throws IOException {
+    try (EventJournal journal = EventJournal.open(journalPath)) {
+      StandardProperties properties = journal.properties();
+      Population population = new Population(emptyPopulation(properties.populationSize()));
+      StatisticsRecorder statisticsRecorder =
+          new StatisticsRecorderImpl(
+              properties,
+              new HashMap<>(),
+              new HashMap<>(),
+              new HashMap<>(),
+              new HashMap<>(),
+              new EnumMap<>(AlertStatus.class),
+              new EnumMap<>(AlertStatus.class));
+
+      journal.replay(population, statisticsRecorder, outputFolder).output();
+
+      // the infection map records the spread used by the R values, so is written first
+      InfectionMapFormat format = properties.infectionMapFormat().orElse(InfectionMapFormat.TEXT);
+      try (Writer writer =
+          new BufferedWriter(new FileWriter(new File(outputFolder, format.fileName())))) {
+        new InfectionMap(population.view(), statisticsRecorder, properties).output(writer, format);
+      }
+      try (Writer statsWriter = new FileWriter(new File(outputFolder, "stats.txt"));
+          Writer rValueWriter = new FileWriter(new File(outputFolder, "rValue.csv"))) {
+        new StatisticsWriter(statisticsRecorder, properties).output(statsWriter, rValueWriter);
+      }
+      LOGGER.info("Replayed {} into {}", journalPath, outputFolder);
+    }
+  }
+
+  private static ColumnarPopulationStore emptyPopulation(int size) {
+    ColumnarPopulationStore store = new ColumnarPopulationStore(size);
+    for (int id = 0; id < size; id++) {
+      store.add(
+          ImmutableHuman.builder()
+              .id(id)
+              .age(0)
+              .gender(Gender.FEMALE)
+              .isolationCompliance(0)
+              .reportingCompliance(0)
+              .health(0)
+              .hasApp(false)
+              .build());
+    }
+    return store;
+  }
+}
@@ -1,28 +1,62 @@
 package uk.co.ramp;
 
-import static uk.co.ramp.people.VirusStatus.*;
-
+import com.fasterxml.jackson.databind.SequenceWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.math3.random.RandomDataGenerator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.immutables.value.Value;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import uk.co.ramp.distribution.RandomStreams;
+import uk.co.ramp.distribution.RestorableRandomGenerator;
+import uk.co.ramp.event.CompletionEventListGroup;
+import uk.co.ramp.event.EventJournalWriter;
 import uk.co.ramp.event.EventListWriter;
 import uk.co.ramp.event.LastContactTime;
 import uk.co.ramp.event.types.EventRunner;
+import uk.co.ramp.io.CheckpointException;
+import uk.co.ramp.io.Checkpointed;
+import uk.co.ramp.io.CompartmentWriter;
 import uk.co.ramp.io.InfectionMap;
 import uk.co.ramp.io.InfectionMapException;
+import uk.co.ramp.io.InfectionMapFormat;
 import uk.co.ramp.io.LogDailyOutput;
+import uk.co.ramp.io.OutputPipeline;
+import uk.co.ramp.io.PrefixCache;
+import uk.co.ramp.io.csv.CsvException;
 import uk.co.ramp.io.types.CmptRecord;
 import uk.co.ramp.io.types.DiseaseProperties;
+import uk.co.ramp.io.types.ImmutableCmptRecord;
+import uk.co.ramp.io.types.InputFiles;
 import uk.co.ramp.io.types.OutputFolder;
 import uk.co.ramp.io.types.StandardProperties;
 import uk.co.ramp.people.VirusStatus;
+import uk.co.ramp.policy.isolation.IsolationPolicy;
 import uk.co.ramp.statistics.StatisticsRecorder;
 import uk.co.ramp.statistics.StatisticsWriter;
 
@@ -30,6 +64,8 @@ import uk.co.ramp.statistics.StatisticsWriter;
 public class Outbreak {
 
   private static final Logger LOGGER = LogManager.getLogger(Outbreak.class);
+  private static final int CHECKPOINT_MAGIC = 0x52434b50;
+  private static final int CHECKPOINT_VERSION = 1;
 
   private final StandardProperties properties;
   private final DiseaseProperties diseaseProperties;
@@ -40,10 +76,24 @@ public class Outbreak {
   private final File outputFolder;
   private final StatisticsRecorder statisticsRecorder;
   private final StatisticsWriter statisticsWriter;
+  private final CompartmentWriter compartmentWriter;
+  private final EventJournalWriter eventJournal;
+  private final CompletionEventListGroup eventList;
+  private final IsolationPolicy isolationPolicy;
+  private final RandomDataGenerator rng;
+  private final PrefixCache prefixCache;
+  private final InputFiles inputFiles;
+  private final RandomStreams randomStreams;
 
   private final Population population;
   private final Map<Integer, CmptRecord> records = new HashMap<>();
-  private static final String INFECTION_MAP = "infectionMap.txt";
+  public static final String COMPARTMENTS_CSV = "Compartments.csv";
+
+  // only set while the run is in progress, and the compartments only used by the pipeline's thread
+  private OutputPipeline output;
+  private SequenceWriter compartments;
+  // set once a run that uses the prefix cache has started
+  private PrefixCache.Run cachedRun;
 
   @Autowired
   public Outbreak(
@@ -56,7 +106,15 @@ public class Outbreak {
       LastContactTime lastContactTime,
       OutputFolder outputFolder,
       StatisticsRecorder statisticsRecorder,
-      StatisticsWriter statisticsWriter) {
+      StatisticsWriter statisticsWriter,
+      CompartmentWriter compartmentWriter,
+      EventJournalWriter eventJournal,
+      CompletionEventListGroup eventList,
+      IsolationPolicy isolationPolicy,
+      RandomDataGenerator rng,
+      PrefixCache prefixCache,
+      InputFiles inputFiles,
+      RandomStreams randomStreams) {
 
     this.population = population;
     this.diseaseProperties = diseaseProperties;
@@ -68,33 +126,154 @@ public class Outbreak {
     this.outputFolder = outputFolder.outputFolder();
     this.statisticsRecorder = statisticsRecorder;
     this.statisticsWriter = statisticsWriter;
+    this.compartmentWriter = compartmentWriter;
+    this.eventJournal = eventJournal;
+    this.eventList = eventList;
+    this.isolationPolicy = isolationPolicy;
+    this.rng = rng;
+    this.prefixCache = prefixCache;
+    this.inputFiles = inputFiles;
+    this.randomStreams = randomStreams;
+  }
+
+  public static String checkpointFileName(int time) {
+    return "checkpoint-" + time + ".bin";
   }
 
+  /**
+   * Runs the model to completion. With the prefix cache enabled, the run is resumed from the latest
+   * snapshot of an earlier run with the same inputs, if there is one, and stores snapshots of its
+   * own as it runs.
+   */
   public Map<Integer, CmptRecord> propagate() {
+    if (prefixCache.isEnabled()) {
+      cachedRun = prefixCache.forRun(inputFiles, randomStreams.seed(), this::writeInitialState);
+      Optional<RunState> state = cachedRun.load(timeLimit(), this::readCheckpoint);
+      if (state.isPresent()) {
+        return resume(state.get());
+      }
+    }
     runToCompletion();
     return records;
   }
 
+  /**
+   * Resumes a run from a checkpoint written by an earlier run with the same inputs and seed, at the
+   * time step after the checkpoint was written, and runs it to completion. The outputs are written
+   * from the start of the run, as if it had not been interrupted.
+   */
+  public Map<Integer, CmptRecord> restore(Path checkpoint) {
+    RunState state;
+    try (InputStream in = Files.newInputStream(checkpoint)) {
+      state = readCheckpoint(in);
+    } catch (IOException e) {
+      String message = "An error occurred while reading the checkpoint at " + checkpoint;
+      LOGGER.error(message);
+      throw new CheckpointException(message, e);
+    }
+    LOGGER.info("Restored the run at time step {} from {}", state.time(), checkpoint);
+    return resume(state);
+  }
+
+  /**
+   * Runs the time steps up to and including the given one without writing any output, returning a
+   * checkpoint of the run from which any number of branches can be continued with {@link
+   * #branch(byte[])}.
+   */
+  public byte[] runToBranch(int branchTime) {
+    RunState state =
+        runContactData(0, Math.min(branchTime, timeLimit()), initialRandomInfectionRate());
+    ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+    try {
+      writeCheckpoint(checkpoint, state);
+    } catch (IOException e) {
+      String message = "An error occurred while writing the checkpoint of a branch";
+      LOGGER.error(message);
+      throw new CheckpointException(message, e);
+    }
+    LOGGER.info("Branching the run after time step {}", state.time());
+    return checkpoint.toByteArray();
+  }
+
+  /**
+   * Continues a run from a checkpoint returned by {@link #runToBranch(int)} and runs it to
+   * completion, as {@link #restore(Path)} does. The branch may have different isolation and tracing
+   * policies from the run it was taken from, but the same other inputs and seed.
+   */
+  public Map<Integer, CmptRecord> branch(byte[] checkpoint) {
+    RunState state;
+    try {
+      state = readCheckpoint(new ByteArrayInputStream(checkpoint));
+    } catch (IOException e) {
+      String message = "An error occurred while reading the checkpoint of a branch";
+      LOGGER.error(message);
+      throw new CheckpointException(message, e);
+    }
+    return resume(state);
+  }
+
+  private Map<Integer, CmptRecord> resume(RunState state) {
+    // the contacts are read from the contact data again, rather than from the checkpoint
+    eventList.skipNewContactEvents(state.time());
+
+    // a run that had already stopped is not run any further, but its output is still written
+    int timeLimit = state.isComplete() ? state.time() : timeLimit();
+    runToCompletion(state.time() + 1, timeLimit, state.randomInfectionRate());
+    return records;
+  }
+
   void runToCompletion() {
-    // the latest time to run to
-    int timeLimit = properties.timeLimitDays();
-    double randomInfectionRate =
-        diseaseProperties.randomInfectionRate() / (double) properties.timeStepsPerDay();
+    runToCompletion(0, timeLimit(), initialRandomInfectionRate());
+  }
+
+  // the latest time step to run to
+  private int timeLimit() {
+    return properties.timeLimitDays() * properties.timeStepsPerDay();
+  }
 
-    runContactData(timeLimit * properties.timeStepsPerDay(), randomInfectionRate);
-    printOutput();
+  private double initialRandomInfectionRate() {
+    return diseaseProperties.randomInfectionRate() / (double) properties.timeStepsPerDay();
   }
 
+  private void runToCompletion(int startTime, int timeLimit, double randomInfectionRate) {
+    // each time step's output is written in the background while the run continues
+    try (OutputPipeline pipeline = new OutputPipeline("output-" + outputFolder.getName())) {
+      output = pipeline;
+      // a restored run writes the output of the time steps before the checkpoint again
+      for (int time = 0; time < startTime; time++) {
+        publishOutput(time);
+      }
+      runContactData(startTime, timeLimit, randomInfectionRate);
+      printOutput();
+    } finally {
+      output = null;
+    }
+  }
+
+  // the infection map and statistics are written once the run is complete
   private void printOutput() {
-    try (Writer writer = new FileWriter(new File(outputFolder, INFECTION_MAP))) {
-      new InfectionMap(population.view(), statisticsRecorder, properties).outputMap(writer);
-      eventListWriter.output();
+    output.submit(this::closeCompartments);
+    output.submit(this::writeInfectionMap);
+    output.submit(eventListWriter::output);
+    output.submit(this::writeStatistics);
+    if (eventJournal.isEnabled()) {
+      output.submit(() -> eventJournal.output(statisticsRecorder));
+    }
+  }
+
+  private void writeInfectionMap() {
+    InfectionMapFormat format = properties.infectionMapFormat().orElse(InfectionMapFormat.TEXT);
+    try (Writer writer =
+        new BufferedWriter(new FileWriter(new File(outputFolder, format.fileName())))) {
+      new InfectionMap(population.view(), statisticsRecorder, properties).output(writer, format);
     } catch (IOException e) {
       String message = "An error occurred generating the infection map";
       LOGGER.error(message);
       throw new InfectionMapException(message, e);
     }
+  }
 
+  private void writeStatistics() {
     try (Writer statsWriter = new FileWriter(new File(outputFolder, "stats.txt"));
         Writer rValueWriter = new FileWriter(new File(outputFolder, "rValue.csv"))) {
       statisticsWriter.output(statsWriter, rValueWriter);
@@ -103,18 +282,71 @@ public class Outbreak {
     }
   }
 
+  private void writeCompartments(CmptRecord cmptRecord) {
+    try {
+      if (compartments == null) {
+        compartments =
+            compartmentWriter.open(
+                new BufferedWriter(new FileWriter(new File(outputFolder, COMPARTMENTS_CSV))));
+      }
+      compartments.write(ImmutableCmptRecord.copyOf(cmptRecord));
+    } catch (IOException e) {
+      throw compartmentsFailed();
+    }
+  }
+
+  private void closeCompartments() {
+    try {
+      if (compartments != null) {
+        compartments.close();
+      }
+    } catch (IOException e) {
+      throw compartmentsFailed();
+    } finally {
+      compartments = null;
+    }
+  }
+
+  private CsvException compartmentsFailed() {
+    String message =
+        "An IO error occured when trying to write to "
+            + COMPARTMENTS_CSV
+            + ". Please ensure the file is not locked or open.";
+    LOGGER.fatal(message);
+    return new CsvException(message);
+  }
+
   void runContactData(int timeLimit, double randomInfectionRate) {
-    int lastContact = lastContactTime.get();
+    runContactData(0, timeLimit, randomInfectionRate);
+  }
 
-    if (lastContact > timeLimit) {
+  // where a run stopped: the last time step it ran, the random infection rate after that time
+  // step and whether the run is complete, having stopped early as there was nothing left to run
+  @Value.Immutable
+  interface RunState {
+    @Value.Parameter
+    int time();
+
+    @Value.Parameter
+    double randomInfectionRate();
+
+    @Value.Parameter
+    boolean isComplete();
+  }
+
+  private RunState runContactData(int startTime, int timeLimit, double randomInfectionRate) {
+    if (lastContactTime.isKnown() && lastContactTime.get() > timeLimit) {
       LOGGER.info("timeLimit it lower than time of last contact event");
       LOGGER.info("Not all contact data will be used");
     }
 
-    for (int time = 0; time <= timeLimit; time++) {
+    for (int time = startTime; time <= timeLimit; time++) {
+      // streamed contacts are read as they are reached, so this is only final once all are read
+      int lastContact = lastContactTime.get();
 
       eventRunner.run(time, randomInfectionRate, lastContact);
       updateLogActiveCases(time);
+      publishOutput(time);
 
       // stop random infections after contacts end
       if (activeCases() == 0 && lastContact < time) {
@@ -124,7 +356,141 @@ public class Outbreak {
       if (activeCases() == 0 && randomInfectionRate == 0d) {
         LOGGER.info("There are no active cases and the random infection rate is zero.");
         LOGGER.info("Exiting as solution is stable.");
-        break;
+        return ImmutableRunState.of(time, randomInfectionRate, true);
+      }
+
+      // written once nothing more is done at the time step, so a restored run starts at the next
+      if (properties.checkpointTimeSteps().contains(time)) {
+        writeCheckpoint(ImmutableRunState.of(time, randomInfectionRate, false));
+      }
+      if (cachedRun != null && prefixCache.isSnapshotTime(time)) {
+        RunState state = ImmutableRunState.of(time, randomInfectionRate, false);
+        cachedRun.store(
+            time, population.maxProportionInfectious(), out -> writeCheckpoint(out, state));
+      }
+    }
+    return ImmutableRunState.of(Math.max(timeLimit, startTime - 1), randomInfectionRate, false);
+  }
+
+  private void writeCheckpoint(RunState state) {
+    File checkpoint = new File(outputFolder, checkpointFileName(state.time()));
+    try (OutputStream out = new FileOutputStream(checkpoint)) {
+      writeCheckpoint(out, state);
+    } catch (IOException e) {
+      String message = "An error occurred while writing the checkpoint at " + checkpoint;
+      LOGGER.error(message);
+      throw new CheckpointException(message, e);
+    }
+    LOGGER.info("Wrote a checkpoint of time step {} to {}", state.time(), checkpoint);
+  }
+
+  private void writeCheckpoint(OutputStream checkpoint, RunState state) throws IOException {
+    DataOutputStream out =
+        new DataOutputStream(
+            new BufferedOutputStream(new GZIPOutputStream(checkpoint, 1 << 16), 1 << 16));
+    out.writeInt(CHECKPOINT_MAGIC);
+    out.writeInt(CHECKPOINT_VERSION);
+    out.writeInt(state.time());
+    out.writeDouble(state.randomInfectionRate());
+    out.writeBoolean(state.isComplete());
+    writeRecords(out);
+    for (Checkpointed checkpointed : checkpointedState()) {
+      checkpointed.writeCheckpoint(out);
+    }
+    out.close();
+  }
+
+  private RunState readCheckpoint(InputStream checkpoint) throws IOException {
+    DataInputStream in =
+        new DataInputStream(
+            new BufferedInputStream(new GZIPInputStream(checkpoint, 1 << 16), 1 << 16));
+    if (in.readInt() != CHECKPOINT_MAGIC) {
+      throw new IOException("Not a checkpoint");
+    }
+    int version = in.readInt();
+    if (version != CHECKPOINT_VERSION) {
+      throw new IOException("Unsupported checkpoint version " + version);
+    }
+    RunState state = ImmutableRunState.of(in.readInt(), in.readDouble(), in.readBoolean());
+    readRecords(in);
+    for (Checkpointed checkpointed : checkpointedState()) {
+      checkpointed.readCheckpoint(in);
+    }
+    return state;
+  }
+
+  // the state before the first time step, which with the inputs identifies a run to the cache
+  private void writeInitialState(OutputStream initialState) throws IOException {
+    DataOutputStream out = new DataOutputStream(initialState);
+    out.writeInt(CHECKPOINT_VERSION);
+    for (Checkpointed checkpointed : checkpointedState()) {
+      checkpointed.writeCheckpoint(out);
+    }
+    out.flush();
+  }
+
+  // everything a time step changes, in the order it is written to checkpoints
+  private List<Checkpointed> checkpointedState() {
+    if (!(rng.getRandomGenerator() instanceof RestorableRandomGenerator)) {
+      String message = "The random generator of this run cannot be written to a checkpoint";
+      LOGGER.error(message);
+      throw new CheckpointException(message);
+    }
+    return List.of(
+        population,
+        eventList,
+        isolationPolicy,
+        statisticsRecorder,
+        outputLog,
+        eventJournal,
+        (RestorableRandomGenerator) rng.getRandomGenerator());
+  }
+
+  private void writeRecords(DataOutput out) throws IOException {
+    Map<Integer, CmptRecord> sortedRecords = new TreeMap<>(records);
+    out.writeInt(sortedRecords.size());
+    for (Map.Entry<Integer, CmptRecord> entry : sortedRecords.entrySet()) {
+      CmptRecord cmptRecord = entry.getValue();
+      out.writeInt(entry.getKey());
+      out.writeDouble(cmptRecord.time());
+      out.writeInt(cmptRecord.s());
+      out.writeInt(cmptRecord.e());
+      out.writeInt(cmptRecord.a());
+      out.writeInt(cmptRecord.p());
+      out.writeInt(cmptRecord.sym());
+      out.writeInt(cmptRecord.sev());
+      out.writeInt(cmptRecord.r());
+      out.writeInt(cmptRecord.d());
+    }
+  }
+
+  private void readRecords(DataInput in) throws IOException {
+    records.clear();
+    for (int i = in.readInt(); i > 0; i--) {
+      records.put(
+          in.readInt(),
+          ImmutableCmptRecord.builder()
+              .time(in.readDouble())
+              .s(in.readInt())
+              .e(in.readInt())
+              .a(in.readInt())
+              .p(in.readInt())
+              .sym(in.readInt())
+              .sev(in.readInt())
+              .r(in.readInt())
+              .d(in.readInt())
+              .build());
+    }
+  }
+
+  // the output of a run started without a pipeline is only written when it completes
+  private void publishOutput(int time) {
+    if (output != null) {
+      CmptRecord cmptRecord = records.get(time);
+      output.submit(() -> writeCompartments(cmptRecord));
+      output.submit(eventListWriter.prepareUpTo(time));
+      if (eventJournal.isEnabled()) {
+        output.submit(eventJournal.prepareUpTo(time));
       }
     }
   }
@@ -136,11 +502,6 @@ public class Outbreak {
   }
 
   private int activeCases() {
-    var stats = population.getCmptCounts();
-    return stats.get(EXPOSED)
-        + stats.get(ASYMPTOMATIC)
-        + stats.get(PRESYMPTOMATIC)
-        + stats.get(SYMPTOMATIC)
-        + stats.get(SEVERELY_SYMPTOMATIC);
+    return population.activeCases();
   }
 }
@@ -1,32 +1,42 @@
 package uk.co.ramp;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import uk.co.ramp.io.Checkpointed;
 import uk.co.ramp.people.AlertStatus;
 import uk.co.ramp.people.Case;
+import uk.co.ramp.people.MapPopulationStore;
 import uk.co.ramp.people.PopulationGenerator;
+import uk.co.ramp.people.PopulationStore;
 import uk.co.ramp.people.VirusStatus;
 
 @Service
-public class Population {
-  private final Map<Integer, Case> population;
+public class Population implements Checkpointed {
+  private final PopulationStore population;
   private final Map<Integer, Double> proportionInfectiousMemoized;
 
   @Autowired
   public Population(PopulationGenerator populationGenerator) {
-    this.population = populationGenerator.generate();
-    this.proportionInfectiousMemoized = new HashMap<>();
+    this(populationGenerator.generateStore());
   }
 
   public Population(Map<Integer, Case> population) {
+    this(new MapPopulationStore(population));
+  }
+
+  public Population(PopulationStore population) {
     this.population = population;
-    this.proportionInfectiousMemoized = new HashMap<>();
+    this.proportionInfectiousMemoized = new ConcurrentHashMap<>();
   }
 
   public Case get(int id) {
@@ -34,63 +44,149 @@ public class Population {
   }
 
   public double getHealth(int id) {
-    return population.get(id).health();
+    return population.getHealth(id);
   }
 
   public VirusStatus getVirusStatus(int id) {
-    return population.get(id).virusStatus();
+    return population.getVirusStatus(id);
   }
 
   public boolean hasApp(int id) {
-    return population.get(id).hasApp();
+    return population.hasApp(id);
   }
 
   public void setVirusStatus(int id, VirusStatus virusStatus) {
-    population.get(id).setVirusStatus(virusStatus);
+    population.setVirusStatus(id, virusStatus);
   }
 
   public AlertStatus getAlertStatus(int id) {
-    return population.get(id).alertStatus();
+    return population.getAlertStatus(id);
   }
 
   public void setAlertStatus(int id, AlertStatus alertStatus) {
-    population.get(id).setAlertStatus(alertStatus);
+    population.setAlertStatus(id, alertStatus);
   }
 
   public boolean isInfectious(int id) {
-    return population.get(id).isInfectious();
+    return population.isInfectious(id);
   }
 
   double proportionInfectious() {
-    return population.values().parallelStream().filter(Case::isInfectious).count()
-        / (double) population.size();
+    assert countsMatchFullScan() : "Compartment counts are out of step with the population";
+    return population.compartments().infectiousCount() / (double) population.size();
   }
 
   public double proportionInfectious(int time) {
     return proportionInfectiousMemoized.computeIfAbsent(time, t -> proportionInfectious());
   }
 
+  /** The largest proportion of the population infectious at any time step so far. */
+  public double maxProportionInfectious() {
+    return proportionInfectiousMemoized.values().stream()
+        .mapToDouble(Double::doubleValue)
+        .max()
+        .orElse(0d);
+  }
+
+  public int susceptibleCount() {
+    return population.compartments().count(VirusStatus.SUSCEPTIBLE);
+  }
+
+  /** One of the susceptible people, indexed from zero up to {@link #susceptibleCount()}. */
+  public int susceptibleId(int index) {
+    return population.compartments().susceptibleId(index);
+  }
+
   public Map<Integer, Case> view() {
-    return Collections.unmodifiableMap(population);
+    return population.view();
   }
 
   public Map<VirusStatus, Integer> getCmptCounts() {
+    assert countsMatchFullScan() : "Compartment counts are out of step with the population";
+    return population.compartments().toMap();
+  }
+
+  public int activeCases() {
+    assert countsMatchFullScan() : "Compartment counts are out of step with the population";
+    return population.compartments().activeCount();
+  }
 
+  // Recounts every case, only evaluated when assertions are enabled (e.g. in tests).
+  private boolean countsMatchFullScan() {
     Map<VirusStatus, Integer> stats =
-        population.values().stream()
+        population.view().values().stream()
             .map(Case::virusStatus)
+            .filter(Objects::nonNull)
             .collect(Collectors.groupingBy(Function.identity(), Collectors.summingInt(e -> 1)));
 
     Stream.of(VirusStatus.values()).forEach(vs -> stats.putIfAbsent(vs, 0));
 
-    return stats;
+    return stats.equals(population.compartments().toMap());
   }
 
   public void setExposedBy(int id, int exposedBy) {
-    population.get(id).setExposedBy(exposedBy);
+    population.setExposedBy(id, exposedBy);
   }
 
   public void setExposedTime(int id, int exposedTime) {
-    population.get(id).setExposedTime(exposedTime);
+    population.setExposedTime(id, exposedTime);
+  }
+
+  @Override
+  public void writeCheckpoint(DataOutput out) throws IOException {
+    out.writeInt(population.size());
+    for (int id = 0; id < population.size(); id++) {
+      Case aCase = population.get(id);
+      out.writeByte(aCase.virusStatus().ordinal());
+      out.writeByte(aCase.alertStatus().ordinal());
+      out.writeInt(aCase.exposedBy());
+      out.writeInt(aCase.exposedTime());
+    }
+
+    int susceptibleCount = susceptibleCount();
+    out.writeInt(susceptibleCount);
+    for (int i = 0; i < susceptibleCount; i++) {
+      out.writeInt(susceptibleId(i));
+    }
+
+    Map<Integer, Double> memoized = new TreeMap<>(proportionInfectiousMemoized);
+    out.writeInt(memoized.size());
+    for (Map.Entry<Integer, Double> entry : memoized.entrySet()) {
+      out.writeInt(entry.getKey());
+      out.writeDouble(entry.getValue());
+    }
+  }
+
+  @Override
+  public void readCheckpoint(DataInput in) throws IOException {
+    int size = in.readInt();
+    if (size != population.size()) {
+      throw new IOException(
+          "The checkpoint has a population of " + size + " rather than " + population.size());
+    }
+    VirusStatus[] virusStatuses = VirusStatus.values();
+    AlertStatus[] alertStatuses = AlertStatus.values();
+    for (int id = 0; id < size; id++) {
+      VirusStatus virusStatus = virusStatuses[in.readByte()];
+      AlertStatus alertStatus = alertStatuses[in.readByte()];
+      population.restore(id, virusStatus, alertStatus, in.readInt(), in.readInt());
+    }
+
+    // random infections are drawn by position among the susceptible people, so their order matters
+    int[] susceptibleIds = new int[in.readInt()];
+    for (int i = 0; i < susceptibleIds.length; i++) {
+      susceptibleIds[i] = in.readInt();
+    }
+    try {
+      population.compartments().restoreSusceptibleOrder(susceptibleIds);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("The checkpoint's susceptible people do not match its statuses", e);
+    }
+
+    proportionInfectiousMemoized.clear();
+    int memoized = in.readInt();
+    for (int i = 0; i < memoized; i++) {
+      proportionInfectiousMemoized.put(in.readInt(), in.readDouble());
+    }
   }
 }
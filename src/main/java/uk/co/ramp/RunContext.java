@@ -0,0 +1,187 @@
+package uk.co.ramp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.math3.random.RandomDataGenerator;
+import org.apache.commons.math3.random.Well19937c;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.RandomStreams;
+import uk.co.ramp.distribution.RestorableRandomGenerator;
+import uk.co.ramp.distribution.ThreadBoundRandomGenerator;
+import uk.co.ramp.event.CompletionEventListGroup;
+import uk.co.ramp.event.EventContext;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+import uk.co.ramp.io.ContactReader;
+import uk.co.ramp.io.InitialCaseReader;
+import uk.co.ramp.io.LogDailyOutput;
+import uk.co.ramp.io.types.CmptRecord;
+import uk.co.ramp.io.types.ImmutableOutputFolder;
+import uk.co.ramp.io.types.InputFiles;
+import uk.co.ramp.io.types.OutputFolder;
+import uk.co.ramp.io.types.StandardProperties;
+import uk.co.ramp.people.PopulationGenerator;
+import uk.co.ramp.policy.alert.TracingPolicyContext;
+import uk.co.ramp.policy.alert.TracingPropertiesContext;
+import uk.co.ramp.policy.isolation.IsolationPolicyContext;
+import uk.co.ramp.policy.isolation.IsolationPropertiesContext;
+import uk.co.ramp.statistics.StatisticsRecorder;
+import uk.co.ramp.statistics.StatisticsRecorderContext;
+
+/**
+ * Builds the beans for a single run of the model in a child of an application context. The child
+ * holds everything that a run changes, such as the population, event lists and statistics, along
+ * with its own random generators and output folder. Parsed inputs that are not changed by a run are
+ * taken from the parent, so they are read once however many runs are made.
+ */
+final class RunContext {
+  private static final Logger LOGGER = LogManager.getLogger(RunContext.class);
+
+  // registered by class so their bean names match, and take the place of, those in the parent
+  private static final Class<?>[] RUN_COMPONENTS = {
+    EventContext.class,
+    IsolationPolicyContext.class,
+    TracingPolicyContext.class,
+    StatisticsRecorderContext.class,
+    PopulationGenerator.class,
+    Population.class,
+    InitialCaseReader.class,
+    ContactReader.class,
+    LogDailyOutput.class,
+    Outbreak.class
+  };
+
+  private RunContext() {}
+
+  /**
+   * Runs the model with the given seed over the given contacts, writing its outputs to the given
+   * folder. The contacts are timed by day, as read, and the run spreads them over the time steps of
+   * each day with its own draws, as a single run with the same seed would. Draws from the
+   * distributions of the shared inputs are made from this run's generator, so the run must stay on
+   * the calling thread.
+   */
+  static RunResult run(
+      ApplicationContext parent,
+      long seed,
+      File outputFolder,
+      List<ImmutableContactEvent> contacts) {
+    return run(parent, seed, outputFolder, contacts, null);
+  }
+
+  /**
+   * Runs the model as {@link #run(ApplicationContext, long, File, List)} does, but continued from a
+   * checkpoint taken by {@link #runToBranch(ApplicationContext, long, File, List, int)} with the
+   * same seed, unless the checkpoint is null. The parent may have different policies from the
+   * context the checkpoint was taken in.
+   */
+  static RunResult run(
+      ApplicationContext parent,
+      long seed,
+      File outputFolder,
+      List<ImmutableContactEvent> contacts,
+      byte[] branchCheckpoint) {
+    createOutputFolder(outputFolder);
+    RandomDataGenerator rng = newRandomDataGenerator(seed);
+    ThreadBoundRandomGenerator.bind(rng.getRandomGenerator());
+    try (ConfigurableApplicationContext context = create(parent, rng, seed, outputFolder)) {
+      addContacts(context, contacts);
+      Outbreak outbreak = context.getBean(Outbreak.class);
+      Map<Integer, CmptRecord> records =
+          branchCheckpoint == null ? outbreak.propagate() : outbreak.branch(branchCheckpoint);
+      return ImmutableRunResult.builder()
+          .records(records)
+          .statistics(context.getBean(StatisticsRecorder.class))
+          .build();
+    } finally {
+      ThreadBoundRandomGenerator.unbind();
+    }
+  }
+
+  /**
+   * Runs the model with the given seed up to and including the branch time, without writing any
+   * output, and returns a checkpoint of the run from which runs with other policies are continued.
+   * Only the checkpoint is kept, compressed, rather than the state of the run.
+   */
+  static byte[] runToBranch(
+      ApplicationContext parent,
+      long seed,
+      File outputFolder,
+      List<ImmutableContactEvent> contacts,
+      int branchTime) {
+    createOutputFolder(outputFolder);
+    RandomDataGenerator rng = newRandomDataGenerator(seed);
+    ThreadBoundRandomGenerator.bind(rng.getRandomGenerator());
+    try (ConfigurableApplicationContext context = create(parent, rng, seed, outputFolder)) {
+      addContacts(context, contacts);
+      return context.getBean(Outbreak.class).runToBranch(branchTime);
+    } finally {
+      ThreadBoundRandomGenerator.unbind();
+    }
+  }
+
+  // resampled once the run's beans are created, as a single run does after its context starts
+  private static void addContacts(
+      ApplicationContext context, List<ImmutableContactEvent> contacts) {
+    List<ContactEvent> events = context.getBean(ContactReader.class).resampleEvents(contacts);
+    context.getBean(CompletionEventListGroup.class).addNewContactEvents(events);
+  }
+
+  private static void createOutputFolder(File outputFolder) {
+    try {
+      Files.createDirectories(outputFolder.toPath());
+    } catch (IOException e) {
+      String message = "An error occurred creating output folder at " + outputFolder;
+      LOGGER.error(message);
+      throw new ConfigurationException(message, e);
+    }
+  }
+
+  private static RandomDataGenerator newRandomDataGenerator(long seed) {
+    RandomDataGenerator rng =
+        new RandomDataGenerator(new RestorableRandomGenerator(new Well19937c()));
+    rng.reSeed(seed);
+    return rng;
+  }
+
+  /**
+   * Creates a context for a scenario, which replaces the input file locations and the isolation and
+   * tracing policies read from them. Its runs are created as children of this context.
+   */
+  static ConfigurableApplicationContext createScenario(
+      ApplicationContext parent, InputFiles inputFiles) {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.setParent(parent);
+    context.registerBean("inputFiles", InputFiles.class, () -> inputFiles);
+    context.register(IsolationPropertiesContext.class, TracingPropertiesContext.class);
+    context.refresh();
+    return context;
+  }
+
+  static ConfigurableApplicationContext create(
+      ApplicationContext parent, RandomDataGenerator rng, long seed, File outputFolder) {
+    StandardProperties properties = parent.getBean(StandardProperties.class);
+    RandomStreams randomStreams = new RandomStreams(seed);
+    DistributionSampler distributionSampler =
+        new DistributionSampler(rng, properties.usesRandomStreams() ? randomStreams : null);
+    OutputFolder folder = ImmutableOutputFolder.builder().outputFolder(outputFolder).build();
+
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.setParent(parent);
+    context.registerBean("outputFolder", OutputFolder.class, () -> folder);
+    context.registerBean("randomDataGenerator", RandomDataGenerator.class, () -> rng);
+    context.registerBean("randomStreams", RandomStreams.class, () -> randomStreams);
+    context.registerBean(
+        "distributionSampler", DistributionSampler.class, () -> distributionSampler);
+    context.register(RUN_COMPONENTS);
+    context.refresh();
+    return context;
+  }
+}
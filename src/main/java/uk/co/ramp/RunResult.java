@@ -0,0 +1,14 @@
+package uk.co.ramp;
+
+import java.util.Map;
+import org.immutables.value.Value;
+import uk.co.ramp.io.types.CmptRecord;
+import uk.co.ramp.statistics.StatisticsRecorder;
+
+/** What a single run of the model produced, kept once its context has been closed. */
+@Value.Immutable
+interface RunResult {
+  Map<Integer, CmptRecord> records();
+
+  StatisticsRecorder statistics();
+}
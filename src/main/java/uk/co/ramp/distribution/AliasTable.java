@@ -0,0 +1,62 @@
+package uk.co.ramp.distribution;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Draws indices in proportion to a fixed set of weights using the alias method, so each draw takes
+ * a single uniform value whatever the number of weights.
+ */
+public final class AliasTable {
+  private final double[] probabilities;
+  private final int[] aliases;
+
+  public AliasTable(double[] weights) {
+    Preconditions.checkArgument(weights.length > 0, "There must be at least one weight");
+    int n = weights.length;
+    double total = 0;
+    for (double weight : weights) {
+      Preconditions.checkArgument(weight >= 0, "Weights should not be negative");
+      total += weight;
+    }
+    Preconditions.checkArgument(total > 0, "At least one weight must be positive");
+
+    probabilities = new double[n];
+    aliases = new int[n];
+    double[] scaled = new double[n];
+    Deque<Integer> small = new ArrayDeque<>();
+    Deque<Integer> large = new ArrayDeque<>();
+    for (int i = 0; i < n; i++) {
+      scaled[i] = weights[i] * n / total;
+      (scaled[i] < 1 ? small : large).push(i);
+    }
+
+    while (!small.isEmpty() && !large.isEmpty()) {
+      int less = small.pop();
+      int more = large.pop();
+      probabilities[less] = scaled[less];
+      aliases[less] = more;
+      scaled[more] = scaled[more] + scaled[less] - 1;
+      (scaled[more] < 1 ? small : large).push(more);
+    }
+    // whatever remains is full, up to rounding
+    while (!large.isEmpty()) {
+      probabilities[large.pop()] = 1;
+    }
+    while (!small.isEmpty()) {
+      probabilities[small.pop()] = 1;
+    }
+  }
+
+  public int size() {
+    return probabilities.length;
+  }
+
+  public int sample(RandomGenerator rng) {
+    double u = rng.nextDouble() * probabilities.length;
+    int column = Math.min((int) u, probabilities.length - 1);
+    return u - column < probabilities[column] ? column : aliases[column];
+  }
+}
@@ -1,28 +1,63 @@
 package uk.co.ramp.distribution;
 
 import com.google.common.base.Preconditions;
+import java.util.Optional;
+import org.apache.commons.math3.random.RandomGenerator;
 import org.immutables.value.Value.Check;
 import org.immutables.value.Value.Immutable;
+import org.immutables.value.Value.Lazy;
 import uk.ramp.distribution.Distribution;
+import uk.ramp.distribution.ImmutableDistribution;
 
-@Immutable
+// prehashed as the scaled copies are looked up by their configured distribution
+@Immutable(prehash = true)
 public interface BoundedDistribution {
   Distribution distribution();
 
   double max();
 
+  /** The table the values are drawn from, built on first use, or empty if max is too large. */
+  @Lazy
+  default Optional<TruncatedDistribution> truncatedDistribution() {
+    return TruncatedDistribution.of(this);
+  }
+
   default int getDistributionValue() {
     if (max() == 0) {
       return 0;
     }
 
-    int value = distribution().getSample().intValue();
+    Optional<TruncatedDistribution> truncatedDistribution = truncatedDistribution();
+    if (truncatedDistribution.isPresent()) {
+      return truncatedDistribution.get().sample(distribution().rng());
+    }
+
+    // rejecting values outside the bounds to avoid artificial peaks at 1 and max
+    int value;
+    do {
+      value = distribution().getSample().intValue();
+    } while (value < 1 || value > max());
+
+    return value;
+  }
+
+  /** As {@link #getDistributionValue()}, but drawing from the given generator. */
+  default int getDistributionValue(RandomGenerator rng) {
+    if (max() == 0) {
+      return 0;
+    }
 
-    // recursing to avoid artificial peaks at 1 and max
-    if (value < 1 || value > max()) {
-      value = getDistributionValue();
+    Optional<TruncatedDistribution> truncatedDistribution = truncatedDistribution();
+    if (truncatedDistribution.isPresent()) {
+      return truncatedDistribution.get().sample(rng);
     }
 
+    Distribution distribution = ImmutableDistribution.copyOf(distribution()).withRng(rng);
+    int value;
+    do {
+      value = distribution.getSample().intValue();
+    } while (value < 1 || value > max());
+
     return value;
   }
 
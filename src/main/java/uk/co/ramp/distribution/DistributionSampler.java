@@ -1,13 +1,27 @@
 package uk.co.ramp.distribution;
 
-import org.apache.commons.math3.distribution.EnumeratedIntegerDistribution;
 import org.apache.commons.math3.random.RandomDataGenerator;
+import org.apache.commons.math3.random.RandomGenerator;
+import uk.co.ramp.distribution.RandomStreams.Purpose;
 
+/**
+ * Draws the random numbers used while running the model. The keyed methods take the purpose, person
+ * id and time step of the draw; when random streams are enabled each key gets its own stream, so
+ * the result does not depend on the order in which events are processed. Otherwise they fall back
+ * to the shared generator, in the same order as before.
+ */
 public class DistributionSampler {
   private final RandomDataGenerator rng;
+  private final RandomStreams randomStreams;
 
   public DistributionSampler(RandomDataGenerator rng) {
+    this(rng, null);
+  }
+
+  /** @param randomStreams the streams for keyed draws, or null to use the shared generator */
+  public DistributionSampler(RandomDataGenerator rng, RandomStreams randomStreams) {
     this.rng = rng;
+    this.randomStreams = randomStreams;
   }
 
   public double uniformBetweenZeroAndOne() {
@@ -18,8 +32,42 @@ public class DistributionSampler {
     return rng.nextInt(0, max);
   }
 
-  public int resampleDays(int[] outcomes, double[] timeSpread) {
-    return new EnumeratedIntegerDistribution(rng.getRandomGenerator(), outcomes, timeSpread)
-        .sample();
+  public final double uniformBetweenZeroAndOne(Purpose purpose, int id, int time) {
+    if (randomStreams == null) {
+      return uniformBetweenZeroAndOne();
+    }
+    return randomStreams.stream(purpose, id, time).nextDouble();
+  }
+
+  public final int sample(BoundedDistribution distribution, Purpose purpose, int id, int time) {
+    if (randomStreams == null) {
+      return distribution.getDistributionValue();
+    }
+    return distribution.getDistributionValue(randomStreams.stream(purpose, id, time));
+  }
+
+  public final int sample(AliasTable aliasTable, Purpose purpose, int id, int time) {
+    if (randomStreams == null) {
+      return aliasTable.sample(rng.getRandomGenerator());
+    }
+    return aliasTable.sample(randomStreams.stream(purpose, id, time));
+  }
+
+  /** The generator for a keyed series of draws, which is the shared one without random streams. */
+  public final RandomGenerator generator(Purpose purpose, int id, int time) {
+    if (randomStreams == null) {
+      return rng.getRandomGenerator();
+    }
+    return randomStreams.stream(purpose, id, time);
+  }
+
+  public final void fillUniform(double[] values, Purpose purpose, int id, int time) {
+    if (randomStreams == null) {
+      for (int i = 0; i < values.length; i++) {
+        values[i] = uniformBetweenZeroAndOne();
+      }
+    } else {
+      randomStreams.fillUniform(values, purpose, id, time);
+    }
   }
 }
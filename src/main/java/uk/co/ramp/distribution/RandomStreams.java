@@ -0,0 +1,61 @@
+package uk.co.ramp.distribution;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Independent random number streams derived from the run seed. Each stream is identified by what it
+ * is used for, an id and a time step, so the numbers a piece of work receives do not depend on how
+ * many draws were made before it or on which thread it runs.
+ */
+public class RandomStreams {
+
+  /**
+   * What a stream is used for. The ordinal forms part of the stream key, so new purposes should be
+   * added at the end to leave the streams of existing ones unchanged.
+   */
+  public enum Purpose {
+    CONTACT,
+    ISOLATION,
+    VIRUS_OUTCOME,
+    VIRUS_PROGRESSION,
+    REPORTING,
+    TEST_RESULT,
+    TEST_TIME,
+    RANDOM_INFECTION,
+    CONTACT_TIME,
+    TEST_ADMINISTERED
+  }
+
+  private final long seed;
+
+  public RandomStreams(long seed) {
+    this.seed = seed;
+  }
+
+  public long seed() {
+    return seed;
+  }
+
+  public RandomGenerator stream(Purpose purpose, int id, int time) {
+    return new SplitMixRandomGenerator(key(purpose, id, time));
+  }
+
+  /** Points an existing generator at the start of the given stream, to avoid creating one. */
+  public void reset(SplitMixRandomGenerator rng, Purpose purpose, int id, int time) {
+    rng.setSeed(key(purpose, id, time));
+  }
+
+  /** Fills the array with uniform values in [0, 1) taken from the start of the given stream. */
+  public void fillUniform(double[] values, Purpose purpose, int id, int time) {
+    SplitMixRandomGenerator rng = new SplitMixRandomGenerator(key(purpose, id, time));
+    for (int i = 0; i < values.length; i++) {
+      values[i] = rng.nextDouble();
+    }
+  }
+
+  private long key(Purpose purpose, int id, int time) {
+    long key = SplitMixRandomGenerator.combine(seed, purpose.ordinal());
+    key = SplitMixRandomGenerator.combine(key, id);
+    return SplitMixRandomGenerator.combine(key, time);
+  }
+}
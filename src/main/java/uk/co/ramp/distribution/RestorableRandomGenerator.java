@@ -0,0 +1,101 @@
+package uk.co.ramp.distribution;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import org.apache.commons.math3.random.RandomGenerator;
+import uk.co.ramp.io.Checkpointed;
+
+/**
+ * A generator that draws from a serializable generator whose state is written to checkpoints.
+ * Distributions and samplers keep hold of this generator, so restoring a checkpoint replaces the
+ * generator it draws from rather than the one they hold.
+ */
+public class RestorableRandomGenerator implements RandomGenerator, Checkpointed {
+  private RandomGenerator rng;
+
+  public <T extends RandomGenerator & Serializable> RestorableRandomGenerator(T rng) {
+    this.rng = rng;
+  }
+
+  @Override
+  public void writeCheckpoint(DataOutput out) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+      objects.writeObject(rng);
+    }
+    out.writeInt(bytes.size());
+    out.write(bytes.toByteArray());
+  }
+
+  @Override
+  public void readCheckpoint(DataInput in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      rng = (RandomGenerator) objects.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException("The checkpoint holds an unknown random generator", e);
+    }
+  }
+
+  @Override
+  public void setSeed(int seed) {
+    rng.setSeed(seed);
+  }
+
+  @Override
+  public void setSeed(int[] seed) {
+    rng.setSeed(seed);
+  }
+
+  @Override
+  public void setSeed(long seed) {
+    rng.setSeed(seed);
+  }
+
+  @Override
+  public void nextBytes(byte[] bytes) {
+    rng.nextBytes(bytes);
+  }
+
+  @Override
+  public int nextInt() {
+    return rng.nextInt();
+  }
+
+  @Override
+  public int nextInt(int n) {
+    return rng.nextInt(n);
+  }
+
+  @Override
+  public long nextLong() {
+    return rng.nextLong();
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return rng.nextBoolean();
+  }
+
+  @Override
+  public float nextFloat() {
+    return rng.nextFloat();
+  }
+
+  @Override
+  public double nextDouble() {
+    return rng.nextDouble();
+  }
+
+  @Override
+  public double nextGaussian() {
+    return rng.nextGaussian();
+  }
+}
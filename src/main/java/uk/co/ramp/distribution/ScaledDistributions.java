@@ -0,0 +1,51 @@
+package uk.co.ramp.distribution;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import uk.ramp.distribution.Distribution;
+import uk.ramp.distribution.ImmutableDistribution;
+
+/**
+ * Configured distributions, which are in days, scaled to time steps. Each is scaled the first time
+ * it is sampled and the copy reused, so that its sampling table is only built once per run.
+ */
+public class ScaledDistributions {
+  private final int timeStepsPerDay;
+  private final Map<BoundedDistribution, BoundedDistribution> scaledDistributions =
+      new ConcurrentHashMap<>();
+
+  public ScaledDistributions(int timeStepsPerDay) {
+    this.timeStepsPerDay = timeStepsPerDay;
+  }
+
+  public BoundedDistribution scaleWithTimeSteps(BoundedDistribution distribution) {
+    BoundedDistribution scaled = scaledDistributions.get(distribution);
+    if (scaled == null) {
+      scaled =
+          scaledDistributions.computeIfAbsent(
+              distribution, d -> scaleWithTimeSteps(d, timeStepsPerDay));
+    }
+    return scaled;
+  }
+
+  public static BoundedDistribution scaleWithTimeSteps(
+      BoundedDistribution distribution, int timeSteps) {
+
+    double scale =
+        distribution.distribution().internalScale().orElse(distribution.max()) * timeSteps;
+
+    Distribution internalDistribution =
+        ImmutableDistribution.builder()
+            .from(distribution.distribution())
+            .internalScale(scale)
+            .rng(distribution.distribution().rng())
+            .internalType(distribution.distribution().internalType())
+            .build();
+
+    return ImmutableBoundedDistribution.builder()
+        .from(distribution)
+        .max(distribution.max() * timeSteps)
+        .distribution(internalDistribution)
+        .build();
+  }
+}
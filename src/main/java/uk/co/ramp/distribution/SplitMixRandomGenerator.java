@@ -0,0 +1,55 @@
+package uk.co.ramp.distribution;
+
+import org.apache.commons.math3.random.AbstractRandomGenerator;
+
+/**
+ * A small, fast generator based on SplitMix64. Its whole state is one long, so a fresh generator
+ * can be created cheaply for each independent stream of random numbers.
+ */
+public class SplitMixRandomGenerator extends AbstractRandomGenerator {
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private long state;
+
+  public SplitMixRandomGenerator(long seed) {
+    this.state = seed;
+  }
+
+  static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /** Derives a new seed from an existing one and a key, distinct keys giving distinct seeds. */
+  static long combine(long seed, long key) {
+    return mix64(seed + GOLDEN_GAMMA * (key + 1));
+  }
+
+  @Override
+  public void setSeed(long seed) {
+    clear();
+    this.state = seed;
+  }
+
+  @Override
+  public long nextLong() {
+    state += GOLDEN_GAMMA;
+    return mix64(state);
+  }
+
+  @Override
+  public int nextInt() {
+    return (int) (nextLong() >>> 32);
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return nextLong() < 0;
+  }
+
+  @Override
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  }
+}
@@ -0,0 +1,87 @@
+package uk.co.ramp.distribution;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * A generator that draws from the generator bound to the current thread, or from its fallback when
+ * none is bound. Inputs that are parsed once and shared between runs hold one of these, so that
+ * each run draws from its own generator while it samples their distributions.
+ */
+public class ThreadBoundRandomGenerator implements RandomGenerator {
+  private static final ThreadLocal<RandomGenerator> BOUND = new ThreadLocal<>();
+
+  private final RandomGenerator fallback;
+
+  public ThreadBoundRandomGenerator(RandomGenerator fallback) {
+    this.fallback = fallback;
+  }
+
+  /** Sends draws made on the current thread to the given generator, until {@link #unbind()}. */
+  public static void bind(RandomGenerator rng) {
+    BOUND.set(rng);
+  }
+
+  public static void unbind() {
+    BOUND.remove();
+  }
+
+  private RandomGenerator current() {
+    RandomGenerator rng = BOUND.get();
+    return rng == null ? fallback : rng;
+  }
+
+  @Override
+  public void setSeed(int seed) {
+    current().setSeed(seed);
+  }
+
+  @Override
+  public void setSeed(int[] seed) {
+    current().setSeed(seed);
+  }
+
+  @Override
+  public void setSeed(long seed) {
+    current().setSeed(seed);
+  }
+
+  @Override
+  public void nextBytes(byte[] bytes) {
+    current().nextBytes(bytes);
+  }
+
+  @Override
+  public int nextInt() {
+    return current().nextInt();
+  }
+
+  @Override
+  public int nextInt(int n) {
+    return current().nextInt(n);
+  }
+
+  @Override
+  public long nextLong() {
+    return current().nextLong();
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return current().nextBoolean();
+  }
+
+  @Override
+  public float nextFloat() {
+    return current().nextFloat();
+  }
+
+  @Override
+  public double nextDouble() {
+    return current().nextDouble();
+  }
+
+  @Override
+  public double nextGaussian() {
+    return current().nextGaussian();
+  }
+}
@@ -0,0 +1,71 @@
+package uk.co.ramp.distribution;
+
+import java.util.Optional;
+import org.apache.commons.math3.distribution.RealDistribution;
+import org.apache.commons.math3.random.RandomGenerator;
+import uk.ramp.distribution.Distribution.DistributionType;
+
+/**
+ * The whole number values between 1 and the max of a bounded distribution, drawn by inverting a
+ * table of their cumulative probabilities. A sample truncated to an int takes the value k when it
+ * lies in [k, k + 1), so this draws the same values, with the same probabilities, as rejecting
+ * samples outside the bounds, but with a single uniform draw however tight the bounds are.
+ */
+public final class TruncatedDistribution {
+  // larger bounds fall back to rejection sampling rather than building a large table
+  static final int MAX_TABULATED_VALUE = 10_000;
+
+  private final double[] cumulativeProbabilities;
+
+  private TruncatedDistribution(double[] cumulativeProbabilities) {
+    this.cumulativeProbabilities = cumulativeProbabilities;
+  }
+
+  /**
+   * Tabulates the distribution, or returns empty when its max is too large to tabulate or it is
+   * categorical. A categorical sample is a whole number drawn within one of its bins, which its
+   * cumulative probabilities are not relied on to describe, so it is left to rejection sampling.
+   */
+  static Optional<TruncatedDistribution> of(BoundedDistribution distribution) {
+    if (distribution.max() < 1
+        || distribution.max() > MAX_TABULATED_VALUE
+        || distribution.distribution().internalType() == DistributionType.categorical) {
+      return Optional.empty();
+    }
+
+    RealDistribution underlying = distribution.distribution().underlyingDistribution();
+    int maxValue = (int) distribution.max();
+    double[] cumulativeProbabilities = new double[maxValue];
+    // P(X < k), taking the probability at k itself to belong to the value k
+    double below = underlying.cumulativeProbability(Math.nextDown(1d));
+    double total = 0;
+    for (int value = 1; value <= maxValue; value++) {
+      double belowNext = underlying.cumulativeProbability(Math.nextDown(value + 1d));
+      total += Math.max(0, belowNext - below);
+      cumulativeProbabilities[value - 1] = total;
+      below = belowNext;
+    }
+
+    if (!(total > 0)) {
+      throw new IllegalStateException(
+          "The distribution has no probability between 1 and its max of " + distribution.max());
+    }
+    return Optional.of(new TruncatedDistribution(cumulativeProbabilities));
+  }
+
+  public int sample(RandomGenerator rng) {
+    double u = rng.nextDouble() * cumulativeProbabilities[cumulativeProbabilities.length - 1];
+    // the first value whose cumulative probability exceeds u
+    int low = 0;
+    int high = cumulativeProbabilities.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (cumulativeProbabilities[mid] > u) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low + 1;
+  }
+}
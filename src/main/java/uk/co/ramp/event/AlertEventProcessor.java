@@ -8,42 +8,42 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.co.ramp.Population;
 import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.RandomStreams.Purpose;
+import uk.co.ramp.distribution.ScaledDistributions;
 import uk.co.ramp.event.types.*;
 import uk.co.ramp.io.types.DiseaseProperties;
-import uk.co.ramp.io.types.PopulationProperties;
 import uk.co.ramp.io.types.StandardProperties;
 import uk.co.ramp.people.AlertStatus;
 import uk.co.ramp.statistics.StatisticsRecorder;
 
-public class AlertEventProcessor implements EventProcessor<AlertEvent> {
+public class AlertEventProcessor implements SinkEventProcessor<AlertEvent> {
   private static final Logger LOGGER = LogManager.getLogger(AlertEventProcessor.class);
 
   private final Population population;
   private final DiseaseProperties diseaseProperties;
   private final DistributionSampler distributionSampler;
   private final StandardProperties properties;
+  private final ScaledDistributions scaledDistributions;
   private final StatisticsRecorder statisticsRecorder;
-  private final PopulationProperties populationProperties;
 
   public AlertEventProcessor(
       Population population,
       StandardProperties properties,
       DiseaseProperties diseaseProperties,
       DistributionSampler distributionSampler,
-      StatisticsRecorder statisticsRecorder,
-      PopulationProperties populationProperties) {
+      StatisticsRecorder statisticsRecorder) {
     this.population = population;
     this.diseaseProperties = diseaseProperties;
     this.distributionSampler = distributionSampler;
     this.properties = properties;
+    this.scaledDistributions = new ScaledDistributions(properties.timeStepsPerDay());
     this.statisticsRecorder = statisticsRecorder;
-    this.populationProperties = populationProperties;
   }
 
   @Override
-  public ProcessedEventResult processEvent(AlertEvent event) {
+  public void processEvent(AlertEvent event, EventSink sink) {
     if (population.getAlertStatus(event.id()) != event.oldStatus()) {
-      return ImmutableProcessedEventResult.builder().build();
+      return;
     }
 
     population.setAlertStatus(event.id(), event.nextStatus());
@@ -53,7 +53,8 @@ public class AlertEventProcessor implements EventProcessor<AlertEvent> {
         proposedStatus.map(ps -> event.nextStatus().transitionTo(ps));
 
     if (nextStatus.isEmpty()) {
-      return ImmutableProcessedEventResult.builder().addNewCompletedAlertEvents(event).build();
+      sink.addNewCompletedAlertEvent(event);
+      return;
     }
 
     if (nextStatus.get() != event.nextStatus()) {
@@ -67,12 +68,9 @@ public class AlertEventProcessor implements EventProcessor<AlertEvent> {
               .time(event.time() + deltaTime)
               .build();
 
-      return ImmutableProcessedEventResult.builder()
-          .addNewAlertEvents(subsequentEvent)
-          .addNewCompletedAlertEvents(event)
-          .build();
+      sink.addNewAlertEvent(subsequentEvent);
+      sink.addNewCompletedAlertEvent(event);
     }
-    return ImmutableProcessedEventResult.builder().build();
   }
 
   private Optional<AlertStatus> determineNextAlertStatus(AlertEvent event) {
@@ -83,7 +81,7 @@ public class AlertEventProcessor implements EventProcessor<AlertEvent> {
 
     switch (event.nextStatus()) {
       case AWAITING_RESULT:
-        return determineTestResult(population.isInfectious(event.id()));
+        return determineTestResult(population.isInfectious(event.id()), event.id(), event.time());
       case NONE:
         return Optional.of(NONE);
       default:
@@ -92,9 +90,10 @@ public class AlertEventProcessor implements EventProcessor<AlertEvent> {
     }
   }
 
-  Optional<AlertStatus> determineTestResult(boolean isInfectious) {
+  Optional<AlertStatus> determineTestResult(boolean isInfectious, int id, int time) {
 
-    double testEffectiveness = distributionSampler.uniformBetweenZeroAndOne();
+    double testEffectiveness =
+        distributionSampler.uniformBetweenZeroAndOne(Purpose.TEST_RESULT, id, time);
 
     if (isInfectious) {
       if (testEffectiveness < diseaseProperties.testPositiveAccuracy()) {
@@ -121,17 +120,15 @@ public class AlertEventProcessor implements EventProcessor<AlertEvent> {
     switch (newStatus) {
       case TESTED_POSITIVE:
       case TESTED_NEGATIVE:
-        int conducted = statisticsRecorder.getTestsConducted(time);
-        int capacity =
-            (int) Math.ceil(properties.populationSize() * populationProperties.testCapacity());
-        boolean testsAvailable = conducted < capacity;
-        if (testsAvailable) {
-          statisticsRecorder.recordTestConducted(time);
+        int testTime = statisticsRecorder.reserveTest(time);
+        if (testTime == time) {
           timeStepsInStatus = properties.timeStepsPerDay();
         } else {
-          int testTime = findNextTest(time, capacity);
           statisticsRecorder.recordTestDelayed(time, event.id());
-          timeStepsInStatus = testTime;
+          timeStepsInStatus =
+              testTime >= 0
+                  ? testTime - time
+                  : properties.timeLimitDays() * properties.timeStepsPerDay() - time;
         }
         break;
       case ALERTED:
@@ -139,15 +136,19 @@ public class AlertEventProcessor implements EventProcessor<AlertEvent> {
         break;
       case AWAITING_RESULT:
         timeStepsInStatus =
-            EventProcessor.scaleWithTimeSteps(
-                    diseaseProperties.timeTestResult(), properties.timeStepsPerDay())
-                .getDistributionValue();
+            distributionSampler.sample(
+                scaledDistributions.scaleWithTimeSteps(diseaseProperties.timeTestResult()),
+                Purpose.TEST_TIME,
+                event.id(),
+                time);
         break;
       case REQUESTED_TEST:
         timeStepsInStatus =
-            EventProcessor.scaleWithTimeSteps(
-                    diseaseProperties.timeTestAdministered(), properties.timeStepsPerDay())
-                .getDistributionValue();
+            distributionSampler.sample(
+                scaledDistributions.scaleWithTimeSteps(diseaseProperties.timeTestAdministered()),
+                Purpose.TEST_ADMINISTERED,
+                event.id(),
+                time);
         break;
       case NONE:
         break;
@@ -157,17 +158,4 @@ public class AlertEventProcessor implements EventProcessor<AlertEvent> {
 
     return timeStepsInStatus;
   }
-
-  private int findNextTest(int timeNow, int capacity) {
-
-    for (int testTime = timeNow;
-        testTime < properties.timeLimitDays() * properties.timeStepsPerDay();
-        testTime++) {
-      if (statisticsRecorder.getTestsConducted(testTime) < capacity) {
-        statisticsRecorder.recordTestConducted(testTime);
-        return testTime - timeNow;
-      }
-    }
-    return properties.timeLimitDays() * properties.timeStepsPerDay() - timeNow;
-  }
 }
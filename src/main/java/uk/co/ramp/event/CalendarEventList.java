@@ -0,0 +1,124 @@
+package uk.co.ramp.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.co.ramp.event.types.Event;
+
+/**
+ * A calendar queue of events: an array of buckets indexed directly by time step. The array is sized
+ * for the whole run up front and doubles if an event is scheduled beyond it. Lookups by time need
+ * no hashing or boxing, the latest event time is tracked as events are added, and buckets for time
+ * steps that have been processed can be released.
+ *
+ * <p>Events before time zero are never run, so they only contribute to {@link #lastEventTime()}.
+ */
+public class CalendarEventList<T extends Event> implements EventList<T> {
+  private static final Logger LOGGER = LogManager.getLogger(CalendarEventList.class);
+
+  private List<T>[] buckets;
+  private int lastEventTime;
+  private boolean isEmpty = true;
+  private int released;
+  private int size;
+
+  public CalendarEventList(int initialCapacity) {
+    this.buckets = newBuckets(Math.max(initialCapacity, 1));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<T>[] newBuckets(int capacity) {
+    return (List<T>[]) new List[capacity];
+  }
+
+  // create
+  @Override
+  public void addEvent(T e) {
+    int time = e.time();
+    if (isEmpty || time > lastEventTime) {
+      lastEventTime = time;
+      isEmpty = false;
+    }
+
+    if (time < 0) {
+      LOGGER.debug("Ignoring event before the start of the run at time {}", time);
+      return;
+    }
+
+    if (time >= buckets.length) {
+      buckets = Arrays.copyOf(buckets, Math.max(time + 1, buckets.length * 2));
+    }
+    if (time < released) {
+      released = time;
+    }
+    if (buckets[time] == null) {
+      buckets[time] = new ArrayList<>();
+    }
+    buckets[time].add(e);
+    size++;
+  }
+
+  // read
+  @Override
+  public List<T> getForTime(int time) {
+    if (time < 0 || time >= buckets.length || buckets[time] == null) {
+      return List.of();
+    }
+    return Collections.unmodifiableList(buckets[time]);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return isEmpty;
+  }
+
+  @Override
+  public int lastEventTime() {
+    if (isEmpty) {
+      throw new NoSuchElementException("No events have been added");
+    }
+    return lastEventTime;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public List<T> getEventsInPeriod(int startTime, int endTime, Predicate<T> filter) {
+    List<T> events = new ArrayList<>();
+    int end = Math.min(endTime, buckets.length - 1);
+    for (int time = Math.max(startTime, 0); time <= end; time++) {
+      List<T> bucket = buckets[time];
+      if (bucket != null) {
+        for (T event : bucket) {
+          if (filter.test(event)) {
+            events.add(event);
+          }
+        }
+      }
+    }
+    return Collections.unmodifiableList(events);
+  }
+
+  // delete
+  @Override
+  public void releaseUpTo(int time) {
+    int end = Math.min(time + 1, buckets.length);
+    if (end > released) {
+      for (int t = released; t < end; t++) {
+        if (buckets[t] != null) {
+          size -= buckets[t].size();
+        }
+      }
+      Arrays.fill(buckets, released, end, null);
+      released = end;
+    }
+  }
+}
@@ -8,6 +8,8 @@ import org.apache.logging.log4j.Logger;
 import uk.co.ramp.Population;
 import uk.co.ramp.distribution.BoundedDistribution;
 import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.RandomStreams.Purpose;
+import uk.co.ramp.distribution.ScaledDistributions;
 import uk.co.ramp.event.types.CommonVirusEvent;
 import uk.co.ramp.event.types.Event;
 import uk.co.ramp.event.types.EventProcessor;
@@ -19,7 +21,7 @@ public abstract class CommonVirusEventProcessor<T extends Event> implements Even
   private static final Logger LOGGER = LogManager.getLogger(CommonVirusEventProcessor.class);
 
   private final Population population;
-  private final StandardProperties properties;
+  private final ScaledDistributions scaledDistributions;
   private final DiseaseProperties diseaseProperties;
   private final DistributionSampler distributionSampler;
 
@@ -31,7 +33,7 @@ public abstract class CommonVirusEventProcessor<T extends Event> implements Even
     this.population = population;
     this.diseaseProperties = diseaseProperties;
     this.distributionSampler = distributionSampler;
-    this.properties = properties;
+    this.scaledDistributions = new ScaledDistributions(properties.timeStepsPerDay());
   }
 
   VirusStatus determineNextStatus(CommonVirusEvent event) {
@@ -54,45 +56,35 @@ public abstract class CommonVirusEventProcessor<T extends Event> implements Even
     }
   }
 
-  int timeInCompartment(VirusStatus currentStatus, VirusStatus newStatus) {
+  int timeInCompartment(VirusStatus currentStatus, VirusStatus newStatus, int id, int time) {
 
     BoundedDistribution progressionData;
     switch (currentStatus) {
       case EXPOSED:
-        progressionData =
-            EventProcessor.scaleWithTimeSteps(
-                diseaseProperties.timeLatent(), properties.timeStepsPerDay());
+        progressionData = scaledDistributions.scaleWithTimeSteps(diseaseProperties.timeLatent());
         break;
       case PRESYMPTOMATIC:
         progressionData =
-            EventProcessor.scaleWithTimeSteps(
-                diseaseProperties.timeSymptomsOnset(), properties.timeStepsPerDay());
+            scaledDistributions.scaleWithTimeSteps(diseaseProperties.timeSymptomsOnset());
         break;
       case ASYMPTOMATIC:
         progressionData =
-            EventProcessor.scaleWithTimeSteps(
-                diseaseProperties.timeRecoveryAsymp(), properties.timeStepsPerDay());
+            scaledDistributions.scaleWithTimeSteps(diseaseProperties.timeRecoveryAsymp());
         break;
       case SYMPTOMATIC:
         if (newStatus == SEVERELY_SYMPTOMATIC) {
-          progressionData =
-              EventProcessor.scaleWithTimeSteps(
-                  diseaseProperties.timeDecline(), properties.timeStepsPerDay());
+          progressionData = scaledDistributions.scaleWithTimeSteps(diseaseProperties.timeDecline());
         } else {
           progressionData =
-              EventProcessor.scaleWithTimeSteps(
-                  diseaseProperties.timeRecoverySymp(), properties.timeStepsPerDay());
+              scaledDistributions.scaleWithTimeSteps(diseaseProperties.timeRecoverySymp());
         }
         break;
       case SEVERELY_SYMPTOMATIC:
         if (newStatus == RECOVERED) {
           progressionData =
-              EventProcessor.scaleWithTimeSteps(
-                  diseaseProperties.timeRecoverySev(), properties.timeStepsPerDay());
+              scaledDistributions.scaleWithTimeSteps(diseaseProperties.timeRecoverySev());
         } else {
-          progressionData =
-              EventProcessor.scaleWithTimeSteps(
-                  diseaseProperties.timeDeath(), properties.timeStepsPerDay());
+          progressionData = scaledDistributions.scaleWithTimeSteps(diseaseProperties.timeDeath());
         }
         break;
       default:
@@ -101,14 +93,18 @@ public abstract class CommonVirusEventProcessor<T extends Event> implements Even
         throw new EventException(message);
     }
 
-    return progressionData.getDistributionValue();
+    return distributionSampler.sample(progressionData, Purpose.VIRUS_PROGRESSION, id, time);
   }
 
   VirusStatus determineInfection(CommonVirusEvent e) {
     // TODO add real logic
     double health = population.getHealth(e.id());
     VirusStatus proposedVirusStatus =
-        health > distributionSampler.uniformBetweenZeroAndOne() ? ASYMPTOMATIC : PRESYMPTOMATIC;
+        health
+                > distributionSampler.uniformBetweenZeroAndOne(
+                    Purpose.VIRUS_OUTCOME, e.id(), e.time())
+            ? ASYMPTOMATIC
+            : PRESYMPTOMATIC;
     return e.nextStatus().transitionTo(proposedVirusStatus);
   }
 
@@ -116,7 +112,11 @@ public abstract class CommonVirusEventProcessor<T extends Event> implements Even
     // TODO add real logic
     double health = population.getHealth(e.id());
     VirusStatus proposedVirusStatus =
-        health > distributionSampler.uniformBetweenZeroAndOne() ? RECOVERED : SEVERELY_SYMPTOMATIC;
+        health
+                > distributionSampler.uniformBetweenZeroAndOne(
+                    Purpose.VIRUS_OUTCOME, e.id(), e.time())
+            ? RECOVERED
+            : SEVERELY_SYMPTOMATIC;
     return e.nextStatus().transitionTo(proposedVirusStatus);
   }
 
@@ -124,7 +124,11 @@ public abstract class CommonVirusEventProcessor<T extends Event> implements Even
     // TODO add real logic
     double health = population.getHealth(e.id());
     VirusStatus proposedVirusStatus =
-        health > distributionSampler.uniformBetweenZeroAndOne() ? RECOVERED : DEAD;
+        health
+                > distributionSampler.uniformBetweenZeroAndOne(
+                    Purpose.VIRUS_OUTCOME, e.id(), e.time())
+            ? RECOVERED
+            : DEAD;
     return e.nextStatus().transitionTo(proposedVirusStatus);
   }
 }
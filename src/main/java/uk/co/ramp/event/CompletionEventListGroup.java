@@ -1,14 +1,38 @@
 package uk.co.ramp.event;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import uk.co.ramp.event.types.AlertEvent;
+import uk.co.ramp.event.types.CommonVirusEvent;
 import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.ContactSource;
+import uk.co.ramp.event.types.Event;
+import uk.co.ramp.event.types.ImmutableAlertEvent;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+import uk.co.ramp.event.types.ImmutableInfectionEvent;
+import uk.co.ramp.event.types.ImmutableVirusEvent;
 import uk.co.ramp.event.types.InfectionEvent;
 import uk.co.ramp.event.types.VirusEvent;
+import uk.co.ramp.io.Checkpointed;
+import uk.co.ramp.people.AlertStatus;
+import uk.co.ramp.people.VirusStatus;
+
+/**
+ * The events waiting to be processed and those already processed. The new contact events are input
+ * to the run rather than state, so they are not written to checkpoints but read again on restore.
+ */
+public class CompletionEventListGroup implements Checkpointed {
+  private static final AlertStatus[] ALERT_STATUSES = AlertStatus.values();
+  private static final VirusStatus[] VIRUS_STATUSES = VirusStatus.values();
 
-public class CompletionEventListGroup {
   private final EventListGroup newEvents;
   private final EventListGroup completedEvents;
+  private final ContactIndex completedContactIndex = new ContactIndex();
+  private ContactSource contactSource;
 
   CompletionEventListGroup(EventListGroup newEvents, EventListGroup completedEvents) {
     this.newEvents = newEvents;
@@ -19,6 +43,11 @@ public class CompletionEventListGroup {
     newEvents.addContactEvents(events);
   }
 
+  /** Reads new contact events from the source as they are needed, instead of all up front. */
+  public void setContactSource(ContactSource contactSource) {
+    this.contactSource = contactSource;
+  }
+
   void addNewInfectionEvents(List<InfectionEvent> events) {
     newEvents.addInfectionEvents(events);
   }
@@ -32,11 +61,24 @@ public class CompletionEventListGroup {
   }
 
   List<ContactEvent> getNewContactEvents(int time) {
+    if (contactSource != null) {
+      newEvents.addContactEvents(contactSource.readUpTo(time));
+    }
     return newEvents.getContactEvents(time);
   }
 
+  void releaseNewContactEvents(int time) {
+    newEvents.releaseContactEvents(time);
+  }
+
+  /** Discards the new contact events up to the given time, as a restored run has processed them. */
+  public void skipNewContactEvents(int time) {
+    getNewContactEvents(time);
+    releaseNewContactEvents(time);
+  }
+
   public List<ContactEvent> getCompletedContactEventsInPeriod(int start, int end, int id) {
-    return completedEvents.getContactEventsInPeriod(start, end, id);
+    return completedContactIndex.getEventsInPeriod(start, end, id);
   }
 
   List<AlertEvent> getNewAlertEvents(int time) {
@@ -53,6 +95,7 @@ public class CompletionEventListGroup {
 
   void addCompletedContactEvents(List<ContactEvent> events) {
     completedEvents.addContactEvents(events);
+    completedContactIndex.addEvents(events);
   }
 
   void addCompletedInfectionEvents(List<InfectionEvent> events) {
@@ -83,10 +126,27 @@ public class CompletionEventListGroup {
     return completedEvents.getVirusEvents(time);
   }
 
+  /** The number of events of every type still to be processed. */
+  public int newEventCount() {
+    return newEvents.size();
+  }
+
+  public int completedEventCount() {
+    return completedEvents.size();
+  }
+
   public int lastContactTime() {
+    if (!isLastContactTimeKnown()) {
+      return Integer.MAX_VALUE;
+    }
     return newEvents.lastContactTime();
   }
 
+  /** False while there are contacts still to be read, which may be later than any read so far. */
+  public boolean isLastContactTimeKnown() {
+    return contactSource == null || contactSource.isExhausted();
+  }
+
   public int lastInfectionTime() {
     return newEvents.lastInfectionTime();
   }
@@ -98,4 +158,128 @@ public class CompletionEventListGroup {
   public int lastVirusTime() {
     return newEvents.lastVirusTime();
   }
+
+  @Override
+  public void writeCheckpoint(DataOutput out) throws IOException {
+    writeEvents(out, newEvents.alertEvents(), CompletionEventListGroup::writeAlertEvent);
+    writeEvents(out, newEvents.infectionEvents(), CompletionEventListGroup::writeInfectionEvent);
+    writeEvents(out, newEvents.virusEvents(), CompletionEventListGroup::writeVirusEvent);
+    writeEvents(out, completedEvents.alertEvents(), CompletionEventListGroup::writeAlertEvent);
+    writeEvents(
+        out, completedEvents.infectionEvents(), CompletionEventListGroup::writeInfectionEvent);
+    writeEvents(out, completedEvents.virusEvents(), CompletionEventListGroup::writeVirusEvent);
+    writeEvents(out, completedEvents.contactEvents(), CompletionEventListGroup::writeContactEvent);
+  }
+
+  /** Adds the events written to the checkpoint, so should be called before any others are added. */
+  @Override
+  public void readCheckpoint(DataInput in) throws IOException {
+    readEvents(in, CompletionEventListGroup::readAlertEvent, this::addNewAlertEvents);
+    readEvents(in, CompletionEventListGroup::readInfectionEvent, this::addNewInfectionEvents);
+    readEvents(in, CompletionEventListGroup::readVirusEvent, this::addNewVirusEvents);
+    readEvents(in, CompletionEventListGroup::readAlertEvent, this::addCompletedAlertEvents);
+    readEvents(in, CompletionEventListGroup::readInfectionEvent, this::addCompletedInfectionEvents);
+    readEvents(in, CompletionEventListGroup::readVirusEvent, this::addCompletedVirusEvents);
+    // added as the run added them, so that the contact index is rebuilt in the same order
+    readEvents(in, CompletionEventListGroup::readContactEvent, this::addCompletedContactEvents);
+  }
+
+  // the events of each time step from zero in the order they were added, preceded by their count
+  private static <T extends Event> void writeEvents(
+      DataOutput out, EventList<T> events, EventWriter<T> writer) throws IOException {
+    int timeSteps = events.isEmpty() ? 0 : Math.max(events.lastEventTime() + 1, 0);
+    out.writeInt(timeSteps);
+    for (int time = 0; time < timeSteps; time++) {
+      List<T> eventsAtTime = events.getForTime(time);
+      out.writeInt(eventsAtTime.size());
+      for (T event : eventsAtTime) {
+        writer.write(out, event);
+      }
+    }
+  }
+
+  private static <T extends Event> void readEvents(
+      DataInput in, EventReader<T> reader, Consumer<List<T>> adder) throws IOException {
+    int timeSteps = in.readInt();
+    for (int time = 0; time < timeSteps; time++) {
+      int count = in.readInt();
+      List<T> events = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        events.add(reader.read(in, time));
+      }
+      adder.accept(events);
+    }
+  }
+
+  private static void writeAlertEvent(DataOutput out, AlertEvent event) throws IOException {
+    out.writeInt(event.id());
+    out.writeByte(event.oldStatus().ordinal());
+    out.writeByte(event.nextStatus().ordinal());
+  }
+
+  private static AlertEvent readAlertEvent(DataInput in, int time) throws IOException {
+    return ImmutableAlertEvent.builder()
+        .time(time)
+        .id(in.readInt())
+        .oldStatus(ALERT_STATUSES[in.readByte()])
+        .nextStatus(ALERT_STATUSES[in.readByte()])
+        .build();
+  }
+
+  private static void writeVirusEvent(DataOutput out, CommonVirusEvent event) throws IOException {
+    out.writeInt(event.id());
+    out.writeByte(event.oldStatus().ordinal());
+    out.writeByte(event.nextStatus().ordinal());
+  }
+
+  private static VirusEvent readVirusEvent(DataInput in, int time) throws IOException {
+    return ImmutableVirusEvent.builder()
+        .time(time)
+        .id(in.readInt())
+        .oldStatus(VIRUS_STATUSES[in.readByte()])
+        .nextStatus(VIRUS_STATUSES[in.readByte()])
+        .build();
+  }
+
+  private static void writeInfectionEvent(DataOutput out, InfectionEvent event) throws IOException {
+    writeVirusEvent(out, event);
+    out.writeInt(event.exposedBy());
+    out.writeInt(event.exposedTime());
+  }
+
+  private static InfectionEvent readInfectionEvent(DataInput in, int time) throws IOException {
+    return ImmutableInfectionEvent.builder()
+        .time(time)
+        .id(in.readInt())
+        .oldStatus(VIRUS_STATUSES[in.readByte()])
+        .nextStatus(VIRUS_STATUSES[in.readByte()])
+        .exposedBy(in.readInt())
+        .exposedTime(in.readInt())
+        .build();
+  }
+
+  private static void writeContactEvent(DataOutput out, ContactEvent event) throws IOException {
+    out.writeInt(event.from());
+    out.writeInt(event.to());
+    out.writeDouble(event.weight());
+    out.writeUTF(event.label());
+  }
+
+  private static ContactEvent readContactEvent(DataInput in, int time) throws IOException {
+    return ImmutableContactEvent.builder()
+        .time(time)
+        .from(in.readInt())
+        .to(in.readInt())
+        .weight(in.readDouble())
+        .label(in.readUTF())
+        .build();
+  }
+
+  private interface EventWriter<T extends Event> {
+    void write(DataOutput out, T event) throws IOException;
+  }
+
+  private interface EventReader<T extends Event> {
+    T read(DataInput in, int time) throws IOException;
+  }
 }
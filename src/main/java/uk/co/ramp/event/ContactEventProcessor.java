@@ -4,6 +4,7 @@ import static uk.co.ramp.people.VirusStatus.EXPOSED;
 import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
 
 import java.util.Optional;
+import java.util.function.DoubleSupplier;
 import org.apache.commons.math3.util.FastMath;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -15,14 +16,14 @@ import uk.co.ramp.io.types.DiseaseProperties;
 import uk.co.ramp.people.Case;
 import uk.co.ramp.policy.isolation.IsolationPolicy;
 
-public class ContactEventProcessor implements EventProcessor<ContactEvent> {
+public class ContactEventProcessor implements SinkEventProcessor<ContactEvent> {
   private static final Logger LOGGER = LogManager.getLogger(ContactEventProcessor.class);
 
   private final Population population;
   private final DiseaseProperties diseaseProperties;
-  private final DistributionSampler distributionSampler;
   private final IsolationPolicy isolationPolicy;
   private final InfectionRates infectionRates;
+  private final DoubleSupplier sharedUniform;
 
   public ContactEventProcessor(
       Population population,
@@ -32,23 +33,24 @@ public class ContactEventProcessor implements EventProcessor<ContactEvent> {
       InfectionRates infectionRates) {
     this.population = population;
     this.diseaseProperties = diseaseProperties;
-    this.distributionSampler = distributionSampler;
     this.isolationPolicy = isolationPolicy;
     this.infectionRates = infectionRates;
+    this.sharedUniform = distributionSampler::uniformBetweenZeroAndOne;
   }
 
   @Override
-  public ProcessedEventResult processEvent(ContactEvent event) {
+  public void processEvent(ContactEvent event, EventSink sink) {
+    processEvent(event, sharedUniform, sink);
+  }
+
+  /** Processes the event drawing from the given uniform values rather than the shared sampler. */
+  void processEvent(ContactEvent event, DoubleSupplier uniform, EventSink sink) {
     Optional<InfectionEvent> newEvent =
-        evaluateContact(event, proportionOfPopulationInfectious(event.time()));
-    return newEvent
-        .map(
-            e ->
-                ImmutableProcessedEventResult.builder()
-                    .addNewInfectionEvents(e)
-                    .addNewCompletedContactEvents(event)
-                    .build())
-        .orElseGet(() -> ImmutableProcessedEventResult.builder().build());
+        evaluateContact(event, proportionOfPopulationInfectious(event.time()), uniform);
+    if (newEvent.isPresent()) {
+      sink.addNewInfectionEvent(newEvent.get());
+      sink.addNewCompletedContactEvent(event);
+    }
   }
 
   private double proportionOfPopulationInfectious(int time) {
@@ -62,14 +64,17 @@ public class ContactEventProcessor implements EventProcessor<ContactEvent> {
   }
 
   Optional<InfectionEvent> evaluateContact(ContactEvent contacts, double proportionInfectious) {
+    return evaluateContact(contacts, proportionInfectious, sharedUniform);
+  }
+
+  private Optional<InfectionEvent> evaluateContact(
+      ContactEvent contacts, double proportionInfectious, DoubleSupplier uniform) {
     int time = contacts.time();
 
-    Case potentialSpreader =
-        getMostSevere(population.get(contacts.to()), population.get(contacts.from()));
-    Case victim =
-        potentialSpreader == population.get(contacts.to())
-            ? population.get(contacts.from())
-            : population.get(contacts.to());
+    Case caseTo = population.get(contacts.to());
+    Case caseFrom = population.get(contacts.from());
+    Case potentialSpreader = getMostSevere(caseTo, caseFrom);
+    Case victim = potentialSpreader == caseTo ? caseFrom : caseTo;
 
     boolean shouldIsolateContact =
         isContactIsolated(contacts, potentialSpreader, victim, proportionInfectious, time);
@@ -80,7 +85,7 @@ public class ContactEventProcessor implements EventProcessor<ContactEvent> {
     }
 
     if (potentialSpreader.virusStatus() != victim.virusStatus()) {
-      return evaluateExposures(potentialSpreader, victim, contacts.weight(), time);
+      return evaluateExposures(potentialSpreader, victim, contacts.weight(), time, uniform);
     }
 
     return Optional.empty();
@@ -116,6 +121,11 @@ public class ContactEventProcessor implements EventProcessor<ContactEvent> {
    * @return
    */
   Optional<InfectionEvent> evaluateExposures(Case personA, Case personB, double weight, int time) {
+    return evaluateExposures(personA, personB, weight, time, sharedUniform);
+  }
+
+  private Optional<InfectionEvent> evaluateExposures(
+      Case personA, Case personB, double weight, int time, DoubleSupplier uniform) {
 
     boolean dangerMix = personA.isInfectious() && personB.virusStatus() == SUSCEPTIBLE;
 
@@ -126,7 +136,7 @@ public class ContactEventProcessor implements EventProcessor<ContactEvent> {
         infectionRates.getInfectionRate(personA.virusStatus())
             / (1. + 1. / (expBias * FastMath.pow(weight, diseaseProperties.exposureExponent())));
 
-    if (dangerMix && distributionSampler.uniformBetweenZeroAndOne() < exposureProb) {
+    if (dangerMix && uniform.getAsDouble() < exposureProb) {
       LOGGER.debug("       DANGER MIX");
 
       InfectionEvent infectionEvent =
@@ -0,0 +1,65 @@
+package uk.co.ramp.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import uk.co.ramp.event.types.ContactEvent;
+
+/**
+ * Contact events grouped by each person involved and kept in time order, so that finding the
+ * contacts of one person within a period is a binary search plus a scan of just their contacts.
+ */
+class ContactIndex {
+  private final Map<Integer, List<ContactEvent>> contactsByPerson = new HashMap<>();
+
+  void addEvents(List<ContactEvent> events) {
+    events.forEach(this::addEvent);
+  }
+
+  void addEvent(ContactEvent event) {
+    addForPerson(event.from(), event);
+    if (event.to() != event.from()) {
+      addForPerson(event.to(), event);
+    }
+  }
+
+  private void addForPerson(int id, ContactEvent event) {
+    List<ContactEvent> contacts = contactsByPerson.computeIfAbsent(id, k -> new ArrayList<>());
+    // events almost always arrive in time order, so this is normally an append
+    if (contacts.isEmpty() || contacts.get(contacts.size() - 1).time() <= event.time()) {
+      contacts.add(event);
+    } else {
+      contacts.add(firstIndexAfter(contacts, event.time()), event);
+    }
+  }
+
+  List<ContactEvent> getEventsInPeriod(int startTime, int endTime, int id) {
+    List<ContactEvent> contacts = contactsByPerson.getOrDefault(id, List.of());
+    List<ContactEvent> result = new ArrayList<>();
+    for (int i = firstIndexAfter(contacts, startTime - 1); i < contacts.size(); i++) {
+      ContactEvent event = contacts.get(i);
+      if (event.time() > endTime) {
+        break;
+      }
+      result.add(event);
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  // index of the first event with a time strictly greater than the given time
+  private static int firstIndexAfter(List<ContactEvent> contacts, int time) {
+    int low = 0;
+    int high = contacts.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (contacts.get(mid).time() <= time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -5,12 +5,12 @@ import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.context.annotation.Bean;
 import uk.co.ramp.Population;
 import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.RandomStreams;
 import uk.co.ramp.event.types.*;
 import uk.co.ramp.io.InfectionRates;
 import uk.co.ramp.io.InitialCaseReader;
 import uk.co.ramp.io.types.DiseaseProperties;
 import uk.co.ramp.io.types.OutputFolder;
-import uk.co.ramp.io.types.PopulationProperties;
 import uk.co.ramp.io.types.StandardProperties;
 import uk.co.ramp.policy.alert.AlertChecker;
 import uk.co.ramp.policy.isolation.IsolationPolicy;
@@ -20,15 +20,15 @@ import uk.co.ramp.statistics.StatisticsRecorder;
 public class EventContext {
 
   @Bean
-  public CompletionEventListGroup eventList() {
-    EventList<AlertEvent> alertEventList = new EventList<>();
-    EventList<ContactEvent> contactEventList = new EventList<>();
-    EventList<InfectionEvent> infectionEventList = new EventList<>();
-    EventList<VirusEvent> virusEventList = new EventList<>();
-    EventList<AlertEvent> completedAlertEventList = new EventList<>();
-    EventList<ContactEvent> completedContactEventList = new EventList<>();
-    EventList<InfectionEvent> completedInfectionEventList = new EventList<>();
-    EventList<VirusEvent> completedVirusEventList = new EventList<>();
+  public CompletionEventListGroup eventList(StandardProperties properties) {
+    EventList<AlertEvent> alertEventList = newEventList(properties);
+    EventList<ContactEvent> contactEventList = newEventList(properties);
+    EventList<InfectionEvent> infectionEventList = newEventList(properties);
+    EventList<VirusEvent> virusEventList = newEventList(properties);
+    EventList<AlertEvent> completedAlertEventList = newEventList(properties);
+    EventList<ContactEvent> completedContactEventList = newEventList(properties);
+    EventList<InfectionEvent> completedInfectionEventList = newEventList(properties);
+    EventList<VirusEvent> completedVirusEventList = newEventList(properties);
     EventListGroup newEventListGroup =
         new EventListGroup(alertEventList, contactEventList, infectionEventList, virusEventList);
     EventListGroup completedEventListGroup =
@@ -40,6 +40,16 @@ public class EventContext {
     return new CompletionEventListGroup(newEventListGroup, completedEventListGroup);
   }
 
+  private <T extends Event> EventList<T> newEventList(StandardProperties properties) {
+    switch (properties.eventListType().orElse(EventListType.MAP)) {
+      case CALENDAR:
+        return new CalendarEventList<>(properties.timeLimitDays() * properties.timeStepsPerDay());
+      case MAP:
+      default:
+        return new MapEventList<>();
+    }
+  }
+
   @Bean
   public EventRunner eventRunner(
       Population population,
@@ -52,16 +62,13 @@ public class EventContext {
       CompletionEventListGroup eventList,
       StatisticsRecorder statisticsRecorder,
       InfectionRates infectionRates,
-      PopulationProperties populationProperties,
-      RandomDataGenerator rng) {
+      RandomDataGenerator rng,
+      RandomStreams randomStreams,
+      EventJournalWriter eventJournal,
+      RunMetrics runMetrics) {
     AlertEventProcessor alertEventProcessor =
         new AlertEventProcessor(
-            population,
-            properties,
-            diseaseProperties,
-            distributionSampler,
-            statisticsRecorder,
-            populationProperties);
+            population, properties, diseaseProperties, distributionSampler, statisticsRecorder);
     VirusEventProcessor virusEventProcessor =
         new VirusEventProcessor(
             population, properties, diseaseProperties, distributionSampler, alertChecker);
@@ -77,22 +84,38 @@ public class EventContext {
     EventProcessorRunner<AlertEvent> alertEventRunner =
         new EventProcessorRunner<>(alertEventProcessor, processedEventsGrouper);
     EventProcessorRunner<ContactEvent> contactEventRunner =
-        new EventProcessorRunner<>(contactEventProcessor, processedEventsGrouper);
+        properties.usesRandomStreams()
+            ? new ParallelContactEventRunner(
+                contactEventProcessor,
+                processedEventsGrouper,
+                randomStreams,
+                properties.contactProcessingThreads().orElse(1))
+            : new EventProcessorRunner<>(contactEventProcessor, processedEventsGrouper);
     EventProcessorRunner<InfectionEvent> infectionEventRunner =
         new EventProcessorRunner<>(infectionEventProcessor, processedEventsGrouper);
     EventProcessorRunner<VirusEvent> virusEventRunner =
         new EventProcessorRunner<>(virusEventProcessor, processedEventsGrouper);
 
     InfectionCreator infectionCreator =
-        new InfectionCreator(population, distributionSampler, initialCaseReader);
-    return new EventRunnerImpl(
-        alertEventRunner,
-        contactEventRunner,
-        infectionEventRunner,
-        virusEventRunner,
-        processedEventsGrouper,
-        infectionCreator,
-        eventList);
+        new InfectionCreator(
+            population,
+            distributionSampler,
+            initialCaseReader,
+            properties.sparseRandomInfections().orElse(false));
+    EventRunnerImpl eventRunner =
+        new EventRunnerImpl(
+            alertEventRunner,
+            contactEventRunner,
+            infectionEventRunner,
+            virusEventRunner,
+            infectionCreator,
+            eventList);
+    // the processed events are noted even without a journal, as the run may be resumed with one
+    eventRunner.setEventJournal(eventJournal);
+    if (runMetrics.isEnabled()) {
+      eventRunner.setMetrics(runMetrics);
+    }
+    return eventRunner;
   }
 
   @Bean
@@ -105,6 +128,25 @@ public class EventContext {
         formattedEventFactory, eventList, properties, outputFolder.outputFolder());
   }
 
+  @Bean
+  public EventJournalWriter eventJournalWriter(
+      CompletionEventListGroup eventList,
+      OutputFolder outputFolder,
+      StandardProperties properties) {
+    return new EventJournalWriter(eventList, properties, outputFolder.outputFolder());
+  }
+
+  @Bean
+  public RunMetrics runMetrics(
+      CompletionEventListGroup eventList,
+      IsolationPolicy isolationPolicy,
+      StatisticsRecorder statisticsRecorder,
+      OutputFolder outputFolder,
+      StandardProperties properties) {
+    return new RunMetrics(
+        eventList, isolationPolicy, statisticsRecorder, properties, outputFolder.outputFolder());
+  }
+
   @Bean
   public LastContactTime lastContactTime(CompletionEventListGroup eventList) {
     return new LastContactTime(eventList);
@@ -5,4 +5,8 @@ public class EventException extends RuntimeException {
   public EventException(String message) {
     super(message);
   }
+
+  public EventException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
@@ -0,0 +1,247 @@
+package uk.co.ramp.event;
+
+import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.zip.GZIPInputStream;
+import uk.co.ramp.Population;
+import uk.co.ramp.event.types.AlertEvent;
+import uk.co.ramp.event.types.ImmutableAlertEvent;
+import uk.co.ramp.event.types.ImmutableInfectionEvent;
+import uk.co.ramp.event.types.ImmutableVirusEvent;
+import uk.co.ramp.event.types.InfectionEvent;
+import uk.co.ramp.event.types.VirusEvent;
+import uk.co.ramp.io.types.StandardProperties;
+import uk.co.ramp.people.AlertStatus;
+import uk.co.ramp.people.VirusStatus;
+import uk.co.ramp.statistics.StatisticsRecorder;
+
+/**
+ * A run's events and statistics, written by the {@link EventJournalWriter} so that the outputs can
+ * be written again without rerunning the model. The journal may be GZIP compressed, which is
+ * detected when it is opened.
+ *
+ * <p>The file is laid out as:
+ *
+ * <ul>
+ *   <li>a header of a magic number, the format version and the run settings as UTF-8 JSON
+ *   <li>the new alert, infection and virus events of each time step in time order, in the order
+ *       they were added, each flagged as to whether the run processed it
+ *   <li>the statistics recorded by the run
+ *   <li>an end record giving the number of records before it
+ * </ul>
+ *
+ * <p>Every record is {@value #RECORD_SIZE} bytes: the kind of record, its flags, the old and next
+ * status of an event, then the time, id and two values whose meaning depends on the kind, the
+ * infector and exposure time for an infection event and the count for most statistics.
+ */
+public class EventJournal implements Closeable {
+  static final int MAGIC = 0x524a4e4c;
+  static final int VERSION = 1;
+  static final int RECORD_SIZE = 20;
+
+  static final byte ALERT = 1;
+  static final byte INFECTION = 2;
+  static final byte VIRUS = 3;
+  static final byte ISOLATION = 4;
+  static final byte INFECTED = 5;
+  static final byte TRACED = 6;
+  static final byte TEST_CONDUCTED = 7;
+  static final byte TEST_DELAYED = 8;
+  static final byte TEST_RESULT = 9;
+  static final byte END = 10;
+
+  static final int PROCESSED = 1;
+  static final int CORRECT = 1;
+
+  private static final VirusStatus[] VIRUS_STATUSES = VirusStatus.values();
+  private static final AlertStatus[] ALERT_STATUSES = AlertStatus.values();
+
+  private final DataInputStream in;
+  private final StandardProperties properties;
+
+  private EventJournal(DataInputStream in) throws IOException {
+    this.in = in;
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not an event journal");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported event journal version " + version);
+    }
+    byte[] json = new byte[in.readInt()];
+    in.readFully(json);
+
+    GsonBuilder gsonBuilder = new GsonBuilder();
+    ServiceLoader.load(TypeAdapterFactory.class).forEach(gsonBuilder::registerTypeAdapterFactory);
+    this.properties =
+        gsonBuilder
+            .create()
+            .fromJson(new String(json, StandardCharsets.UTF_8), StandardProperties.class);
+  }
+
+  public static EventJournal open(Path path) throws IOException {
+    InputStream file = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+    try {
+      file.mark(2);
+      boolean compressed = file.read() == 0x1f && file.read() == 0x8b;
+      file.reset();
+      if (compressed) {
+        file = new BufferedInputStream(new GZIPInputStream(file, 1 << 16), 1 << 16);
+      }
+      return new EventJournal(new DataInputStream(file));
+    } catch (IOException e) {
+      file.close();
+      throw e;
+    }
+  }
+
+  /** The settings of the run that wrote the journal. */
+  public StandardProperties properties() {
+    return properties;
+  }
+
+  /**
+   * Applies the processed events to the population and the statistics to the recorder, as the run
+   * did, and returns a writer of the events the run wrote to events.csv. The population should be
+   * as it was at the start of the run.
+   */
+  public EventListWriter replay(
+      Population population, StatisticsRecorder statisticsRecorder, File outputFolder)
+      throws IOException {
+    CompletionEventListGroup eventList =
+        new CompletionEventListGroup(newEventListGroup(), newEventListGroup());
+    List<AlertEvent> alertEvents = new ArrayList<>();
+    List<InfectionEvent> infectionEvents = new ArrayList<>();
+    List<VirusEvent> virusEvents = new ArrayList<>();
+
+    byte[] bytes = new byte[RECORD_SIZE];
+    ByteBuffer record = ByteBuffer.wrap(bytes);
+    long recordCount = 0;
+    while (true) {
+      try {
+        in.readFully(bytes);
+      } catch (EOFException e) {
+        throw new IOException("The event journal is incomplete", e);
+      }
+      byte kind = bytes[0];
+      boolean flagged = bytes[1] != 0;
+      int time = record.getInt(4);
+      int id = record.getInt(8);
+      int value = record.getInt(12);
+
+      switch (kind) {
+        case ALERT:
+          AlertEvent alertEvent =
+              ImmutableAlertEvent.builder()
+                  .time(time)
+                  .id(id)
+                  .oldStatus(ALERT_STATUSES[bytes[2]])
+                  .nextStatus(ALERT_STATUSES[bytes[3]])
+                  .build();
+          alertEvents.add(alertEvent);
+          // the alert event processor ignores events for people whose status has since changed
+          if (flagged && population.getAlertStatus(id) == alertEvent.oldStatus()) {
+            population.setAlertStatus(id, alertEvent.nextStatus());
+          }
+          break;
+        case INFECTION:
+          InfectionEvent infectionEvent =
+              ImmutableInfectionEvent.builder()
+                  .time(time)
+                  .id(id)
+                  .oldStatus(VIRUS_STATUSES[bytes[2]])
+                  .nextStatus(VIRUS_STATUSES[bytes[3]])
+                  .exposedBy(value)
+                  .exposedTime(record.getInt(16))
+                  .build();
+          infectionEvents.add(infectionEvent);
+          // as does the infection event processor for people already infected
+          if (flagged && population.getVirusStatus(id) == SUSCEPTIBLE) {
+            population.setVirusStatus(id, infectionEvent.nextStatus());
+            population.setExposedBy(id, infectionEvent.exposedBy());
+            population.setExposedTime(id, infectionEvent.exposedTime());
+          }
+          break;
+        case VIRUS:
+          VirusEvent virusEvent =
+              ImmutableVirusEvent.builder()
+                  .time(time)
+                  .id(id)
+                  .oldStatus(VIRUS_STATUSES[bytes[2]])
+                  .nextStatus(VIRUS_STATUSES[bytes[3]])
+                  .build();
+          virusEvents.add(virusEvent);
+          if (flagged) {
+            population.setVirusStatus(id, virusEvent.nextStatus());
+          }
+          break;
+        case ISOLATION:
+          statisticsRecorder.recordDaysInIsolation(id, value);
+          break;
+        case INFECTED:
+          for (int i = 0; i < value; i++) {
+            statisticsRecorder.recordSinglePersonInfected(time);
+          }
+          break;
+        case TRACED:
+          statisticsRecorder.recordContactsTraced(time, value);
+          break;
+        case TEST_CONDUCTED:
+          for (int i = 0; i < value; i++) {
+            statisticsRecorder.recordTestConducted(time);
+          }
+          break;
+        case TEST_DELAYED:
+          statisticsRecorder.recordTestDelayed(time, id);
+          break;
+        case TEST_RESULT:
+          for (int i = 0; i < value; i++) {
+            if (flagged) {
+              statisticsRecorder.recordCorrectTestResult(ALERT_STATUSES[bytes[3]]);
+            } else {
+              statisticsRecorder.recordIncorrectTestResult(ALERT_STATUSES[bytes[3]]);
+            }
+          }
+          break;
+        case END:
+          if (value != (int) recordCount) {
+            throw new IOException("The event journal is incomplete");
+          }
+          eventList.addNewAlertEvents(alertEvents);
+          eventList.addNewInfectionEvents(infectionEvents);
+          eventList.addNewVirusEvents(virusEvents);
+          return new EventListWriter(
+              new FormattedEventFactory(), eventList, properties, outputFolder);
+        default:
+          throw new IOException("Unknown event journal record " + kind);
+      }
+      recordCount++;
+    }
+  }
+
+  private static EventListGroup newEventListGroup() {
+    return new EventListGroup(
+        new MapEventList<>(), new MapEventList<>(), new MapEventList<>(), new MapEventList<>());
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
@@ -0,0 +1,16 @@
+package uk.co.ramp.event;
+
+public enum EventJournalFormat {
+  BINARY("events.journal"),
+  GZIP("events.journal.gz");
+
+  private final String fileName;
+
+  EventJournalFormat(String fileName) {
+    this.fileName = fileName;
+  }
+
+  public String fileName() {
+    return fileName;
+  }
+}
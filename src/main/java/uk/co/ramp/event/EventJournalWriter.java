@@ -0,0 +1,303 @@
+package uk.co.ramp.event;
+
+import static uk.co.ramp.event.EventJournal.*;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.co.ramp.event.types.AlertEvent;
+import uk.co.ramp.event.types.CommonVirusEvent;
+import uk.co.ramp.event.types.InfectionEvent;
+import uk.co.ramp.event.types.VirusEvent;
+import uk.co.ramp.io.Checkpointed;
+import uk.co.ramp.io.types.StandardProperties;
+import uk.co.ramp.people.AlertStatus;
+import uk.co.ramp.statistics.StatisticsRecorder;
+
+/**
+ * Writes the run's alert, infection and virus events to an {@link EventJournal} as the run
+ * completes each time step, followed by the statistics once the run is complete. Like the {@link
+ * EventListWriter}, the writes it prepares may be run on another thread, but one at a time and in
+ * the order they were prepared.
+ *
+ * <p>A run restored from a checkpoint writes its journal again from the start, so the counts of
+ * processed events are kept for the whole run. They are kept even when the journal is not written,
+ * so a run with a journal may be restored from a checkpoint or prefix cache snapshot of one
+ * without.
+ */
+public class EventJournalWriter implements Checkpointed {
+  private static final Logger LOGGER = LogManager.getLogger(EventJournalWriter.class);
+
+  private final CompletionEventListGroup eventList;
+  private final StandardProperties properties;
+  private final File outputFolder;
+  private final Map<Integer, int[]> processedCounts = new HashMap<>();
+  private final byte[] record = new byte[RECORD_SIZE];
+
+  private DataOutputStream out;
+  private int nextTime = 0;
+  private long recordCount = 0;
+
+  EventJournalWriter(
+      CompletionEventListGroup eventList, StandardProperties properties, File outputFolder) {
+    this.eventList = eventList;
+    this.properties = properties;
+    this.outputFolder = outputFolder;
+  }
+
+  public boolean isEnabled() {
+    return properties.eventJournal().isPresent();
+  }
+
+  /**
+   * Notes how many of the new events at the time step have been processed. Events added at the same
+   * time step once it has been processed are kept, but never processed.
+   */
+  void markProcessed(int time) {
+    processedCounts.put(
+        time,
+        new int[] {
+          eventList.getNewAlertEvents(time).size(),
+          eventList.getNewInfectionEvents(time).size(),
+          eventList.getNewVirusEvents(time).size()
+        });
+  }
+
+  /**
+   * Takes the events at each time step up to the given time that are not yet written, returning a
+   * write of them that may be run on another thread, in order with the writer's other writes.
+   */
+  public Runnable prepareUpTo(int time) {
+    List<TimeStep> timeSteps = new ArrayList<>();
+    for (; nextTime <= time; nextTime++) {
+      int[] processed = processedCounts.getOrDefault(nextTime, new int[3]);
+      timeSteps.add(
+          new TimeStep(
+              eventList.getNewAlertEvents(nextTime),
+              eventList.getNewInfectionEvents(nextTime),
+              eventList.getNewVirusEvents(nextTime),
+              processed));
+    }
+
+    return () -> {
+      try {
+        if (out == null) {
+          open();
+        }
+        for (TimeStep timeStep : timeSteps) {
+          timeStep.write();
+        }
+      } catch (IOException e) {
+        throw writeFailed(e);
+      }
+    };
+  }
+
+  /**
+   * Writes the remaining events, including any scheduled after the end of the run, and the
+   * statistics recorded by the run, then closes the journal.
+   */
+  public void output(StatisticsRecorder statisticsRecorder) {
+    try {
+      int lastTime =
+          Math.max(
+              eventList.lastAlertTime(),
+              Math.max(eventList.lastInfectionTime(), eventList.lastVirusTime()));
+      prepareUpTo(lastTime).run();
+      writeStatistics(statisticsRecorder);
+      writeRecord(END, 0, 0, 0, 0, 0, (int) recordCount, 0);
+      out.close();
+      LOGGER.info("Wrote {} journal records", recordCount);
+    } catch (IOException e) {
+      throw writeFailed(e);
+    } finally {
+      out = null;
+    }
+  }
+
+  @Override
+  public void writeCheckpoint(DataOutput checkpoint) throws IOException {
+    Map<Integer, int[]> sortedCounts = new TreeMap<>(processedCounts);
+    checkpoint.writeInt(sortedCounts.size());
+    for (Map.Entry<Integer, int[]> entry : sortedCounts.entrySet()) {
+      checkpoint.writeInt(entry.getKey());
+      for (int count : entry.getValue()) {
+        checkpoint.writeInt(count);
+      }
+    }
+  }
+
+  @Override
+  public void readCheckpoint(DataInput in) throws IOException {
+    processedCounts.clear();
+    for (int i = in.readInt(); i > 0; i--) {
+      processedCounts.put(in.readInt(), new int[] {in.readInt(), in.readInt(), in.readInt()});
+    }
+  }
+
+  private void open() throws IOException {
+    EventJournalFormat format = properties.eventJournal().orElse(EventJournalFormat.BINARY);
+    OutputStream file = new FileOutputStream(new File(outputFolder, format.fileName()));
+    if (format == EventJournalFormat.GZIP) {
+      file = new GZIPOutputStream(file, 1 << 16);
+    }
+    out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+
+    GsonBuilder gsonBuilder = new GsonBuilder();
+    ServiceLoader.load(TypeAdapterFactory.class).forEach(gsonBuilder::registerTypeAdapterFactory);
+    byte[] json =
+        gsonBuilder
+            .create()
+            .toJson(properties, StandardProperties.class)
+            .getBytes(StandardCharsets.UTF_8);
+
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(json.length);
+    out.write(json);
+  }
+
+  private void writeStatistics(StatisticsRecorder statisticsRecorder) throws IOException {
+    for (Map.Entry<Integer, Integer> entry :
+        statisticsRecorder.getPersonDaysIsolation().entrySet()) {
+      writeRecord(ISOLATION, 0, 0, 0, 0, entry.getKey(), entry.getValue(), 0);
+    }
+    writeCounts(INFECTED, statisticsRecorder.getPeopleInfected());
+    writeCounts(TRACED, statisticsRecorder.getContactsTraced());
+    writeCounts(TEST_CONDUCTED, statisticsRecorder.getTestsConducted());
+    for (Map.Entry<Integer, List<Integer>> entry :
+        statisticsRecorder.getDelayedTests().entrySet()) {
+      for (int id : entry.getValue()) {
+        writeRecord(TEST_DELAYED, 0, 0, 0, entry.getKey(), id, 0, 0);
+      }
+    }
+    writeTestResults(CORRECT, AlertStatus.TESTED_POSITIVE, statisticsRecorder.getTruePositives());
+    writeTestResults(CORRECT, AlertStatus.TESTED_NEGATIVE, statisticsRecorder.getTrueNegatives());
+    writeTestResults(0, AlertStatus.TESTED_POSITIVE, statisticsRecorder.getFalsePositives());
+    writeTestResults(0, AlertStatus.TESTED_NEGATIVE, statisticsRecorder.getFalseNegatives());
+  }
+
+  private void writeCounts(byte kind, Map<Integer, Integer> countsByTime) throws IOException {
+    for (Map.Entry<Integer, Integer> entry : countsByTime.entrySet()) {
+      writeRecord(kind, 0, 0, 0, entry.getKey(), 0, entry.getValue(), 0);
+    }
+  }
+
+  private void writeTestResults(int flags, AlertStatus result, int count) throws IOException {
+    if (count > 0) {
+      writeRecord(TEST_RESULT, flags, 0, result.ordinal(), 0, 0, count, 0);
+    }
+  }
+
+  private void writeAlertEvents(List<AlertEvent> events, int processed) throws IOException {
+    for (int i = 0; i < events.size(); i++) {
+      AlertEvent event = events.get(i);
+      writeRecord(
+          ALERT,
+          i < processed ? PROCESSED : 0,
+          event.oldStatus().ordinal(),
+          event.nextStatus().ordinal(),
+          event.time(),
+          event.id(),
+          0,
+          0);
+    }
+  }
+
+  private void writeInfectionEvents(List<InfectionEvent> events, int processed) throws IOException {
+    for (int i = 0; i < events.size(); i++) {
+      InfectionEvent event = events.get(i);
+      writeVirusRecord(INFECTION, i < processed, event, event.exposedBy(), event.exposedTime());
+    }
+  }
+
+  private void writeVirusEvents(List<VirusEvent> events, int processed) throws IOException {
+    for (int i = 0; i < events.size(); i++) {
+      writeVirusRecord(VIRUS, i < processed, events.get(i), 0, 0);
+    }
+  }
+
+  private void writeVirusRecord(
+      byte kind, boolean processed, CommonVirusEvent event, int exposedBy, int exposedTime)
+      throws IOException {
+    writeRecord(
+        kind,
+        processed ? PROCESSED : 0,
+        event.oldStatus().ordinal(),
+        event.nextStatus().ordinal(),
+        event.time(),
+        event.id(),
+        exposedBy,
+        exposedTime);
+  }
+
+  private void writeRecord(
+      byte kind, int flags, int oldStatus, int nextStatus, int time, int id, int value, int extra)
+      throws IOException {
+    record[0] = kind;
+    record[1] = (byte) flags;
+    record[2] = (byte) oldStatus;
+    record[3] = (byte) nextStatus;
+    putInt(4, time);
+    putInt(8, id);
+    putInt(12, value);
+    putInt(16, extra);
+    out.write(record);
+    recordCount++;
+  }
+
+  private void putInt(int offset, int value) {
+    record[offset] = (byte) (value >>> 24);
+    record[offset + 1] = (byte) (value >>> 16);
+    record[offset + 2] = (byte) (value >>> 8);
+    record[offset + 3] = (byte) value;
+  }
+
+  private EventException writeFailed(IOException e) {
+    String message = "An error occurred while writing the event journal";
+    LOGGER.error(message);
+    return new EventException(message, e);
+  }
+
+  // the new events of one time step, and how many of each type were processed
+  private final class TimeStep {
+    private final List<AlertEvent> alertEvents;
+    private final List<InfectionEvent> infectionEvents;
+    private final List<VirusEvent> virusEvents;
+    private final int[] processed;
+
+    private TimeStep(
+        List<AlertEvent> alertEvents,
+        List<InfectionEvent> infectionEvents,
+        List<VirusEvent> virusEvents,
+        int[] processed) {
+      this.alertEvents = alertEvents;
+      this.infectionEvents = infectionEvents;
+      this.virusEvents = virusEvents;
+      this.processed = processed;
+    }
+
+    private void write() throws IOException {
+      writeAlertEvents(alertEvents, processed[0]);
+      writeInfectionEvents(infectionEvents, processed[1]);
+      writeVirusEvents(virusEvents, processed[2]);
+    }
+  }
+}
@@ -1,42 +1,34 @@
 package uk.co.ramp.event;
 
-import java.util.*;
+import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import uk.co.ramp.event.types.Event;
 
-public class EventList<T extends Event> {
-  private final Map<Integer, List<T>> map = new HashMap<>();
+/** Events of a single type, indexed by the time step at which they occur. */
+public interface EventList<T extends Event> {
 
   // create
-  public void addEvent(T e) {
-    map.computeIfAbsent(e.time(), k -> new ArrayList<>()).add(e);
-  }
+  void addEvent(T e);
 
-  public void addEvents(List<T> events) {
+  default void addEvents(List<T> events) {
     events.forEach(this::addEvent);
   }
 
   // read
-  public List<T> getForTime(int time) {
-    return Collections.unmodifiableList(map.getOrDefault(time, List.of()));
-  }
+  List<T> getForTime(int time);
 
-  public int lastEventTime() {
-    return map.keySet().stream().mapToInt(i -> i).max().orElseThrow();
-  }
+  /** Whether no events have been added, in which case there is no {@link #lastEventTime()}. */
+  boolean isEmpty();
 
-  public List<T> getEventsInPeriod(int startTime, int endTime, Predicate<T> filter) {
-    /*
-     * Creates a stream of integers from start time to end time
-     * maps to events at each time step
-     * collects all relevant events (already sorted by time) into list
-     */
-    return IntStream.rangeClosed(startTime, endTime)
-        .mapToObj(i -> map.getOrDefault(i, List.of()))
-        .flatMap(Collection::stream)
-        .filter(filter)
-        .collect(Collectors.toUnmodifiableList());
-  }
+  /** The latest time of any event added, unaffected by {@link #releaseUpTo(int)}. */
+  int lastEventTime();
+
+  /** The number of events held, not counting those discarded by {@link #releaseUpTo(int)}. */
+  int size();
+
+  List<T> getEventsInPeriod(int startTime, int endTime, Predicate<T> filter);
+
+  // delete
+  /** Discards the events at or before the given time, which must not be read again. */
+  void releaseUpTo(int time);
 }
@@ -20,6 +20,22 @@ class EventListGroup {
     this.virusEvents = virusEvents;
   }
 
+  EventList<AlertEvent> alertEvents() {
+    return alertEvents;
+  }
+
+  EventList<ContactEvent> contactEvents() {
+    return contactEvents;
+  }
+
+  EventList<InfectionEvent> infectionEvents() {
+    return infectionEvents;
+  }
+
+  EventList<VirusEvent> virusEvents() {
+    return virusEvents;
+  }
+
   void addContactEvents(List<ContactEvent> events) {
     contactEvents.addEvents(events);
   }
@@ -40,10 +56,6 @@ class EventListGroup {
     return Collections.unmodifiableList(contactEvents.getForTime(time));
   }
 
-  List<ContactEvent> getContactEventsInPeriod(int start, int end, int id) {
-    return contactEvents.getEventsInPeriod(start, end, e -> e.from() == id || e.to() == id);
-  }
-
   List<AlertEvent> getAlertEvents(int time) {
     return Collections.unmodifiableList(alertEvents.getForTime(time));
   }
@@ -56,6 +68,14 @@ class EventListGroup {
     return Collections.unmodifiableList(virusEvents.getForTime(time));
   }
 
+  void releaseContactEvents(int time) {
+    contactEvents.releaseUpTo(time);
+  }
+
+  int size() {
+    return alertEvents.size() + contactEvents.size() + infectionEvents.size() + virusEvents.size();
+  }
+
   int lastContactTime() {
     return contactEvents.lastEventTime();
   }
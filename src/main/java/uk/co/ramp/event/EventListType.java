@@ -0,0 +1,6 @@
+package uk.co.ramp.event;
+
+public enum EventListType {
+  MAP,
+  CALENDAR
+}
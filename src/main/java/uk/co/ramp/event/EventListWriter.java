@@ -1,31 +1,39 @@
 package uk.co.ramp.event;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
-import java.util.Collection;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import uk.co.ramp.event.types.ImmutableFormattedEvent;
+import uk.co.ramp.event.types.Event;
+import uk.co.ramp.event.types.FormattedEvent;
 import uk.co.ramp.io.csv.CsvException;
-import uk.co.ramp.io.csv.CsvWriter;
 import uk.co.ramp.io.types.StandardProperties;
 
+/**
+ * Writes the alert, infection and virus events to events.csv in time order. The events are already
+ * held by time step, so each time step's alert, infection and virus events are written in turn as
+ * the run completes it, with no list of every event to sort at the end. The writes it prepares may
+ * be run on another thread, but one at a time and in the order they were prepared.
+ */
 public class EventListWriter {
   public static final String EVENTS_CSV = "events.csv";
   private static final Logger LOGGER = LogManager.getLogger(EventListWriter.class);
+  private static final String HEADER =
+      "\"time\",\"eventType\",\"id\",\"newStatus\",\"additionalInfo\"";
 
   private final FormattedEventFactory formattedEventFactory;
   private final CompletionEventListGroup eventList;
   private final File outputFolder;
   private final StandardProperties properties;
 
+  private Writer writer;
+  private int nextTime = 0;
+
   EventListWriter(
       FormattedEventFactory formattedEventFactory,
       CompletionEventListGroup eventList,
@@ -37,53 +45,94 @@ public class EventListWriter {
     this.properties = properties;
   }
 
-  public void output() {
-    /*
-     * Creates a stream of integers from time=0 to last event time
-     * then maps each time to events at that time
-     * then we pass those events (which are sorted by time) into formattedEventFactory
-     * which outputs the data
-     */
-    var alertEvents =
-        IntStream.rangeClosed(0, eventList.lastAlertTime())
-            .boxed()
-            .map(eventList::getNewAlertEvents)
-            .flatMap(Collection::stream)
-            .map(formattedEventFactory::create);
-
-    var infectionEvents =
-        IntStream.rangeClosed(0, eventList.lastInfectionTime())
-            .boxed()
-            .map(eventList::getNewInfectionEvents)
-            .flatMap(Collection::stream)
-            .map(formattedEventFactory::create);
-
-    var virusEvents =
-        IntStream.rangeClosed(0, eventList.lastVirusTime())
-            .boxed()
-            .map(eventList::getNewVirusEvents)
-            .flatMap(Collection::stream)
-            .map(formattedEventFactory::create);
+  /**
+   * Writes the events at each time step up to the given time that are not yet written. Events are
+   * never added before the time step being run, so this can be called as each time step completes.
+   */
+  public void writeUpTo(int time) {
+    prepareUpTo(time).run();
+  }
 
-    // Skipping contact events for now to retain current implementation functionality
+  /**
+   * Takes the events at each time step up to the given time that are not yet written, returning a
+   * write of them that may be run on another thread, in order with the writer's other writes.
+   */
+  public Runnable prepareUpTo(int time) {
+    List<List<? extends Event>> events = new ArrayList<>();
+    for (; nextTime <= time; nextTime++) {
+      events.add(eventList.getNewAlertEvents(nextTime));
+      events.add(eventList.getNewInfectionEvents(nextTime));
+      events.add(eventList.getNewVirusEvents(nextTime));
+    }
 
-    List<ImmutableFormattedEvent> finalList =
-        Stream.of(alertEvents, infectionEvents, virusEvents)
-            .flatMap(s -> s)
-            .map(
-                e ->
-                    ImmutableFormattedEvent.copyOf(e)
-                        .withTime(e.time() / (double) properties.timeStepsPerDay()))
-            .sorted(Comparator.comparingDouble(ImmutableFormattedEvent::time))
-            .collect(Collectors.toList());
+    return () -> {
+      try {
+        if (writer == null) {
+          writer = new BufferedWriter(new FileWriter(new File(outputFolder, EVENTS_CSV)));
+          writer.write(HEADER);
+          writer.write('\n');
+        }
+        for (List<? extends Event> eventsOfType : events) {
+          writeEvents(eventsOfType);
+        }
+      } catch (IOException e) {
+        throw writeFailed(e);
+      }
+    };
+  }
 
-    try (Writer writer = new FileWriter(new File(outputFolder, EVENTS_CSV))) {
-      new CsvWriter().write(writer, finalList, ImmutableFormattedEvent.class);
+  /** Writes the remaining events, including any scheduled after the end of the run. */
+  public void output() {
+    try {
+      // Skipping contact events for now to retain current implementation functionality
+      int lastTime =
+          Math.max(
+              eventList.lastAlertTime(),
+              Math.max(eventList.lastInfectionTime(), eventList.lastVirusTime()));
+      writeUpTo(lastTime);
+    } finally {
+      close();
+    }
+  }
 
+  private void close() {
+    if (writer == null) {
+      return;
+    }
+    try {
+      writer.close();
     } catch (IOException e) {
-      String message = "An error occurred while writing a CSV file";
-      LOGGER.error(message);
-      throw new CsvException(message, e);
+      throw writeFailed(e);
+    } finally {
+      writer = null;
+    }
+  }
+
+  private void writeEvents(List<? extends Event> events) throws IOException {
+    for (Event event : events) {
+      FormattedEvent formattedEvent = formattedEventFactory.create(event);
+      writer.write(Double.toString(event.time() / (double) properties.timeStepsPerDay()));
+      writer.write(',');
+      writeQuoted(formattedEvent.eventType());
+      writer.write(',');
+      writer.write(Integer.toString(formattedEvent.id()));
+      writer.write(',');
+      writeQuoted(formattedEvent.newStatus());
+      writer.write(',');
+      writeQuoted(formattedEvent.additionalInfo());
+      writer.write('\n');
     }
   }
+
+  private void writeQuoted(String value) throws IOException {
+    writer.write('"');
+    writer.write(value.replace("\"", "\"\""));
+    writer.write('"');
+  }
+
+  private CsvException writeFailed(IOException e) {
+    String message = "An error occurred while writing a CSV file";
+    LOGGER.error(message);
+    return new CsvException(message, e);
+  }
 }
@@ -4,22 +4,46 @@ import java.util.List;
 import java.util.stream.Collectors;
 import uk.co.ramp.event.types.Event;
 import uk.co.ramp.event.types.EventProcessor;
+import uk.co.ramp.event.types.EventSink;
 import uk.co.ramp.event.types.ProcessedEventResult;
+import uk.co.ramp.event.types.SinkEventProcessor;
 
-public class EventProcessorRunner<T extends Event> {
+public class EventProcessorRunner<T extends Event> implements AutoCloseable {
   private final EventProcessor<T> eventProcessor;
+  private final SinkEventProcessor<T> sinkEventProcessor;
   private final ProcessedEventsGrouper processedEventsGrouper;
 
   public EventProcessorRunner(
       EventProcessor<T> eventProcessor, ProcessedEventsGrouper processedEventsGrouper) {
     this.eventProcessor = eventProcessor;
+    this.sinkEventProcessor = asSinkEventProcessor(eventProcessor);
     this.processedEventsGrouper = processedEventsGrouper;
   }
 
+  // processors that only return results have them copied into the sink
+  private static <T extends Event> SinkEventProcessor<T> asSinkEventProcessor(
+      EventProcessor<T> eventProcessor) {
+    if (eventProcessor instanceof SinkEventProcessor) {
+      return (SinkEventProcessor<T>) eventProcessor;
+    }
+    return (event, sink) -> sink.addAll(eventProcessor.processEvent(event));
+  }
+
   public ProcessedEventResult run(List<T> eventsToProcess) {
     List<ProcessedEventResult> processedEventResults =
         eventsToProcess.stream().map(eventProcessor::processEvent).collect(Collectors.toList());
 
     return processedEventsGrouper.groupProcessedEventResults(processedEventResults);
   }
+
+  /** Processes the events in order, adding the events they produce to the sink. */
+  public void run(List<T> eventsToProcess, EventSink sink) {
+    for (T event : eventsToProcess) {
+      sinkEventProcessor.processEvent(event, sink);
+    }
+  }
+
+  /** Releases any threads the runner holds, after which it is not run again. */
+  @Override
+  public void close() {}
 }
@@ -1,63 +1,102 @@
 package uk.co.ramp.event;
 
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import uk.co.ramp.event.types.*;
 
-public class EventRunnerImpl implements EventRunner {
+/** Runs each time step of a run; closed with the run's context to release its runners' threads. */
+public class EventRunnerImpl implements EventRunner, AutoCloseable {
   private final EventProcessorRunner<AlertEvent> alertEventRunner;
   private final EventProcessorRunner<ContactEvent> contactEventRunner;
   private final EventProcessorRunner<InfectionEvent> infectionEventRunner;
   private final EventProcessorRunner<VirusEvent> virusEventRunner;
-  private final ProcessedEventsGrouper processedEventsGrouper;
   private final InfectionCreator infectionCreator;
   private final CompletionEventListGroup eventList;
+  private final EventBuffers eventBuffers = new EventBuffers();
+  private EventJournalWriter eventJournal;
+  private RunMetrics metrics;
 
   public EventRunnerImpl(
       EventProcessorRunner<AlertEvent> alertEventRunner,
       EventProcessorRunner<ContactEvent> contactEventRunner,
       EventProcessorRunner<InfectionEvent> infectionEventRunner,
       EventProcessorRunner<VirusEvent> virusEventRunner,
-      ProcessedEventsGrouper processedEventsGrouper,
       InfectionCreator infectionCreator,
       CompletionEventListGroup eventList) {
     this.alertEventRunner = alertEventRunner;
     this.contactEventRunner = contactEventRunner;
     this.infectionEventRunner = infectionEventRunner;
     this.virusEventRunner = virusEventRunner;
-    this.processedEventsGrouper = processedEventsGrouper;
     this.infectionCreator = infectionCreator;
     this.eventList = eventList;
   }
 
+  /** Notes the events processed at each time step in the journal, before any more are added. */
+  public void setEventJournal(EventJournalWriter eventJournal) {
+    this.eventJournal = eventJournal;
+  }
+
+  /** Counts and times the events processed at each time step, which is otherwise not done. */
+  public void setMetrics(RunMetrics metrics) {
+    this.metrics = metrics;
+  }
+
   @Override
   public void run(int time, double randomInfectionRate, double randomCutOff) {
+    long start = metrics != null ? System.nanoTime() : 0;
+
     // generate new infections
     eventList.addNewInfectionEvents(generateInitialInfection(time));
     eventList.addNewInfectionEvents(
         createRandomInfections(time, randomInfectionRate, randomCutOff));
 
     // process existing events
-    List<ProcessedEventResult> processedResults =
-        Stream.of(
-                virusEventRunner.run(eventList.getNewVirusEvents(time)),
-                infectionEventRunner.run(eventList.getNewInfectionEvents(time)),
-                contactEventRunner.run(eventList.getNewContactEvents(time)),
-                alertEventRunner.run(eventList.getNewAlertEvents(time)))
-            .collect(Collectors.toList());
+    eventBuffers.clear();
+    runEvents(RunMetrics.EventKind.VIRUS, virusEventRunner, eventList.getNewVirusEvents(time));
+    runEvents(
+        RunMetrics.EventKind.INFECTION,
+        infectionEventRunner,
+        eventList.getNewInfectionEvents(time));
+    runEvents(
+        RunMetrics.EventKind.CONTACT, contactEventRunner, eventList.getNewContactEvents(time));
+    runEvents(RunMetrics.EventKind.ALERT, alertEventRunner, eventList.getNewAlertEvents(time));
+    if (eventJournal != null) {
+      eventJournal.markProcessed(time);
+    }
+
+    eventList.addNewContactEvents(eventBuffers.newContactEvents());
+    eventList.addNewAlertEvents(eventBuffers.newAlertEvents());
+    eventList.addNewInfectionEvents(eventBuffers.newInfectionEvents());
+    eventList.addNewVirusEvents(eventBuffers.newVirusEvents());
+    eventList.addCompletedContactEvents(eventBuffers.newCompletedContactEvents());
+    eventList.addCompletedAlertEvents(eventBuffers.newCompletedAlertEvents());
+    eventList.addCompletedInfectionEvents(eventBuffers.newCompletedInfectionEvents());
+    eventList.addCompletedVirusEvents(eventBuffers.newCompletedVirusEvents());
 
-    ProcessedEventResult eventResults =
-        processedEventsGrouper.groupProcessedEventResults(processedResults);
+    // pending contacts are only read at their own time step, unlike the other event types
+    eventList.releaseNewContactEvents(time);
 
-    eventList.addNewContactEvents(eventResults.newContactEvents());
-    eventList.addNewAlertEvents(eventResults.newAlertEvents());
-    eventList.addNewInfectionEvents(eventResults.newInfectionEvents());
-    eventList.addNewVirusEvents(eventResults.newVirusEvents());
-    eventList.addCompletedContactEvents(eventResults.newCompletedContactEvents());
-    eventList.addCompletedAlertEvents(eventResults.newCompletedAlertEvents());
-    eventList.addCompletedInfectionEvents(eventResults.newCompletedInfectionEvents());
-    eventList.addCompletedVirusEvents(eventResults.newCompletedVirusEvents());
+    if (metrics != null) {
+      metrics.recordStep(time, System.nanoTime() - start);
+    }
+  }
+
+  private <T extends Event> void runEvents(
+      RunMetrics.EventKind kind, EventProcessorRunner<T> runner, List<T> events) {
+    if (metrics == null) {
+      runner.run(events, eventBuffers);
+      return;
+    }
+    long start = System.nanoTime();
+    runner.run(events, eventBuffers);
+    metrics.recordEvents(kind, events.size(), System.nanoTime() - start);
+  }
+
+  @Override
+  public void close() {
+    alertEventRunner.close();
+    contactEventRunner.close();
+    infectionEventRunner.close();
+    virusEventRunner.close();
   }
 
   List<InfectionEvent> createRandomInfections(
@@ -7,10 +7,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.commons.math3.random.RandomGenerator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.co.ramp.Population;
 import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.RandomStreams.Purpose;
 import uk.co.ramp.event.types.ImmutableInfectionEvent;
 import uk.co.ramp.event.types.InfectionEvent;
 import uk.co.ramp.io.InitialCaseReader;
@@ -22,36 +25,51 @@ public class InfectionCreator {
   private final Population population;
   private final DistributionSampler distributionSampler;
   private final InitialCaseReader initialCaseReader;
+  private final boolean sparseRandomInfections;
 
   public InfectionCreator(
       Population population,
       DistributionSampler distributionSampler,
       InitialCaseReader initialCaseReader) {
+    this(population, distributionSampler, initialCaseReader, false);
+  }
+
+  /**
+   * With sparse random infections, rather than drawing for every susceptible person each time step,
+   * the draws skip over the people who are not infected. The cost then depends on the number of
+   * infections created rather than the population size.
+   */
+  public InfectionCreator(
+      Population population,
+      DistributionSampler distributionSampler,
+      InitialCaseReader initialCaseReader,
+      boolean sparseRandomInfections) {
     this.population = population;
     this.distributionSampler = distributionSampler;
     this.initialCaseReader = initialCaseReader;
+    this.sparseRandomInfections = sparseRandomInfections;
   }
 
   List<InfectionEvent> createRandomInfections(
       int time, double randomInfectionRate, double randomCutoff) {
     if (randomInfectionRate > 0d && time < randomCutoff) {
+      if (sparseRandomInfections) {
+        return createSparseRandomInfections(time, randomInfectionRate);
+      }
+
       List<Case> sus =
           population.view().values().stream()
               .filter(aCase -> aCase.virusStatus() == SUSCEPTIBLE)
               .collect(Collectors.toList());
 
+      double[] draws = new double[sus.size()];
+      distributionSampler.fillUniform(draws, Purpose.RANDOM_INFECTION, 0, time);
+
       List<InfectionEvent> randomInfections = new ArrayList<>();
-      for (Case aCase : sus) {
-        if (distributionSampler.uniformBetweenZeroAndOne() < randomInfectionRate) {
-          randomInfections.add(
-              ImmutableInfectionEvent.builder()
-                  .time(time + 1)
-                  .id(aCase.id())
-                  .nextStatus(EXPOSED)
-                  .oldStatus(SUSCEPTIBLE)
-                  .exposedTime(time)
-                  .exposedBy(Case.getRandomInfection())
-                  .build());
+      for (int i = 0; i < sus.size(); i++) {
+        Case aCase = sus.get(i);
+        if (draws[i] < randomInfectionRate) {
+          randomInfections.add(randomInfection(aCase.id(), time));
         }
       }
 
@@ -60,6 +78,47 @@ public class InfectionCreator {
     return List.of();
   }
 
+  /**
+   * Infects each susceptible person with the given probability, as above, by drawing the number of
+   * people passed over before each infection from a geometric distribution.
+   */
+  private List<InfectionEvent> createSparseRandomInfections(int time, double randomInfectionRate) {
+    RandomGenerator rng = distributionSampler.generator(Purpose.RANDOM_INFECTION, 0, time);
+    int susceptibleCount = population.susceptibleCount();
+    double logNotInfected = Math.log1p(-randomInfectionRate);
+
+    IntStream.Builder infectedIds = IntStream.builder();
+    long index = skipped(rng, logNotInfected);
+    while (index < susceptibleCount) {
+      infectedIds.add(population.susceptibleId((int) index));
+      index += 1 + skipped(rng, logNotInfected);
+    }
+
+    // ordered by id, as the susceptible ids are in no particular order
+    return infectedIds
+        .build()
+        .sorted()
+        .mapToObj(id -> randomInfection(id, time))
+        .collect(Collectors.toList());
+  }
+
+  private long skipped(RandomGenerator rng, double logNotInfected) {
+    // a uniform in (0, 1], and none are skipped when everyone is infected
+    double u = 1 - rng.nextDouble();
+    return (long) Math.min(Math.floor(Math.log(u) / logNotInfected), Integer.MAX_VALUE);
+  }
+
+  private InfectionEvent randomInfection(int id, int time) {
+    return ImmutableInfectionEvent.builder()
+        .time(time + 1)
+        .id(id)
+        .nextStatus(EXPOSED)
+        .oldStatus(SUSCEPTIBLE)
+        .exposedTime(time)
+        .exposedBy(Case.getRandomInfection())
+        .build();
+  }
+
   List<InfectionEvent> generateInitialInfections(int time) {
     if (time == 0) {
       Set<Integer> infectedIds = initialCaseReader.getCases();
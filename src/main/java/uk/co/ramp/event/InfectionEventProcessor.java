@@ -13,7 +13,8 @@ import uk.co.ramp.people.VirusStatus;
 import uk.co.ramp.statistics.StatisticsRecorder;
 
 @Service
-public class InfectionEventProcessor extends CommonVirusEventProcessor<InfectionEvent> {
+public class InfectionEventProcessor extends CommonVirusEventProcessor<InfectionEvent>
+    implements SinkEventProcessor<InfectionEvent> {
   private final Population population;
   private final StatisticsRecorder statisticsRecorder;
 
@@ -30,14 +31,14 @@ public class InfectionEventProcessor extends CommonVirusEventProcessor<Infection
   }
 
   @Override
-  public ProcessedEventResult processEvent(InfectionEvent event) {
+  public void processEvent(InfectionEvent event, EventSink sink) {
     if (population.getVirusStatus(event.id()) == SUSCEPTIBLE) {
       population.setVirusStatus(event.id(), event.nextStatus());
       population.setExposedBy(event.id(), event.exposedBy());
       population.setExposedTime(event.id(), event.exposedTime());
 
       VirusStatus nextStatus = determineNextStatus(event);
-      int deltaTime = timeInCompartment(event.nextStatus(), nextStatus);
+      int deltaTime = timeInCompartment(event.nextStatus(), nextStatus, event.id(), event.time());
 
       statisticsRecorder.recordSinglePersonInfected(event.exposedTime());
 
@@ -49,11 +50,8 @@ public class InfectionEventProcessor extends CommonVirusEventProcessor<Infection
               .time(event.time() + deltaTime)
               .build();
 
-      return ImmutableProcessedEventResult.builder()
-          .addNewVirusEvents(subsequentEvent)
-          .addNewCompletedInfectionEvents(event)
-          .build();
+      sink.addNewVirusEvent(subsequentEvent);
+      sink.addNewCompletedInfectionEvent(event);
     }
-    return ImmutableProcessedEventResult.builder().build();
   }
 }
@@ -10,4 +10,8 @@ public class LastContactTime {
   public int get() {
     return eventList.lastContactTime();
   }
+
+  public boolean isKnown() {
+    return eventList.isLastContactTimeKnown();
+  }
 }
@@ -0,0 +1,71 @@
+package uk.co.ramp.event;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import uk.co.ramp.event.types.Event;
+
+public class MapEventList<T extends Event> implements EventList<T> {
+  private final Map<Integer, List<T>> map = new HashMap<>();
+  private OptionalInt lastEventTime = OptionalInt.empty();
+  private int size;
+
+  // create
+  @Override
+  public void addEvent(T e) {
+    map.computeIfAbsent(e.time(), k -> new ArrayList<>()).add(e);
+    size++;
+    if (lastEventTime.isEmpty() || e.time() > lastEventTime.getAsInt()) {
+      lastEventTime = OptionalInt.of(e.time());
+    }
+  }
+
+  // read
+  @Override
+  public List<T> getForTime(int time) {
+    return Collections.unmodifiableList(map.getOrDefault(time, List.of()));
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return lastEventTime.isEmpty();
+  }
+
+  @Override
+  public int lastEventTime() {
+    return lastEventTime.orElseThrow();
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public List<T> getEventsInPeriod(int startTime, int endTime, Predicate<T> filter) {
+    /*
+     * Creates a stream of integers from start time to end time
+     * maps to events at each time step
+     * collects all relevant events (already sorted by time) into list
+     */
+    return IntStream.rangeClosed(startTime, endTime)
+        .mapToObj(i -> map.getOrDefault(i, List.of()))
+        .flatMap(Collection::stream)
+        .filter(filter)
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  // delete
+  @Override
+  public void releaseUpTo(int time) {
+    Iterator<Map.Entry<Integer, List<T>>> entries = map.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<Integer, List<T>> entry = entries.next();
+      if (entry.getKey() <= time) {
+        size -= entry.getValue().size();
+        entries.remove();
+      }
+    }
+  }
+}
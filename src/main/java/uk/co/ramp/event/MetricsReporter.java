@@ -0,0 +1,7 @@
+package uk.co.ramp.event;
+
+public enum MetricsReporter {
+  JMX,
+  CSV,
+  LOG
+}
@@ -0,0 +1,89 @@
+package uk.co.ramp.event;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleSupplier;
+import java.util.stream.IntStream;
+import uk.co.ramp.distribution.RandomStreams;
+import uk.co.ramp.distribution.SplitMixRandomGenerator;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.EventBuffers;
+import uk.co.ramp.event.types.EventSink;
+import uk.co.ramp.event.types.ProcessedEventResult;
+
+/**
+ * Processes the contacts of a time step across a fork join pool. Each contact draws from its own
+ * random stream, keyed by its position in the time step, and results are kept in the original
+ * contact order. The output for a given seed is therefore the same for any number of threads.
+ *
+ * <p>The contacts are split into a fixed number of chunks, each processed in order into its own
+ * buffers, which are reused from one time step to the next. The pool's threads are released when
+ * the runner is closed, along with the rest of its run.
+ */
+public class ParallelContactEventRunner extends EventProcessorRunner<ContactEvent> {
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  private final ContactEventProcessor contactEventProcessor;
+  private final RandomStreams randomStreams;
+  private final ForkJoinPool forkJoinPool;
+  private final Chunk[] chunks;
+
+  private static class Chunk {
+    private final EventBuffers buffers = new EventBuffers();
+    private final SplitMixRandomGenerator rng = new SplitMixRandomGenerator(0);
+    private final DoubleSupplier uniform = rng::nextDouble;
+  }
+
+  public ParallelContactEventRunner(
+      ContactEventProcessor contactEventProcessor,
+      ProcessedEventsGrouper processedEventsGrouper,
+      RandomStreams randomStreams,
+      int threads) {
+    super(contactEventProcessor, processedEventsGrouper);
+    this.contactEventProcessor = contactEventProcessor;
+    this.randomStreams = randomStreams;
+    this.forkJoinPool = new ForkJoinPool(threads);
+    this.chunks = new Chunk[threads * CHUNKS_PER_THREAD];
+    for (int i = 0; i < chunks.length; i++) {
+      chunks[i] = new Chunk();
+    }
+  }
+
+  @Override
+  public ProcessedEventResult run(List<ContactEvent> eventsToProcess) {
+    EventBuffers buffers = new EventBuffers();
+    run(eventsToProcess, buffers);
+    return buffers.toResult();
+  }
+
+  @Override
+  public void run(List<ContactEvent> eventsToProcess, EventSink sink) {
+    forkJoinPool
+        .submit(
+            () ->
+                IntStream.range(0, chunks.length)
+                    .parallel()
+                    .forEach(chunk -> processChunk(eventsToProcess, chunk)))
+        .join();
+
+    for (Chunk chunk : chunks) {
+      chunk.buffers.drainTo(sink);
+    }
+  }
+
+  @Override
+  public void close() {
+    forkJoinPool.shutdown();
+  }
+
+  private void processChunk(List<ContactEvent> events, int chunkIndex) {
+    Chunk chunk = chunks[chunkIndex];
+    int start = (int) ((long) events.size() * chunkIndex / chunks.length);
+    int end = (int) ((long) events.size() * (chunkIndex + 1) / chunks.length);
+    for (int i = start; i < end; i++) {
+      ContactEvent event = events.get(i);
+      randomStreams.reset(chunk.rng, RandomStreams.Purpose.CONTACT, i, event.time());
+      contactEventProcessor.processEvent(event, chunk.uniform, chunk.buffers);
+    }
+  }
+}
@@ -0,0 +1,317 @@
+package uk.co.ramp.event;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.co.ramp.io.csv.CsvException;
+import uk.co.ramp.io.types.StandardProperties;
+import uk.co.ramp.policy.isolation.IsolationPolicy;
+import uk.co.ramp.statistics.StatisticsRecorder;
+
+/**
+ * Counts and times the events processed at each time step of a run, and samples the sizes of the
+ * event lists and the isolation map after each one. The metrics are registered as an MBean named
+ * for the run's output folder, and may also be reported every few time steps, to a CSV file in the
+ * output folder or to the log, each report covering the time steps since the last.
+ *
+ * <p>The event runner is only given the metrics when they are enabled, so a run without them does
+ * not time anything. The metrics are written by the run's thread alone, and may be read over JMX
+ * from any other.
+ */
+public class RunMetrics implements RunMetricsMXBean, AutoCloseable {
+  public static final String METRICS_CSV = "metrics.csv";
+  private static final Logger LOGGER = LogManager.getLogger(RunMetrics.class);
+  private static final String HEADER =
+      "time,steps,stepMillis,maxStepMillis,virusEvents,infectionEvents,contactEvents,alertEvents,"
+          + "newEvents,completedEvents,isolating,contactsTraced,testsDelayed";
+
+  enum EventKind {
+    VIRUS,
+    INFECTION,
+    CONTACT,
+    ALERT
+  }
+
+  private final CompletionEventListGroup eventList;
+  private final IsolationPolicy isolationPolicy;
+  private final StatisticsRecorder statisticsRecorder;
+  private final StandardProperties properties;
+  private final File outputFolder;
+
+  private final AtomicLongArray eventCounts = new AtomicLongArray(EventKind.values().length);
+  private final AtomicLongArray eventNanos = new AtomicLongArray(EventKind.values().length);
+  private volatile int timeStep = -1;
+  private volatile long stepCount;
+  private volatile long stepNanos;
+  private volatile long maxStepNanos;
+  private volatile int newEvents;
+  private volatile int completedEvents;
+  private volatile int isolating;
+  private volatile long contactsTraced;
+  private volatile long testsDelayed;
+
+  // the totals at the last report
+  private final long[] reportedEventCounts = new long[EventKind.values().length];
+  private long reportedStepCount;
+  private long reportedStepNanos;
+  private long reportedContactsTraced;
+  private long reportedTestsDelayed;
+  private long maxReportStepNanos;
+
+  private boolean started;
+  private ObjectName name;
+  private Writer writer;
+
+  RunMetrics(
+      CompletionEventListGroup eventList,
+      IsolationPolicy isolationPolicy,
+      StatisticsRecorder statisticsRecorder,
+      StandardProperties properties,
+      File outputFolder) {
+    this.eventList = eventList;
+    this.isolationPolicy = isolationPolicy;
+    this.statisticsRecorder = statisticsRecorder;
+    this.properties = properties;
+    this.outputFolder = outputFolder;
+  }
+
+  public boolean isEnabled() {
+    return properties.metrics().isPresent();
+  }
+
+  /** Notes that the given number of events of a kind were processed in the given time. */
+  void recordEvents(EventKind kind, int count, long nanos) {
+    eventCounts.addAndGet(kind.ordinal(), count);
+    eventNanos.addAndGet(kind.ordinal(), nanos);
+  }
+
+  /** Notes that the time step was run in the given time, reporting if a report is due. */
+  void recordStep(int time, long nanos) {
+    if (!started) {
+      started = true;
+      register();
+    }
+    timeStep = time;
+    stepCount++;
+    stepNanos += nanos;
+    maxStepNanos = Math.max(maxStepNanos, nanos);
+    maxReportStepNanos = Math.max(maxReportStepNanos, nanos);
+    newEvents = eventList.newEventCount();
+    completedEvents = eventList.completedEventCount();
+    isolating = isolationPolicy.isolatingCount();
+    contactsTraced += statisticsRecorder.getContactsTraced().getOrDefault(time, 0);
+    testsDelayed += statisticsRecorder.getDelayedTests().getOrDefault(time, List.of()).size();
+
+    int interval = properties.metricsInterval().orElse(properties.timeStepsPerDay());
+    if ((time + 1) % interval == 0) {
+      report();
+    }
+  }
+
+  /** Reports the time steps since the last report, and unregisters the MBean. */
+  @Override
+  public void close() {
+    try {
+      if (stepCount > reportedStepCount) {
+        report();
+      }
+      if (writer != null) {
+        writer.close();
+      }
+    } catch (IOException e) {
+      throw writeFailed(e);
+    } finally {
+      writer = null;
+      unregister();
+    }
+  }
+
+  private void report() {
+    MetricsReporter reporter = properties.metrics().orElse(MetricsReporter.JMX);
+    if (reporter == MetricsReporter.JMX) {
+      return;
+    }
+
+    long steps = stepCount - reportedStepCount;
+    StringBuilder row = new StringBuilder();
+    row.append(timeStep).append(',').append(steps);
+    row.append(',').append(millis(stepNanos - reportedStepNanos));
+    row.append(',').append(millis(maxReportStepNanos));
+    for (EventKind kind : EventKind.values()) {
+      row.append(',').append(eventCounts.get(kind.ordinal()) - reportedEventCounts[kind.ordinal()]);
+    }
+    row.append(',').append(newEvents);
+    row.append(',').append(completedEvents);
+    row.append(',').append(isolating);
+    row.append(',').append(contactsTraced - reportedContactsTraced);
+    row.append(',').append(testsDelayed - reportedTestsDelayed);
+
+    if (reporter == MetricsReporter.CSV) {
+      writeRow(row.toString());
+    } else {
+      LOGGER.info("Metrics {}: {}", HEADER, row);
+    }
+
+    reportedStepCount = stepCount;
+    reportedStepNanos = stepNanos;
+    maxReportStepNanos = 0;
+    for (EventKind kind : EventKind.values()) {
+      reportedEventCounts[kind.ordinal()] = eventCounts.get(kind.ordinal());
+    }
+    reportedContactsTraced = contactsTraced;
+    reportedTestsDelayed = testsDelayed;
+  }
+
+  // flushed as each row is written, so the file can be followed while the run continues
+  private void writeRow(String row) {
+    try {
+      if (writer == null) {
+        writer = new BufferedWriter(new FileWriter(new File(outputFolder, METRICS_CSV)));
+        writer.write(HEADER);
+        writer.write('\n');
+      }
+      writer.write(row);
+      writer.write('\n');
+      writer.flush();
+    } catch (IOException e) {
+      throw writeFailed(e);
+    }
+  }
+
+  private void register() {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      name =
+          new ObjectName(
+              "uk.co.ramp:type=RunMetrics,name=" + ObjectName.quote(outputFolder.getPath()));
+      if (server.isRegistered(name)) {
+        // an earlier run into the same folder that was not closed
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(this, name);
+    } catch (JMException e) {
+      LOGGER.warn("The run metrics could not be registered: {}", e.getMessage());
+    }
+  }
+
+  private void unregister() {
+    if (name == null) {
+      return;
+    }
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    } catch (JMException e) {
+      LOGGER.warn("The run metrics could not be unregistered: {}", e.getMessage());
+    } finally {
+      name = null;
+    }
+  }
+
+  private CsvException writeFailed(IOException e) {
+    String message = "An error occurred while writing the run metrics";
+    LOGGER.error(message);
+    return new CsvException(message, e);
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1e6;
+  }
+
+  @Override
+  public int getTimeStep() {
+    return timeStep;
+  }
+
+  @Override
+  public long getStepCount() {
+    return stepCount;
+  }
+
+  @Override
+  public double getStepMillis() {
+    return millis(stepNanos);
+  }
+
+  @Override
+  public double getMaxStepMillis() {
+    return millis(maxStepNanos);
+  }
+
+  @Override
+  public long getVirusEvents() {
+    return eventCounts.get(EventKind.VIRUS.ordinal());
+  }
+
+  @Override
+  public long getInfectionEvents() {
+    return eventCounts.get(EventKind.INFECTION.ordinal());
+  }
+
+  @Override
+  public long getContactEvents() {
+    return eventCounts.get(EventKind.CONTACT.ordinal());
+  }
+
+  @Override
+  public long getAlertEvents() {
+    return eventCounts.get(EventKind.ALERT.ordinal());
+  }
+
+  @Override
+  public double getVirusEventMillis() {
+    return millis(eventNanos.get(EventKind.VIRUS.ordinal()));
+  }
+
+  @Override
+  public double getInfectionEventMillis() {
+    return millis(eventNanos.get(EventKind.INFECTION.ordinal()));
+  }
+
+  @Override
+  public double getContactEventMillis() {
+    return millis(eventNanos.get(EventKind.CONTACT.ordinal()));
+  }
+
+  @Override
+  public double getAlertEventMillis() {
+    return millis(eventNanos.get(EventKind.ALERT.ordinal()));
+  }
+
+  @Override
+  public int getNewEvents() {
+    return newEvents;
+  }
+
+  @Override
+  public int getCompletedEvents() {
+    return completedEvents;
+  }
+
+  @Override
+  public int getIsolating() {
+    return isolating;
+  }
+
+  @Override
+  public long getContactsTraced() {
+    return contactsTraced;
+  }
+
+  @Override
+  public long getTestsDelayed() {
+    return testsDelayed;
+  }
+}
@@ -0,0 +1,38 @@
+package uk.co.ramp.event;
+
+/** The metrics of a run, as read over JMX. Times are in milliseconds. */
+public interface RunMetricsMXBean {
+  int getTimeStep();
+
+  long getStepCount();
+
+  double getStepMillis();
+
+  double getMaxStepMillis();
+
+  long getVirusEvents();
+
+  long getInfectionEvents();
+
+  long getContactEvents();
+
+  long getAlertEvents();
+
+  double getVirusEventMillis();
+
+  double getInfectionEventMillis();
+
+  double getContactEventMillis();
+
+  double getAlertEventMillis();
+
+  int getNewEvents();
+
+  int getCompletedEvents();
+
+  int getIsolating();
+
+  long getContactsTraced();
+
+  long getTestsDelayed();
+}
@@ -1,6 +1,5 @@
 package uk.co.ramp.event;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
@@ -9,10 +8,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import uk.co.ramp.Population;
 import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.RandomStreams;
 import uk.co.ramp.event.types.AlertEvent;
-import uk.co.ramp.event.types.ImmutableProcessedEventResult;
+import uk.co.ramp.event.types.EventSink;
 import uk.co.ramp.event.types.ImmutableVirusEvent;
-import uk.co.ramp.event.types.ProcessedEventResult;
+import uk.co.ramp.event.types.SinkEventProcessor;
 import uk.co.ramp.event.types.VirusEvent;
 import uk.co.ramp.io.types.DiseaseProperties;
 import uk.co.ramp.io.types.StandardProperties;
@@ -21,7 +21,8 @@ import uk.co.ramp.people.VirusStatus;
 import uk.co.ramp.policy.alert.AlertChecker;
 
 @Service
-public class VirusEventProcessor extends CommonVirusEventProcessor<VirusEvent> {
+public class VirusEventProcessor extends CommonVirusEventProcessor<VirusEvent>
+    implements SinkEventProcessor<VirusEvent> {
   private final Population population;
   private final AlertChecker alertChecker;
   private final DistributionSampler distributionSampler;
@@ -41,10 +42,10 @@ public class VirusEventProcessor extends CommonVirusEventProcessor<VirusEvent> {
   }
 
   @Override
-  public ProcessedEventResult processEvent(VirusEvent event) {
+  public void processEvent(VirusEvent event, EventSink sink) {
     // process current event
     Case thisCase = population.get(event.id());
-    thisCase.setVirusStatus(thisCase.virusStatus().transitionTo(event.nextStatus()));
+    population.setVirusStatus(event.id(), event.nextStatus());
 
     // determine and return next events with time of when they will be processed
     VirusStatus nextStatus = determineNextStatus(event);
@@ -52,7 +53,7 @@ public class VirusEventProcessor extends CommonVirusEventProcessor<VirusEvent> {
     // will return self if at DEAD or RECOVERED
     if (event.nextStatus() != nextStatus) {
 
-      int deltaTime = timeInCompartment(event.nextStatus(), nextStatus);
+      int deltaTime = timeInCompartment(event.nextStatus(), nextStatus, event.id(), event.time());
 
       VirusEvent subsequentEvent =
           ImmutableVirusEvent.builder()
@@ -62,20 +63,16 @@ public class VirusEventProcessor extends CommonVirusEventProcessor<VirusEvent> {
               .time(event.time() + deltaTime)
               .build();
 
-      List<AlertEvent> alertEvents;
-      if (thisCase.reportingCompliance() > distributionSampler.uniformBetweenZeroAndOne()) {
-        alertEvents = checkForAlert(event);
+      sink.addNewVirusEvent(subsequentEvent);
+      if (thisCase.reportingCompliance()
+          > distributionSampler.uniformBetweenZeroAndOne(
+              RandomStreams.Purpose.REPORTING, event.id(), event.time())) {
+        checkForAlert(event).forEach(sink::addNewAlertEvent);
       } else {
         LOGGER.debug("Person with id: {} is not complying with infection reporting", thisCase.id());
-        alertEvents = new ArrayList<>();
       }
-      return ImmutableProcessedEventResult.builder()
-          .addNewVirusEvents(subsequentEvent)
-          .addAllNewAlertEvents(alertEvents)
-          .addNewCompletedVirusEvents(event)
-          .build();
+      sink.addNewCompletedVirusEvent(event);
     }
-    return ImmutableProcessedEventResult.builder().build();
   }
 
   List<AlertEvent> checkForAlert(VirusEvent event) {
@@ -0,0 +1,16 @@
+package uk.co.ramp.event.types;
+
+import java.util.List;
+
+/** Contact events that are read as the run reaches them, rather than all before it starts. */
+public interface ContactSource {
+
+  /**
+   * Returns the contacts that have not been returned before and that may be at or before the given
+   * time. It may also return later contacts.
+   */
+  List<ContactEvent> readUpTo(int time);
+
+  /** Whether all of the contacts have been returned. */
+  boolean isExhausted();
+}
@@ -0,0 +1,130 @@
+package uk.co.ramp.event.types;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Growable lists of each type of new and completed event. They are cleared and reused for each time
+ * step, so processing an event only allocates the events it produces. The lists returned are views,
+ * which change when the buffers are added to or cleared.
+ */
+public class EventBuffers implements EventSink {
+  private final List<AlertEvent> newAlertEvents = new ArrayList<>();
+  private final List<AlertEvent> newCompletedAlertEvents = new ArrayList<>();
+  private final List<ContactEvent> newContactEvents = new ArrayList<>();
+  private final List<ContactEvent> newCompletedContactEvents = new ArrayList<>();
+  private final List<InfectionEvent> newInfectionEvents = new ArrayList<>();
+  private final List<InfectionEvent> newCompletedInfectionEvents = new ArrayList<>();
+  private final List<VirusEvent> newVirusEvents = new ArrayList<>();
+  private final List<VirusEvent> newCompletedVirusEvents = new ArrayList<>();
+
+  @Override
+  public void addNewAlertEvent(AlertEvent event) {
+    newAlertEvents.add(event);
+  }
+
+  @Override
+  public void addNewCompletedAlertEvent(AlertEvent event) {
+    newCompletedAlertEvents.add(event);
+  }
+
+  @Override
+  public void addNewContactEvent(ContactEvent event) {
+    newContactEvents.add(event);
+  }
+
+  @Override
+  public void addNewCompletedContactEvent(ContactEvent event) {
+    newCompletedContactEvents.add(event);
+  }
+
+  @Override
+  public void addNewInfectionEvent(InfectionEvent event) {
+    newInfectionEvents.add(event);
+  }
+
+  @Override
+  public void addNewCompletedInfectionEvent(InfectionEvent event) {
+    newCompletedInfectionEvents.add(event);
+  }
+
+  @Override
+  public void addNewVirusEvent(VirusEvent event) {
+    newVirusEvents.add(event);
+  }
+
+  @Override
+  public void addNewCompletedVirusEvent(VirusEvent event) {
+    newCompletedVirusEvents.add(event);
+  }
+
+  public List<AlertEvent> newAlertEvents() {
+    return Collections.unmodifiableList(newAlertEvents);
+  }
+
+  public List<AlertEvent> newCompletedAlertEvents() {
+    return Collections.unmodifiableList(newCompletedAlertEvents);
+  }
+
+  public List<ContactEvent> newContactEvents() {
+    return Collections.unmodifiableList(newContactEvents);
+  }
+
+  public List<ContactEvent> newCompletedContactEvents() {
+    return Collections.unmodifiableList(newCompletedContactEvents);
+  }
+
+  public List<InfectionEvent> newInfectionEvents() {
+    return Collections.unmodifiableList(newInfectionEvents);
+  }
+
+  public List<InfectionEvent> newCompletedInfectionEvents() {
+    return Collections.unmodifiableList(newCompletedInfectionEvents);
+  }
+
+  public List<VirusEvent> newVirusEvents() {
+    return Collections.unmodifiableList(newVirusEvents);
+  }
+
+  public List<VirusEvent> newCompletedVirusEvents() {
+    return Collections.unmodifiableList(newCompletedVirusEvents);
+  }
+
+  /** Adds all of the buffered events to the sink, keeping their order. */
+  public void drainTo(EventSink sink) {
+    newAlertEvents.forEach(sink::addNewAlertEvent);
+    newCompletedAlertEvents.forEach(sink::addNewCompletedAlertEvent);
+    newContactEvents.forEach(sink::addNewContactEvent);
+    newCompletedContactEvents.forEach(sink::addNewCompletedContactEvent);
+    newInfectionEvents.forEach(sink::addNewInfectionEvent);
+    newCompletedInfectionEvents.forEach(sink::addNewCompletedInfectionEvent);
+    newVirusEvents.forEach(sink::addNewVirusEvent);
+    newCompletedVirusEvents.forEach(sink::addNewCompletedVirusEvent);
+    clear();
+  }
+
+  public void clear() {
+    newAlertEvents.clear();
+    newCompletedAlertEvents.clear();
+    newContactEvents.clear();
+    newCompletedContactEvents.clear();
+    newInfectionEvents.clear();
+    newCompletedInfectionEvents.clear();
+    newVirusEvents.clear();
+    newCompletedVirusEvents.clear();
+  }
+
+  public ProcessedEventResult toResult() {
+    return ImmutableProcessedEventResult.builder()
+        .addAllNewAlertEvents(newAlertEvents)
+        .addAllNewCompletedAlertEvents(newCompletedAlertEvents)
+        .addAllNewContactEvents(newContactEvents)
+        .addAllNewCompletedContactEvents(newCompletedContactEvents)
+        .addAllNewInfectionEvents(newInfectionEvents)
+        .addAllNewCompletedInfectionEvents(newCompletedInfectionEvents)
+        .addAllNewVirusEvents(newVirusEvents)
+        .addAllNewCompletedVirusEvents(newCompletedVirusEvents)
+        .build();
+  }
+}
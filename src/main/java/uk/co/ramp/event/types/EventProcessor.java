@@ -1,29 +1,15 @@
 package uk.co.ramp.event.types;
 
 import uk.co.ramp.distribution.BoundedDistribution;
-import uk.co.ramp.distribution.ImmutableBoundedDistribution;
-import uk.ramp.distribution.Distribution;
-import uk.ramp.distribution.ImmutableDistribution;
+import uk.co.ramp.distribution.ScaledDistributions;
 
 public interface EventProcessor<T extends Event> {
+  /**
+   * Scales a copy of the distribution, see {@link ScaledDistributions} to reuse the copies when
+   * sampling.
+   */
   static BoundedDistribution scaleWithTimeSteps(BoundedDistribution distribution, int timeSteps) {
-
-    double scale =
-        distribution.distribution().internalScale().orElse(distribution.max()) * timeSteps;
-
-    Distribution internalDistribution =
-        ImmutableDistribution.builder()
-            .from(distribution.distribution())
-            .internalScale(scale)
-            .rng(distribution.distribution().rng())
-            .internalType(distribution.distribution().internalType())
-            .build();
-
-    return ImmutableBoundedDistribution.builder()
-        .from(distribution)
-        .max(distribution.max() * timeSteps)
-        .distribution(internalDistribution)
-        .build();
+    return ScaledDistributions.scaleWithTimeSteps(distribution, timeSteps);
   }
 
   ProcessedEventResult processEvent(T event);
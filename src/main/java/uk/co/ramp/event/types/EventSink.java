@@ -0,0 +1,31 @@
+package uk.co.ramp.event.types;
+
+/** Receives the new and completed events produced while processing events. */
+public interface EventSink {
+  void addNewAlertEvent(AlertEvent event);
+
+  void addNewCompletedAlertEvent(AlertEvent event);
+
+  void addNewContactEvent(ContactEvent event);
+
+  void addNewCompletedContactEvent(ContactEvent event);
+
+  void addNewInfectionEvent(InfectionEvent event);
+
+  void addNewCompletedInfectionEvent(InfectionEvent event);
+
+  void addNewVirusEvent(VirusEvent event);
+
+  void addNewCompletedVirusEvent(VirusEvent event);
+
+  default void addAll(ProcessedEventResult result) {
+    result.newAlertEvents().forEach(this::addNewAlertEvent);
+    result.newCompletedAlertEvents().forEach(this::addNewCompletedAlertEvent);
+    result.newContactEvents().forEach(this::addNewContactEvent);
+    result.newCompletedContactEvents().forEach(this::addNewCompletedContactEvent);
+    result.newInfectionEvents().forEach(this::addNewInfectionEvent);
+    result.newCompletedInfectionEvents().forEach(this::addNewCompletedInfectionEvent);
+    result.newVirusEvents().forEach(this::addNewVirusEvent);
+    result.newCompletedVirusEvents().forEach(this::addNewCompletedVirusEvent);
+  }
+}
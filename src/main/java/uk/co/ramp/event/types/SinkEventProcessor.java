@@ -0,0 +1,18 @@
+package uk.co.ramp.event.types;
+
+/**
+ * An {@link EventProcessor} that adds the events it produces straight to a sink, rather than
+ * building a {@link ProcessedEventResult} for every event it processes.
+ */
+@FunctionalInterface
+public interface SinkEventProcessor<T extends Event> extends EventProcessor<T> {
+
+  void processEvent(T event, EventSink sink);
+
+  @Override
+  default ProcessedEventResult processEvent(T event) {
+    EventBuffers buffers = new EventBuffers();
+    processEvent(event, buffers);
+    return buffers.toResult();
+  }
+}
@@ -0,0 +1,12 @@
+package uk.co.ramp.io;
+
+public class CheckpointException extends RuntimeException {
+
+  public CheckpointException(String message) {
+    super(message);
+  }
+
+  public CheckpointException(String message, Exception e) {
+    super(message, e);
+  }
+}
@@ -0,0 +1,16 @@
+package uk.co.ramp.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Part of the state of a run that is written to a checkpoint, so that the run can later be resumed
+ * from the end of the time step at which the checkpoint was made.
+ */
+public interface Checkpointed {
+  void writeCheckpoint(DataOutput out) throws IOException;
+
+  /** Replaces the state with that written to the checkpoint, before the run is resumed. */
+  void readCheckpoint(DataInput in) throws IOException;
+}
@@ -1,5 +1,6 @@
 package uk.co.ramp.io;
 
+import com.fasterxml.jackson.databind.SequenceWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.Comparator;
@@ -20,4 +21,11 @@ public class CompartmentWriter {
             .collect(Collectors.toList());
     new CsvWriter().write(writer, wrappedImmutableRecords, ImmutableCmptRecord.class);
   }
+
+  /**
+   * Writes the header, then returns a writer for records written in time order as they are made.
+   */
+  public SequenceWriter open(Writer writer) throws IOException {
+    return new CsvWriter().open(writer, ImmutableCmptRecord.class);
+  }
 }
@@ -0,0 +1,186 @@
+package uk.co.ramp.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+
+/**
+ * Contact data converted to a compact binary file by {@link ContactArchiveWriter}. The contacts of
+ * each day are stored as a block, with an index of the blocks at the end of the file. A block is
+ * memory-mapped and decoded only when its day is read, so a run touches only the parts of the file
+ * it needs and does no CSV parsing.
+ *
+ * <p>The file is laid out as:
+ *
+ * <ul>
+ *   <li>a header of a magic number and the format version
+ *   <li>one block per day, holding the from ids as zigzag varint deltas from the previous contact,
+ *       the to ids as zigzag varint offsets from the from id, the weights as doubles and the label
+ *       ids as varints, each as its own column
+ *   <li>the labels, as UTF-8 strings
+ *   <li>the index, giving the day, number of contacts, offset and length of each block
+ *   <li>the offset of the labels, as the last eight bytes
+ * </ul>
+ */
+public class ContactArchive implements Closeable {
+  static final int MAGIC = 0x52414d50;
+  static final int VERSION = 1;
+
+  private final FileChannel channel;
+  private final List<String> labels;
+  private final int[] days;
+  private final int[] counts;
+  private final long[] offsets;
+  private final int[] lengths;
+
+  private ContactArchive(FileChannel channel) throws IOException {
+    this.channel = channel;
+
+    long size = channel.size();
+    ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, Math.min(size, 8));
+    if (size < 16 || header.getInt() != MAGIC) {
+      throw new IOException("Not a contact archive");
+    }
+    int version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported contact archive version " + version);
+    }
+
+    long tableOffset = channel.map(MapMode.READ_ONLY, size - 8, 8).getLong();
+    ByteBuffer table = channel.map(MapMode.READ_ONLY, tableOffset, size - 8 - tableOffset);
+
+    int labelCount = table.getInt();
+    labels = new ArrayList<>(labelCount);
+    for (int i = 0; i < labelCount; i++) {
+      byte[] bytes = new byte[table.getInt()];
+      table.get(bytes);
+      labels.add(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    int blockCount = table.getInt();
+    days = new int[blockCount];
+    counts = new int[blockCount];
+    offsets = new long[blockCount];
+    lengths = new int[blockCount];
+    for (int i = 0; i < blockCount; i++) {
+      days[i] = table.getInt();
+      counts[i] = table.getInt();
+      offsets[i] = table.getLong();
+      lengths[i] = table.getInt();
+    }
+  }
+
+  public static ContactArchive open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return new ContactArchive(channel);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /** Whether the file starts like a contact archive, rather than a CSV file. */
+  public static boolean isArchive(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer magic = ByteBuffer.allocate(4);
+      while (magic.hasRemaining() && channel.read(magic) >= 0) {
+        // keep reading until the magic number is complete or the file ends
+      }
+      return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+    }
+  }
+
+  int blockCount() {
+    return days.length;
+  }
+
+  int day(int block) {
+    return days[block];
+  }
+
+  List<ImmutableContactEvent> readBlock(int block) {
+    MappedByteBuffer buffer;
+    try {
+      buffer = channel.map(MapMode.READ_ONLY, offsets[block], lengths[block]);
+    } catch (IOException e) {
+      throw new ContactArchiveException("Unable to read the contacts of day " + days[block], e);
+    }
+
+    int count = counts[block];
+    int[] from = new int[count];
+    int[] to = new int[count];
+    int previous = 0;
+    for (int i = 0; i < count; i++) {
+      previous += zigzagDecode(readVarint(buffer));
+      from[i] = previous;
+    }
+    for (int i = 0; i < count; i++) {
+      to[i] = from[i] + zigzagDecode(readVarint(buffer));
+    }
+    double[] weights = new double[count];
+    for (int i = 0; i < count; i++) {
+      weights[i] = buffer.getDouble();
+    }
+
+    List<ImmutableContactEvent> events = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      events.add(
+          ImmutableContactEvent.builder()
+              .time(days[block])
+              .from(from[i])
+              .to(to[i])
+              .weight(weights[i])
+              .label(labels.get(readVarint(buffer)))
+              .build());
+    }
+    return events;
+  }
+
+  ContactDays days() {
+    return new ContactDays() {
+      private int block;
+
+      @Override
+      public OptionalInt nextDay() {
+        return block < blockCount() ? OptionalInt.of(day(block)) : OptionalInt.empty();
+      }
+
+      @Override
+      public List<ImmutableContactEvent> readDay() {
+        return readBlock(block++);
+      }
+    };
+  }
+
+  private static int readVarint(ByteBuffer buffer) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = buffer.get();
+      value |= (b & 0x7f) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+
+  private static int zigzagDecode(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,12 @@
+package uk.co.ramp.io;
+
+public class ContactArchiveException extends RuntimeException {
+
+  public ContactArchiveException(String message) {
+    super(message);
+  }
+
+  public ContactArchiveException(String message, Exception e) {
+    super(message, e);
+  }
+}
@@ -0,0 +1,127 @@
+package uk.co.ramp.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+import uk.co.ramp.io.csv.CsvReader;
+
+/**
+ * Converts a contacts CSV file, sorted by time, into a {@link ContactArchive}. Only one day of
+ * contacts is held in memory at a time.
+ *
+ * <p>Run as {@code ContactArchiveWriter <contacts.csv> <archive>}; the archive can then be given as
+ * the contact data in place of the CSV file.
+ */
+public class ContactArchiveWriter {
+  private static final Logger LOGGER = LogManager.getLogger(ContactArchiveWriter.class);
+
+  private final Map<String, Integer> labelIds = new HashMap<>();
+  private final List<String> labels = new ArrayList<>();
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      LOGGER.error("Usage: ContactArchiveWriter <contacts.csv> <archive>");
+      System.exit(2);
+    }
+    try (Reader reader = new FileReader(args[0])) {
+      new ContactArchiveWriter().write(reader, Path.of(args[1]));
+    }
+  }
+
+  public void write(Reader csv, Path archive) throws IOException {
+    ContactDays days =
+        new CsvContactDays(new CsvReader().iterate(csv, ImmutableContactEvent.class));
+
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(archive)))) {
+      out.writeInt(ContactArchive.MAGIC);
+      out.writeInt(ContactArchive.VERSION);
+      long offset = 8;
+
+      ByteArrayOutputStream index = new ByteArrayOutputStream();
+      DataOutputStream indexOut = new DataOutputStream(index);
+      int blockCount = 0;
+      while (days.nextDay().isPresent()) {
+        int day = days.nextDay().getAsInt();
+        List<ImmutableContactEvent> events = days.readDay();
+        byte[] block = encodeBlock(events);
+        out.write(block);
+
+        indexOut.writeInt(day);
+        indexOut.writeInt(events.size());
+        indexOut.writeLong(offset);
+        indexOut.writeInt(block.length);
+        offset += block.length;
+        blockCount++;
+      }
+
+      long tableOffset = offset;
+      out.writeInt(labels.size());
+      for (String label : labels) {
+        byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+      out.writeInt(blockCount);
+      index.writeTo(out);
+      out.writeLong(tableOffset);
+
+      LOGGER.info("Wrote {} days of contacts to {}", blockCount, archive);
+    }
+  }
+
+  private byte[] encodeBlock(List<ImmutableContactEvent> events) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    int previous = 0;
+    for (ImmutableContactEvent event : events) {
+      writeVarint(out, zigzagEncode(event.from() - previous));
+      previous = event.from();
+    }
+    for (ImmutableContactEvent event : events) {
+      writeVarint(out, zigzagEncode(event.to() - event.from()));
+    }
+    for (ImmutableContactEvent event : events) {
+      out.writeDouble(event.weight());
+    }
+    for (ImmutableContactEvent event : events) {
+      writeVarint(out, labelId(event.label()));
+    }
+    return bytes.toByteArray();
+  }
+
+  private int labelId(String label) {
+    return labelIds.computeIfAbsent(
+        label,
+        l -> {
+          labels.add(l);
+          return labels.size() - 1;
+        });
+  }
+
+  private static void writeVarint(OutputStream out, int value) throws IOException {
+    while ((value & ~0x7f) != 0) {
+      out.write((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  private static int zigzagEncode(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+}
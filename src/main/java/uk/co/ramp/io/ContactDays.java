@@ -0,0 +1,15 @@
+package uk.co.ramp.io;
+
+import java.util.List;
+import java.util.OptionalInt;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+
+/** The contacts of a contact data file, read one day at a time in order of day. */
+interface ContactDays {
+
+  /** The day that {@link #readDay()} will return next, or empty once all days have been read. */
+  OptionalInt nextDay();
+
+  /** Reads the contacts of the next day, in the order they appear in the file. */
+  List<ImmutableContactEvent> readDay();
+}
@@ -3,14 +3,15 @@ package uk.co.ramp.io;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.TreeMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import uk.co.ramp.distribution.AliasTable;
 import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.RandomStreams.Purpose;
 import uk.co.ramp.event.types.ContactEvent;
 import uk.co.ramp.event.types.ImmutableContactEvent;
 import uk.co.ramp.io.csv.CsvReader;
@@ -21,55 +22,138 @@ public class ContactReader {
 
   private final StandardProperties properties;
   private final DistributionSampler distributionSampler;
+  // the time step within a day of each contact
+  private final AliasTable timeStepTable;
 
   @Autowired
   public ContactReader(
       StandardProperties standardProperties, DistributionSampler distributionSampler) {
     this.properties = standardProperties;
     this.distributionSampler = distributionSampler;
+    this.timeStepTable = new AliasTable(standardProperties.timeStepSpread());
   }
 
   public List<ContactEvent> readEvents(Reader reader) throws IOException {
+    return resampleEvents(parseEvents(reader));
+  }
 
-    List<ImmutableContactEvent> contactEvents =
-        new CsvReader().read(reader, ImmutableContactEvent.class);
+  /**
+   * Reads the contacts as they appear in the file, timed by day, so that each run of an ensemble
+   * can spread them over the time steps of their days with its own draws.
+   */
+  public List<ImmutableContactEvent> parseEvents(Reader reader) throws IOException {
+    return new CsvReader().read(reader, ImmutableContactEvent.class);
+  }
 
-    contactEvents = resampleContacts(contactEvents);
+  /** As {@link #parseEvents(Reader)}, for the days of the archive that fall within the run. */
+  public List<ImmutableContactEvent> parseArchive(ContactArchive archive) {
+    ContactDays days = archive.days();
+    List<ImmutableContactEvent> contactEvents = new ArrayList<>();
+    while (days.nextDay().isPresent()
+        && firstTimeStep(days.nextDay().getAsInt()) <= lastTimeStep()) {
+      contactEvents.addAll(days.readDay());
+    }
+    return contactEvents;
+  }
 
-    return contactEvents.stream()
-        .filter(event -> event.from() < properties.populationSize())
-        .filter(event -> event.to() < properties.populationSize())
-        .filter(event -> event.time() <= properties.timeLimitDays() * properties.timeStepsPerDay())
-        .collect(Collectors.toUnmodifiableList());
+  /** Spreads contacts timed by day over the time steps of the run, drawing from this reader. */
+  public List<ContactEvent> resampleEvents(List<ImmutableContactEvent> contactEvents) {
+    return List.copyOf(resampleContacts(contactEvents));
   }
 
+  /** Whether contacts should be read a day at a time as the run reaches them. */
+  public boolean isStreaming() {
+    return properties.streamContacts().orElse(false);
+  }
+
+  /**
+   * Opens a stream over contacts sorted by day, which reads each day only when the run reaches it.
+   * The reader must stay open for as long as the stream is used.
+   */
+  public ContactStream streamEvents(Reader reader) throws IOException {
+    return new ContactStream(
+        new CsvContactDays(new CsvReader().iterate(reader, ImmutableContactEvent.class)),
+        this,
+        lastTimeStep());
+  }
+
+  /** Reads the contacts of every day of the archive that falls within the run. */
+  public List<ContactEvent> readArchive(ContactArchive archive) {
+    return List.copyOf(streamArchive(archive).readUpTo(lastTimeStep()));
+  }
+
+  /** As {@link #streamEvents(Reader)}, decoding each day of the archive as it is reached. */
+  public ContactStream streamArchive(ContactArchive archive) {
+    return new ContactStream(archive.days(), this, lastTimeStep());
+  }
+
+  /**
+   * Spreads the contacts within the run over the time steps of their days, returning them sorted by
+   * time.
+   */
   List<ImmutableContactEvent> resampleContacts(List<ImmutableContactEvent> contactEvents) {
-    int steps = properties.timeStepsPerDay();
-    int offset = properties.dayOffset().orElse(0);
-
-    Set<Integer> timeSteps =
-        contactEvents.stream().map(ImmutableContactEvent::time).collect(Collectors.toSet());
-    List<ImmutableContactEvent> events = new ArrayList<>();
-    for (int step : timeSteps) {
-
-      List<ImmutableContactEvent> timeEvents =
-          contactEvents.stream().filter(event -> event.time() == step).collect(Collectors.toList());
-
-      int start = (step - offset) * steps;
-      int end = start + steps - 1;
-      int[] outcomes = IntStream.rangeClosed(start, end).toArray();
-
-      events.addAll(
-          timeEvents.stream()
-              .map(
-                  i ->
-                      ImmutableContactEvent.copyOf(i)
-                          .withTime(
-                              distributionSampler.resampleDays(
-                                  outcomes, properties.timeStepSpread())))
-              .collect(Collectors.toList()));
+    Map<Integer, List<ImmutableContactEvent>> eventsByDay = new TreeMap<>();
+    for (ImmutableContactEvent event : contactEvents) {
+      if (isInPopulation(event) && firstTimeStep(event.time()) <= lastTimeStep()) {
+        eventsByDay.computeIfAbsent(event.time(), day -> new ArrayList<>()).add(event);
+      }
     }
-    events.sort(Comparator.comparingInt(ImmutableContactEvent::time));
+
+    // the days cover consecutive time steps, so their contacts stay in order
+    List<ImmutableContactEvent> events = new ArrayList<>(contactEvents.size());
+    eventsByDay.forEach((day, dayEvents) -> events.addAll(resampleDay(day, dayEvents)));
     return events;
   }
+
+  /**
+   * Spreads the contacts of one day that are within the run over its time steps, returning them
+   * sorted by time.
+   */
+  List<ImmutableContactEvent> resampleDay(int day, List<ImmutableContactEvent> dayEvents) {
+    int start = firstTimeStep(day);
+    int[] counts = new int[timeStepTable.size()];
+    int[] timeSteps = new int[dayEvents.size()];
+    int inPopulation = 0;
+    for (ImmutableContactEvent event : dayEvents) {
+      if (isInPopulation(event)) {
+        int timeStep =
+            distributionSampler.sample(timeStepTable, Purpose.CONTACT_TIME, inPopulation, day);
+        timeSteps[inPopulation++] = timeStep;
+        counts[timeStep]++;
+      }
+    }
+
+    // a stable counting sort of the contacts by their time step within the day
+    int[] offsets = new int[counts.length];
+    int runEnd = Math.min(counts.length, lastTimeStep() - start + 1);
+    int size = 0;
+    for (int timeStep = 0; timeStep < runEnd; timeStep++) {
+      offsets[timeStep] = size;
+      size += counts[timeStep];
+    }
+
+    ImmutableContactEvent[] events = new ImmutableContactEvent[size];
+    int i = 0;
+    for (ImmutableContactEvent event : dayEvents) {
+      if (isInPopulation(event)) {
+        int timeStep = timeSteps[i++];
+        if (timeStep < runEnd) {
+          events[offsets[timeStep]++] = event.withTime(start + timeStep);
+        }
+      }
+    }
+    return Arrays.asList(events);
+  }
+
+  int firstTimeStep(int day) {
+    return (day - properties.dayOffset().orElse(0)) * properties.timeStepsPerDay();
+  }
+
+  int lastTimeStep() {
+    return properties.timeLimitDays() * properties.timeStepsPerDay();
+  }
+
+  private boolean isInPopulation(ContactEvent event) {
+    return event.from() < properties.populationSize() && event.to() < properties.populationSize();
+  }
 }
@@ -0,0 +1,39 @@
+package uk.co.ramp.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.ContactSource;
+
+/**
+ * Reads contact data one day at a time. A day is only read once the run reaches its first time
+ * step, so only the contacts that are still pending are held in memory, rather than the whole file.
+ */
+public class ContactStream implements ContactSource {
+  private final ContactDays days;
+  private final ContactReader contactReader;
+  private final int lastTimeStep;
+
+  ContactStream(ContactDays days, ContactReader contactReader, int lastTimeStep) {
+    this.days = days;
+    this.contactReader = contactReader;
+    this.lastTimeStep = lastTimeStep;
+  }
+
+  @Override
+  public List<ContactEvent> readUpTo(int time) {
+    List<ContactEvent> events = new ArrayList<>();
+    while (!isExhausted() && contactReader.firstTimeStep(days.nextDay().getAsInt()) <= time) {
+      int day = days.nextDay().getAsInt();
+      events.addAll(contactReader.resampleDay(day, days.readDay()));
+    }
+    return events;
+  }
+
+  @Override
+  public boolean isExhausted() {
+    // days starting after the end of the run are never needed
+    return days.nextDay().isEmpty()
+        || contactReader.firstTimeStep(days.nextDay().getAsInt()) > lastTimeStep;
+  }
+}
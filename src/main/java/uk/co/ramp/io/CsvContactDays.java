@@ -0,0 +1,59 @@
+package uk.co.ramp.io;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+import uk.co.ramp.io.csv.CsvException;
+
+/** Groups the rows of a contacts CSV file sorted by time into days as they are read. */
+class CsvContactDays implements ContactDays {
+  private static final Logger LOGGER = LogManager.getLogger(CsvContactDays.class);
+
+  private final MappingIterator<ImmutableContactEvent> iterator;
+  private ImmutableContactEvent next;
+
+  CsvContactDays(MappingIterator<ImmutableContactEvent> iterator) {
+    this.iterator = iterator;
+    this.next = readNext();
+  }
+
+  @Override
+  public OptionalInt nextDay() {
+    return next == null ? OptionalInt.empty() : OptionalInt.of(next.time());
+  }
+
+  @Override
+  public List<ImmutableContactEvent> readDay() {
+    int day = next.time();
+    List<ImmutableContactEvent> dayEvents = new ArrayList<>();
+    while (next != null && next.time() == day) {
+      dayEvents.add(next);
+      next = readNext();
+    }
+    if (next != null && next.time() < day) {
+      String message =
+          "Contact data must be sorted by time to be read by day, but day "
+              + next.time()
+              + " follows day "
+              + day;
+      LOGGER.error(message);
+      throw new CsvException(message);
+    }
+    return dayEvents;
+  }
+
+  private ImmutableContactEvent readNext() {
+    try {
+      return iterator.hasNextValue() ? iterator.nextValue() : null;
+    } catch (IOException e) {
+      String message = "An error occurred while reading the contact data";
+      LOGGER.error(message);
+      throw new CsvException(message, e);
+    }
+  }
+}
@@ -1,12 +1,9 @@
 package uk.co.ramp.io;
 
-import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
-
 import com.google.common.base.Strings;
 import java.io.IOException;
 import java.io.Writer;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.co.ramp.io.types.StandardProperties;
@@ -16,6 +13,7 @@ import uk.co.ramp.statistics.StatisticsRecorder;
 public class InfectionMap {
 
   private static final Logger LOGGER = LogManager.getLogger(InfectionMap.class);
+  private static final String SPACER = "           ";
   private final Map<Integer, Case> population;
   private final StatisticsRecorder statisticsRecorder;
   private final StandardProperties properties;
@@ -30,27 +28,19 @@ public class InfectionMap {
   }
 
   public void outputMap(Writer writer) {
+    output(writer, InfectionMapFormat.TEXT);
+  }
 
-    Map<Integer, List<Case>> infectors = collectInfectors();
-
-    // initial infections sorted by id
-    List<Case> rootInfections =
-        infectors.values().stream()
-            .flatMap(Collection::stream)
-            .filter(e -> e.exposedBy() == Case.getInitial())
-            .sorted(Comparator.comparing(Case::id))
-            .collect(Collectors.toList());
-
-    // random infections sorted by exposed time
-    rootInfections.addAll(
-        infectors.entrySet().stream()
-            .flatMap(e -> e.getValue().stream())
-            .filter(e -> e.exposedBy() == Case.getRandomInfection())
-            .sorted(Comparator.comparing(Case::exposedTime))
-            .collect(Collectors.toList()));
+  public void output(Writer writer, InfectionMapFormat format) {
+    TransmissionTree tree = TransmissionTree.of(population);
+    recordInfectionSpread(tree);
 
     try {
-      recurseSet(rootInfections, infectors, writer, 1);
+      if (format == InfectionMapFormat.EDGE_LIST) {
+        writeEdgeList(tree, writer);
+      } else {
+        writeTree(tree, writer);
+      }
     } catch (IOException e) {
       String message = "An error occurred while writing the map file: " + e.getMessage();
       LOGGER.error(message);
@@ -58,63 +48,84 @@ public class InfectionMap {
     }
   }
 
-  void recurseSet(List<Case> target, Map<Integer, List<Case>> infectors, Writer writer, int tab)
-      throws IOException {
-
-    String spacer = "           ".repeat(tab - 1);
-
-    for (Case seed : target) {
-      if (infectors.containsKey(seed.id())) {
-        List<Case> newSeeds = new ArrayList<>(infectors.get(seed.id()));
-
-        statisticsRecorder.recordInfectionSpread(seed, newSeeds.size());
-        List<String> infections = getInfections(newSeeds);
+  // everyone infected down the chains from the initial and random infections
+  void recordInfectionSpread(TransmissionTree tree) {
+    for (int root : tree.roots()) {
+      tree.visitSubtree(
+          root,
+          (node, depth) ->
+              statisticsRecorder.recordInfectionSpread(
+                  population.get(tree.id(node)), tree.offspringCount(node)));
+    }
+  }
 
-        if (tab == 1) {
-          writer.write(getSource(seed) + "  ->  " + infections + "\n");
-        } else {
-          writer.write(spacer + "   ->  " + getSource(seed) + "   ->  " + infections + "\n");
-        }
+  void writeTree(TransmissionTree tree, Writer writer) throws IOException {
+    for (int root : tree.roots()) {
+      if (tree.offspringCount(root) == 0) {
+        continue;
+      }
 
-        recurseSet(newSeeds, infectors, writer, tab + 1);
-        if (tab == 1) writer.write("\n");
+      tree.visitSubtree(
+          root,
+          (node, depth) -> {
+            if (tree.offspringCount(node) == 0) {
+              return;
+            }
+            if (depth == 0) {
+              writer.write(getSource(tree, node) + "  ->  ");
+            } else {
+              writer.write(SPACER.repeat(depth) + "   ->  " + getSource(tree, node) + "   ->  ");
+            }
+            writeInfections(tree, node, writer);
+          });
+      writer.write("\n");
+    }
+  }
 
-      } else {
-        statisticsRecorder.recordInfectionSpread(seed, 0);
+  private void writeInfections(TransmissionTree tree, int node, Writer writer) throws IOException {
+    writer.write('[');
+    for (int i = 0; i < tree.offspringCount(node); i++) {
+      if (i > 0) {
+        writer.write(", ");
       }
+      writer.write(getSource(tree, tree.child(node, i)).trim());
     }
+    writer.write("]\n");
   }
 
-  private List<String> getInfections(List<Case> newSeeds) {
-    return newSeeds.stream().map(this::getSource).map(String::trim).collect(Collectors.toList());
+  /**
+   * Writes one line per infection, giving the infector, or initial or random for the seed
+   * infections, the individual infected and the day they were infected.
+   */
+  void writeEdgeList(TransmissionTree tree, Writer writer) throws IOException {
+    writer.write("infector,infected,day\n");
+    for (int root : tree.roots()) {
+      tree.visitSubtree(
+          root,
+          (node, depth) -> {
+            if (depth > 0) {
+              writer.write(String.valueOf(tree.exposedBy(node)));
+            } else {
+              writer.write(tree.exposedBy(node) == Case.getInitial() ? "initial" : "random");
+            }
+            writer.write("," + tree.id(node) + "," + day(tree.exposedTime(node)) + "\n");
+          });
+    }
   }
 
-  Map<Integer, List<Case>> collectInfectors() {
-
-    List<Case> infections =
-        population.values().stream()
-            .filter(c -> c.virusStatus() != SUSCEPTIBLE)
-            .sorted(Comparator.comparingInt(Case::exposedTime))
-            .collect(Collectors.toList());
-
-    Map<Integer, List<Case>> infectors = new HashMap<>();
-
-    infections.forEach(
-        i -> {
-          int key = i.exposedBy();
-          infectors.putIfAbsent(key, new ArrayList<>());
-          infectors.computeIfPresent(
-              key,
-              (id, set) -> {
-                set.add(i);
-                return set;
-              });
-        });
-    return infectors;
+  public String getSource(Case c) {
+    return source(c.id(), c.exposedTime());
   }
 
-  public String getSource(Case c) {
-    return Strings.padEnd(
-        c.id() + "(" + c.exposedTime() / (double) properties.timeStepsPerDay() + ")", 12, ' ');
+  private String getSource(TransmissionTree tree, int node) {
+    return source(tree.id(node), tree.exposedTime(node));
+  }
+
+  private String source(int id, int exposedTime) {
+    return Strings.padEnd(id + "(" + day(exposedTime) + ")", 12, ' ');
+  }
+
+  private double day(int exposedTime) {
+    return exposedTime / (double) properties.timeStepsPerDay();
   }
 }
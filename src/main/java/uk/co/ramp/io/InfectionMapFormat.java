@@ -0,0 +1,16 @@
+package uk.co.ramp.io;
+
+public enum InfectionMapFormat {
+  TEXT("infectionMap.txt"),
+  EDGE_LIST("infectionMap.csv");
+
+  private final String fileName;
+
+  InfectionMapFormat(String fileName) {
+    this.fileName = fileName;
+  }
+
+  public String fileName() {
+    return fileName;
+  }
+}
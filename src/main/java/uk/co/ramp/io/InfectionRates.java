@@ -12,7 +12,9 @@ public class InfectionRates {
   }
 
   public double getInfectionRate(VirusStatus status) {
-    return infectionRates.getOrDefault(status, 0d);
+    // avoids boxing a default on every contact
+    Double rate = infectionRates.get(status);
+    return rate == null ? 0d : rate;
   }
 
   public Map<VirusStatus, Double> getInfectionRates() {
@@ -2,6 +2,9 @@ package uk.co.ramp.io;
 
 import static uk.co.ramp.people.VirusStatus.*;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -12,7 +15,7 @@ import uk.co.ramp.io.types.StandardProperties;
 import uk.co.ramp.people.VirusStatus;
 
 @Service
-public class LogDailyOutput {
+public class LogDailyOutput implements Checkpointed {
 
   private static final Logger LOGGER = LogManager.getLogger(LogDailyOutput.class);
   private final int timeStepsPerDay;
@@ -70,4 +73,14 @@ public class LogDailyOutput {
         + stats.get(SYMPTOMATIC)
         + stats.get(SEVERELY_SYMPTOMATIC);
   }
+
+  @Override
+  public void writeCheckpoint(DataOutput out) throws IOException {
+    out.writeInt(previousActiveCases);
+  }
+
+  @Override
+  public void readCheckpoint(DataInput in) throws IOException {
+    previousActiveCases = in.readInt();
+  }
 }
@@ -0,0 +1,95 @@
+package uk.co.ramp.io;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Formats and writes output on a background thread while the run continues. Writes are made one at
+ * a time in the order they are submitted, and submitting waits while the queue is full, so output
+ * that falls behind holds the run back rather than being held in memory. Closing the pipeline waits
+ * for every write to finish and rethrows the first failure.
+ *
+ * <p>A write runs after everything the submitting thread did before submitting it, so it may read
+ * state that is not changed again once it is submitted.
+ */
+public final class OutputPipeline implements AutoCloseable {
+  private static final Logger LOGGER = LogManager.getLogger(OutputPipeline.class);
+  private static final int DEFAULT_CAPACITY = 256;
+  private static final Runnable END = () -> {};
+
+  private final BlockingQueue<Runnable> queue;
+  private final Thread thread;
+  private volatile RuntimeException failure;
+  private boolean closed;
+
+  public OutputPipeline(String name) {
+    this(name, DEFAULT_CAPACITY);
+  }
+
+  public OutputPipeline(String name, int capacity) {
+    Preconditions.checkArgument(capacity > 0, "The output queue should hold at least one write");
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.thread = new Thread(this::drain, name);
+    // output is always flushed by close, this only stops a failed run leaving the thread behind
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /** Queues a write, waiting while the queue is full, or throws if an earlier write failed. */
+  public void submit(Runnable write) {
+    Preconditions.checkState(!closed, "The output pipeline has been closed");
+    rethrowFailure();
+    put(write);
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      put(END);
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for output to be written", e);
+      }
+    }
+    rethrowFailure();
+  }
+
+  private void put(Runnable write) {
+    try {
+      queue.put(write);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting to queue output", e);
+    }
+  }
+
+  private void drain() {
+    try {
+      for (Runnable write = queue.take(); write != END; write = queue.take()) {
+        // later writes are skipped after a failure, but still taken so that submitting never blocks
+        if (failure == null) {
+          try {
+            write.run();
+          } catch (RuntimeException e) {
+            LOGGER.error("An error occurred while writing output", e);
+            failure = e;
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      failure = new IllegalStateException("Interrupted while writing output", e);
+    }
+  }
+
+  private void rethrowFailure() {
+    if (failure != null) {
+      throw failure;
+    }
+  }
+}
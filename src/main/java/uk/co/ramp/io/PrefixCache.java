@@ -0,0 +1,375 @@
+package uk.co.ramp.io;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.io.BaseEncoding;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.immutables.value.Value;
+import uk.co.ramp.io.types.DiseaseProperties;
+import uk.co.ramp.io.types.ImmutableStandardProperties;
+import uk.co.ramp.io.types.InputFiles;
+import uk.co.ramp.io.types.PopulationProperties;
+import uk.co.ramp.io.types.StandardProperties;
+
+/**
+ * Snapshots of runs on local disk, from which a later run whose inputs give the same behaviour up
+ * to a snapshot is resumed rather than run from the start. Snapshots are keyed by a digest of the
+ * inputs, the random seed and the state of the run before its first time step.
+ *
+ * <p>Every input except the isolation policies must match. Proportion infected isolation policies
+ * that the run had not reached by the time of a snapshot are left out of its key, so runs that
+ * differ only by policies that take effect later share their earlier snapshots.
+ *
+ * <p>The least recently used snapshots are deleted once the snapshots exceed the size limit. The
+ * cache is shared by the runs of an ensemble or sweep, which may run on other threads.
+ */
+public class PrefixCache {
+  private static final Logger LOGGER = LogManager.getLogger(PrefixCache.class);
+  private static final int MAGIC = 0x52504658;
+  private static final int VERSION = 1;
+  private static final String SUFFIX = ".snapshot";
+  private static final Pattern FILE_NAME =
+      Pattern.compile("([0-9a-f]+)-([0-9]+)-([0-9a-f]+)" + Pattern.quote(SUFFIX));
+  private static final int DEFAULT_INTERVAL_DAYS = 7;
+  private static final int DEFAULT_MEGABYTES = 1024;
+
+  private final StandardProperties properties;
+  private final InputFiles sharedInputs;
+  private final DiseaseProperties diseaseProperties;
+  private final PopulationProperties populationProperties;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private byte[] sharedDigest;
+
+  /**
+   * A cache of runs with the given shared inputs, which are read once for every run of an ensemble
+   * or sweep. The inputs that may differ between runs are given for each run.
+   */
+  public PrefixCache(
+      StandardProperties properties,
+      InputFiles sharedInputs,
+      DiseaseProperties diseaseProperties,
+      PopulationProperties populationProperties) {
+    this.properties = properties;
+    this.sharedInputs = sharedInputs;
+    this.diseaseProperties = diseaseProperties;
+    this.populationProperties = populationProperties;
+  }
+
+  public boolean isEnabled() {
+    return properties.prefixCache().isPresent();
+  }
+
+  /** Whether a snapshot is stored after the given time step. */
+  public boolean isSnapshotTime(int time) {
+    int interval =
+        properties
+            .prefixCacheInterval()
+            .orElse(DEFAULT_INTERVAL_DAYS * properties.timeStepsPerDay());
+    return (time + 1) % interval == 0;
+  }
+
+  /**
+   * The snapshots of a run with the given inputs and random stream seed, whose state before the
+   * first time step is written by the given writer.
+   */
+  public Run forRun(InputFiles runInputs, long streamSeed, SnapshotWriter initialState) {
+    try {
+      MessageDigest digest = newDigest();
+      DataOutputStream out =
+          new DataOutputStream(
+              new BufferedOutputStream(
+                  new DigestOutputStream(OutputStream.nullOutputStream(), digest), 1 << 16));
+      out.write(sharedDigest());
+      // the isolation policies are compared separately, as they depend on the snapshot's time
+      writeFile(out, runInputs.tracingPolicies());
+      writeFile(out, runInputs.initialExposures());
+      out.writeLong(streamSeed);
+      initialState.write(out);
+      out.flush();
+      return new Run(
+          BaseEncoding.base16().lowerCase().encode(digest.digest(), 0, 16),
+          objectMapper.readTree(new File(runInputs.isolationPolicies())));
+    } catch (IOException e) {
+      String message = "An error occurred while reading the inputs of the run for the prefix cache";
+      LOGGER.error(message);
+      throw new CheckpointException(message, e);
+    }
+  }
+
+  // the inputs shared by every run, other than the random seed
+  private synchronized byte[] sharedDigest() throws IOException {
+    if (sharedDigest == null) {
+      MessageDigest digest = newDigest();
+      try (DataOutputStream out =
+          new DataOutputStream(
+              new BufferedOutputStream(
+                  new DigestOutputStream(OutputStream.nullOutputStream(), digest), 1 << 16))) {
+        out.writeInt(VERSION);
+        writeString(out, engineProperties().toString());
+        // distributions leave out their generators, which are auxiliary, from their descriptions
+        writeString(out, diseaseProperties.toString());
+        writeString(out, populationProperties.toString());
+        writeFile(out, sharedInputs.contactData());
+        writeFile(out, sharedInputs.ageData());
+        writeFile(out, sharedInputs.infectionRates());
+        writeFile(out, sharedInputs.populationOverrides());
+      }
+      sharedDigest = digest.digest();
+    }
+    return sharedDigest;
+  }
+
+  // the settings that change how the model runs, rather than what is written or how runs are made
+  private StandardProperties engineProperties() {
+    return ImmutableStandardProperties.copyOf(properties)
+        .withSeed(OptionalInt.empty())
+        .withInfectionMapFormat(Optional.empty())
+        .withEventJournal(Optional.empty())
+        .withCheckpointTimeSteps(List.of())
+        .withBranchTimeStep(OptionalInt.empty())
+        .withEnsembleSize(OptionalInt.empty())
+        .withEnsembleThreads(OptionalInt.empty())
+        .withPrefixCache(Optional.empty())
+        .withPrefixCacheInterval(OptionalInt.empty())
+        .withPrefixCacheMegabytes(OptionalInt.empty())
+        .withMetrics(Optional.empty())
+        .withMetricsInterval(OptionalInt.empty());
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static void writeFile(DataOutputStream out, String location) throws IOException {
+    Path path = Path.of(location);
+    if (!Files.isRegularFile(path)) {
+      out.writeLong(-1);
+      return;
+    }
+    out.writeLong(Files.size(path));
+    Files.copy(path, out);
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private Path folder() throws IOException {
+    return Files.createDirectories(Path.of(properties.prefixCache().orElseThrow()));
+  }
+
+  private long maxBytes() {
+    return properties.prefixCacheMegabytes().orElse(DEFAULT_MEGABYTES) * (1L << 20);
+  }
+
+  // deletes the least recently used snapshots until they fit in the size limit
+  private synchronized void evict(Path folder) throws IOException {
+    Map<Path, BasicFileAttributes> snapshots = new HashMap<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*" + SUFFIX)) {
+      for (Path file : files) {
+        try {
+          snapshots.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+        } catch (NoSuchFileException e) {
+          // already evicted
+        }
+      }
+    }
+
+    long totalBytes = snapshots.values().stream().mapToLong(BasicFileAttributes::size).sum();
+    List<Path> leastRecentlyUsed = new ArrayList<>(snapshots.keySet());
+    leastRecentlyUsed.sort(Comparator.comparing(file -> snapshots.get(file).lastModifiedTime()));
+    for (Path snapshot : leastRecentlyUsed) {
+      if (totalBytes <= maxBytes()) {
+        break;
+      }
+      Files.deleteIfExists(snapshot);
+      totalBytes -= snapshots.get(snapshot).size();
+      LOGGER.debug("Evicted {} from the prefix cache", snapshot);
+    }
+  }
+
+  @Value.Immutable
+  interface Snapshot {
+    @Value.Parameter
+    Path path();
+
+    @Value.Parameter
+    int time();
+
+    @Value.Parameter
+    String isolationKey();
+  }
+
+  /** Writes a snapshot of a run to a stream. */
+  @FunctionalInterface
+  public interface SnapshotWriter {
+    void write(OutputStream out) throws IOException;
+  }
+
+  /** Reads a snapshot of a run from a stream, returning what is known of the run's progress. */
+  @FunctionalInterface
+  public interface SnapshotReader<T> {
+    T read(InputStream in) throws IOException;
+  }
+
+  /** The snapshots of one run's inputs. */
+  public final class Run {
+    private final String key;
+    private final JsonNode isolationPolicies;
+
+    private Run(String key, JsonNode isolationPolicies) {
+      this.key = key;
+      this.isolationPolicies = isolationPolicies;
+    }
+
+    /**
+     * Reads the latest snapshot at or before the time limit whose isolation policies match this
+     * run's, if there is one. A snapshot that cannot be read once found is deleted, and the error
+     * rethrown, as the run's state may have been partly replaced.
+     */
+    public <T> Optional<T> load(int timeLimit, SnapshotReader<T> reader) {
+      List<Snapshot> snapshots = new ArrayList<>();
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(folder(), key + "-*" + SUFFIX)) {
+        for (Path file : files) {
+          Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+          if (matcher.matches()
+              && matcher.group(1).equals(key)
+              && Integer.parseInt(matcher.group(2)) <= timeLimit) {
+            snapshots.add(
+                ImmutableSnapshot.of(file, Integer.parseInt(matcher.group(2)), matcher.group(3)));
+          }
+        }
+      } catch (IOException e) {
+        LOGGER.warn("The prefix cache could not be read, so the run starts from the beginning", e);
+        return Optional.empty();
+      }
+
+      snapshots.sort(Comparator.comparing(Snapshot::time).reversed());
+      for (Snapshot snapshot : snapshots) {
+        try (DataInputStream in =
+            new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot.path())))) {
+          if (in.readInt() != MAGIC
+              || !isolationKey(in.readDouble()).equals(snapshot.isolationKey())) {
+            continue;
+          }
+          T state = read(snapshot.path(), in, reader);
+          Files.setLastModifiedTime(
+              snapshot.path(), FileTime.fromMillis(System.currentTimeMillis()));
+          LOGGER.info("Resuming from the prefix cache at time step {}", snapshot.time());
+          return Optional.of(state);
+        } catch (NoSuchFileException e) {
+          // evicted by another run since the folder was listed
+        } catch (IOException e) {
+          LOGGER.warn("The prefix cache snapshot {} could not be read", snapshot.path(), e);
+        }
+      }
+      return Optional.empty();
+    }
+
+    private <T> T read(Path snapshot, InputStream in, SnapshotReader<T> reader) {
+      try {
+        return reader.read(in);
+      } catch (IOException e) {
+        String message = "An error occurred while reading the prefix cache snapshot " + snapshot;
+        LOGGER.error(message);
+        try {
+          Files.deleteIfExists(snapshot);
+        } catch (IOException deleteFailed) {
+          e.addSuppressed(deleteFailed);
+        }
+        throw new CheckpointException(message, e);
+      }
+    }
+
+    /**
+     * Stores a snapshot of the run after the given time step, unless there is one already. The
+     * largest proportion of the population infectious at any earlier time step decides which
+     * proportion infected isolation policies could have applied.
+     */
+    public void store(int time, double maxProportionInfectious, SnapshotWriter writer) {
+      try {
+        Path folder = folder();
+        Path snapshot =
+            folder.resolve(
+                key + "-" + time + "-" + isolationKey(maxProportionInfectious * 100) + SUFFIX);
+        if (Files.exists(snapshot)) {
+          return;
+        }
+
+        // written in full before it is moved into place, so runs never read part of a snapshot
+        Path partial = Files.createTempFile(folder, key, ".tmp");
+        try {
+          try (DataOutputStream out =
+              new DataOutputStream(
+                  new BufferedOutputStream(Files.newOutputStream(partial), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeDouble(maxProportionInfectious * 100);
+            writer.write(out);
+          }
+          Files.move(partial, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+          Files.deleteIfExists(partial);
+        }
+        LOGGER.debug("Stored time step {} in the prefix cache", time);
+        evict(folder);
+      } catch (IOException e) {
+        LOGGER.warn(
+            "The snapshot of time step {} could not be stored in the prefix cache", time, e);
+      }
+    }
+
+    // the isolation policies that could have applied while no more was infected than given
+    private String isolationKey(double maxPercentInfected) throws IOException {
+      ObjectNode reached = (ObjectNode) isolationPolicies.deepCopy();
+      JsonNode global = reached.path("globalIsolationPolicies");
+      if (global.isArray()) {
+        ArrayNode reachedGlobal = reached.putArray("globalIsolationPolicies");
+        for (JsonNode policy : global) {
+          if (policy.path("proportionInfected").path("min").asDouble() <= maxPercentInfected) {
+            reachedGlobal.add(policy);
+          }
+        }
+      }
+      byte[] digest = newDigest().digest(objectMapper.writeValueAsBytes(reached));
+      return BaseEncoding.base16().lowerCase().encode(digest, 0, 8);
+    }
+  }
+}
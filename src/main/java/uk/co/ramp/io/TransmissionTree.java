@@ -0,0 +1,177 @@
+package uk.co.ramp.io;
+
+import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import uk.co.ramp.people.Case;
+
+/**
+ * Who infected whom, built from the exposed by field of every infected case. The infected cases are
+ * numbered in order of exposed time, then id, and the cases each one infected are held in that
+ * order in a single array, starting at the offset for their infector, so the tree is walked without
+ * boxing or recursion however long its chains are.
+ */
+public final class TransmissionTree {
+  private static final int NO_NODE = -1;
+
+  private final int[] ids;
+  private final int[] exposedBy;
+  private final int[] exposedTimes;
+  // the children of node n are children[childStart[n]] up to children[childStart[n + 1]]
+  private final int[] childStart;
+  private final int[] children;
+  private final int[] roots;
+
+  private TransmissionTree(
+      int[] ids,
+      int[] exposedBy,
+      int[] exposedTimes,
+      int[] childStart,
+      int[] children,
+      int[] roots) {
+    this.ids = ids;
+    this.exposedBy = exposedBy;
+    this.exposedTimes = exposedTimes;
+    this.childStart = childStart;
+    this.children = children;
+    this.roots = roots;
+  }
+
+  @FunctionalInterface
+  public interface NodeVisitor<E extends Exception> {
+    void visit(int node, int depth) throws E;
+  }
+
+  public static TransmissionTree of(Map<Integer, Case> population) {
+    // exposed time in the high bits and id in the low bits, so the keys sort by time then id
+    long[] keys =
+        population.values().stream()
+            .filter(c -> c.virusStatus() != SUSCEPTIBLE)
+            .mapToLong(c -> ((long) c.exposedTime() << 32) | c.id())
+            .toArray();
+    Arrays.parallelSort(keys);
+
+    int size = keys.length;
+    int[] ids = new int[size];
+    int[] exposedTimes = new int[size];
+    int maxId = -1;
+    for (int node = 0; node < size; node++) {
+      ids[node] = (int) keys[node];
+      exposedTimes[node] = (int) (keys[node] >> 32);
+      maxId = Math.max(maxId, ids[node]);
+    }
+
+    int[] nodeOf = new int[maxId + 1];
+    Arrays.fill(nodeOf, NO_NODE);
+    for (int node = 0; node < size; node++) {
+      nodeOf[ids[node]] = node;
+    }
+
+    int[] exposedBy = new int[size];
+    // parent node in the high bits, so the keys sort by infector then by the child's node
+    long[] edges = new long[size];
+    for (int node = 0; node < size; node++) {
+      exposedBy[node] = population.get(ids[node]).exposedBy();
+      int parent =
+          exposedBy[node] >= 0 && exposedBy[node] <= maxId ? nodeOf[exposedBy[node]] : NO_NODE;
+      edges[node] = ((long) parent << 32) | node;
+    }
+    Arrays.parallelSort(edges);
+
+    int[] children = Arrays.stream(edges).mapToInt(edge -> (int) edge).toArray();
+    // the offspring of each node are found independently, by searching for its first child
+    int[] childStart =
+        IntStream.rangeClosed(0, size).parallel().map(node -> firstEdgeFrom(edges, node)).toArray();
+
+    // initial infections by id, then random infections by exposed time
+    int[] roots =
+        Stream.of(
+                IntStream.range(0, size)
+                    .filter(node -> exposedBy[node] == Case.getInitial())
+                    .boxed()
+                    .sorted((a, b) -> Integer.compare(ids[a], ids[b]))
+                    .mapToInt(Integer::intValue),
+                IntStream.range(0, size)
+                    .filter(node -> exposedBy[node] == Case.getRandomInfection()))
+            .flatMapToInt(s -> s)
+            .toArray();
+
+    return new TransmissionTree(ids, exposedBy, exposedTimes, childStart, children, roots);
+  }
+
+  // the index of the first edge whose parent is at least the given node
+  private static int firstEdgeFrom(long[] edges, int node) {
+    int low = 0;
+    int high = edges.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if ((int) (edges[mid] >> 32) < node) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** The number of infected cases. */
+  public int size() {
+    return ids.length;
+  }
+
+  public int id(int node) {
+    return ids[node];
+  }
+
+  public int exposedBy(int node) {
+    return exposedBy[node];
+  }
+
+  public int exposedTime(int node) {
+    return exposedTimes[node];
+  }
+
+  public int offspringCount(int node) {
+    return childStart[node + 1] - childStart[node];
+  }
+
+  public int child(int node, int index) {
+    return children[childStart[node] + index];
+  }
+
+  /** The initial infections by id, followed by the random infections by exposed time. */
+  public int[] roots() {
+    return roots.clone();
+  }
+
+  /**
+   * Visits the root and everyone infected down the chains from it, depth first, each infector
+   * before those they infected and those in order of exposed time. The root is at depth zero.
+   */
+  public <E extends Exception> void visitSubtree(int root, NodeVisitor<E> visitor) throws E {
+    int[] nodes = {root};
+    int[] depths = {0};
+    int top = 1;
+
+    while (top > 0) {
+      int node = nodes[--top];
+      int depth = depths[top];
+      visitor.visit(node, depth);
+
+      int offspring = offspringCount(node);
+      if (top + offspring > nodes.length) {
+        int length = Math.max(2 * nodes.length, top + offspring);
+        nodes = Arrays.copyOf(nodes, length);
+        depths = Arrays.copyOf(depths, length);
+      }
+      // pushed last to first, so the first is visited next
+      for (int i = childStart[node + 1] - 1; i >= childStart[node]; i--) {
+        nodes[top] = children[i];
+        depths[top++] = depth + 1;
+      }
+    }
+  }
+}
@@ -10,10 +10,14 @@ import java.util.List;
 
 public class CsvReader {
   public <T> List<T> read(Reader reader, Class<T> classType) throws IOException {
+    return iterate(reader, classType).readAll();
+  }
+
+  /** Reads values one at a time, rather than reading the whole input into a list. */
+  public <T> MappingIterator<T> iterate(Reader reader, Class<T> classType) throws IOException {
     CsvMapper csvMapper =
         new CsvMapper().configure(CsvGenerator.Feature.ALWAYS_QUOTE_STRINGS, true);
     CsvSchema schema = csvMapper.typedSchemaFor(classType).withHeader();
-    MappingIterator<T> csvItr = csvMapper.readerFor(classType).with(schema).readValues(reader);
-    return csvItr.readAll();
+    return csvMapper.readerFor(classType).with(schema).readValues(reader);
   }
 }
@@ -1,5 +1,7 @@
 package uk.co.ramp.io.csv;
 
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
@@ -9,9 +11,26 @@ import java.util.List;
 
 public class CsvWriter {
   public <T> void write(Writer writer, List<T> records, Class<T> classType) throws IOException {
-    CsvMapper csvMapper =
-        new CsvMapper().configure(CsvGenerator.Feature.ALWAYS_QUOTE_STRINGS, true);
+    CsvMapper csvMapper = csvMapper();
     CsvSchema schema = csvMapper.typedSchemaFor(classType).withHeader();
     csvMapper.writerFor(classType).with(schema).writeValues(writer).writeAll(records);
   }
+
+  /**
+   * Writes the header, then returns a writer for records that are written one at a time as they are
+   * produced. Closing it closes the given writer.
+   */
+  public <T> SequenceWriter open(Writer writer, Class<T> classType) throws IOException {
+    CsvMapper csvMapper = csvMapper();
+    CsvSchema schema = csvMapper.typedSchemaFor(classType).withHeader();
+    return csvMapper
+        .writerFor(classType)
+        .with(schema)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .writeValues(writer);
+  }
+
+  private static CsvMapper csvMapper() {
+    return new CsvMapper().configure(CsvGenerator.Feature.ALWAYS_QUOTE_STRINGS, true);
+  }
 }
@@ -0,0 +1,18 @@
+package uk.co.ramp.io.types;
+
+import java.util.List;
+import org.immutables.value.Value;
+
+/** The scenarios to compare in one process, empty unless a sweep was requested. */
+@Value.Immutable
+public interface ScenarioSweep {
+
+  List<Scenario> scenarios();
+
+  @Value.Immutable
+  interface Scenario {
+    String name();
+
+    InputFiles inputFiles();
+  }
+}
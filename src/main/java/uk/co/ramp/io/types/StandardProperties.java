@@ -2,10 +2,17 @@ package uk.co.ramp.io.types;
 
 import com.google.common.base.Preconditions;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 import java.util.OptionalInt;
 import org.immutables.gson.Gson.TypeAdapters;
 import org.immutables.value.Value.Check;
 import org.immutables.value.Value.Immutable;
+import uk.co.ramp.event.EventJournalFormat;
+import uk.co.ramp.event.EventListType;
+import uk.co.ramp.event.MetricsReporter;
+import uk.co.ramp.io.InfectionMapFormat;
+import uk.co.ramp.people.PopulationStoreType;
 
 @TypeAdapters
 @Immutable
@@ -24,6 +31,58 @@ public interface StandardProperties {
 
   OptionalInt dayOffset();
 
+  Optional<PopulationStoreType> populationStore();
+
+  Optional<EventListType> eventListType();
+
+  OptionalInt contactProcessingThreads();
+
+  Optional<Boolean> randomStreams();
+
+  Optional<Boolean> streamContacts();
+
+  Optional<Boolean> sparseRandomInfections();
+
+  Optional<InfectionMapFormat> infectionMapFormat();
+
+  Optional<EventJournalFormat> eventJournal();
+
+  /** The time steps after which the state of the run is written to a checkpoint. */
+  List<Integer> checkpointTimeSteps();
+
+  /**
+   * The time step after which the scenarios of a sweep branch from a run shared by every scenario
+   * with the same seed, rather than each being run from the start.
+   */
+  OptionalInt branchTimeStep();
+
+  /**
+   * The folder of the prefix cache, in which snapshots of runs are stored so that later runs with
+   * the same inputs up to a snapshot are resumed from it.
+   */
+  Optional<String> prefixCache();
+
+  /** The number of time steps between the snapshots stored in the prefix cache. */
+  OptionalInt prefixCacheInterval();
+
+  /** The size in megabytes above which the least recently used snapshots are deleted. */
+  OptionalInt prefixCacheMegabytes();
+
+  /** Where the run's metrics are reported, besides the MBean registered for each run. */
+  Optional<MetricsReporter> metrics();
+
+  /** The number of time steps covered by each metrics report. */
+  OptionalInt metricsInterval();
+
+  OptionalInt ensembleSize();
+
+  OptionalInt ensembleThreads();
+
+  /** Whether keyed random draws use their own streams; always so for parallel processing. */
+  default boolean usesRandomStreams() {
+    return randomStreams().orElse(false) || contactProcessingThreads().isPresent();
+  }
+
   @Check
   default void check() {
     Preconditions.checkState(populationSize() > 0, "Population size should be greater than 0");
@@ -36,5 +95,22 @@ public interface StandardProperties {
         "The spread of events should be the same dimension as the number of time steps per day");
     Preconditions.checkState(
         Arrays.stream(timeStepSpread()).sum() == 1d, "The time step spread should equal 1.0");
+    Preconditions.checkState(
+        contactProcessingThreads().orElse(1) > 0,
+        "There should be at least one contact processing thread");
+    Preconditions.checkState(
+        ensembleSize().orElse(1) > 0, "There should be at least one run in an ensemble");
+    Preconditions.checkState(
+        ensembleThreads().orElse(1) > 0, "There should be at least one ensemble thread");
+    Preconditions.checkState(
+        branchTimeStep().orElse(0) >= 0, "The branch time step should not be negative");
+    Preconditions.checkState(
+        prefixCacheInterval().orElse(1) > 0,
+        "There should be at least one time step between prefix cache snapshots");
+    Preconditions.checkState(
+        prefixCacheMegabytes().orElse(1) > 0, "The prefix cache size should be greater than 0");
+    Preconditions.checkState(
+        metricsInterval().orElse(1) > 0,
+        "There should be at least one time step between metrics reports");
   }
 }
@@ -1,7 +1,7 @@
 package uk.co.ramp.people;
 
 import static uk.co.ramp.people.AlertStatus.NONE;
-import static uk.co.ramp.people.VirusStatus.*;
+import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
 
 public class Case {
 
@@ -53,6 +53,14 @@ public class Case {
     this.alertStatus = this.alertStatus.transitionTo(alertStatus);
   }
 
+  // only for restoring a checkpoint, so the transitions are not checked
+  void restore(VirusStatus virusStatus, AlertStatus alertStatus, int exposedBy, int exposedTime) {
+    this.virusStatus = virusStatus;
+    this.alertStatus = alertStatus;
+    this.exposedBy = exposedBy;
+    this.exposedTime = exposedTime;
+  }
+
   // exposing from Human Type
 
   // statics
@@ -99,10 +107,7 @@ public class Case {
   }
 
   public boolean isInfectious() {
-    return virusStatus == ASYMPTOMATIC
-        || virusStatus == SYMPTOMATIC
-        || virusStatus == SEVERELY_SYMPTOMATIC
-        || virusStatus == PRESYMPTOMATIC;
+    return virusStatus.isInfectious();
   }
 
   public void setExposedBy(int exposedBy) {
@@ -0,0 +1,292 @@
+package uk.co.ramp.people;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Stores the population as dense per attribute arrays indexed by person id. This avoids an object
+ * (and boxed key) per person and keeps the hot attributes contiguous in memory. Ids must be in the
+ * range [0, size).
+ *
+ * <p>{@link #get(int)} returns a lightweight {@link Case} view onto the arrays; views are created
+ * on demand so callers must not rely on reference equality between calls.
+ */
+public class ColumnarPopulationStore implements PopulationStore {
+  private static final VirusStatus[] VIRUS_STATUSES = VirusStatus.values();
+  private static final AlertStatus[] ALERT_STATUSES = AlertStatus.values();
+  private static final Gender[] GENDERS = Gender.values();
+
+  private final int size;
+  private final byte[] virusStatus;
+  private final byte[] alertStatus;
+  private final int[] exposedBy;
+  private final int[] exposedTime;
+  private final double[] health;
+  private final double[] isolationCompliance;
+  private final double[] reportingCompliance;
+  private final int[] age;
+  private final byte[] gender;
+  private final boolean[] hasApp;
+  private final CompartmentCounter compartments = new CompartmentCounter();
+
+  public ColumnarPopulationStore(int size) {
+    this.size = size;
+    this.virusStatus = new byte[size];
+    this.alertStatus = new byte[size];
+    this.exposedBy = new int[size];
+    this.exposedTime = new int[size];
+    this.health = new double[size];
+    this.isolationCompliance = new double[size];
+    this.reportingCompliance = new double[size];
+    this.age = new int[size];
+    this.gender = new byte[size];
+    this.hasApp = new boolean[size];
+  }
+
+  /** Adds a newly generated person, with the same initial state as a new {@link Case}. */
+  public void add(Human human) {
+    Case aCase = new Case(human);
+    int id = aCase.id();
+    virusStatus[id] = (byte) aCase.virusStatus().ordinal();
+    alertStatus[id] = (byte) aCase.alertStatus().ordinal();
+    exposedBy[id] = aCase.exposedBy();
+    exposedTime[id] = aCase.exposedTime();
+    health[id] = aCase.health();
+    isolationCompliance[id] = aCase.isolationCompliance();
+    reportingCompliance[id] = aCase.reportingCompliance();
+    age[id] = aCase.age();
+    gender[id] = (byte) aCase.gender().ordinal();
+    hasApp[id] = aCase.hasApp();
+    compartments.add(id, aCase.virusStatus());
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Case get(int id) {
+    return id >= 0 && id < size ? new CaseView(id) : null;
+  }
+
+  @Override
+  public VirusStatus getVirusStatus(int id) {
+    return VIRUS_STATUSES[virusStatus[id]];
+  }
+
+  @Override
+  public void setVirusStatus(int id, VirusStatus virusStatus) {
+    VirusStatus oldStatus = getVirusStatus(id);
+    this.virusStatus[id] = (byte) oldStatus.transitionTo(virusStatus).ordinal();
+    compartments.update(id, oldStatus, virusStatus);
+  }
+
+  @Override
+  public AlertStatus getAlertStatus(int id) {
+    return ALERT_STATUSES[alertStatus[id]];
+  }
+
+  @Override
+  public void setAlertStatus(int id, AlertStatus alertStatus) {
+    this.alertStatus[id] = (byte) getAlertStatus(id).transitionTo(alertStatus).ordinal();
+  }
+
+  @Override
+  public boolean isInfectious(int id) {
+    return compartments.isInfectious(id);
+  }
+
+  @Override
+  public double getHealth(int id) {
+    return health[id];
+  }
+
+  @Override
+  public boolean hasApp(int id) {
+    return hasApp[id];
+  }
+
+  @Override
+  public void setExposedBy(int id, int exposedBy) {
+    this.exposedBy[id] = exposedBy;
+  }
+
+  @Override
+  public void setExposedTime(int id, int exposedTime) {
+    this.exposedTime[id] = exposedTime;
+  }
+
+  @Override
+  public void restore(
+      int id, VirusStatus virusStatus, AlertStatus alertStatus, int exposedBy, int exposedTime) {
+    VirusStatus oldStatus = getVirusStatus(id);
+    this.virusStatus[id] = (byte) virusStatus.ordinal();
+    this.alertStatus[id] = (byte) alertStatus.ordinal();
+    this.exposedBy[id] = exposedBy;
+    this.exposedTime[id] = exposedTime;
+    compartments.update(id, oldStatus, virusStatus);
+  }
+
+  @Override
+  public CompartmentCounter compartments() {
+    return compartments;
+  }
+
+  @Override
+  public Map<Integer, Case> view() {
+    return new AbstractMap<>() {
+      @Override
+      public Case get(Object key) {
+        return key instanceof Integer ? ColumnarPopulationStore.this.get((Integer) key) : null;
+      }
+
+      @Override
+      public boolean containsKey(Object key) {
+        return get(key) != null;
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public Set<Entry<Integer, Case>> entrySet() {
+        return new AbstractSet<>() {
+          @Override
+          public Iterator<Entry<Integer, Case>> iterator() {
+            return new Iterator<>() {
+              private int next = 0;
+
+              @Override
+              public boolean hasNext() {
+                return next < size;
+              }
+
+              @Override
+              public Entry<Integer, Case> next() {
+                if (!hasNext()) {
+                  throw new NoSuchElementException();
+                }
+                int id = next++;
+                return new SimpleImmutableEntry<>(id, new CaseView(id));
+              }
+            };
+          }
+
+          @Override
+          public int size() {
+            return size;
+          }
+        };
+      }
+    };
+  }
+
+  private class CaseView extends Case {
+    private final int id;
+
+    private CaseView(int id) {
+      super(null);
+      this.id = id;
+    }
+
+    @Override
+    public Human getHuman() {
+      return ImmutableHuman.builder()
+          .id(id)
+          .age(age())
+          .gender(gender())
+          .isolationCompliance(isolationCompliance())
+          .reportingCompliance(reportingCompliance())
+          .health(health())
+          .hasApp(hasApp())
+          .build();
+    }
+
+    @Override
+    public VirusStatus virusStatus() {
+      return getVirusStatus(id);
+    }
+
+    @Override
+    public AlertStatus alertStatus() {
+      return getAlertStatus(id);
+    }
+
+    @Override
+    public int exposedBy() {
+      return exposedBy[id];
+    }
+
+    @Override
+    public int exposedTime() {
+      return exposedTime[id];
+    }
+
+    @Override
+    public void setVirusStatus(VirusStatus virusStatus) {
+      ColumnarPopulationStore.this.setVirusStatus(id, virusStatus);
+    }
+
+    @Override
+    public void setAlertStatus(AlertStatus alertStatus) {
+      ColumnarPopulationStore.this.setAlertStatus(id, alertStatus);
+    }
+
+    @Override
+    public double health() {
+      return health[id];
+    }
+
+    @Override
+    public int id() {
+      return id;
+    }
+
+    @Override
+    public boolean hasApp() {
+      return hasApp[id];
+    }
+
+    @Override
+    public double isolationCompliance() {
+      return isolationCompliance[id];
+    }
+
+    @Override
+    public double reportingCompliance() {
+      return reportingCompliance[id];
+    }
+
+    @Override
+    public Gender gender() {
+      return GENDERS[gender[id]];
+    }
+
+    @Override
+    public int age() {
+      return age[id];
+    }
+
+    @Override
+    public boolean isInfectious() {
+      return virusStatus().isInfectious();
+    }
+
+    @Override
+    public void setExposedBy(int exposedBy) {
+      ColumnarPopulationStore.this.setExposedBy(id, exposedBy);
+    }
+
+    @Override
+    public void setExposedTime(int exposedTime) {
+      ColumnarPopulationStore.this.setExposedTime(id, exposedTime);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package uk.co.ramp.people;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Live per {@link VirusStatus} counts and the sets of currently infectious and susceptible ids for
+ * a population. Stores keep it up to date on every status change so that compartment totals never
+ * require a scan of the whole population.
+ */
+public class CompartmentCounter {
+  private static final VirusStatus[] VIRUS_STATUSES = VirusStatus.values();
+
+  private final int[] counts = new int[VIRUS_STATUSES.length];
+  private final BitSet infectious = new BitSet();
+  private int infectiousCount;
+  // the susceptible ids in no particular order, and the position of each id in them plus one
+  private int[] susceptible = new int[0];
+  private int[] susceptiblePositions = new int[0];
+
+  /** Records a person joining the population. A null status is not counted. */
+  public void add(int id, VirusStatus status) {
+    if (status == null) {
+      return;
+    }
+    counts[status.ordinal()]++;
+    setInfectious(id, status.isInfectious());
+    setSusceptible(id, status == VirusStatus.SUSCEPTIBLE);
+  }
+
+  /** Moves a person between compartments. A null status is treated as not counted. */
+  public void update(int id, VirusStatus oldStatus, VirusStatus newStatus) {
+    if (oldStatus == newStatus) {
+      return;
+    }
+    if (oldStatus != null) {
+      counts[oldStatus.ordinal()]--;
+    }
+    if (newStatus != null) {
+      counts[newStatus.ordinal()]++;
+    }
+    setInfectious(id, newStatus != null && newStatus.isInfectious());
+    setSusceptible(id, newStatus == VirusStatus.SUSCEPTIBLE);
+  }
+
+  private void setInfectious(int id, boolean isInfectious) {
+    if (infectious.get(id) != isInfectious) {
+      infectious.set(id, isInfectious);
+      infectiousCount += isInfectious ? 1 : -1;
+    }
+  }
+
+  private void setSusceptible(int id, boolean isSusceptible) {
+    boolean wasSusceptible = id < susceptiblePositions.length && susceptiblePositions[id] != 0;
+    if (wasSusceptible == isSusceptible) {
+      return;
+    }
+
+    int count = count(VirusStatus.SUSCEPTIBLE);
+    if (isSusceptible) {
+      // the count already includes this id
+      if (id >= susceptiblePositions.length) {
+        susceptiblePositions =
+            Arrays.copyOf(susceptiblePositions, Math.max(id + 1, 2 * susceptiblePositions.length));
+      }
+      if (count > susceptible.length) {
+        susceptible = Arrays.copyOf(susceptible, Math.max(count, 2 * susceptible.length));
+      }
+      susceptible[count - 1] = id;
+      susceptiblePositions[id] = count;
+    } else {
+      // the count already excludes this id, so the last susceptible id is at the count
+      int position = susceptiblePositions[id] - 1;
+      int last = susceptible[count];
+      susceptible[position] = last;
+      susceptiblePositions[last] = position + 1;
+      susceptiblePositions[id] = 0;
+    }
+  }
+
+  /**
+   * Puts the susceptible ids in the given order, as they were when a checkpoint was written, as
+   * people are drawn by their position among them. The ids should be those of every susceptible
+   * person, each once, or the order is left as it was.
+   */
+  public void restoreSusceptibleOrder(int[] ids) {
+    int count = count(VirusStatus.SUSCEPTIBLE);
+    if (ids.length != count) {
+      throw new IllegalArgumentException(
+          "There are " + count + " susceptible people rather than " + ids.length);
+    }
+    int[] positions = new int[susceptiblePositions.length];
+    for (int i = 0; i < count; i++) {
+      int id = ids[i];
+      if (id < 0 || id >= positions.length || susceptiblePositions[id] == 0 || positions[id] != 0) {
+        throw new IllegalArgumentException("Person " + id + " is not susceptible, or is repeated");
+      }
+      positions[id] = i + 1;
+    }
+    System.arraycopy(ids, 0, susceptible, 0, count);
+    susceptiblePositions = positions;
+  }
+
+  public int count(VirusStatus status) {
+    return counts[status.ordinal()];
+  }
+
+  public int infectiousCount() {
+    return infectiousCount;
+  }
+
+  public boolean isInfectious(int id) {
+    return infectious.get(id);
+  }
+
+  /** The id at the given index, from zero up to the susceptible count, of the susceptible ids. */
+  public int susceptibleId(int index) {
+    return susceptible[index];
+  }
+
+  /** People who are exposed or infectious, i.e. neither susceptible nor removed. */
+  public int activeCount() {
+    return count(VirusStatus.EXPOSED) + infectiousCount();
+  }
+
+  /** A snapshot of the counts, containing every status. */
+  public Map<VirusStatus, Integer> toMap() {
+    Map<VirusStatus, Integer> stats = new EnumMap<>(VirusStatus.class);
+    for (VirusStatus status : VIRUS_STATUSES) {
+      stats.put(status, counts[status.ordinal()]);
+    }
+    return stats;
+  }
+}
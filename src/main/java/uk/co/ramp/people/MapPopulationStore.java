@@ -0,0 +1,91 @@
+package uk.co.ramp.people;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class MapPopulationStore implements PopulationStore {
+  private final Map<Integer, Case> population;
+  private final CompartmentCounter compartments = new CompartmentCounter();
+
+  public MapPopulationStore(Map<Integer, Case> population) {
+    this.population = population;
+    population.forEach((id, aCase) -> compartments.add(id, aCase.virusStatus()));
+  }
+
+  @Override
+  public int size() {
+    return population.size();
+  }
+
+  @Override
+  public Case get(int id) {
+    return population.get(id);
+  }
+
+  @Override
+  public VirusStatus getVirusStatus(int id) {
+    return population.get(id).virusStatus();
+  }
+
+  @Override
+  public void setVirusStatus(int id, VirusStatus virusStatus) {
+    Case aCase = population.get(id);
+    VirusStatus oldStatus = aCase.virusStatus();
+    aCase.setVirusStatus(virusStatus);
+    compartments.update(id, oldStatus, virusStatus);
+  }
+
+  @Override
+  public AlertStatus getAlertStatus(int id) {
+    return population.get(id).alertStatus();
+  }
+
+  @Override
+  public void setAlertStatus(int id, AlertStatus alertStatus) {
+    population.get(id).setAlertStatus(alertStatus);
+  }
+
+  @Override
+  public boolean isInfectious(int id) {
+    return population.get(id).isInfectious();
+  }
+
+  @Override
+  public double getHealth(int id) {
+    return population.get(id).health();
+  }
+
+  @Override
+  public boolean hasApp(int id) {
+    return population.get(id).hasApp();
+  }
+
+  @Override
+  public void setExposedBy(int id, int exposedBy) {
+    population.get(id).setExposedBy(exposedBy);
+  }
+
+  @Override
+  public void setExposedTime(int id, int exposedTime) {
+    population.get(id).setExposedTime(exposedTime);
+  }
+
+  @Override
+  public void restore(
+      int id, VirusStatus virusStatus, AlertStatus alertStatus, int exposedBy, int exposedTime) {
+    Case aCase = population.get(id);
+    VirusStatus oldStatus = aCase.virusStatus();
+    aCase.restore(virusStatus, alertStatus, exposedBy, exposedTime);
+    compartments.update(id, oldStatus, virusStatus);
+  }
+
+  @Override
+  public CompartmentCounter compartments() {
+    return compartments;
+  }
+
+  @Override
+  public Map<Integer, Case> view() {
+    return Collections.unmodifiableMap(population);
+  }
+}
@@ -70,47 +70,61 @@ public class PopulationGenerator {
     Map<Integer, Case> population = new HashMap<>();
 
     for (int i = 0; i < runProperties.populationSize(); i++) {
-
-      int age = ageRetriever.findAge(i);
-
-      double healthModifier = getHealthModifier(age);
-
-      Gender gender =
-          dataGenerator.nextUniform(0, 1) > properties.genderBalance() / 2d
-              ? Gender.FEMALE
-              : Gender.MALE;
-
-      double isolationCompliance =
-          populationOverrides.fixedIsolationCompliance().isPresent()
-              ? populationOverrides.fixedIsolationCompliance().getAsDouble()
-              : dataGenerator.nextUniform(0, 1);
-
-      double reportingCompliance =
-          populationOverrides.fixedReportingCompliance().isPresent()
-              ? populationOverrides.fixedReportingCompliance().getAsDouble()
-              : dataGenerator.nextUniform(0, 1);
-
-      double health = healthModifier * dataGenerator.nextUniform(0, 1);
-
-      boolean hasApp = dataGenerator.nextUniform(0, 1) < properties.appUptake();
-
-      population.put(
-          i,
-          new Case(
-              ImmutableHuman.builder()
-                  .id(i)
-                  .age(age)
-                  .isolationCompliance(isolationCompliance)
-                  .reportingCompliance(reportingCompliance)
-                  .gender(gender)
-                  .health(health)
-                  .hasApp(hasApp)
-                  .build()));
+      population.put(i, new Case(generateHuman(i)));
     }
 
     return population;
   }
 
+  public PopulationStore generateStore() {
+    PopulationStoreType storeType = runProperties.populationStore().orElse(PopulationStoreType.MAP);
+
+    if (storeType == PopulationStoreType.COLUMNAR) {
+      ColumnarPopulationStore store = new ColumnarPopulationStore(runProperties.populationSize());
+      for (int i = 0; i < runProperties.populationSize(); i++) {
+        store.add(generateHuman(i));
+      }
+      return store;
+    }
+
+    return new MapPopulationStore(generate());
+  }
+
+  private Human generateHuman(int i) {
+    int age = ageRetriever.findAge(i);
+
+    double healthModifier = getHealthModifier(age);
+
+    Gender gender =
+        dataGenerator.nextUniform(0, 1) > properties.genderBalance() / 2d
+            ? Gender.FEMALE
+            : Gender.MALE;
+
+    double isolationCompliance =
+        populationOverrides.fixedIsolationCompliance().isPresent()
+            ? populationOverrides.fixedIsolationCompliance().getAsDouble()
+            : dataGenerator.nextUniform(0, 1);
+
+    double reportingCompliance =
+        populationOverrides.fixedReportingCompliance().isPresent()
+            ? populationOverrides.fixedReportingCompliance().getAsDouble()
+            : dataGenerator.nextUniform(0, 1);
+
+    double health = healthModifier * dataGenerator.nextUniform(0, 1);
+
+    boolean hasApp = dataGenerator.nextUniform(0, 1) < properties.appUptake();
+
+    return ImmutableHuman.builder()
+        .id(i)
+        .age(age)
+        .isolationCompliance(isolationCompliance)
+        .reportingCompliance(reportingCompliance)
+        .gender(gender)
+        .health(health)
+        .hasApp(hasApp)
+        .build();
+  }
+
   public double getHealthModifier(int age) {
 
     return ageMap.entrySet().stream()
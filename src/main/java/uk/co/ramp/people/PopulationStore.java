@@ -0,0 +1,42 @@
+package uk.co.ramp.people;
+
+import java.util.Map;
+
+/**
+ * Backing storage for the simulated population. Implementations hold the per person state keyed by
+ * id and are responsible for validating status transitions.
+ */
+public interface PopulationStore {
+
+  int size();
+
+  Case get(int id);
+
+  VirusStatus getVirusStatus(int id);
+
+  void setVirusStatus(int id, VirusStatus virusStatus);
+
+  AlertStatus getAlertStatus(int id);
+
+  void setAlertStatus(int id, AlertStatus alertStatus);
+
+  boolean isInfectious(int id);
+
+  double getHealth(int id);
+
+  boolean hasApp(int id);
+
+  void setExposedBy(int id, int exposedBy);
+
+  void setExposedTime(int id, int exposedTime);
+
+  /** Sets the state of a person read from a checkpoint, without checking the status transitions. */
+  void restore(
+      int id, VirusStatus virusStatus, AlertStatus alertStatus, int exposedBy, int exposedTime);
+
+  /** Live compartment counts, kept in step with {@link #setVirusStatus(int, VirusStatus)}. */
+  CompartmentCounter compartments();
+
+  /** A read only map view of the population, Case objects may be created on demand. */
+  Map<Integer, Case> view();
+}
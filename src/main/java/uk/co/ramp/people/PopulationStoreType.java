@@ -0,0 +1,6 @@
+package uk.co.ramp.people;
+
+public enum PopulationStoreType {
+  MAP,
+  COLUMNAR
+}
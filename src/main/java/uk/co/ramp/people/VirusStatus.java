@@ -32,6 +32,13 @@ public enum VirusStatus {
     return validTransitions;
   }
 
+  public boolean isInfectious() {
+    return this == ASYMPTOMATIC
+        || this == SYMPTOMATIC
+        || this == SEVERELY_SYMPTOMATIC
+        || this == PRESYMPTOMATIC;
+  }
+
   public VirusStatus transitionTo(final VirusStatus next) {
 
     if (!validTransitions.contains(next)) {
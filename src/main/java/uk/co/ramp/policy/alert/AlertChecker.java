@@ -6,8 +6,8 @@ import static uk.co.ramp.people.AlertStatus.REQUESTED_TEST;
 
 import java.util.Optional;
 import java.util.stream.Stream;
+import uk.co.ramp.distribution.ScaledDistributions;
 import uk.co.ramp.event.types.AlertEvent;
-import uk.co.ramp.event.types.EventProcessor;
 import uk.co.ramp.event.types.ImmutableAlertEvent;
 import uk.co.ramp.io.types.StandardProperties;
 import uk.co.ramp.people.AlertStatus;
@@ -17,7 +17,7 @@ import uk.co.ramp.policy.alert.TracingPolicy.TracingPolicyItem;
 public class AlertChecker {
   private final TracingPolicy tracingPolicy;
   private final AlertContactTracer alertContactTracer;
-  private final StandardProperties properties;
+  private final ScaledDistributions scaledDistributions;
 
   AlertChecker(
       TracingPolicy tracingPolicy,
@@ -25,7 +25,7 @@ public class AlertChecker {
       StandardProperties properties) {
     this.tracingPolicy = tracingPolicy;
     this.alertContactTracer = alertContactTracer;
-    this.properties = properties;
+    this.scaledDistributions = new ScaledDistributions(properties.timeStepsPerDay());
   }
 
   private Optional<ImmutableTracingPolicyItem> findPolicyItem(
@@ -72,9 +72,9 @@ public class AlertChecker {
                         .id(id)
                         .time(
                             currentTime
-                                + EventProcessor.scaleWithTimeSteps(
-                                        tracingPolicyItem.get().timeDelayPerTraceLink(),
-                                        properties.timeStepsPerDay())
+                                + scaledDistributions
+                                    .scaleWithTimeSteps(
+                                        tracingPolicyItem.get().timeDelayPerTraceLink())
                                     .getDistributionValue())
                         .oldStatus(NONE)
                         .nextStatus(ALERTED)
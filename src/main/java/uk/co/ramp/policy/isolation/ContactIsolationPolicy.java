@@ -1,5 +1,8 @@
 package uk.co.ramp.policy.isolation;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.co.ramp.io.types.DiseaseProperties;
@@ -48,4 +51,19 @@ class ContactIsolationPolicy implements IsolationPolicy {
     }
     return shouldIsolate;
   }
+
+  @Override
+  public int isolatingCount() {
+    return singleCaseIsolationPolicy.isolatingCount();
+  }
+
+  @Override
+  public void writeCheckpoint(DataOutput out) throws IOException {
+    singleCaseIsolationPolicy.writeCheckpoint(out);
+  }
+
+  @Override
+  public void readCheckpoint(DataInput in) throws IOException {
+    singleCaseIsolationPolicy.readCheckpoint(in);
+  }
 }
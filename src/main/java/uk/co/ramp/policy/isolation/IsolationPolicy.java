@@ -1,12 +1,28 @@
 package uk.co.ramp.policy.isolation;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import uk.co.ramp.io.Checkpointed;
 import uk.co.ramp.people.Case;
 
-public interface IsolationPolicy {
+public interface IsolationPolicy extends Checkpointed {
   boolean isContactIsolated(
       Case caseA,
       Case caseB,
       double contactWeight,
       double actualInfectedProportion,
       int currentTime);
+
+  /** The number of people isolating under a timed or default policy, if the policy tracks them. */
+  default int isolatingCount() {
+    return 0;
+  }
+
+  /** A policy that keeps no state between time steps has nothing to write to a checkpoint. */
+  @Override
+  default void writeCheckpoint(DataOutput out) throws IOException {}
+
+  @Override
+  default void readCheckpoint(DataInput in) throws IOException {}
 }
@@ -0,0 +1,129 @@
+package uk.co.ramp.policy.isolation;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import uk.co.ramp.people.AlertStatus;
+import uk.co.ramp.people.VirusStatus;
+
+/**
+ * The isolation property that applies to each combination of virus status, alert status and band of
+ * the proportion infected, found once when the isolation properties are loaded. The bands are
+ * bounded by the percentages at which the proportion infected policies start and stop applying, so
+ * the matching policies are the same throughout each band.
+ */
+final class IsolationPolicyTable {
+  private static final String NON_DETERMINISTIC_MESSAGE =
+      ""
+          + "Policy outcome description is not deterministic. "
+          + "Please also ensure that there is only one policy outcome from the matching policies with a max priority value.";
+
+  private final int[] bandBoundaries;
+  // indexed by band, virus status and alert status, and null where the matching policies conflict
+  private final IsolationProperty[][][] table;
+
+  IsolationPolicyTable(IsolationProperties isolationProperties) {
+    bandBoundaries =
+        isolationProperties.globalIsolationPolicies().stream()
+            .flatMapToInt(
+                policy ->
+                    IntStream.of(
+                        policy.proportionInfected().min(), policy.proportionInfected().max()))
+            .sorted()
+            .distinct()
+            .toArray();
+
+    VirusStatus[] virusStatuses = VirusStatus.values();
+    AlertStatus[] alertStatuses = AlertStatus.values();
+    table = new IsolationProperty[bandBoundaries.length + 1][][];
+    for (int band = 0; band < table.length; band++) {
+      // the lowest percentage in the band, below which nothing matches in the first band
+      double percentInfected = band == 0 ? Double.NaN : bandBoundaries[band - 1];
+      table[band] = new IsolationProperty[virusStatuses.length][alertStatuses.length];
+      for (VirusStatus virusStatus : virusStatuses) {
+        for (AlertStatus alertStatus : alertStatuses) {
+          table[band][virusStatus.ordinal()][alertStatus.ordinal()] =
+              findRelevantIsolationProperty(
+                  isolationProperties, percentInfected, virusStatus, alertStatus);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the highest priority policy that matches, throwing if the policies matching with that
+   * priority have different outcomes.
+   */
+  IsolationProperty find(
+      double actualInfectedProportion, VirusStatus virusStatus, AlertStatus alertStatus) {
+    IsolationProperty isolationProperty =
+        table[band(actualInfectedProportion * 100)][virusStatus.ordinal()][alertStatus.ordinal()];
+    if (isolationProperty == null) {
+      throw new IllegalStateException(NON_DETERMINISTIC_MESSAGE);
+    }
+    return isolationProperty;
+  }
+
+  private int band(double percentInfected) {
+    int band = 0;
+    while (band < bandBoundaries.length && bandBoundaries[band] <= percentInfected) {
+      band++;
+    }
+    return band;
+  }
+
+  private static IsolationProperty findRelevantIsolationProperty(
+      IsolationProperties isolationProperties,
+      double percentInfected,
+      VirusStatus virusStatus,
+      AlertStatus alertStatus) {
+    Stream<IsolationProperty> globalIsolationPolicy =
+        isolationProperties.globalIsolationPolicies().stream()
+            .filter(policy -> policy.proportionInfected().min() <= percentInfected)
+            .filter(policy -> policy.proportionInfected().max() > percentInfected)
+            .map(ProportionInfectedIsolationProperty::isolationProperty);
+
+    Stream<IsolationProperty> virusIsolationPolicy =
+        isolationProperties.virusStatusPolicies().stream()
+            .filter(policy -> policy.virusStatus() == virusStatus)
+            .map(VirusStatusIsolationProperty::isolationProperty);
+
+    Stream<IsolationProperty> alertIsolationPolicy =
+        isolationProperties.alertStatusPolicies().stream()
+            .filter(policy -> policy.alertStatus() == alertStatus)
+            .map(AlertStatusIsolationProperty::isolationProperty);
+
+    Stream<IsolationProperty> defaultIsolationPolicy =
+        Stream.of(isolationProperties.defaultPolicy());
+
+    List<IsolationProperty> matchingHighestPriorityPolicies =
+        Stream.of(
+                globalIsolationPolicy,
+                virusIsolationPolicy,
+                alertIsolationPolicy,
+                defaultIsolationPolicy)
+            .flatMap(s -> s).collect(Collectors.groupingBy(IsolationProperty::priority)).entrySet()
+            .stream()
+            .max(Comparator.comparingLong(Map.Entry::getKey))
+            .orElseThrow(() -> new IllegalStateException("No matching policies found."))
+            .getValue();
+
+    boolean allPolicyOutcomesAreEqual =
+        matchingHighestPriorityPolicies.stream()
+            .allMatch(
+                p ->
+                    p.isolationTimeDistribution()
+                            .equals(
+                                matchingHighestPriorityPolicies.get(0).isolationTimeDistribution())
+                        && p.isolationProbabilityDistribution()
+                            .equals(
+                                matchingHighestPriorityPolicies
+                                    .get(0)
+                                    .isolationProbabilityDistribution()));
+
+    return allPolicyOutcomesAreEqual ? matchingHighestPriorityPolicies.get(0) : null;
+  }
+}
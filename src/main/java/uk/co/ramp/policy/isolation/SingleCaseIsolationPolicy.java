@@ -1,14 +1,22 @@
 package uk.co.ramp.policy.isolation;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.immutables.value.Value;
 import uk.co.ramp.distribution.BoundedDistribution;
 import uk.co.ramp.distribution.DistributionSampler;
 import uk.co.ramp.distribution.ImmutableBoundedDistribution;
-import uk.co.ramp.event.types.EventProcessor;
+import uk.co.ramp.distribution.RandomStreams;
+import uk.co.ramp.distribution.ScaledDistributions;
 import uk.co.ramp.io.types.StandardProperties;
 import uk.co.ramp.people.AlertStatus;
 import uk.co.ramp.people.Case;
@@ -18,10 +26,14 @@ import uk.ramp.distribution.Distribution.DistributionType;
 import uk.ramp.distribution.ImmutableDistribution;
 
 class SingleCaseIsolationPolicy {
+  private static final Logger LOGGER = LogManager.getLogger(SingleCaseIsolationPolicy.class);
+
   private final IsolationProperties isolationProperties;
-  private final StandardProperties properties;
+  private final IsolationPolicyTable isolationPolicyTable;
+  private final ScaledDistributions scaledDistributions;
   private final DistributionSampler distributionSampler;
   private final BoundedDistribution infinityBoundedDistribution;
+  private final RandomStreams randomStreams;
 
   @Value.Immutable
   interface IsolationMapValue {
@@ -32,7 +44,10 @@ class SingleCaseIsolationPolicy {
     IsolationProperty isolationProperty();
   }
 
-  private final Map<Integer, IsolationMapValue> currentlyInIsolationMap = new HashMap<>();
+  private final Map<Integer, IsolationMapValue> currentlyInIsolationMap = new ConcurrentHashMap<>();
+  // the decisions of the time step being run, cleared as the next one starts
+  private final Map<Integer, Boolean> decisions = new ConcurrentHashMap<>();
+  private volatile int decisionTime = -1;
   private final StatisticsRecorder statisticsRecorder;
 
   SingleCaseIsolationPolicy(
@@ -41,9 +56,28 @@ class SingleCaseIsolationPolicy {
       StandardProperties properties,
       StatisticsRecorder statisticsRecorder,
       RandomGenerator rng) {
+    this(isolationProperties, distributionSampler, properties, statisticsRecorder, rng, null);
+  }
+
+  /**
+   * When random streams are given, each individual's isolation is decided once per time step using
+   * a stream keyed by their id and the time, and that decision holds for all of their contacts in
+   * the time step, where without streams it is drawn again for each contact. The decision then does
+   * not depend on the order in which contacts are evaluated, so contacts can be processed
+   * concurrently.
+   */
+  SingleCaseIsolationPolicy(
+      IsolationProperties isolationProperties,
+      DistributionSampler distributionSampler,
+      StandardProperties properties,
+      StatisticsRecorder statisticsRecorder,
+      RandomGenerator rng,
+      RandomStreams randomStreams) {
+    this.randomStreams = randomStreams;
     this.isolationProperties = isolationProperties;
+    this.isolationPolicyTable = new IsolationPolicyTable(isolationProperties);
     this.distributionSampler = distributionSampler;
-    this.properties = properties;
+    this.scaledDistributions = new ScaledDistributions(properties.timeStepsPerDay());
     this.statisticsRecorder = statisticsRecorder;
     this.infinityBoundedDistribution =
         ImmutableBoundedDistribution.builder()
@@ -57,62 +91,6 @@ class SingleCaseIsolationPolicy {
             .build();
   }
 
-  private IsolationProperty findRelevantIsolationProperty(
-      double actualInfectedProportion, VirusStatus virusStatus, AlertStatus alertStatus) {
-    Stream<IsolationProperty> globalIsolationPolicy =
-        isolationProperties.globalIsolationPolicies().stream()
-            .filter(policy -> policy.proportionInfected().min() <= actualInfectedProportion * 100)
-            .filter(policy -> policy.proportionInfected().max() > actualInfectedProportion * 100)
-            .map(ProportionInfectedIsolationProperty::isolationProperty);
-
-    Stream<IsolationProperty> virusIsolationPolicy =
-        isolationProperties.virusStatusPolicies().stream()
-            .filter(policy -> policy.virusStatus() == virusStatus)
-            .map(VirusStatusIsolationProperty::isolationProperty);
-
-    Stream<IsolationProperty> alertIsolationPolicy =
-        isolationProperties.alertStatusPolicies().stream()
-            .filter(policy -> policy.alertStatus() == alertStatus)
-            .map(AlertStatusIsolationProperty::isolationProperty);
-
-    Stream<IsolationProperty> defaultIsolationPolicy =
-        Stream.of(isolationProperties.defaultPolicy());
-
-    List<IsolationProperty> matchingHighestPriorityPolicies =
-        Stream.of(
-                globalIsolationPolicy,
-                virusIsolationPolicy,
-                alertIsolationPolicy,
-                defaultIsolationPolicy)
-            .flatMap(s -> s).collect(Collectors.groupingBy(IsolationProperty::priority)).entrySet()
-            .stream()
-            .max(Comparator.comparingLong(Map.Entry::getKey))
-            .orElseThrow(() -> new IllegalStateException("No matching policies found."))
-            .getValue();
-
-    boolean allPolicyOutcomesAreEqual =
-        matchingHighestPriorityPolicies.stream()
-            .allMatch(
-                p ->
-                    p.isolationTimeDistribution()
-                            .equals(
-                                matchingHighestPriorityPolicies.get(0).isolationTimeDistribution())
-                        && p.isolationProbabilityDistribution()
-                            .equals(
-                                matchingHighestPriorityPolicies
-                                    .get(0)
-                                    .isolationProbabilityDistribution()));
-
-    if (allPolicyOutcomesAreEqual) {
-      return matchingHighestPriorityPolicies.get(0);
-    } else {
-      throw new IllegalStateException(
-          ""
-              + "Policy outcome description is not deterministic. "
-              + "Please also ensure that there is only one policy outcome from the matching policies with a max priority value.");
-    }
-  }
-
   boolean isIndividualInIsolation(Case aCase, double actualInfectedProportion, int currentTime) {
     return isIndividualInIsolation(
         aCase.id(),
@@ -132,9 +110,58 @@ class SingleCaseIsolationPolicy {
       double actualInfectedProportion,
       int currentTime,
       int exposedTime) {
+    if (randomStreams == null) {
+      return isIndividualInIsolation(
+          id,
+          virusStatus,
+          alertStatus,
+          compliance,
+          actualInfectedProportion,
+          currentTime,
+          exposedTime,
+          null);
+    }
+
+    startTimeStep(currentTime);
+    return decisions.computeIfAbsent(
+        id,
+        k ->
+            isIndividualInIsolation(
+                id,
+                virusStatus,
+                alertStatus,
+                compliance,
+                actualInfectedProportion,
+                currentTime,
+                exposedTime,
+                randomStreams.stream(RandomStreams.Purpose.ISOLATION, id, currentTime)));
+  }
+
+  // the decisions of earlier time steps are dropped before any of this one are made
+  private void startTimeStep(int currentTime) {
+    if (decisionTime != currentTime) {
+      synchronized (decisions) {
+        if (decisionTime != currentTime) {
+          decisions.clear();
+          decisionTime = currentTime;
+        }
+      }
+    }
+  }
+
+  // draws from the shared sampler when rng is null
+  private boolean isIndividualInIsolation(
+      int id,
+      VirusStatus virusStatus,
+      AlertStatus alertStatus,
+      double compliance,
+      double actualInfectedProportion,
+      int currentTime,
+      int exposedTime,
+      RandomGenerator rng) {
     IsolationMapValue isolationInfo = currentlyInIsolationMap.get(id);
     IsolationProperty matchingIsolationProperty =
-        findRelevantIsolationProperty(actualInfectedProportion, virusStatus, alertStatus);
+        isolationPolicyTable.find(actualInfectedProportion, virusStatus, alertStatus);
     boolean alreadyInIsolationMap =
         isolationInfo != null
             && matchingIsolationProperty.equals(isolationInfo.isolationProperty());
@@ -143,7 +170,13 @@ class SingleCaseIsolationPolicy {
       return currentTime - isolationInfo.startTime() < isolationInfo.maxIsolationTime();
     }
 
-    return populateAndGet(id, compliance, matchingIsolationProperty, currentTime, exposedTime);
+    return populateAndGet(id, compliance, matchingIsolationProperty, currentTime, exposedTime, rng);
+  }
+
+  private int sample(BoundedDistribution distribution, RandomGenerator rng) {
+    return rng == null
+        ? distribution.getDistributionValue()
+        : distribution.getDistributionValue(rng);
   }
 
   private IsolationMapValue updatedMapValue(
@@ -178,7 +211,8 @@ class SingleCaseIsolationPolicy {
       double compliance,
       IsolationProperty matchingIsolationProperty,
       int currentTime,
-      int exposedTime) {
+      int exposedTime,
+      RandomGenerator rng) {
     int startOfIsolationTime =
         startTime(
             matchingIsolationProperty
@@ -187,21 +221,22 @@ class SingleCaseIsolationPolicy {
             currentTime,
             exposedTime);
     int requiredIsolationTime =
-        EventProcessor.scaleWithTimeSteps(
+        sample(
+            scaledDistributions.scaleWithTimeSteps(
                 matchingIsolationProperty
                     .isolationTimeDistribution()
-                    .orElse(infinityBoundedDistribution),
-                properties.timeStepsPerDay())
-            .getDistributionValue();
-    double threshold =
-        isolationProperties.isolationProbabilityDistributionThreshold().getDistributionValue();
+                    .orElse(infinityBoundedDistribution)),
+            rng);
+    double threshold = sample(isolationProperties.isolationProbabilityDistributionThreshold(), rng);
     double requiredIsolationFactor =
-        matchingIsolationProperty.isolationProbabilityDistribution().getDistributionValue();
+        sample(matchingIsolationProperty.isolationProbabilityDistribution(), rng);
     boolean timedPolicy = matchingIsolationProperty.isolationTimeDistribution().isPresent();
     boolean isDefaultPolicy = isolationProperties.defaultPolicy().equals(matchingIsolationProperty);
     boolean overrideComplianceAndForcePolicy =
         matchingIsolationProperty.overrideComplianceAndForcePolicy().orElse(false);
-    boolean isCompliant = distributionSampler.uniformBetweenZeroAndOne() < compliance;
+    double complianceDraw =
+        rng == null ? distributionSampler.uniformBetweenZeroAndOne() : rng.nextDouble();
+    boolean isCompliant = complianceDraw < compliance;
     boolean isInIsolationPeriod = startOfIsolationTime + requiredIsolationTime >= currentTime;
     boolean willIsolate =
         (threshold < requiredIsolationFactor)
@@ -227,4 +262,69 @@ class SingleCaseIsolationPolicy {
 
     return willIsolate;
   }
+
+  int isolatingCount() {
+    return currentlyInIsolationMap.size();
+  }
+
+  /**
+   * Writes who is isolating under a timed or default policy, naming the policy by its id. The
+   * decisions are only reused within a time step, so are not written.
+   */
+  void writeCheckpoint(DataOutput out) throws IOException {
+    Map<Integer, IsolationMapValue> isolating = new TreeMap<>(currentlyInIsolationMap);
+    out.writeInt(isolating.size());
+    for (Map.Entry<Integer, IsolationMapValue> entry : isolating.entrySet()) {
+      out.writeInt(entry.getKey());
+      out.writeInt(entry.getValue().startTime());
+      out.writeInt(entry.getValue().maxIsolationTime());
+      out.writeUTF(entry.getValue().isolationProperty().id());
+    }
+  }
+
+  void readCheckpoint(DataInput in) throws IOException {
+    Map<String, ImmutableIsolationProperty> propertiesById =
+        Stream.of(
+                isolationProperties.globalIsolationPolicies().stream()
+                    .map(ProportionInfectedIsolationProperty::isolationProperty),
+                isolationProperties.virusStatusPolicies().stream()
+                    .map(VirusStatusIsolationProperty::isolationProperty),
+                isolationProperties.alertStatusPolicies().stream()
+                    .map(AlertStatusIsolationProperty::isolationProperty),
+                Stream.of(isolationProperties.defaultPolicy()))
+            .flatMap(Function.identity())
+            .collect(
+                Collectors.toMap(
+                    ImmutableIsolationProperty::id, Function.identity(), (first, second) -> first));
+
+    // a run branched with other policies drops the isolation of policies it does not have
+    Set<String> missingPolicyIds = new TreeSet<>();
+    currentlyInIsolationMap.clear();
+    decisions.clear();
+    decisionTime = -1;
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      int id = in.readInt();
+      int startTime = in.readInt();
+      int maxIsolationTime = in.readInt();
+      String policyId = in.readUTF();
+      IsolationProperty isolationProperty = propertiesById.get(policyId);
+      if (isolationProperty == null) {
+        missingPolicyIds.add(policyId);
+        continue;
+      }
+      currentlyInIsolationMap.put(
+          id,
+          ImmutableIsolationMapValue.builder()
+              .startTime(startTime)
+              .maxIsolationTime(maxIsolationTime)
+              .isolationProperty(isolationProperty)
+              .build());
+    }
+    if (!missingPolicyIds.isEmpty()) {
+      LOGGER.warn(
+          "Isolation under the policies {} of the checkpoint has ended, as they are not in the policies",
+          missingPolicyIds);
+    }
+  }
 }
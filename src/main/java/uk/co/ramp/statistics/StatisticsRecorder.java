@@ -2,12 +2,13 @@ package uk.co.ramp.statistics;
 
 import java.util.List;
 import java.util.Map;
+import uk.co.ramp.io.Checkpointed;
 import uk.co.ramp.people.AlertStatus;
 import uk.co.ramp.people.Case;
 import uk.co.ramp.statistics.types.ImmutableRValueOutput;
 import uk.co.ramp.statistics.types.Infection;
 
-public interface StatisticsRecorder {
+public interface StatisticsRecorder extends Checkpointed {
   void recordDaysInIsolation(int personId, int duration);
 
   void recordSinglePersonInfected(int time);
@@ -20,6 +21,15 @@ public interface StatisticsRecorder {
 
   void recordTestConducted(int time);
 
+  /**
+   * Reserves a test at the first time step from the given time with test capacity left, returning
+   * that time step, or -1 if there is no capacity left before the end of the run. A test is only
+   * reserved at the time limit itself when it is requested then.
+   */
+  int reserveTest(int time);
+
+  void releaseTest(int time);
+
   void recordTestDelayed(int time, int id);
 
   void recordCorrectTestResult(AlertStatus alertStatus);
@@ -2,8 +2,10 @@ package uk.co.ramp.statistics;
 
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.context.annotation.Bean;
+import uk.co.ramp.io.types.PopulationProperties;
 import uk.co.ramp.io.types.StandardProperties;
 import uk.co.ramp.people.AlertStatus;
 
@@ -11,15 +13,20 @@ import uk.co.ramp.people.AlertStatus;
 public class StatisticsRecorderContext {
 
   @Bean
-  StatisticsRecorder statisticsRecorder(StandardProperties properties) {
+  StatisticsRecorder statisticsRecorder(
+      StandardProperties properties, PopulationProperties populationProperties) {
+    int testCapacity =
+        (int) Math.ceil(properties.populationSize() * populationProperties.testCapacity());
+    // days in isolation can be recorded while contacts are processed in parallel
     return new StatisticsRecorderImpl(
         properties,
+        new ConcurrentHashMap<>(),
         new HashMap<>(),
         new HashMap<>(),
         new HashMap<>(),
-        new HashMap<>(),
         new EnumMap<>(AlertStatus.class),
-        new EnumMap<>(AlertStatus.class));
+        new EnumMap<>(AlertStatus.class),
+        TestCapacityLedger.forRun(properties, testCapacity));
   }
 
   @Bean
@@ -1,9 +1,13 @@
 package uk.co.ramp.statistics;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import uk.co.ramp.io.types.StandardProperties;
 import uk.co.ramp.people.AlertStatus;
 import uk.co.ramp.people.Case;
@@ -19,7 +23,7 @@ public class StatisticsRecorderImpl implements StatisticsRecorder {
   private final Map<Integer, List<Infection>> r0Progression;
   private final Map<AlertStatus, Integer> incorrectTests;
   private final Map<AlertStatus, Integer> correctTests;
-  private final Map<Integer, Integer> testsConducted = new HashMap<>();
+  private final TestCapacityLedger testCapacity;
   private final Map<Integer, List<Integer>> delayedTests = new HashMap<>();
 
   private final StandardProperties properties;
@@ -32,6 +36,26 @@ public class StatisticsRecorderImpl implements StatisticsRecorder {
       Map<Integer, List<Infection>> r0Progression,
       Map<AlertStatus, Integer> incorrectTests,
       Map<AlertStatus, Integer> correctTests) {
+    this(
+        properties,
+        personDaysIsolation,
+        peopleInfected,
+        contactsTraced,
+        r0Progression,
+        incorrectTests,
+        correctTests,
+        TestCapacityLedger.forRun(properties, Integer.MAX_VALUE));
+  }
+
+  public StatisticsRecorderImpl(
+      StandardProperties properties,
+      Map<Integer, Integer> personDaysIsolation,
+      Map<Integer, Integer> peopleInfected,
+      Map<Integer, Integer> contactsTraced,
+      Map<Integer, List<Infection>> r0Progression,
+      Map<AlertStatus, Integer> incorrectTests,
+      Map<AlertStatus, Integer> correctTests,
+      TestCapacityLedger testCapacity) {
     this.properties = properties;
 
     this.personDaysIsolation = personDaysIsolation;
@@ -40,6 +64,7 @@ public class StatisticsRecorderImpl implements StatisticsRecorder {
     this.r0Progression = r0Progression;
     this.incorrectTests = incorrectTests;
     this.correctTests = correctTests;
+    this.testCapacity = testCapacity;
   }
 
   public Map<Integer, Integer> getContactsTraced() {
@@ -60,7 +85,7 @@ public class StatisticsRecorderImpl implements StatisticsRecorder {
 
   @Override
   public Map<Integer, Integer> getTestsConducted() {
-    return testsConducted;
+    return testCapacity.reservedByTime();
   }
 
   @Override
@@ -70,7 +95,7 @@ public class StatisticsRecorderImpl implements StatisticsRecorder {
 
   @Override
   public int getTestsConducted(int time) {
-    return testsConducted.getOrDefault(time, 0);
+    return testCapacity.reserved(time);
   }
 
   @Override
@@ -118,7 +143,24 @@ public class StatisticsRecorderImpl implements StatisticsRecorder {
 
   @Override
   public void recordTestConducted(int time) {
-    testsConducted.compute(time, (k, v) -> (v == null) ? 1 : ++v);
+    testCapacity.record(time);
+  }
+
+  @Override
+  public int reserveTest(int time) {
+    // tests delayed from earlier time steps are not held over to the time limit
+    int timeLimit = testCapacity.timeSteps() - 1;
+    int testTime = testCapacity.nextFreeSlot(time);
+    if (testTime < 0 || (testTime > time && testTime == timeLimit)) {
+      return -1;
+    }
+    testCapacity.record(testTime);
+    return testTime;
+  }
+
+  @Override
+  public void releaseTest(int time) {
+    testCapacity.release(time);
   }
 
   @Override
@@ -154,4 +196,89 @@ public class StatisticsRecorderImpl implements StatisticsRecorder {
     }
     return rValueOutputs;
   }
+
+  /**
+   * The spread of infections is only recorded once the run is complete, so is not written to
+   * checkpoints.
+   */
+  @Override
+  public void writeCheckpoint(DataOutput out) throws IOException {
+    writeCounts(out, personDaysIsolation);
+    writeCounts(out, peopleInfected);
+    writeCounts(out, contactsTraced);
+    writeTestResults(out, incorrectTests);
+    writeTestResults(out, correctTests);
+    writeCounts(out, testCapacity.reservedByTime());
+    Map<Integer, List<Integer>> sortedDelayedTests = new TreeMap<>(delayedTests);
+    out.writeInt(sortedDelayedTests.size());
+    for (Map.Entry<Integer, List<Integer>> entry : sortedDelayedTests.entrySet()) {
+      out.writeInt(entry.getKey());
+      out.writeInt(entry.getValue().size());
+      for (int id : entry.getValue()) {
+        out.writeInt(id);
+      }
+    }
+  }
+
+  @Override
+  public void readCheckpoint(DataInput in) throws IOException {
+    readCounts(in, personDaysIsolation);
+    readCounts(in, peopleInfected);
+    readCounts(in, contactsTraced);
+    readTestResults(in, incorrectTests);
+    readTestResults(in, correctTests);
+    Map<Integer, Integer> testsConducted = new HashMap<>();
+    readCounts(in, testsConducted);
+    testCapacity.clear();
+    testsConducted.forEach(
+        (time, count) -> {
+          for (int i = 0; i < count; i++) {
+            testCapacity.record(time);
+          }
+        });
+    delayedTests.clear();
+    int delayedTimes = in.readInt();
+    for (int i = 0; i < delayedTimes; i++) {
+      int time = in.readInt();
+      List<Integer> ids = new ArrayList<>();
+      for (int j = in.readInt(); j > 0; j--) {
+        ids.add(in.readInt());
+      }
+      delayedTests.put(time, ids);
+    }
+  }
+
+  private static void writeCounts(DataOutput out, Map<Integer, Integer> counts) throws IOException {
+    Map<Integer, Integer> sortedCounts = new TreeMap<>(counts);
+    out.writeInt(sortedCounts.size());
+    for (Map.Entry<Integer, Integer> entry : sortedCounts.entrySet()) {
+      out.writeInt(entry.getKey());
+      out.writeInt(entry.getValue());
+    }
+  }
+
+  private static void readCounts(DataInput in, Map<Integer, Integer> counts) throws IOException {
+    counts.clear();
+    for (int i = in.readInt(); i > 0; i--) {
+      counts.put(in.readInt(), in.readInt());
+    }
+  }
+
+  private static void writeTestResults(DataOutput out, Map<AlertStatus, Integer> results)
+      throws IOException {
+    out.writeInt(results.size());
+    for (Map.Entry<AlertStatus, Integer> entry : results.entrySet()) {
+      out.writeByte(entry.getKey().ordinal());
+      out.writeInt(entry.getValue());
+    }
+  }
+
+  private static void readTestResults(DataInput in, Map<AlertStatus, Integer> results)
+      throws IOException {
+    AlertStatus[] alertStatuses = AlertStatus.values();
+    results.clear();
+    for (int i = in.readInt(); i > 0; i--) {
+      results.put(alertStatuses[in.readByte()], in.readInt());
+    }
+  }
 }
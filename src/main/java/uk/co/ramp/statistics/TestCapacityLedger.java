@@ -0,0 +1,164 @@
+package uk.co.ramp.statistics;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+import uk.co.ramp.io.types.StandardProperties;
+
+/**
+ * The number of tests reserved at each time step of a run against the capacity for that time step.
+ * A segment tree holds the capacity left at each time step, so the first time step from a given
+ * time with capacity left is found in O(log T) however many time steps are already full.
+ */
+public final class TestCapacityLedger {
+  private final int timeSteps;
+  private final int[] capacities;
+  private final int[] reserved;
+  // the capacity left at each time step in the leaves, and the most left below each other node
+  private final int[] remaining;
+  private final int leaves;
+
+  /** A ledger for the given number of time steps, each with the capacity given for it. */
+  public TestCapacityLedger(int timeSteps, IntUnaryOperator capacityAt) {
+    Preconditions.checkArgument(timeSteps >= 0, "The number of time steps should not be negative");
+    this.timeSteps = timeSteps;
+    this.capacities = new int[timeSteps];
+    this.reserved = new int[timeSteps];
+    this.leaves = Integer.highestOneBit(Math.max(1, timeSteps - 1)) << 1;
+    this.remaining = new int[2 * leaves];
+    for (int time = 0; time < timeSteps; time++) {
+      capacities[time] = capacityAt.applyAsInt(time);
+      Preconditions.checkArgument(capacities[time] >= 0, "Test capacity should not be negative");
+      remaining[leaves + time] = capacities[time];
+    }
+    for (int node = leaves - 1; node > 0; node--) {
+      remaining[node] = Math.max(remaining[2 * node], remaining[2 * node + 1]);
+    }
+  }
+
+  /**
+   * A ledger with the same capacity at each time step of a run, up to and including its time limit,
+   * as the time step at the time limit is also run.
+   */
+  public static TestCapacityLedger forRun(StandardProperties properties, int capacity) {
+    return withCapacity(properties.timeLimitDays() * properties.timeStepsPerDay() + 1, capacity);
+  }
+
+  /** A ledger with the same capacity at every time step. */
+  public static TestCapacityLedger withCapacity(int timeSteps, int capacity) {
+    return new TestCapacityLedger(timeSteps, time -> capacity);
+  }
+
+  public int timeSteps() {
+    return timeSteps;
+  }
+
+  public int capacity(int time) {
+    return isInRun(time) ? capacities[time] : 0;
+  }
+
+  public int reserved(int time) {
+    return isInRun(time) ? reserved[time] : 0;
+  }
+
+  /** Changes the capacity at a time step, for example when testing is scaled up part way in. */
+  public void setCapacity(int time, int capacity) {
+    checkInRun(time);
+    Preconditions.checkArgument(capacity >= 0, "Test capacity should not be negative");
+    capacities[time] = capacity;
+    update(time);
+  }
+
+  /** Returns the first time step from the given time with capacity left, or -1 if there is none. */
+  public int nextFreeSlot(int from) {
+    int start = Math.max(from, 0);
+    if (start >= timeSteps) {
+      return -1;
+    }
+
+    // climb until the node to the right of the path has capacity left, then descend to it
+    int node = leaves + start;
+    if (remaining[node] > 0) {
+      return start;
+    }
+    while (node > 1) {
+      if ((node & 1) == 0 && remaining[node + 1] > 0) {
+        node = node + 1;
+        while (node < leaves) {
+          node = remaining[2 * node] > 0 ? 2 * node : 2 * node + 1;
+        }
+        return node - leaves;
+      }
+      node >>= 1;
+    }
+    return -1;
+  }
+
+  /**
+   * Reserves a test at the first time step from the given time with capacity left, returning that
+   * time step, or -1 without reserving anything if every later time step is full.
+   */
+  public int reserveFrom(int from) {
+    int time = nextFreeSlot(from);
+    if (time >= 0) {
+      record(time);
+    }
+    return time;
+  }
+
+  /** Records a test at the given time step whether or not there is capacity left for it. */
+  public void record(int time) {
+    checkInRun(time);
+    reserved[time]++;
+    update(time);
+  }
+
+  /** Releases a test reserved at the given time step, freeing its capacity. */
+  public void release(int time) {
+    checkInRun(time);
+    Preconditions.checkState(reserved[time] > 0, "There is no test reserved at time %s", time);
+    reserved[time]--;
+    update(time);
+  }
+
+  /** Releases every test reserved, leaving the capacity at each time step as it is. */
+  public void clear() {
+    Arrays.fill(reserved, 0);
+    for (int time = 0; time < timeSteps; time++) {
+      remaining[leaves + time] = capacities[time];
+    }
+    for (int node = leaves - 1; node > 0; node--) {
+      remaining[node] = Math.max(remaining[2 * node], remaining[2 * node + 1]);
+    }
+  }
+
+  /** The number of tests reserved at each time step with any, in time order. */
+  public Map<Integer, Integer> reservedByTime() {
+    Map<Integer, Integer> reservedByTime = new LinkedHashMap<>();
+    for (int time = 0; time < timeSteps; time++) {
+      if (reserved[time] > 0) {
+        reservedByTime.put(time, reserved[time]);
+      }
+    }
+    return reservedByTime;
+  }
+
+  private void update(int time) {
+    int node = leaves + time;
+    remaining[node] = Math.max(0, capacities[time] - reserved[time]);
+    for (node >>= 1; node > 0; node >>= 1) {
+      remaining[node] = Math.max(remaining[2 * node], remaining[2 * node + 1]);
+    }
+  }
+
+  private boolean isInRun(int time) {
+    return time >= 0 && time < timeSteps;
+  }
+
+  private void checkInRun(int time) {
+    Preconditions.checkArgument(
+        isInRun(time), "Time %s is outside the %s time steps of the run", time, timeSteps);
+  }
+}
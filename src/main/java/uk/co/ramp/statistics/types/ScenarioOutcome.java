@@ -0,0 +1,51 @@
+package uk.co.ramp.statistics.types;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+/** The final state of one run in a scenario sweep, as a row of the comparison table. */
+@Value.Immutable
+@JsonSerialize
+@JsonDeserialize
+@JsonPropertyOrder({
+  "scenario",
+  "seed",
+  "s",
+  "e",
+  "a",
+  "p",
+  "sym",
+  "sev",
+  "r",
+  "d",
+  "personDaysIsolated",
+  "testsConducted"
+})
+public interface ScenarioOutcome {
+
+  String scenario();
+
+  long seed();
+
+  int s();
+
+  int e();
+
+  int a();
+
+  int p();
+
+  int sym();
+
+  int sev();
+
+  int r();
+
+  int d();
+
+  double personDaysIsolated();
+
+  int testsConducted();
+}
@@ -20,6 +20,8 @@ import org.mockito.Mockito;
 import uk.co.ramp.io.types.DiseaseProperties;
 import uk.co.ramp.io.types.InputFiles;
 import uk.co.ramp.io.types.PopulationProperties;
+import uk.co.ramp.io.types.ScenarioSweep;
+import uk.co.ramp.io.types.ScenarioSweep.Scenario;
 import uk.co.ramp.io.types.StandardProperties;
 import uk.ramp.api.StandardApi;
 import uk.ramp.distribution.Distribution;
@@ -167,7 +169,7 @@ public class AppConfigTest {
     when(stdApi.readEstimate(anyString(), eq("app-uptake"))).thenReturn(0.01);
     when(stdApi.readEstimate(anyString(), eq("test-capacity"))).thenReturn(0.7);
 
-    appConfig = new AppConfig(null, null, null);
+    appConfig = new AppConfig(null, null, null, null);
   }
 
   @Test
@@ -246,10 +248,31 @@ public class AppConfigTest {
     when(dataApi.readDistribution(anyString(), anyString()))
         .thenThrow(ConfigurationException.class);
 
-    appConfig = new AppConfig(null, null, null);
+    appConfig = new AppConfig(null, null, null, null);
     appConfig.diseaseProperties(dataApi);
   }
 
+  @Test
+  public void scenarioSweep() {
+    appConfig =
+        new AppConfig(null, null, null, "input/scenarios/scenario0, input/scenarios/scenario3");
+
+    ScenarioSweep scenarioSweep = appConfig.scenarioSweep();
+
+    Assert.assertEquals(2, scenarioSweep.scenarios().size());
+    Scenario scenario = scenarioSweep.scenarios().get(1);
+    Assert.assertEquals("scenario3", scenario.name());
+    Assert.assertEquals(
+        "input/scenarios/scenario3/isolationPolicies.json",
+        scenario.inputFiles().isolationPolicies());
+    Assert.assertEquals(appConfig.inputFiles().contactData(), scenario.inputFiles().contactData());
+  }
+
+  @Test
+  public void scenarioSweepIsEmptyByDefault() {
+    Assert.assertTrue(appConfig.scenarioSweep().scenarios().isEmpty());
+  }
+
   @Test
   public void populationProperties() throws ConfigurationException {
 
@@ -264,7 +287,7 @@ public class AppConfigTest {
     StandardApi stdApi = mock(StandardApi.class);
     when(stdApi.readDistribution(anyString(), anyString())).thenThrow(ConfigurationException.class);
     when(stdApi.readEstimate(anyString(), anyString())).thenThrow(ConfigurationException.class);
-    appConfig = new AppConfig(null, null, null);
+    appConfig = new AppConfig(null, null, null, null);
     appConfig.populationProperties(stdApi);
   }
 
@@ -288,7 +311,8 @@ public class AppConfigTest {
         new AppConfig(
             String.valueOf(arg),
             "src/test/resources/testSeedOverride",
-            "src/test/resources/testSeedOverride");
+            "src/test/resources/testSeedOverride",
+            null);
 
     RandomDataGenerator r = appConfig.randomDataGenerator();
     int seed = appConfig.standardProperties().seed().orElseThrow();
@@ -301,7 +325,7 @@ public class AppConfigTest {
   @Test(expected = ConfigurationException.class)
   public void randomDataGeneratorWithInvalidArgs() throws ConfigurationException {
 
-    appConfig = new AppConfig("seed", null, null);
+    appConfig = new AppConfig("seed", null, null, null);
     try {
       appConfig.randomDataGenerator();
     } catch (ConfigurationException e) {
@@ -2,7 +2,6 @@ package uk.co.ramp;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -16,10 +15,7 @@ import org.junit.*;
 import org.springframework.context.ApplicationContext;
 import uk.co.ramp.event.CompletionEventListGroup;
 import uk.co.ramp.event.types.ContactEvent;
-import uk.co.ramp.io.CompartmentWriter;
 import uk.co.ramp.io.ContactReader;
-import uk.co.ramp.io.csv.CsvException;
-import uk.co.ramp.io.types.CmptRecord;
 import uk.co.ramp.io.types.InputFiles;
 import uk.co.ramp.people.Case;
 import uk.co.ramp.people.PopulationGenerator;
@@ -38,6 +34,7 @@ public class ContactRunnerTest {
     runner.setApplicationContext(applicationContext);
     StandardApi dataPipelineApi = mock(StandardApi.class);
     runner.setDataPipelineApi(dataPipelineApi);
+    runner.setStandardProperties(TestUtils.standardProperties());
   }
 
   @After
@@ -53,7 +50,6 @@ public class ContactRunnerTest {
     PopulationGenerator populationGenerator = mock(PopulationGenerator.class);
     Outbreak outbreak = mock(Outbreak.class);
     ContactReader reader = mock(ContactReader.class);
-    CompartmentWriter compartmentWriter = mock(CompartmentWriter.class);
     InputFiles inputFiles = mock(InputFiles.class);
     CompletionEventListGroup eventList = mock(CompletionEventListGroup.class);
 
@@ -76,7 +72,6 @@ public class ContactRunnerTest {
     when(applicationContext.getBean(ContactReader.class)).thenReturn(reader);
     when(applicationContext.getBean(CompletionEventListGroup.class)).thenReturn(eventList);
     when(applicationContext.getBean(Outbreak.class)).thenReturn(outbreak);
-    when(applicationContext.getBean(CompartmentWriter.class)).thenReturn(compartmentWriter);
 
     runner.setApplicationContext(applicationContext);
     runner.setInputFileLocation(inputFiles);
@@ -85,27 +80,8 @@ public class ContactRunnerTest {
     Assert.assertThat(
         logSpy.getOutput(), containsString("Generated Population and Parsed Contact data"));
     Assert.assertThat(logSpy.getOutput(), containsString("Initialised Outbreak"));
-    Assert.assertThat(logSpy.getOutput(), containsString("Writing Compartment Records"));
     Assert.assertThat(logSpy.getOutput(), containsString("Completed. Tidying up."));
 
     System.out.println(logSpy.getOutput());
   }
-
-  @Test(expected = CsvException.class)
-  public void writeCompartments() throws IOException {
-
-    File temp = File.createTempFile("test", "file");
-    List<CmptRecord> var = new ArrayList<>();
-
-    CompartmentWriter compartmentWriter = mock(CompartmentWriter.class);
-    doThrow(new IOException()).when(compartmentWriter).write(any(), any());
-    when(applicationContext.getBean(CompartmentWriter.class)).thenReturn(compartmentWriter);
-    try {
-      runner.writeCompartments(var, temp);
-    } catch (CsvException e) {
-      System.out.println(logSpy.getOutput());
-      Assert.assertThat(logSpy.getOutput(), containsString(""));
-      throw e;
-    }
-  }
 }
@@ -6,6 +6,9 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.*;
 import org.junit.Assert;
 import org.junit.Before;
@@ -24,6 +27,7 @@ import uk.co.ramp.io.InitialCaseReader;
 import uk.co.ramp.io.types.*;
 import uk.co.ramp.people.Case;
 import uk.co.ramp.people.Human;
+import uk.co.ramp.people.MapPopulationStore;
 
 @DirtiesContext
 @RunWith(SpringRunner.class)
@@ -40,6 +44,7 @@ public class OutbreakTest {
   @Autowired private Outbreak outbreak;
   @Autowired private CompletionEventListGroup eventListGroup;
   @Autowired private PopulationProperties populationProperties;
+  @Autowired private OutputFolder outputFolder;
 
   private DiseaseProperties diseaseProperties;
 
@@ -76,7 +81,7 @@ public class OutbreakTest {
     eventListGroup.addNewContactEvents(contacts);
 
     ReflectionTestUtils.setField(this.diseaseProperties, "randomInfectionRate", randomInfection);
-    ReflectionTestUtils.setField(this.population, "population", population);
+    ReflectionTestUtils.setField(this.population, "population", new MapPopulationStore(population));
 
     outbreak.runContactData(days - 1, randomInfection);
 
@@ -100,7 +105,7 @@ public class OutbreakTest {
 
   @Test
   @DirtiesContext
-  public void testPropagate() {
+  public void testPropagate() throws IOException {
     int popSize = 100;
     double[] array = {1};
 
@@ -126,7 +131,7 @@ public class OutbreakTest {
     List<ContactEvent> contacts = createContactRecords(200, population);
     eventListGroup.addNewContactEvents(contacts);
 
-    ReflectionTestUtils.setField(this.population, "population", population);
+    ReflectionTestUtils.setField(this.population, "population", new MapPopulationStore(population));
 
     long susceptible =
         population.values().stream()
@@ -145,6 +150,13 @@ public class OutbreakTest {
     assertThat(population.size()).isGreaterThan(0);
 
     Assert.assertEquals(records.size(), standardProperties.timeLimitDays() + 1);
+    // the header and a row for each time step, written as the run progressed
+    List<String> compartments =
+        Files.readAllLines(
+            new File(outputFolder.outputFolder(), Outbreak.COMPARTMENTS_CSV).toPath());
+    assertThat(compartments).hasSize(records.size() + 1);
+    assertThat(compartments.get(0)).startsWith("\"time\"");
+    assertThat(compartments.get(records.size())).startsWith(records.get(100).time() + ",");
     Assert.assertTrue(susceptiblePost < susceptible);
     Assert.assertThat(
         logSpy.getOutput(),
@@ -177,7 +189,7 @@ public class OutbreakTest {
     List<ContactEvent> contacts = createContactRecords(500, population);
     eventListGroup.addNewContactEvents(contacts);
 
-    ReflectionTestUtils.setField(this.population, "population", population);
+    ReflectionTestUtils.setField(this.population, "population", new MapPopulationStore(population));
 
     long susceptible =
         population.values().stream()
@@ -218,7 +230,7 @@ public class OutbreakTest {
     List<ContactEvent> contacts = createContactRecords(5, population);
     eventListGroup.addNewContactEvents(contacts);
 
-    ReflectionTestUtils.setField(this.population, "population", population);
+    ReflectionTestUtils.setField(this.population, "population", new MapPopulationStore(population));
 
     long susceptible =
         population.values().stream()
@@ -260,7 +272,7 @@ public class OutbreakTest {
     List<ContactEvent> contacts = createContactRecords(days, population);
     eventListGroup.addNewContactEvents(contacts);
 
-    ReflectionTestUtils.setField(this.population, "population", population);
+    ReflectionTestUtils.setField(this.population, "population", new MapPopulationStore(population));
 
     outbreak.runContactData(days - 1, randomInfection);
 
@@ -0,0 +1,230 @@
+package uk.co.ramp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import org.apache.commons.math3.random.RandomDataGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.co.ramp.event.CompletionEventListGroup;
+import uk.co.ramp.event.EventJournalFormat;
+import uk.co.ramp.event.EventListWriter;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+import uk.co.ramp.io.ContactReader;
+import uk.co.ramp.io.types.CmptRecord;
+import uk.co.ramp.io.types.DiseaseProperties;
+import uk.co.ramp.io.types.OutputFolder;
+import uk.co.ramp.io.types.StandardProperties;
+import uk.co.ramp.statistics.StatisticsRecorder;
+
+@DirtiesContext
+@RunWith(SpringRunner.class)
+@Import({TestConfig.class, AppConfig.class})
+public class RunContextTest {
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+  @Rule public final LogSpy logSpy = new LogSpy();
+
+  @Autowired private ApplicationContext parent;
+
+  private ConfigurableApplicationContext create(long seed, File outputFolder) {
+    RandomDataGenerator rng = new RandomDataGenerator();
+    rng.reSeed(seed);
+    return RunContext.create(parent, rng, seed, outputFolder);
+  }
+
+  @Test
+  public void testRunsShareInputsButNotState() {
+    File outputFolder = folder.getRoot();
+    try (ConfigurableApplicationContext first = create(1, outputFolder);
+        ConfigurableApplicationContext second = create(2, outputFolder)) {
+
+      assertThat(first.getBean(DiseaseProperties.class))
+          .isSameAs(parent.getBean(DiseaseProperties.class))
+          .isSameAs(second.getBean(DiseaseProperties.class));
+
+      assertThat(first.getBean(Population.class))
+          .isNotSameAs(parent.getBean(Population.class))
+          .isNotSameAs(second.getBean(Population.class));
+      assertThat(first.getBean(CompletionEventListGroup.class))
+          .isNotSameAs(second.getBean(CompletionEventListGroup.class));
+      assertThat(first.getBean(StatisticsRecorder.class))
+          .isNotSameAs(second.getBean(StatisticsRecorder.class));
+      // contacts are spread over the time steps of their days with each run's own draws
+      assertThat(first.getBean(ContactReader.class))
+          .isNotSameAs(parent.getBean(ContactReader.class))
+          .isNotSameAs(second.getBean(ContactReader.class));
+      assertThat(first.getBean(OutputFolder.class).outputFolder()).isEqualTo(outputFolder);
+    }
+  }
+
+  @Test
+  public void testPopulationDependsOnSeed() {
+    File outputFolder = folder.getRoot();
+    try (ConfigurableApplicationContext first = create(1, outputFolder);
+        ConfigurableApplicationContext repeat = create(1, outputFolder);
+        ConfigurableApplicationContext second = create(2, outputFolder)) {
+
+      double firstHealth = first.getBean(Population.class).getHealth(0);
+      assertThat(repeat.getBean(Population.class).getHealth(0)).isEqualTo(firstHealth);
+      assertThat(second.getBean(Population.class).getHealth(0)).isNotEqualTo(firstHealth);
+    }
+  }
+
+  // a small run, whose draws are all made from the generator of the parent, as in a single run
+  private void setUpSingleRun() {
+    StandardProperties properties = parent.getBean(StandardProperties.class);
+    ReflectionTestUtils.setField(properties, "populationSize", 200);
+    ReflectionTestUtils.setField(properties, "initialExposures", 10);
+    ReflectionTestUtils.setField(properties, "timeLimitDays", 20);
+  }
+
+  private <T> T withOutbreak(File outputFolder, Function<Outbreak, T> action) {
+    RandomDataGenerator rng = parent.getBean(RandomDataGenerator.class);
+    rng.reSeed(3);
+    try (ConfigurableApplicationContext run = RunContext.create(parent, rng, 3, outputFolder)) {
+      run.getBean(CompletionEventListGroup.class).addNewContactEvents(contacts(200, 40));
+      return action.apply(run.getBean(Outbreak.class));
+    }
+  }
+
+  private void assertSameOutputs(File actualFolder, File expectedFolder) throws IOException {
+    for (String output :
+        List.of(
+            Outbreak.COMPARTMENTS_CSV,
+            EventListWriter.EVENTS_CSV,
+            "infectionMap.txt",
+            "stats.txt",
+            "rValue.csv")) {
+      assertThat(Files.readString(new File(actualFolder, output).toPath()))
+          .as(output)
+          .isEqualTo(Files.readString(new File(expectedFolder, output).toPath()));
+    }
+  }
+
+  @Test
+  @DirtiesContext
+  public void testRestoredRunMatchesUninterruptedRun() throws IOException {
+    setUpSingleRun();
+    ReflectionTestUtils.setField(
+        parent.getBean(StandardProperties.class), "checkpointTimeSteps", ImmutableList.of(15));
+
+    File uninterruptedFolder = folder.newFolder();
+    Map<Integer, CmptRecord> uninterrupted = withOutbreak(uninterruptedFolder, Outbreak::propagate);
+    File checkpoint = new File(uninterruptedFolder, Outbreak.checkpointFileName(15));
+    assertThat(checkpoint).exists();
+
+    File restoredFolder = folder.newFolder();
+    Map<Integer, CmptRecord> restored =
+        withOutbreak(restoredFolder, outbreak -> outbreak.restore(checkpoint.toPath()));
+
+    assertThat(restored).isEqualTo(uninterrupted);
+    assertSameOutputs(restoredFolder, uninterruptedFolder);
+  }
+
+  @Test
+  @DirtiesContext
+  public void testBranchesContinueTheSharedRun() throws IOException {
+    setUpSingleRun();
+    File uninterruptedFolder = folder.newFolder();
+    Map<Integer, CmptRecord> uninterrupted = withOutbreak(uninterruptedFolder, Outbreak::propagate);
+
+    byte[] checkpoint = withOutbreak(folder.newFolder(), outbreak -> outbreak.runToBranch(15));
+    byte[] lateCheckpoint =
+        withOutbreak(folder.newFolder(), outbreak -> outbreak.runToBranch(1000));
+
+    // each branch is continued from the same checkpoint, which they leave unchanged
+    for (byte[] branchCheckpoint : List.of(checkpoint, checkpoint, lateCheckpoint)) {
+      File branchFolder = folder.newFolder();
+      Map<Integer, CmptRecord> branch =
+          withOutbreak(branchFolder, outbreak -> outbreak.branch(branchCheckpoint));
+
+      assertThat(branch).isEqualTo(uninterrupted);
+      assertSameOutputs(branchFolder, uninterruptedFolder);
+    }
+  }
+
+  @Test
+  @DirtiesContext
+  public void testPrefixCacheResumesTheSameRun() throws IOException {
+    setUpSingleRun();
+    StandardProperties properties = parent.getBean(StandardProperties.class);
+    ReflectionTestUtils.setField(properties, "prefixCache", folder.newFolder().getPath());
+    ReflectionTestUtils.setField(properties, "prefixCacheInterval", 5);
+
+    File firstFolder = folder.newFolder();
+    Map<Integer, CmptRecord> first = withOutbreak(firstFolder, Outbreak::propagate);
+    assertThat(logSpy.getOutput()).doesNotContain("Resuming from the prefix cache");
+
+    File cachedFolder = folder.newFolder();
+    Map<Integer, CmptRecord> cached = withOutbreak(cachedFolder, Outbreak::propagate);
+    assertThat(logSpy.getOutput()).contains("Resuming from the prefix cache at time step");
+
+    assertThat(cached).isEqualTo(first);
+    assertSameOutputs(cachedFolder, firstFolder);
+  }
+
+  @Test
+  @DirtiesContext
+  public void testJournalledRunResumesFromSnapshotsWithoutTheJournal() throws IOException {
+    setUpSingleRun();
+    StandardProperties properties = parent.getBean(StandardProperties.class);
+    ReflectionTestUtils.setField(properties, "prefixCache", folder.newFolder().getPath());
+    ReflectionTestUtils.setField(properties, "prefixCacheInterval", 5);
+    withOutbreak(folder.newFolder(), Outbreak::propagate);
+
+    ReflectionTestUtils.setField(properties, "eventJournal", EventJournalFormat.BINARY);
+    File journalledFolder = folder.newFolder();
+    withOutbreak(journalledFolder, Outbreak::propagate);
+    assertThat(logSpy.getOutput()).contains("Resuming from the prefix cache at time step");
+
+    // the events before the snapshot are replayed as processed, as if the run had journalled them
+    File replayFolder = folder.newFolder();
+    new JournalReplay()
+        .replay(
+            new File(journalledFolder, EventJournalFormat.BINARY.fileName()).toPath(),
+            replayFolder);
+    for (String output :
+        List.of(EventListWriter.EVENTS_CSV, "infectionMap.txt", "stats.txt", "rValue.csv")) {
+      assertThat(Files.readString(new File(replayFolder, output).toPath()))
+          .as(output)
+          .isEqualTo(Files.readString(new File(journalledFolder, output).toPath()));
+    }
+  }
+
+  private static List<ContactEvent> contacts(int people, int timeSteps) {
+    Random random = new Random(11);
+    List<ContactEvent> contacts = new ArrayList<>();
+    for (int time = 0; time < timeSteps; time++) {
+      for (int i = 0; i < people; i++) {
+        contacts.add(
+            ImmutableContactEvent.builder()
+                .time(time)
+                .from(random.nextInt(people))
+                .to(random.nextInt(people))
+                .weight(random.nextInt(100))
+                .label("")
+                .build());
+      }
+    }
+    return contacts;
+  }
+}
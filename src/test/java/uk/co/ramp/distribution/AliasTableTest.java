@@ -0,0 +1,54 @@
+package uk.co.ramp.distribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+import org.junit.Test;
+
+public class AliasTableTest {
+  private static final int SAMPLES = 200_000;
+
+  private final RandomGenerator rng = new Well19937c(123);
+
+  private double[] frequencies(AliasTable aliasTable) {
+    double[] frequencies = new double[aliasTable.size()];
+    for (int i = 0; i < SAMPLES; i++) {
+      frequencies[aliasTable.sample(rng)] += 1d / SAMPLES;
+    }
+    return frequencies;
+  }
+
+  @Test
+  public void testDrawsInProportionToWeights() {
+    double[] frequencies = frequencies(new AliasTable(new double[] {0.1, 0.4, 0.3, 0.2}));
+
+    assertThat(frequencies[0]).isCloseTo(0.1, within(0.005));
+    assertThat(frequencies[1]).isCloseTo(0.4, within(0.005));
+    assertThat(frequencies[2]).isCloseTo(0.3, within(0.005));
+    assertThat(frequencies[3]).isCloseTo(0.2, within(0.005));
+  }
+
+  @Test
+  public void testNormalisesWeights() {
+    double[] frequencies = frequencies(new AliasTable(new double[] {3, 0, 1}));
+
+    assertThat(frequencies[0]).isCloseTo(0.75, within(0.005));
+    assertThat(frequencies[1]).isZero();
+    assertThat(frequencies[2]).isCloseTo(0.25, within(0.005));
+  }
+
+  @Test
+  public void testSingleWeight() {
+    assertThat(frequencies(new AliasTable(new double[] {1}))[0]).isCloseTo(1, within(1e-9));
+  }
+
+  @Test
+  public void testRejectsInvalidWeights() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new AliasTable(new double[0]));
+    assertThatIllegalArgumentException().isThrownBy(() -> new AliasTable(new double[] {0, 0}));
+    assertThatIllegalArgumentException().isThrownBy(() -> new AliasTable(new double[] {1, -1}));
+  }
+}
@@ -0,0 +1,67 @@
+package uk.co.ramp.distribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.co.ramp.distribution.RandomStreams.Purpose.TEST_RESULT;
+import static uk.co.ramp.distribution.RandomStreams.Purpose.VIRUS_OUTCOME;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Test;
+import uk.co.ramp.TestUtils;
+
+public class DistributionSamplerTest {
+
+  private final DistributionSampler sharedSampler =
+      new DistributionSampler(TestUtils.dataGenerator());
+  private final DistributionSampler streamSampler =
+      new DistributionSampler(TestUtils.dataGenerator(), new RandomStreams(123));
+
+  @Test
+  public void testKeyedDrawsUseSharedGeneratorByDefault() {
+    DistributionSampler expected = new DistributionSampler(TestUtils.dataGenerator());
+
+    assertThat(sharedSampler.uniformBetweenZeroAndOne(VIRUS_OUTCOME, 1, 2))
+        .isEqualTo(expected.uniformBetweenZeroAndOne());
+    assertThat(sharedSampler.uniformBetweenZeroAndOne(VIRUS_OUTCOME, 1, 2))
+        .isEqualTo(expected.uniformBetweenZeroAndOne());
+  }
+
+  @Test
+  public void testKeyedDrawsDoNotDependOnEarlierDraws() {
+    double first = streamSampler.uniformBetweenZeroAndOne(VIRUS_OUTCOME, 1, 2);
+    streamSampler.uniformBetweenZeroAndOne(TEST_RESULT, 1, 2);
+    streamSampler.uniformBetweenZeroAndOne();
+
+    assertThat(streamSampler.uniformBetweenZeroAndOne(VIRUS_OUTCOME, 1, 2)).isEqualTo(first);
+    assertThat(streamSampler.uniformBetweenZeroAndOne(VIRUS_OUTCOME, 2, 2)).isNotEqualTo(first);
+    assertThat(streamSampler.uniformBetweenZeroAndOne(TEST_RESULT, 1, 2)).isNotEqualTo(first);
+  }
+
+  @Test
+  public void testFillUniform() {
+    double[] shared = new double[5];
+    sharedSampler.fillUniform(shared, VIRUS_OUTCOME, 0, 0);
+    DistributionSampler expected = new DistributionSampler(TestUtils.dataGenerator());
+    for (double value : shared) {
+      assertThat(value).isEqualTo(expected.uniformBetweenZeroAndOne());
+    }
+
+    double[] keyed = new double[5];
+    double[] streamValues = new double[5];
+    streamSampler.fillUniform(keyed, VIRUS_OUTCOME, 0, 0);
+    new RandomStreams(123).fillUniform(streamValues, VIRUS_OUTCOME, 0, 0);
+    assertThat(keyed).containsExactly(streamValues);
+  }
+
+  @Test
+  public void testSample() {
+    BoundedDistribution distribution = mock(BoundedDistribution.class);
+    when(distribution.getDistributionValue()).thenReturn(3);
+    when(distribution.getDistributionValue(any(RandomGenerator.class))).thenReturn(4);
+
+    assertThat(sharedSampler.sample(distribution, VIRUS_OUTCOME, 0, 0)).isEqualTo(3);
+    assertThat(streamSampler.sample(distribution, VIRUS_OUTCOME, 0, 0)).isEqualTo(4);
+  }
+}
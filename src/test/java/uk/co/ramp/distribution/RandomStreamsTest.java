@@ -0,0 +1,59 @@
+package uk.co.ramp.distribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static uk.co.ramp.distribution.RandomStreams.Purpose.CONTACT;
+import static uk.co.ramp.distribution.RandomStreams.Purpose.ISOLATION;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Test;
+
+public class RandomStreamsTest {
+
+  private final RandomStreams randomStreams = new RandomStreams(123);
+
+  private double[] draw(RandomGenerator rng) {
+    double[] values = new double[10];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = rng.nextDouble();
+    }
+    return values;
+  }
+
+  @Test
+  public void testSameKeysGiveSameStream() {
+    assertThat(draw(randomStreams.stream(CONTACT, 5, 10)))
+        .containsExactly(draw(new RandomStreams(123).stream(CONTACT, 5, 10)));
+  }
+
+  @Test
+  public void testDifferentKeysGiveDifferentStreams() {
+    double[] values = draw(randomStreams.stream(CONTACT, 5, 10));
+
+    assertThat(draw(randomStreams.stream(ISOLATION, 5, 10))).isNotEqualTo(values);
+    assertThat(draw(randomStreams.stream(CONTACT, 6, 10))).isNotEqualTo(values);
+    assertThat(draw(randomStreams.stream(CONTACT, 5, 11))).isNotEqualTo(values);
+    assertThat(draw(randomStreams.stream(CONTACT, 10, 5))).isNotEqualTo(values);
+    assertThat(draw(new RandomStreams(124).stream(CONTACT, 5, 10))).isNotEqualTo(values);
+  }
+
+  @Test
+  public void testUniformValues() {
+    RandomGenerator rng = randomStreams.stream(CONTACT, 0, 0);
+    double sum = 0;
+    for (int i = 0; i < 100_000; i++) {
+      double value = rng.nextDouble();
+      assertThat(value).isBetween(0d, 1d);
+      sum += value;
+    }
+    assertThat(sum / 100_000).isCloseTo(0.5, offset(0.01));
+  }
+
+  @Test
+  public void testFillUniformMatchesStream() {
+    double[] values = new double[10];
+    randomStreams.fillUniform(values, CONTACT, 5, 10);
+
+    assertThat(values).containsExactly(draw(randomStreams.stream(CONTACT, 5, 10)));
+  }
+}
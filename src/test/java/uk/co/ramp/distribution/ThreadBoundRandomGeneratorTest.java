@@ -0,0 +1,49 @@
+package uk.co.ramp.distribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+import org.junit.After;
+import org.junit.Test;
+
+public class ThreadBoundRandomGeneratorTest {
+
+  private final RandomGenerator shared = new ThreadBoundRandomGenerator(new Well19937c(1));
+
+  @After
+  public void tearDown() {
+    ThreadBoundRandomGenerator.unbind();
+  }
+
+  @Test
+  public void testUsesFallbackWhenUnbound() {
+    assertThat(shared.nextDouble()).isEqualTo(new Well19937c(1).nextDouble());
+  }
+
+  @Test
+  public void testUsesBoundGenerator() {
+    ThreadBoundRandomGenerator.bind(new Well19937c(2));
+
+    assertThat(shared.nextLong()).isEqualTo(new Well19937c(2).nextLong());
+  }
+
+  @Test
+  public void testBindingIsPerThread() throws Exception {
+    ThreadBoundRandomGenerator.bind(new Well19937c(2));
+
+    double other = CompletableFuture.supplyAsync(shared::nextDouble).get();
+
+    assertThat(other).isEqualTo(new Well19937c(1).nextDouble());
+    assertThat(shared.nextDouble()).isEqualTo(new Well19937c(2).nextDouble());
+  }
+
+  @Test
+  public void testUnbind() {
+    ThreadBoundRandomGenerator.bind(new Well19937c(2));
+    ThreadBoundRandomGenerator.unbind();
+
+    assertThat(shared.nextInt()).isEqualTo(new Well19937c(1).nextInt());
+  }
+}
@@ -0,0 +1,143 @@
+package uk.co.ramp.distribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+import org.junit.Test;
+import uk.ramp.distribution.Distribution;
+import uk.ramp.distribution.Distribution.DistributionType;
+import uk.ramp.distribution.ImmutableDistribution;
+import uk.ramp.distribution.ImmutableMinMax;
+import uk.ramp.distribution.MinMax;
+
+public class TruncatedDistributionTest {
+  private static final int SAMPLES = 200_000;
+
+  private final RandomGenerator rng = new Well19937c(123);
+
+  private BoundedDistribution bounded(Distribution distribution, double max) {
+    return ImmutableBoundedDistribution.builder().distribution(distribution).max(max).build();
+  }
+
+  private MinMax bin(int lower, int upper) {
+    return ImmutableMinMax.builder()
+        .lowerBoundary(lower)
+        .upperBoundary(upper)
+        .isLowerInclusive(true)
+        .isUpperInclusive(true)
+        .build();
+  }
+
+  private ImmutableDistribution.Builder distribution(DistributionType type) {
+    return ImmutableDistribution.builder().internalType(type).rng(rng);
+  }
+
+  // the frequencies of the values from 0 to max drawn by rejecting samples outside the bounds
+  private double[] rejectionFrequencies(BoundedDistribution distribution) {
+    double[] frequencies = new double[(int) distribution.max() + 1];
+    for (int i = 0; i < SAMPLES; i++) {
+      int value;
+      do {
+        value = distribution.distribution().getSample().intValue();
+      } while (value < 1 || value > distribution.max());
+      frequencies[value] += 1d / SAMPLES;
+    }
+    return frequencies;
+  }
+
+  private double[] tableFrequencies(BoundedDistribution distribution) {
+    double[] frequencies = new double[(int) distribution.max() + 1];
+    for (int i = 0; i < SAMPLES; i++) {
+      frequencies[distribution.getDistributionValue(rng)] += 1d / SAMPLES;
+    }
+    return frequencies;
+  }
+
+  private void assertMatchesRejectionSampling(BoundedDistribution distribution) {
+    assertThat(distribution.truncatedDistribution()).isPresent();
+    assertSameFrequencies(distribution);
+  }
+
+  private void assertSameFrequencies(BoundedDistribution distribution) {
+    double[] expected = rejectionFrequencies(distribution);
+    double[] actual = tableFrequencies(distribution);
+
+    assertThat(actual[0]).isZero();
+    for (int value = 1; value < expected.length; value++) {
+      assertThat(actual[value]).isCloseTo(expected[value], within(0.005));
+    }
+  }
+
+  @Test
+  public void testGammaMatchesRejectionSampling() {
+    assertMatchesRejectionSampling(
+        bounded(
+            distribution(DistributionType.gamma).internalShape(2).internalScale(3).build(), 10));
+  }
+
+  @Test
+  public void testExponentialMatchesRejectionSampling() {
+    assertMatchesRejectionSampling(
+        bounded(distribution(DistributionType.exponential).internalScale(4).build(), 14.5));
+  }
+
+  @Test
+  public void testEmpiricalMatchesRejectionSampling() {
+    assertMatchesRejectionSampling(
+        bounded(
+            distribution(DistributionType.empirical)
+                .empiricalSamples(List.of(0, 1, 2, 2, 3.5, 4, 15))
+                .build(),
+            4));
+  }
+
+  @Test
+  public void testCategoricalIsLeftToRejectionSampling() {
+    // each bin holds the whole numbers within it, including its upper boundary
+    BoundedDistribution distribution =
+        bounded(
+            distribution(DistributionType.categorical)
+                .bins(List.of(bin(0, 2), bin(12, 14)))
+                .weights(List.of(0.4, 0.6))
+                .build(),
+            13);
+
+    assertThat(distribution.truncatedDistribution()).isEmpty();
+    assertSameFrequencies(distribution);
+  }
+
+  @Test
+  public void testSamplesWithinTightBounds() {
+    // almost all samples are below 1, so rejection needs tens of thousands of draws per value
+    BoundedDistribution distribution =
+        bounded(distribution(DistributionType.exponential).internalScale(0.1).build(), 3);
+
+    double[] frequencies = tableFrequencies(distribution);
+
+    assertThat(frequencies[0]).isZero();
+    assertThat(frequencies[1]).isCloseTo(1 - Math.exp(-10), within(0.001));
+  }
+
+  @Test
+  public void testLargeMaxIsNotTabulated() {
+    BoundedDistribution distribution =
+        bounded(
+            distribution(DistributionType.empirical).empiricalSamples(List.of(5)).build(),
+            Double.MAX_VALUE);
+
+    assertThat(distribution.truncatedDistribution()).isEmpty();
+    assertThat(distribution.getDistributionValue()).isEqualTo(5);
+  }
+
+  @Test
+  public void testThrowsWhenNoValueIsWithinBounds() {
+    BoundedDistribution distribution =
+        bounded(distribution(DistributionType.empirical).empiricalSamples(List.of(5)).build(), 3);
+
+    assertThatIllegalStateException().isThrownBy(distribution::truncatedDistribution);
+  }
+}
@@ -1,10 +1,18 @@
 package uk.co.ramp.event;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.Mockito.*;
 import static uk.co.ramp.people.AlertStatus.*;
 import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.commons.math3.random.RandomDataGenerator;
 import org.apache.commons.math3.random.RandomGenerator;
 import org.junit.Assert;
 import org.junit.Before;
@@ -13,15 +21,22 @@ import org.junit.Test;
 import uk.co.ramp.LogSpy;
 import uk.co.ramp.Population;
 import uk.co.ramp.TestUtils;
+import uk.co.ramp.distribution.BoundedDistribution;
 import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.ImmutableBoundedDistribution;
+import uk.co.ramp.distribution.RandomStreams;
 import uk.co.ramp.event.types.AlertEvent;
 import uk.co.ramp.event.types.ImmutableAlertEvent;
 import uk.co.ramp.event.types.ProcessedEventResult;
 import uk.co.ramp.io.types.DiseaseProperties;
-import uk.co.ramp.io.types.PopulationProperties;
+import uk.co.ramp.io.types.ImmutableDiseaseProperties;
 import uk.co.ramp.io.types.StandardProperties;
+import uk.co.ramp.people.AlertStatus;
 import uk.co.ramp.statistics.StatisticsRecorder;
 import uk.co.ramp.statistics.StatisticsRecorderImpl;
+import uk.co.ramp.statistics.TestCapacityLedger;
+import uk.ramp.distribution.Distribution.DistributionType;
+import uk.ramp.distribution.ImmutableDistribution;
 
 public class AlertEventProcessorTest {
   @Rule public LogSpy logSpy = new LogSpy();
@@ -32,7 +47,6 @@ public class AlertEventProcessorTest {
   private DistributionSampler distributionSampler;
   private AlertEventProcessor eventProcessor;
   private StatisticsRecorder statisticsRecorder;
-  private PopulationProperties populationProperties;
 
   private static final double DELTA = 1e-6;
 
@@ -48,22 +62,55 @@ public class AlertEventProcessorTest {
     statisticsRecorder = mock(StatisticsRecorderImpl.class);
     when(statisticsRecorder.getFalsePositives()).thenReturn(0);
     when(statisticsRecorder.getFalseNegatives()).thenReturn(0);
-    populationProperties = mock(PopulationProperties.class);
-    when(populationProperties.testCapacity()).thenReturn(0.01);
     RandomGenerator rng = mock(RandomGenerator.class);
     when(rng.nextDouble()).thenReturn(0.5D);
   }
 
   @Test
-  public void timeInStatus() {
+  public void testTestTimesDrawFromTheirOwnStreams() {
+    BoundedDistribution wide =
+        ImmutableBoundedDistribution.builder()
+            .distribution(
+                ImmutableDistribution.builder()
+                    .internalType(DistributionType.empirical)
+                    .empiricalSamples(IntStream.range(0, 100).boxed().collect(Collectors.toList()))
+                    .rng(new RandomDataGenerator().getRandomGenerator())
+                    .build())
+            .max(100)
+            .build();
     eventProcessor =
         new AlertEventProcessor(
             population,
             properties,
-            diseaseProperties,
-            distributionSampler,
-            statisticsRecorder,
-            populationProperties);
+            ImmutableDiseaseProperties.copyOf(diseaseProperties)
+                .withTimeTestAdministered(wide)
+                .withTimeTestResult(wide),
+            new DistributionSampler(new RandomDataGenerator(), new RandomStreams(0)),
+            statisticsRecorder);
+
+    // the same distribution drawn for the same person and time step gives other values
+    List<Integer> administered = new ArrayList<>();
+    List<Integer> result = new ArrayList<>();
+    for (int id = 0; id < 20; id++) {
+      AlertEvent alertEvent =
+          ImmutableAlertEvent.builder()
+              .id(id)
+              .time(5)
+              .oldStatus(ALERTED)
+              .nextStatus(REQUESTED_TEST)
+              .build();
+      administered.add(eventProcessor.timeInStatusAndTestQueue(REQUESTED_TEST, alertEvent));
+      result.add(eventProcessor.timeInStatusAndTestQueue(AWAITING_RESULT, alertEvent));
+    }
+
+    assertThat(administered).isNotEqualTo(result);
+  }
+
+  @Test
+  public void timeInStatus() {
+    eventProcessor =
+        new AlertEventProcessor(
+            population, properties, diseaseProperties, distributionSampler, statisticsRecorder);
 
     AlertEvent alertEvent = mock(AlertEvent.class);
 
@@ -94,6 +141,72 @@ public class AlertEventProcessorTest {
     Assert.assertEquals(1, time);
   }
 
+  @Test
+  public void testsAreDelayedUntilThereIsCapacity() {
+    StatisticsRecorder recorder =
+        new StatisticsRecorderImpl(
+            properties,
+            new HashMap<>(),
+            new HashMap<>(),
+            new HashMap<>(),
+            new HashMap<>(),
+            new EnumMap<>(AlertStatus.class),
+            new EnumMap<>(AlertStatus.class),
+            TestCapacityLedger.withCapacity(27, 1));
+    eventProcessor =
+        new AlertEventProcessor(
+            population, properties, diseaseProperties, distributionSampler, recorder);
+    recorder.recordTestConducted(3);
+    recorder.recordTestConducted(4);
+
+    AlertEvent event =
+        ImmutableAlertEvent.builder()
+            .time(2)
+            .id(0)
+            .oldStatus(AWAITING_RESULT)
+            .nextStatus(TESTED_POSITIVE)
+            .build();
+
+    assertThat(eventProcessor.timeInStatusAndTestQueue(TESTED_POSITIVE, event)).isEqualTo(1);
+    assertThat(eventProcessor.timeInStatusAndTestQueue(TESTED_POSITIVE, event)).isEqualTo(3);
+    assertThat(recorder.getTestsConducted()).containsOnlyKeys(2, 3, 4, 5);
+    assertThat(recorder.getDelayedTests()).containsOnlyKeys(2);
+  }
+
+  @Test
+  public void testsAreConductedAtTheTimeLimit() {
+    StatisticsRecorder recorder =
+        new StatisticsRecorderImpl(
+            properties,
+            new HashMap<>(),
+            new HashMap<>(),
+            new HashMap<>(),
+            new HashMap<>(),
+            new EnumMap<>(AlertStatus.class),
+            new EnumMap<>(AlertStatus.class),
+            TestCapacityLedger.forRun(properties, 1));
+    eventProcessor =
+        new AlertEventProcessor(
+            population, properties, diseaseProperties, distributionSampler, recorder);
+    recorder.recordTestConducted(26);
+
+    ImmutableAlertEvent event =
+        ImmutableAlertEvent.builder()
+            .time(27)
+            .id(0)
+            .oldStatus(AWAITING_RESULT)
+            .nextStatus(TESTED_POSITIVE)
+            .build();
+
+    // a test delayed from before the time limit is not held over to it
+    assertThat(eventProcessor.timeInStatusAndTestQueue(TESTED_POSITIVE, event.withTime(26)))
+        .isEqualTo(1);
+    assertThat(eventProcessor.timeInStatusAndTestQueue(TESTED_POSITIVE, event)).isEqualTo(1);
+    assertThat(eventProcessor.timeInStatusAndTestQueue(TESTED_POSITIVE, event)).isZero();
+    assertThat(recorder.getTestsConducted()).containsOnly(entry(26, 1), entry(27, 1));
+    assertThat(recorder.getDelayedTests()).containsOnlyKeys(26, 27);
+  }
+
   @Test
   public void runAlertEvents() {
     when(population.getVirusStatus(eq(0))).thenReturn(SUSCEPTIBLE);
@@ -102,12 +215,7 @@ public class AlertEventProcessorTest {
 
     eventProcessor =
         new AlertEventProcessor(
-            population,
-            properties,
-            diseaseProperties,
-            distributionSampler,
-            statisticsRecorder,
-            populationProperties);
+            population, properties, diseaseProperties, distributionSampler, statisticsRecorder);
 
     AlertEvent event =
         ImmutableAlertEvent.builder().time(0).id(0).oldStatus(NONE).nextStatus(ALERTED).build();
@@ -143,12 +251,7 @@ public class AlertEventProcessorTest {
     when(population.getAlertStatus(eq(0))).thenReturn(REQUESTED_TEST);
     eventProcessor =
         new AlertEventProcessor(
-            population,
-            properties,
-            diseaseProperties,
-            distributionSampler,
-            statisticsRecorder,
-            populationProperties);
+            population, properties, diseaseProperties, distributionSampler, statisticsRecorder);
 
     var processedEvents = eventProcessor.processEvent(event);
     assertThat(processedEvents.newCompletedAlertEvents()).isEmpty();
@@ -169,23 +272,18 @@ public class AlertEventProcessorTest {
 
     eventProcessor =
         new AlertEventProcessor(
-            population,
-            properties,
-            diseaseProperties,
-            distributionSampler,
-            statisticsRecorder,
-            populationProperties);
+            population, properties, diseaseProperties, distributionSampler, statisticsRecorder);
 
     when(distributionSampler.uniformBetweenZeroAndOne()).thenReturn(0.99d);
-    assertThat(eventProcessor.determineTestResult(true)).hasValue(TESTED_NEGATIVE);
+    assertThat(eventProcessor.determineTestResult(true, 0, 0)).hasValue(TESTED_NEGATIVE);
 
     when(distributionSampler.uniformBetweenZeroAndOne()).thenReturn(0.90d);
-    assertThat(eventProcessor.determineTestResult(true)).hasValue(TESTED_POSITIVE);
+    assertThat(eventProcessor.determineTestResult(true, 0, 0)).hasValue(TESTED_POSITIVE);
 
     when(distributionSampler.uniformBetweenZeroAndOne()).thenReturn(0.90d);
-    assertThat(eventProcessor.determineTestResult(false)).hasValue(TESTED_NEGATIVE);
+    assertThat(eventProcessor.determineTestResult(false, 0, 0)).hasValue(TESTED_NEGATIVE);
 
     when(distributionSampler.uniformBetweenZeroAndOne()).thenReturn(0.99d);
-    assertThat(eventProcessor.determineTestResult(false)).hasValue(TESTED_POSITIVE);
+    assertThat(eventProcessor.determineTestResult(false, 0, 0)).hasValue(TESTED_POSITIVE);
   }
 }
@@ -0,0 +1,100 @@
+package uk.co.ramp.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.Test;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+
+public class CalendarEventListTest {
+
+  private final ImmutableContactEvent event =
+      ImmutableContactEvent.builder().time(1).from(0).to(1).label("school").weight(0.5).build();
+
+  @Test
+  public void testMatchesMapEventList() {
+    var calendarEventList = new CalendarEventList<ContactEvent>(4);
+    var mapEventList = new MapEventList<ContactEvent>();
+    List<ContactEvent> events =
+        List.of(
+            event.withTime(2).withFrom(0).withTo(1),
+            event.withTime(3).withFrom(0).withTo(1),
+            event.withTime(3).withFrom(1).withTo(2),
+            event.withTime(4).withFrom(1).withTo(3),
+            event.withTime(4).withFrom(2).withTo(3),
+            event.withTime(9).withFrom(2).withTo(6),
+            event.withTime(5).withFrom(1).withTo(4),
+            event.withTime(6).withFrom(1).withTo(5));
+    calendarEventList.addEvents(events);
+    mapEventList.addEvents(events);
+
+    assertThat(calendarEventList.lastEventTime()).isEqualTo(mapEventList.lastEventTime());
+    for (int time = -1; time <= 10; time++) {
+      assertThat(calendarEventList.getForTime(time)).isEqualTo(mapEventList.getForTime(time));
+    }
+    assertThat(calendarEventList.getEventsInPeriod(-5, 20, e -> e.from() == 1 || e.to() == 1))
+        .isEqualTo(mapEventList.getEventsInPeriod(-5, 20, e -> e.from() == 1 || e.to() == 1));
+  }
+
+  @Test
+  public void testGrowsBeyondInitialCapacity() {
+    var eventList = new CalendarEventList<ContactEvent>(2);
+    eventList.addEvent(event.withTime(100));
+
+    assertThat(eventList.lastEventTime()).isEqualTo(100);
+    assertThat(eventList.getForTime(100)).containsExactly(event.withTime(100));
+    assertThat(eventList.getForTime(50)).isEmpty();
+  }
+
+  @Test
+  public void testReleaseUpTo() {
+    var eventList = new CalendarEventList<ContactEvent>(10);
+    eventList.addEvent(event.withTime(1));
+    eventList.addEvent(event.withTime(2));
+    eventList.addEvent(event.withTime(3));
+
+    eventList.releaseUpTo(2);
+
+    assertThat(eventList.getForTime(1)).isEmpty();
+    assertThat(eventList.getForTime(2)).isEmpty();
+    assertThat(eventList.getForTime(3)).containsExactly(event.withTime(3));
+    assertThat(eventList.lastEventTime()).isEqualTo(3);
+
+    eventList.addEvent(event.withTime(2));
+    assertThat(eventList.getForTime(2)).containsExactly(event.withTime(2));
+  }
+
+  @Test
+  public void testSizeLeavesOutReleasedEvents() {
+    var calendarEventList = new CalendarEventList<ContactEvent>(4);
+    var mapEventList = new MapEventList<ContactEvent>();
+    List<ContactEvent> events =
+        List.of(event.withTime(1), event.withTime(3), event.withTime(3), event.withTime(8));
+    calendarEventList.addEvents(events);
+    mapEventList.addEvents(events);
+    assertThat(calendarEventList.size()).isEqualTo(4);
+    assertThat(mapEventList.size()).isEqualTo(4);
+
+    calendarEventList.releaseUpTo(3);
+    mapEventList.releaseUpTo(3);
+    calendarEventList.releaseUpTo(2);
+    mapEventList.releaseUpTo(2);
+    assertThat(calendarEventList.size()).isEqualTo(1);
+    assertThat(mapEventList.size()).isEqualTo(1);
+
+    calendarEventList.addEvent(event.withTime(2));
+    mapEventList.addEvent(event.withTime(2));
+    assertThat(calendarEventList.size()).isEqualTo(2);
+    assertThat(mapEventList.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void testLastEventTimeWhenEmpty() {
+    var eventList = new CalendarEventList<ContactEvent>(10);
+
+    assertThatThrownBy(eventList::lastEventTime).isInstanceOf(NoSuchElementException.class);
+  }
+}
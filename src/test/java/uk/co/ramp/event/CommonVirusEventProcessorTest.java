@@ -122,42 +122,42 @@ public class CommonVirusEventProcessorTest {
 
     Assert.assertEquals(
         diseaseProperties.timeLatent().getDistributionValue(),
-        eventProcessor.timeInCompartment(EXPOSED, ASYMPTOMATIC),
+        eventProcessor.timeInCompartment(EXPOSED, ASYMPTOMATIC, 0, 0),
         delta);
     Assert.assertEquals(
         diseaseProperties.timeRecoveryAsymp().getDistributionValue(),
-        eventProcessor.timeInCompartment(ASYMPTOMATIC, RECOVERED),
+        eventProcessor.timeInCompartment(ASYMPTOMATIC, RECOVERED, 0, 0),
         delta);
     Assert.assertEquals(
         diseaseProperties.timeLatent().getDistributionValue(),
-        eventProcessor.timeInCompartment(EXPOSED, PRESYMPTOMATIC),
+        eventProcessor.timeInCompartment(EXPOSED, PRESYMPTOMATIC, 0, 0),
         delta);
     Assert.assertEquals(
         diseaseProperties.timeSymptomsOnset().getDistributionValue(),
-        eventProcessor.timeInCompartment(PRESYMPTOMATIC, SYMPTOMATIC),
+        eventProcessor.timeInCompartment(PRESYMPTOMATIC, SYMPTOMATIC, 0, 0),
         delta);
     Assert.assertEquals(
         diseaseProperties.timeRecoverySymp().getDistributionValue(),
-        eventProcessor.timeInCompartment(SYMPTOMATIC, RECOVERED),
+        eventProcessor.timeInCompartment(SYMPTOMATIC, RECOVERED, 0, 0),
         delta);
     Assert.assertEquals(
         diseaseProperties.timeDecline().getDistributionValue(),
-        eventProcessor.timeInCompartment(SYMPTOMATIC, SEVERELY_SYMPTOMATIC),
+        eventProcessor.timeInCompartment(SYMPTOMATIC, SEVERELY_SYMPTOMATIC, 0, 0),
         delta);
     Assert.assertEquals(
         diseaseProperties.timeRecoverySev().getDistributionValue(),
-        eventProcessor.timeInCompartment(SEVERELY_SYMPTOMATIC, RECOVERED),
+        eventProcessor.timeInCompartment(SEVERELY_SYMPTOMATIC, RECOVERED, 0, 0),
         delta);
     Assert.assertEquals(
         diseaseProperties.timeDeath().getDistributionValue(),
-        eventProcessor.timeInCompartment(SEVERELY_SYMPTOMATIC, DEAD),
+        eventProcessor.timeInCompartment(SEVERELY_SYMPTOMATIC, DEAD, 0, 0),
         delta);
   }
 
   @Test
   public void timeCompartmentEdge() {
     try {
-      eventProcessor.timeInCompartment(SUSCEPTIBLE, RECOVERED);
+      eventProcessor.timeInCompartment(SUSCEPTIBLE, RECOVERED, 0, 0);
     } catch (RuntimeException e) {
       Assert.assertThat(logSpy.getOutput(), containsString("Unexpected Virus statuses"));
       Assert.assertThat(logSpy.getOutput(), containsString("SUSCEPTIBLE"));
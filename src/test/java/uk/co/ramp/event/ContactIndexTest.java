@@ -0,0 +1,58 @@
+package uk.co.ramp.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.Test;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+
+public class ContactIndexTest {
+
+  private final ImmutableContactEvent event =
+      ImmutableContactEvent.builder().time(1).from(0).to(1).label("school").weight(0.5).build();
+
+  @Test
+  public void testGetEventsInPeriod() {
+    var contactIndex = new ContactIndex();
+    contactIndex.addEvents(
+        List.of(
+            event.withTime(2).withFrom(0).withTo(1),
+            event.withTime(3).withFrom(0).withTo(1),
+            event.withTime(3).withFrom(1).withTo(2),
+            event.withTime(4).withFrom(1).withTo(3),
+            event.withTime(4).withFrom(2).withTo(3),
+            event.withTime(4).withFrom(2).withTo(6),
+            event.withTime(4).withFrom(3).withTo(6),
+            event.withTime(5).withFrom(1).withTo(4),
+            event.withTime(6).withFrom(1).withTo(5),
+            event.withTime(6).withFrom(1).withTo(5)));
+
+    assertThat(contactIndex.getEventsInPeriod(3, 5, 1))
+        .containsExactly(
+            event.withTime(3).withFrom(0).withTo(1),
+            event.withTime(3).withFrom(1).withTo(2),
+            event.withTime(4).withFrom(1).withTo(3),
+            event.withTime(5).withFrom(1).withTo(4));
+    assertThat(contactIndex.getEventsInPeriod(0, 10, 6))
+        .containsExactly(
+            event.withTime(4).withFrom(2).withTo(6), event.withTime(4).withFrom(3).withTo(6));
+    assertThat(contactIndex.getEventsInPeriod(0, 10, 7)).isEmpty();
+  }
+
+  @Test
+  public void testOutOfOrderEventsAreSorted() {
+    var contactIndex = new ContactIndex();
+    contactIndex.addEvent(event.withTime(5));
+    contactIndex.addEvent(event.withTime(1));
+    contactIndex.addEvent(event.withTime(3));
+    contactIndex.addEvent(event.withTime(3).withFrom(1).withTo(1));
+
+    assertThat(contactIndex.getEventsInPeriod(0, 10, 1))
+        .containsExactly(
+            event.withTime(1),
+            event.withTime(3),
+            event.withTime(3).withFrom(1).withTo(1),
+            event.withTime(5));
+    assertThat(contactIndex.getEventsInPeriod(2, 4, 0)).containsExactly(event.withTime(3));
+  }
+}
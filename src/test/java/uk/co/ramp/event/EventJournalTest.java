@@ -0,0 +1,238 @@
+package uk.co.ramp.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static uk.co.ramp.people.AlertStatus.ALERTED;
+import static uk.co.ramp.people.AlertStatus.NONE;
+import static uk.co.ramp.people.AlertStatus.REQUESTED_TEST;
+import static uk.co.ramp.people.AlertStatus.TESTED_NEGATIVE;
+import static uk.co.ramp.people.AlertStatus.TESTED_POSITIVE;
+import static uk.co.ramp.people.VirusStatus.EXPOSED;
+import static uk.co.ramp.people.VirusStatus.PRESYMPTOMATIC;
+import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.co.ramp.Population;
+import uk.co.ramp.event.types.ImmutableAlertEvent;
+import uk.co.ramp.event.types.ImmutableInfectionEvent;
+import uk.co.ramp.event.types.ImmutableVirusEvent;
+import uk.co.ramp.io.types.ImmutableStandardProperties;
+import uk.co.ramp.io.types.StandardProperties;
+import uk.co.ramp.people.AlertStatus;
+import uk.co.ramp.people.Case;
+import uk.co.ramp.people.Gender;
+import uk.co.ramp.people.ImmutableHuman;
+import uk.co.ramp.statistics.StatisticsRecorder;
+import uk.co.ramp.statistics.StatisticsRecorderImpl;
+
+public class EventJournalTest {
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private CompletionEventListGroup eventList;
+  private StatisticsRecorder statisticsRecorder;
+
+  @Before
+  public void setUp() {
+    eventList =
+        new CompletionEventListGroup(
+            new EventListGroup(
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>()),
+            new EventListGroup(
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>()));
+    statisticsRecorder = newStatisticsRecorder(properties(EventJournalFormat.BINARY));
+  }
+
+  private StandardProperties properties(EventJournalFormat format) {
+    return ImmutableStandardProperties.builder()
+        .initialExposures(1)
+        .populationSize(10)
+        .seed(123)
+        .timeLimitDays(10)
+        .timeStepsPerDay(1)
+        .timeStepSpread(1)
+        .eventJournal(format)
+        .build();
+  }
+
+  private StatisticsRecorder newStatisticsRecorder(StandardProperties properties) {
+    return new StatisticsRecorderImpl(
+        properties,
+        new HashMap<>(),
+        new HashMap<>(),
+        new HashMap<>(),
+        new HashMap<>(),
+        new EnumMap<>(AlertStatus.class),
+        new EnumMap<>(AlertStatus.class));
+  }
+
+  private Population newPopulation() {
+    Map<Integer, Case> cases = new HashMap<>();
+    for (int id = 0; id < 10; id++) {
+      cases.put(
+          id,
+          new Case(
+              ImmutableHuman.builder()
+                  .id(id)
+                  .age(30)
+                  .gender(Gender.FEMALE)
+                  .isolationCompliance(1)
+                  .reportingCompliance(1)
+                  .health(1)
+                  .hasApp(false)
+                  .build()));
+    }
+    return new Population(cases);
+  }
+
+  private ImmutableInfectionEvent infection(int time, int id, int exposedBy) {
+    return ImmutableInfectionEvent.builder()
+        .time(time)
+        .id(id)
+        .oldStatus(SUSCEPTIBLE)
+        .nextStatus(EXPOSED)
+        .exposedBy(exposedBy)
+        .exposedTime(time)
+        .build();
+  }
+
+  private ImmutableAlertEvent alert(int time, int id, AlertStatus oldStatus, AlertStatus next) {
+    return ImmutableAlertEvent.builder()
+        .time(time)
+        .id(id)
+        .oldStatus(oldStatus)
+        .nextStatus(next)
+        .build();
+  }
+
+  // a short run, with the new events added as the event runner would add them
+  private EventJournalWriter writeRun(StandardProperties properties) {
+    EventJournalWriter writer = new EventJournalWriter(eventList, properties, folder.getRoot());
+
+    eventList.addNewInfectionEvents(List.of(infection(0, 1, Case.getInitial())));
+    eventList.addNewAlertEvents(List.of(alert(0, 5, NONE, ALERTED)));
+    writer.markProcessed(0);
+    eventList.addNewInfectionEvents(List.of(infection(1, 2, 1), infection(1, 3, 1)));
+    // added to the time step once it has been processed, so never processed
+    eventList.addNewAlertEvents(List.of(alert(0, 6, NONE, ALERTED)));
+    writer.prepareUpTo(0).run();
+
+    // person 2 is infected twice, but only the first infection is applied
+    eventList.addNewInfectionEvents(List.of(infection(1, 2, Case.getRandomInfection())));
+    eventList.addNewVirusEvents(
+        List.of(
+            ImmutableVirusEvent.builder()
+                .time(1)
+                .id(1)
+                .oldStatus(EXPOSED)
+                .nextStatus(PRESYMPTOMATIC)
+                .build()));
+    writer.markProcessed(1);
+    eventList.addNewAlertEvents(List.of(alert(4, 5, ALERTED, REQUESTED_TEST)));
+    writer.prepareUpTo(1).run();
+
+    statisticsRecorder.recordSinglePersonInfected(0);
+    statisticsRecorder.recordSinglePersonInfected(1);
+    statisticsRecorder.recordSinglePersonInfected(1);
+    statisticsRecorder.recordDaysInIsolation(5, 7);
+    statisticsRecorder.recordContactsTraced(1, 3);
+    statisticsRecorder.recordTestConducted(1);
+    statisticsRecorder.recordTestDelayed(1, 5);
+    statisticsRecorder.recordCorrectTestResult(TESTED_POSITIVE);
+    statisticsRecorder.recordCorrectTestResult(TESTED_POSITIVE);
+    statisticsRecorder.recordIncorrectTestResult(TESTED_NEGATIVE);
+    writer.output(statisticsRecorder);
+    return writer;
+  }
+
+  private String eventsCsv(File outputFolder) throws IOException {
+    return Files.readString(new File(outputFolder, EventListWriter.EVENTS_CSV).toPath());
+  }
+
+  @Test
+  public void testReplayRebuildsTheRun() throws IOException {
+    StandardProperties properties = properties(EventJournalFormat.BINARY);
+    writeRun(properties);
+    new EventListWriter(new FormattedEventFactory(), eventList, properties, folder.getRoot())
+        .output();
+    File replayFolder = folder.newFolder();
+
+    Population population = newPopulation();
+    StatisticsRecorder replayed = newStatisticsRecorder(properties);
+    try (EventJournal journal =
+        EventJournal.open(folder.getRoot().toPath().resolve("events.journal"))) {
+      assertThat(journal.properties()).isEqualTo(properties);
+      journal.replay(population, replayed, replayFolder).output();
+    }
+
+    assertThat(eventsCsv(replayFolder)).isEqualTo(eventsCsv(folder.getRoot()));
+    assertThat(population.getVirusStatus(1)).isEqualTo(PRESYMPTOMATIC);
+    assertThat(population.getVirusStatus(2)).isEqualTo(EXPOSED);
+    assertThat(population.get(2).exposedBy()).isEqualTo(1);
+    assertThat(population.getVirusStatus(3)).isEqualTo(EXPOSED);
+    assertThat(population.getAlertStatus(5)).isEqualTo(ALERTED);
+    assertThat(population.getAlertStatus(6)).isEqualTo(NONE);
+
+    assertThat(replayed.getPeopleInfected()).isEqualTo(statisticsRecorder.getPeopleInfected());
+    assertThat(replayed.getPersonDaysIsolation())
+        .isEqualTo(statisticsRecorder.getPersonDaysIsolation());
+    assertThat(replayed.getContactsTraced()).isEqualTo(statisticsRecorder.getContactsTraced());
+    assertThat(replayed.getTestsConducted()).isEqualTo(statisticsRecorder.getTestsConducted());
+    assertThat(replayed.getDelayedTests()).isEqualTo(statisticsRecorder.getDelayedTests());
+    assertThat(replayed.getTruePositives()).isEqualTo(2);
+    assertThat(replayed.getFalseNegatives()).isEqualTo(1);
+    assertThat(replayed.getTrueNegatives()).isZero();
+    assertThat(replayed.getFalsePositives()).isZero();
+  }
+
+  @Test
+  public void testCompressedJournal() throws IOException {
+    StandardProperties properties = properties(EventJournalFormat.GZIP);
+    writeRun(properties);
+    Path compressed = folder.getRoot().toPath().resolve("events.journal.gz");
+    assertThat(Files.readAllBytes(compressed)).startsWith(0x1f, 0x8b);
+
+    Population population = newPopulation();
+    try (EventJournal journal = EventJournal.open(compressed)) {
+      journal.replay(population, newStatisticsRecorder(properties), folder.newFolder());
+    }
+
+    assertThat(population.getVirusStatus(1)).isEqualTo(PRESYMPTOMATIC);
+  }
+
+  @Test
+  public void testIncompleteJournalIsRejected() throws IOException {
+    StandardProperties properties = properties(EventJournalFormat.BINARY);
+    writeRun(properties);
+    Path path = folder.getRoot().toPath().resolve("events.journal");
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      file.setLength(file.length() - EventJournal.RECORD_SIZE);
+    }
+
+    try (EventJournal journal = EventJournal.open(path)) {
+      assertThatIOException()
+          .isThrownBy(
+              () ->
+                  journal.replay(
+                      newPopulation(), newStatisticsRecorder(properties), folder.newFolder()))
+          .withMessage("The event journal is incomplete");
+    }
+  }
+}
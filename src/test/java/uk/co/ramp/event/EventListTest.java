@@ -13,7 +13,7 @@ public class EventListTest {
 
   @Test
   public void testGetEventsInPeriod() {
-    var eventList = new EventList<ContactEvent>();
+    var eventList = new MapEventList<ContactEvent>();
     eventList.addEvent(event.withTime(2).withFrom(0).withTo(1));
     eventList.addEvent(event.withTime(3).withFrom(0).withTo(1));
     eventList.addEvent(event.withTime(3).withFrom(1).withTo(2));
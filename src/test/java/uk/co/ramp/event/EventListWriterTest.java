@@ -0,0 +1,150 @@
+package uk.co.ramp.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.co.ramp.people.AlertStatus.ALERTED;
+import static uk.co.ramp.people.AlertStatus.NONE;
+import static uk.co.ramp.people.AlertStatus.REQUESTED_TEST;
+import static uk.co.ramp.people.VirusStatus.EXPOSED;
+import static uk.co.ramp.people.VirusStatus.PRESYMPTOMATIC;
+import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.co.ramp.event.types.Event;
+import uk.co.ramp.event.types.ImmutableAlertEvent;
+import uk.co.ramp.event.types.ImmutableFormattedEvent;
+import uk.co.ramp.event.types.ImmutableInfectionEvent;
+import uk.co.ramp.event.types.ImmutableVirusEvent;
+import uk.co.ramp.io.csv.CsvWriter;
+import uk.co.ramp.io.types.ImmutableStandardProperties;
+import uk.co.ramp.io.types.StandardProperties;
+import uk.co.ramp.people.Case;
+
+public class EventListWriterTest {
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final StandardProperties properties =
+      ImmutableStandardProperties.builder()
+          .initialExposures(10)
+          .populationSize(1000)
+          .seed(123)
+          .timeLimitDays(100)
+          .timeStepsPerDay(3)
+          .timeStepSpread(0.5, 0.25, 0.25)
+          .build();
+  private final FormattedEventFactory formattedEventFactory = new FormattedEventFactory();
+
+  private CompletionEventListGroup eventList;
+  private EventListWriter eventListWriter;
+
+  @Before
+  public void setUp() {
+    eventList =
+        new CompletionEventListGroup(
+            new EventListGroup(
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>()),
+            new EventListGroup(
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>()));
+    eventListWriter =
+        new EventListWriter(formattedEventFactory, eventList, properties, folder.getRoot());
+  }
+
+  private List<Event> addEvents(int from, int to) {
+    List<Event> events = new ArrayList<>();
+    for (int time = from; time <= to; time++) {
+      var virus =
+          ImmutableVirusEvent.builder()
+              .time(time)
+              .id(time)
+              .oldStatus(EXPOSED)
+              .nextStatus(PRESYMPTOMATIC)
+              .build();
+      var infection =
+          ImmutableInfectionEvent.builder()
+              .time(time)
+              .id(100 + time)
+              .oldStatus(SUSCEPTIBLE)
+              .nextStatus(EXPOSED)
+              .exposedBy(time % 2 == 0 ? Case.getRandomInfection() : time)
+              .exposedTime(time)
+              .build();
+      var alert =
+          ImmutableAlertEvent.builder()
+              .time(time)
+              .id(200 + time)
+              .oldStatus(NONE)
+              .nextStatus(time % 3 == 0 ? ALERTED : REQUESTED_TEST)
+              .build();
+      eventList.addNewVirusEvents(List.of(virus));
+      eventList.addNewInfectionEvents(List.of(infection));
+      if (time % 2 == 1) {
+        eventList.addNewAlertEvents(List.of(alert));
+        events.add(alert);
+      }
+      events.add(infection);
+      events.add(virus);
+    }
+    return events;
+  }
+
+  // the events written as a sorted list of formatted events
+  private String expected(List<Event> events) throws IOException {
+    List<ImmutableFormattedEvent> formattedEvents =
+        Stream.of(
+                events.stream().filter(e -> e instanceof ImmutableAlertEvent),
+                events.stream().filter(e -> e instanceof ImmutableInfectionEvent),
+                events.stream().filter(e -> e instanceof ImmutableVirusEvent))
+            .flatMap(s -> s)
+            .map(formattedEventFactory::create)
+            .map(e -> e.withTime(e.time() / properties.timeStepsPerDay()))
+            .sorted(Comparator.comparingDouble(ImmutableFormattedEvent::time))
+            .collect(Collectors.toList());
+
+    StringWriter writer = new StringWriter();
+    new CsvWriter().write(writer, formattedEvents, ImmutableFormattedEvent.class);
+    return writer.toString();
+  }
+
+  private String written() throws IOException {
+    return Files.readString(new File(folder.getRoot(), EventListWriter.EVENTS_CSV).toPath());
+  }
+
+  @Test
+  public void testOutputMatchesSortedCsv() throws IOException {
+    List<Event> events = addEvents(0, 10);
+
+    eventListWriter.output();
+
+    assertThat(written()).isEqualTo(expected(events));
+  }
+
+  @Test
+  public void testWritesIncrementally() throws IOException {
+    List<Event> events = addEvents(0, 4);
+    eventListWriter.writeUpTo(2);
+    eventListWriter.writeUpTo(4);
+    events.addAll(addEvents(5, 9));
+    eventListWriter.writeUpTo(6);
+
+    eventListWriter.output();
+
+    assertThat(written()).isEqualTo(expected(events));
+  }
+}
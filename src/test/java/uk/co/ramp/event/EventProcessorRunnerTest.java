@@ -46,4 +46,27 @@ public class EventProcessorRunnerTest {
     assertThat(eventProcessorRunner.run(List.of(mockEvent1, mockEvent2)))
         .isEqualTo(mockProcessedEventResult3);
   }
+
+  @Test
+  public void runIntoSink() {
+    var alertEvent1 = mock(AlertEvent.class);
+    var alertEvent2 = mock(AlertEvent.class);
+    var virusEvent = mock(VirusEvent.class);
+    when(eventProcessor.processEvent(eq(mockEvent1)))
+        .thenReturn(ImmutableProcessedEventResult.builder().addNewAlertEvents(alertEvent1).build());
+    when(eventProcessor.processEvent(eq(mockEvent2)))
+        .thenReturn(
+            ImmutableProcessedEventResult.builder()
+                .addNewAlertEvents(alertEvent2)
+                .addNewCompletedVirusEvents(virusEvent)
+                .build());
+    EventBuffers buffers = new EventBuffers();
+
+    new EventProcessorRunner<>(eventProcessor, processedEventsGrouper)
+        .run(List.of(mockEvent1, mockEvent2), buffers);
+
+    assertThat(buffers.newAlertEvents()).isEqualTo(List.of(alertEvent1, alertEvent2));
+    assertThat(buffers.newCompletedVirusEvents()).isEqualTo(List.of(virusEvent));
+    assertThat(buffers.newContactEvents()).isEqualTo(List.of());
+  }
 }
@@ -1,6 +1,8 @@
 package uk.co.ramp.event;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -12,8 +14,8 @@ import org.junit.Test;
 import uk.co.ramp.event.types.AlertEvent;
 import uk.co.ramp.event.types.ContactEvent;
 import uk.co.ramp.event.types.EventProcessor;
+import uk.co.ramp.event.types.EventSink;
 import uk.co.ramp.event.types.InfectionEvent;
-import uk.co.ramp.event.types.ProcessedEventResult;
 import uk.co.ramp.event.types.VirusEvent;
 
 public class EventRunnerImplTest {
@@ -21,7 +23,6 @@ public class EventRunnerImplTest {
   private EventProcessorRunner<ContactEvent> contactEventRunner;
   private EventProcessorRunner<InfectionEvent> infectionEventRunner;
   private EventProcessorRunner<VirusEvent> virusEventRunner;
-  private ProcessedEventsGrouper processedEventsGrouper;
   private InfectionCreator infectionCreator;
   private CompletionEventListGroup eventList;
   private AlertEvent mockAlertEvent1;
@@ -80,7 +81,6 @@ public class EventRunnerImplTest {
     this.contactEventRunner = mock(MockContactEventProcessorRunner.class);
     this.infectionEventRunner = mock(MockInfectionEventProcessorRunner.class);
     this.virusEventRunner = mock(MockVirusEventProcessorRunner.class);
-    this.processedEventsGrouper = mock(ProcessedEventsGrouper.class);
     this.infectionCreator = mock(InfectionCreator.class);
     this.eventList = mock(CompletionEventListGroup.class);
     this.mockAlertEvent1 = mock(AlertEvent.class);
@@ -101,11 +101,6 @@ public class EventRunnerImplTest {
     this.mockVirusEvent2 = mock(VirusEvent.class);
     this.mockVirusEvent3 = mock(VirusEvent.class);
     this.mockVirusEvent4 = mock(VirusEvent.class);
-    var mockProcessedAlertEventValue1 = mock(ProcessedEventResult.class);
-    var mockProcessedAlertEventValue2 = mock(ProcessedEventResult.class);
-    var mockProcessedAlertEventValue3 = mock(ProcessedEventResult.class);
-    var mockProcessedAlertEventValue4 = mock(ProcessedEventResult.class);
-    var mockAggregatedProcessedEvent = mock(ProcessedEventResult.class);
     var alertEvents = List.of(mockAlertEvent1, mockAlertEvent2);
     var contactEvents = List.of(mockContactEvent1, mockContactEvent2);
     var infectionEvents =
@@ -122,32 +117,46 @@ public class EventRunnerImplTest {
     when(eventList.getNewInfectionEvents(eq(0))).thenReturn(infectionEvents);
     when(eventList.getNewVirusEvents(eq(0))).thenReturn(virusEvents);
 
-    when(alertEventRunner.run(eq(alertEvents))).thenReturn(mockProcessedAlertEventValue1);
-    when(contactEventRunner.run(eq(contactEvents))).thenReturn(mockProcessedAlertEventValue2);
-    when(infectionEventRunner.run(eq(infectionEvents))).thenReturn(mockProcessedAlertEventValue3);
-    when(virusEventRunner.run(eq(virusEvents))).thenReturn(mockProcessedAlertEventValue4);
-
-    when(mockAggregatedProcessedEvent.newAlertEvents())
-        .thenReturn(List.of(mockAlertEvent3, mockAlertEvent4));
-    when(mockAggregatedProcessedEvent.newContactEvents())
-        .thenReturn(List.of(mockContactEvent3, mockContactEvent4));
-    when(mockAggregatedProcessedEvent.newInfectionEvents())
-        .thenReturn(List.of(mockInfectionEvent3, mockInfectionEvent4));
-    when(mockAggregatedProcessedEvent.newVirusEvents())
-        .thenReturn(List.of(mockVirusEvent3, mockVirusEvent4));
-    when(mockAggregatedProcessedEvent.newCompletedAlertEvents()).thenReturn(alertEvents);
-    when(mockAggregatedProcessedEvent.newCompletedContactEvents()).thenReturn(contactEvents);
-    when(mockAggregatedProcessedEvent.newCompletedInfectionEvents()).thenReturn(infectionEvents);
-    when(mockAggregatedProcessedEvent.newCompletedVirusEvents()).thenReturn(virusEvents);
-
-    var processedEvents =
-        List.of(
-            mockProcessedAlertEventValue4,
-            mockProcessedAlertEventValue3,
-            mockProcessedAlertEventValue2,
-            mockProcessedAlertEventValue1);
-    when(processedEventsGrouper.groupProcessedEventResults(eq(processedEvents)))
-        .thenReturn(mockAggregatedProcessedEvent);
+    doAnswer(
+            invocation -> {
+              EventSink sink = invocation.getArgument(1);
+              sink.addNewAlertEvent(mockAlertEvent3);
+              alertEvents.forEach(sink::addNewCompletedAlertEvent);
+              return null;
+            })
+        .when(alertEventRunner)
+        .run(eq(alertEvents), any(EventSink.class));
+    doAnswer(
+            invocation -> {
+              EventSink sink = invocation.getArgument(1);
+              sink.addNewContactEvent(mockContactEvent3);
+              sink.addNewContactEvent(mockContactEvent4);
+              sink.addNewInfectionEvent(mockInfectionEvent4);
+              contactEvents.forEach(sink::addNewCompletedContactEvent);
+              return null;
+            })
+        .when(contactEventRunner)
+        .run(eq(contactEvents), any(EventSink.class));
+    doAnswer(
+            invocation -> {
+              EventSink sink = invocation.getArgument(1);
+              sink.addNewInfectionEvent(mockInfectionEvent3);
+              sink.addNewVirusEvent(mockVirusEvent4);
+              infectionEvents.forEach(sink::addNewCompletedInfectionEvent);
+              return null;
+            })
+        .when(infectionEventRunner)
+        .run(eq(infectionEvents), any(EventSink.class));
+    doAnswer(
+            invocation -> {
+              EventSink sink = invocation.getArgument(1);
+              sink.addNewVirusEvent(mockVirusEvent3);
+              sink.addNewAlertEvent(mockAlertEvent4);
+              virusEvents.forEach(sink::addNewCompletedVirusEvent);
+              return null;
+            })
+        .when(virusEventRunner)
+        .run(eq(virusEvents), any(EventSink.class));
   }
 
   @Test
@@ -158,7 +167,6 @@ public class EventRunnerImplTest {
             contactEventRunner,
             infectionEventRunner,
             virusEventRunner,
-            processedEventsGrouper,
             infectionCreator,
             eventList);
 
@@ -168,7 +176,7 @@ public class EventRunnerImplTest {
     verify(eventList).addNewInfectionEvents(List.of(mockInfectionEvent5));
     verify(eventList).addNewInfectionEvents(List.of(mockInfectionEvent6));
     verify(eventList).addNewInfectionEvents(List.of(mockInfectionEvent3, mockInfectionEvent4));
-    verify(eventList).addNewAlertEvents(List.of(mockAlertEvent3, mockAlertEvent4));
+    verify(eventList).addNewAlertEvents(List.of(mockAlertEvent4, mockAlertEvent3));
     verify(eventList).addNewVirusEvents(List.of(mockVirusEvent3, mockVirusEvent4));
     verify(eventList).addCompletedAlertEvents(List.of(mockAlertEvent1, mockAlertEvent2));
     verify(eventList).addCompletedContactEvents(List.of(mockContactEvent1, mockContactEvent2));
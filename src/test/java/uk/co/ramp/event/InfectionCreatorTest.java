@@ -1,21 +1,27 @@
 package uk.co.ramp.event;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static uk.co.ramp.people.VirusStatus.EXPOSED;
 import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.math3.stat.StatUtils;
 import org.junit.Before;
 import org.junit.Test;
 import uk.co.ramp.Population;
+import uk.co.ramp.TestUtils;
 import uk.co.ramp.distribution.DistributionSampler;
 import uk.co.ramp.event.types.InfectionEvent;
 import uk.co.ramp.io.InitialCaseReader;
 import uk.co.ramp.people.Case;
+import uk.co.ramp.people.Gender;
+import uk.co.ramp.people.ImmutableHuman;
 
 public class InfectionCreatorTest {
   private DistributionSampler distributionSampler;
@@ -49,4 +55,78 @@ public class InfectionCreatorTest {
 
     assertThat(list.size()).isEqualTo(10);
   }
+
+  private Population population(int size) {
+    Map<Integer, Case> cases = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      cases.put(
+          i,
+          new Case(
+              ImmutableHuman.builder()
+                  .id(i)
+                  .age(30)
+                  .gender(Gender.FEMALE)
+                  .isolationCompliance(1)
+                  .reportingCompliance(1)
+                  .health(1)
+                  .hasApp(false)
+                  .build()));
+    }
+    Population population = new Population(cases);
+    // every fourth person is no longer susceptible
+    for (int i = 0; i < size; i += 4) {
+      population.setVirusStatus(i, EXPOSED);
+    }
+    return population;
+  }
+
+  private double[] infectionCounts(boolean sparse, int steps, double rate) {
+    Population population = population(1000);
+    InfectionCreator infectionCreator =
+        new InfectionCreator(
+            population,
+            new DistributionSampler(TestUtils.dataGenerator()),
+            initialCaseReader,
+            sparse);
+
+    double[] counts = new double[steps];
+    for (int time = 0; time < steps; time++) {
+      List<InfectionEvent> infections =
+          infectionCreator.createRandomInfections(time, rate, Integer.MAX_VALUE);
+      assertThat(infections).allMatch(e -> e.id() % 4 != 0);
+      assertThat(infections.stream().map(InfectionEvent::id).distinct().count())
+          .isEqualTo(infections.size());
+      counts[time] = infections.size();
+    }
+    return counts;
+  }
+
+  @Test
+  public void testSparseRandomInfectionsMatchDrawingForEveryone() {
+    int steps = 2000;
+    double rate = 0.01;
+    double[] dense = infectionCounts(false, steps, rate);
+    double[] sparse = infectionCounts(true, steps, rate);
+
+    // 750 susceptible people each infected with the rate, so the counts are binomial
+    double mean = 750 * rate;
+    double variance = mean * (1 - rate);
+    assertThat(StatUtils.mean(dense)).isCloseTo(mean, within(0.3));
+    assertThat(StatUtils.mean(sparse)).isCloseTo(mean, within(0.3));
+    assertThat(StatUtils.variance(dense)).isCloseTo(variance, within(1.0));
+    assertThat(StatUtils.variance(sparse)).isCloseTo(variance, within(1.0));
+  }
+
+  @Test
+  public void testSparseRandomInfectionsEveryoneWhenRateIsOne() {
+    InfectionCreator infectionCreator =
+        new InfectionCreator(
+            population(100), new DistributionSampler(TestUtils.dataGenerator()), null, true);
+
+    List<InfectionEvent> infections = infectionCreator.createRandomInfections(0, 1, 1);
+
+    assertThat(infections).hasSize(75);
+    assertThat(infections.get(0).id()).isEqualTo(1);
+    assertThat(infections.get(74).id()).isEqualTo(99);
+  }
 }
@@ -0,0 +1,114 @@
+package uk.co.ramp.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static uk.co.ramp.people.VirusStatus.EXPOSED;
+import static uk.co.ramp.people.VirusStatus.PRESYMPTOMATIC;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.ramp.Population;
+import uk.co.ramp.TestUtils;
+import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.RandomStreams;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+import uk.co.ramp.event.types.ProcessedEventResult;
+import uk.co.ramp.io.InfectionRates;
+import uk.co.ramp.people.Case;
+import uk.co.ramp.people.Gender;
+import uk.co.ramp.people.ImmutableHuman;
+
+public class ParallelContactEventRunnerTest {
+  private static final int POPULATION_SIZE = 500;
+  private static final int TIME = 3;
+
+  private ContactEventProcessor contactEventProcessor;
+  private final List<ContactEvent> contactEvents = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    Map<Integer, Case> cases = new HashMap<>();
+    for (int id = 0; id < POPULATION_SIZE; id++) {
+      Case aCase =
+          new Case(
+              ImmutableHuman.builder()
+                  .id(id)
+                  .age(30)
+                  .gender(Gender.FEMALE)
+                  .isolationCompliance(1)
+                  .reportingCompliance(1)
+                  .health(1)
+                  .hasApp(false)
+                  .build());
+      if (id % 2 == 0) {
+        aCase.setVirusStatus(EXPOSED);
+        aCase.setVirusStatus(PRESYMPTOMATIC);
+      }
+      cases.put(id, aCase);
+    }
+
+    contactEventProcessor =
+        new ContactEventProcessor(
+            new Population(cases),
+            TestUtils.diseaseProperties(),
+            mock(DistributionSampler.class),
+            (caseA, caseB, weight, proportionInfectious, time) -> false,
+            new InfectionRates(Map.of(PRESYMPTOMATIC, 1d)));
+
+    Random random = new Random(0);
+    for (int i = 0; i < 5000; i++) {
+      contactEvents.add(
+          ImmutableContactEvent.builder()
+              .time(TIME)
+              .from(random.nextInt(POPULATION_SIZE))
+              .to(random.nextInt(POPULATION_SIZE))
+              .weight(random.nextInt(200))
+              .label("")
+              .build());
+    }
+  }
+
+  private ParallelContactEventRunner newRunner(int threads, long seed) {
+    return new ParallelContactEventRunner(
+        contactEventProcessor, new ProcessedEventsGrouper(), new RandomStreams(seed), threads);
+  }
+
+  private ProcessedEventResult run(int threads, long seed) {
+    try (ParallelContactEventRunner runner = newRunner(threads, seed)) {
+      return runner.run(contactEvents);
+    }
+  }
+
+  @Test
+  public void testResultsDoNotDependOnThreadCount() {
+    ProcessedEventResult singleThreaded = run(1, 42);
+    ProcessedEventResult multiThreaded = run(4, 42);
+
+    assertThat(singleThreaded.newInfectionEvents()).isNotEmpty();
+    assertThat(singleThreaded.newInfectionEvents().size()).isLessThan(contactEvents.size());
+    assertThat(multiThreaded).isEqualTo(singleThreaded);
+  }
+
+  @Test
+  public void testResultsDependOnSeed() {
+    assertThat(run(4, 43).newInfectionEvents()).isNotEqualTo(run(4, 42).newInfectionEvents());
+  }
+
+  @Test
+  public void testClosingReleasesThePool() {
+    ParallelContactEventRunner runner = newRunner(2, 42);
+    runner.run(contactEvents);
+    runner.close();
+
+    assertThatThrownBy(() -> runner.run(contactEvents))
+        .isInstanceOf(RejectedExecutionException.class);
+  }
+}
@@ -0,0 +1,131 @@
+package uk.co.ramp.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.co.ramp.event.types.ImmutableVirusEvent;
+import uk.co.ramp.io.types.ImmutableStandardProperties;
+import uk.co.ramp.io.types.StandardProperties;
+import uk.co.ramp.people.AlertStatus;
+import uk.co.ramp.people.VirusStatus;
+import uk.co.ramp.policy.isolation.IsolationPolicy;
+import uk.co.ramp.statistics.StatisticsRecorder;
+import uk.co.ramp.statistics.StatisticsRecorderImpl;
+
+public class RunMetricsTest {
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private CompletionEventListGroup eventList;
+  private IsolationPolicy isolationPolicy;
+  private StatisticsRecorder statisticsRecorder;
+
+  @Before
+  public void setUp() {
+    eventList =
+        new CompletionEventListGroup(
+            new EventListGroup(
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>()),
+            new EventListGroup(
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>(),
+                new MapEventList<>()));
+    isolationPolicy = mock(IsolationPolicy.class);
+    when(isolationPolicy.isolatingCount()).thenReturn(3);
+    statisticsRecorder =
+        new StatisticsRecorderImpl(
+            properties(MetricsReporter.CSV),
+            new HashMap<>(),
+            new HashMap<>(),
+            new HashMap<>(),
+            new HashMap<>(),
+            new EnumMap<>(AlertStatus.class),
+            new EnumMap<>(AlertStatus.class));
+  }
+
+  private StandardProperties properties(MetricsReporter reporter) {
+    return ImmutableStandardProperties.builder()
+        .initialExposures(1)
+        .populationSize(10)
+        .seed(123)
+        .timeLimitDays(10)
+        .timeStepsPerDay(1)
+        .timeStepSpread(1)
+        .metrics(reporter)
+        .metricsInterval(2)
+        .build();
+  }
+
+  private RunMetrics newMetrics(MetricsReporter reporter) {
+    return new RunMetrics(
+        eventList, isolationPolicy, statisticsRecorder, properties(reporter), folder.getRoot());
+  }
+
+  @Test
+  public void testReportsEachIntervalToCsv() throws IOException {
+    eventList.addNewVirusEvents(
+        List.of(
+            ImmutableVirusEvent.builder()
+                .time(4)
+                .id(1)
+                .oldStatus(VirusStatus.EXPOSED)
+                .nextStatus(VirusStatus.PRESYMPTOMATIC)
+                .build()));
+    statisticsRecorder.recordContactsTraced(1, 4);
+    statisticsRecorder.recordTestDelayed(2, 7);
+
+    try (RunMetrics metrics = newMetrics(MetricsReporter.CSV)) {
+      metrics.recordEvents(RunMetrics.EventKind.CONTACT, 5, 1_000_000);
+      metrics.recordStep(0, 2_000_000);
+      metrics.recordEvents(RunMetrics.EventKind.CONTACT, 2, 1_000_000);
+      metrics.recordEvents(RunMetrics.EventKind.ALERT, 1, 1_000_000);
+      metrics.recordStep(1, 3_000_000);
+      metrics.recordStep(2, 1_000_000);
+    }
+
+    assertThat(Files.readAllLines(new File(folder.getRoot(), RunMetrics.METRICS_CSV).toPath()))
+        .containsExactly(
+            "time,steps,stepMillis,maxStepMillis,virusEvents,infectionEvents,contactEvents,"
+                + "alertEvents,newEvents,completedEvents,isolating,contactsTraced,testsDelayed",
+            "1,2,5.0,3.0,0,0,7,1,1,0,3,4,0",
+            "2,1,1.0,1.0,0,0,0,0,1,0,3,0,1");
+  }
+
+  @Test
+  public void testRegisteredOverJmxWhileOpen() throws JMException {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name =
+        new ObjectName(
+            "uk.co.ramp:type=RunMetrics,name=" + ObjectName.quote(folder.getRoot().getPath()));
+
+    try (RunMetrics metrics = newMetrics(MetricsReporter.JMX)) {
+      metrics.recordEvents(RunMetrics.EventKind.INFECTION, 6, 1_000_000);
+      metrics.recordStep(0, 2_000_000);
+
+      assertThat(server.getAttribute(name, "InfectionEvents")).isEqualTo(6L);
+      assertThat(server.getAttribute(name, "MaxStepMillis")).isEqualTo(2.0);
+      assertThat(server.getAttribute(name, "Isolating")).isEqualTo(3);
+    }
+
+    assertThat(server.isRegistered(name)).isFalse();
+    assertThat(new File(folder.getRoot(), RunMetrics.METRICS_CSV)).doesNotExist();
+  }
+}
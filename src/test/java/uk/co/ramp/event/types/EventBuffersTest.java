@@ -0,0 +1,66 @@
+package uk.co.ramp.event.types;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+public class EventBuffersTest {
+  private final AlertEvent alertEvent = mock(AlertEvent.class);
+  private final ContactEvent contactEvent1 = mock(ContactEvent.class);
+  private final ContactEvent contactEvent2 = mock(ContactEvent.class);
+  private final InfectionEvent infectionEvent = mock(InfectionEvent.class);
+  private final VirusEvent virusEvent = mock(VirusEvent.class);
+
+  private EventBuffers filledBuffers() {
+    EventBuffers buffers = new EventBuffers();
+    buffers.addNewAlertEvent(alertEvent);
+    buffers.addNewCompletedContactEvent(contactEvent1);
+    buffers.addNewCompletedContactEvent(contactEvent2);
+    buffers.addNewInfectionEvent(infectionEvent);
+    buffers.addNewCompletedVirusEvent(virusEvent);
+    return buffers;
+  }
+
+  @Test
+  public void testToResult() {
+    assertThat(filledBuffers().toResult())
+        .isEqualTo(
+            ImmutableProcessedEventResult.builder()
+                .addNewAlertEvents(alertEvent)
+                .addNewCompletedContactEvents(contactEvent1, contactEvent2)
+                .addNewInfectionEvents(infectionEvent)
+                .addNewCompletedVirusEvents(virusEvent)
+                .build());
+  }
+
+  @Test
+  public void testDrainTo() {
+    EventBuffers source = filledBuffers();
+    EventBuffers target = new EventBuffers();
+    target.addNewCompletedContactEvent(contactEvent2);
+
+    source.drainTo(target);
+
+    assertThat(source.toResult()).isEqualTo(ImmutableProcessedEventResult.builder().build());
+    assertThat(target.newCompletedContactEvents())
+        .containsExactly(contactEvent2, contactEvent1, contactEvent2);
+    assertThat(target.newAlertEvents()).containsExactly(alertEvent);
+  }
+
+  @Test
+  public void testAddAll() {
+    EventBuffers buffers = new EventBuffers();
+    buffers.addAll(filledBuffers().toResult());
+
+    assertThat(buffers.toResult()).isEqualTo(filledBuffers().toResult());
+  }
+
+  @Test
+  public void testClear() {
+    EventBuffers buffers = filledBuffers();
+    buffers.clear();
+
+    assertThat(buffers.toResult()).isEqualTo(ImmutableProcessedEventResult.builder().build());
+  }
+}
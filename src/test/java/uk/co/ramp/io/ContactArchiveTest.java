@@ -0,0 +1,117 @@
+package uk.co.ramp.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.co.ramp.TestUtils;
+import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.event.types.ImmutableContactEvent;
+import uk.co.ramp.io.types.ImmutableStandardProperties;
+import uk.co.ramp.io.types.StandardProperties;
+
+public class ContactArchiveTest {
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final String csv =
+      ""
+          + "\"time\",\"from\",\"to\",\"weight\",\"label\"\n"
+          + "0,8,9,6.7,\"label\"\n"
+          + "0,7,8,8.2,\"label\"\n"
+          + "0,2000000000,3,0.1,\"school\"\n"
+          + "2,1,2,1.5,\"\"\n"
+          + "2,20000,2,1.5,\"label\"\n"
+          + "5,3,4,2.5,\"school\"\n";
+
+  private final ImmutableContactEvent event =
+      ImmutableContactEvent.builder().time(0).from(8).to(9).weight(6.7).label("label").build();
+
+  private final StandardProperties properties =
+      ImmutableStandardProperties.builder()
+          .populationSize(10000)
+          .timeLimitDays(4)
+          .initialExposures(1000)
+          .seed(0)
+          .timeStepsPerDay(2)
+          .timeStepSpread(0.4, 0.6)
+          .build();
+
+  private Path archivePath;
+
+  @Before
+  public void setUp() throws IOException {
+    archivePath = folder.newFile("contacts.bin").toPath();
+    new ContactArchiveWriter().write(new StringReader(csv), archivePath);
+  }
+
+  @Test
+  public void testReadBlocks() throws IOException {
+    try (ContactArchive archive = ContactArchive.open(archivePath)) {
+      assertThat(archive.blockCount()).isEqualTo(3);
+      assertThat(archive.day(0)).isEqualTo(0);
+      assertThat(archive.day(1)).isEqualTo(2);
+      assertThat(archive.day(2)).isEqualTo(5);
+
+      assertThat(archive.readBlock(2))
+          .containsExactly(
+              event.withTime(5).withFrom(3).withTo(4).withWeight(2.5).withLabel("school"));
+      assertThat(archive.readBlock(0))
+          .containsExactly(
+              event,
+              event.withFrom(7).withTo(8).withWeight(8.2),
+              event.withFrom(2000000000).withTo(3).withWeight(0.1).withLabel("school"));
+      assertThat(archive.readBlock(1))
+          .containsExactly(
+              event.withTime(2).withFrom(1).withTo(2).withWeight(1.5).withLabel(""),
+              event.withTime(2).withFrom(20000).withTo(2).withWeight(1.5));
+    }
+  }
+
+  @Test
+  public void testMatchesCsv() throws IOException {
+    List<ContactEvent> fromCsv = contactReader().readEvents(new StringReader(csv));
+
+    try (ContactArchive archive = ContactArchive.open(archivePath)) {
+      assertThat(contactReader().readArchive(archive)).isEqualTo(fromCsv).hasSize(3);
+    }
+  }
+
+  @Test
+  public void testParsedContactsAreResampledAsRead() throws IOException {
+    List<ImmutableContactEvent> parsed = contactReader().parseEvents(new StringReader(csv));
+
+    // the last day starts after the end of the run
+    try (ContactArchive archive = ContactArchive.open(archivePath)) {
+      assertThat(contactReader().parseArchive(archive)).isEqualTo(parsed.subList(0, 5));
+    }
+    try (ContactArchive archive = ContactArchive.open(archivePath)) {
+      assertThat(contactReader().resampleEvents(parsed))
+          .isEqualTo(contactReader().readArchive(archive));
+    }
+  }
+
+  @Test
+  public void testIsArchive() throws IOException {
+    Path csvPath = folder.newFile("contacts.csv").toPath();
+    Files.writeString(csvPath, csv);
+
+    assertThat(ContactArchive.isArchive(archivePath)).isTrue();
+    assertThat(ContactArchive.isArchive(csvPath)).isFalse();
+    assertThat(ContactArchive.isArchive(folder.newFile("empty").toPath())).isFalse();
+    assertThatThrownBy(() -> ContactArchive.open(csvPath)).isInstanceOf(IOException.class);
+  }
+
+  private ContactReader contactReader() {
+    return new ContactReader(properties, new DistributionSampler(TestUtils.dataGenerator()));
+  }
+}
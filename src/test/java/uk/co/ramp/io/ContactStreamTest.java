@@ -0,0 +1,87 @@
+package uk.co.ramp.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import uk.co.ramp.TestUtils;
+import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.RandomStreams;
+import uk.co.ramp.event.types.ContactEvent;
+import uk.co.ramp.io.csv.CsvException;
+import uk.co.ramp.io.types.ImmutableStandardProperties;
+import uk.co.ramp.io.types.StandardProperties;
+
+public class ContactStreamTest {
+
+  private final String csv =
+      ""
+          + "\"time\",\"from\",\"to\",\"weight\",\"label\"\n"
+          + "0,8,9,6.7,\"label\"\n"
+          + "0,7,8,8.2,\"label\"\n"
+          + "1,1,2,1.5,\"label\"\n"
+          + "1,20000,2,1.5,\"label\"\n"
+          + "3,3,4,2.5,\"label\"\n"
+          + "3,4,5,3.5,\"label\"\n"
+          + "3,5,6,4.5,\"label\"\n"
+          + "7,6,7,5.5,\"label\"\n";
+
+  private final StandardProperties properties =
+      ImmutableStandardProperties.builder()
+          .populationSize(10000)
+          .timeLimitDays(5)
+          .initialExposures(1000)
+          .seed(0)
+          .timeStepsPerDay(4)
+          .timeStepSpread(0.1, 0.4, 0.3, 0.2)
+          .build();
+
+  private ContactReader contactReader() {
+    return new ContactReader(
+        properties, new DistributionSampler(TestUtils.dataGenerator(), new RandomStreams(0)));
+  }
+
+  @Test
+  public void testReadsDaysAsTheyAreReached() throws IOException {
+    ContactStream stream = contactReader().streamEvents(new StringReader(csv));
+
+    assertThat(stream.readUpTo(0)).hasSize(2).allMatch(e -> e.time() < 4);
+    assertThat(stream.readUpTo(3)).isEmpty();
+    assertThat(stream.readUpTo(4)).hasSize(1).allMatch(e -> e.time() >= 4 && e.time() < 8);
+    assertThat(stream.isExhausted()).isFalse();
+    assertThat(stream.readUpTo(11)).isEmpty();
+    assertThat(stream.readUpTo(12)).hasSize(3);
+    // day 7 starts after the end of the run, so is never read
+    assertThat(stream.isExhausted()).isTrue();
+    assertThat(stream.readUpTo(100)).isEmpty();
+  }
+
+  @Test
+  public void testMatchesReadingWholeFile() throws IOException {
+    ContactStream stream = contactReader().streamEvents(new StringReader(csv));
+    List<ContactEvent> streamed = new ArrayList<>();
+    for (int time = 0; time <= 20; time++) {
+      streamed.addAll(stream.readUpTo(time));
+    }
+
+    assertThat(streamed).isEqualTo(contactReader().readEvents(new StringReader(csv)));
+  }
+
+  @Test
+  public void testUnsortedDays() throws IOException {
+    String unsorted =
+        ""
+            + "\"time\",\"from\",\"to\",\"weight\",\"label\"\n"
+            + "1,8,9,6.7,\"label\"\n"
+            + "0,7,8,8.2,\"label\"\n";
+    ContactStream stream = contactReader().streamEvents(new StringReader(unsorted));
+
+    assertThatThrownBy(() -> stream.readUpTo(4))
+        .isInstanceOf(CsvException.class)
+        .hasMessageContaining("sorted by time");
+  }
+}
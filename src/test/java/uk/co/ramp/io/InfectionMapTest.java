@@ -30,11 +30,12 @@ public class InfectionMapTest {
   private final int populationSize = 100;
   @Rule public LogSpy logSpy = new LogSpy();
   private InfectionMap infectionMap;
+  private Map<Integer, Case> population;
   private Set<Integer> seeds;
 
   @Before
   public void setup() {
-    Map<Integer, Case> population = new HashMap<>();
+    population = new HashMap<>();
     seeds = new HashSet<>();
 
     var statuses = VirusStatus.values();
@@ -88,59 +89,79 @@ public class InfectionMapTest {
 
   @Test
   public void testException() throws IOException {
-
-    infectionMap = mock(InfectionMap.class);
-    doCallRealMethod().when(infectionMap).outputMap(any());
-    doThrow(new IOException(""))
-        .when(infectionMap)
-        .recurseSet(anyList(), anyMap(), any(), anyInt());
+    Writer writer = mock(Writer.class);
+    doThrow(new IOException("")).when(writer).write(anyString());
 
     assertThatExceptionOfType(InfectionMapException.class)
-        .isThrownBy(() -> infectionMap.outputMap(new StringWriter()))
+        .isThrownBy(() -> infectionMap.outputMap(writer))
         .withMessageContaining("An error occurred while writing the map file");
   }
 
   @Test
-  public void collectInfectors() {
+  public void transmissionTree() {
 
-    Map<Integer, List<Case>> temp = infectionMap.collectInfectors();
-    Assert.assertEquals(seeds.size(), temp.get(Case.getInitial()).size());
+    TransmissionTree tree = TransmissionTree.of(population);
+    Assert.assertEquals(seeds.size(), tree.roots().length);
 
-    int sum = seeds.stream().mapToInt(seed -> temp.get(seed).size()).sum();
+    int sum = Arrays.stream(tree.roots()).map(tree::offspringCount).sum();
 
     Assert.assertEquals(sum, populationSize - counts.get(SUSCEPTIBLE) - seeds.size());
   }
 
+  private Case chainCase(int id, int exposedBy, int exposedTime) {
+    Case aCase = mock(Case.class);
+    when(aCase.id()).thenReturn(id);
+    when(aCase.virusStatus()).thenReturn(RECOVERED);
+    when(aCase.exposedBy()).thenReturn(exposedBy);
+    when(aCase.exposedTime()).thenReturn(exposedTime);
+    return aCase;
+  }
+
   @Test
-  public void recurseSet() throws IOException {
+  public void writeTree() {
+    StatisticsRecorder statisticsRecorder = mock(StatisticsRecorder.class);
+    StandardProperties properties = mock(StandardProperties.class);
+    when(properties.timeStepsPerDay()).thenReturn(1);
+    Map<Integer, Case> chain =
+        Map.of(
+            0, chainCase(0, Case.getInitial(), 10),
+            1, chainCase(1, 0, 10),
+            2, chainCase(2, 1, 10));
 
-    int tab = 1;
-    Map<Integer, List<Case>> infectors = new HashMap<>();
+    Writer writer = new StringBuilderWriter();
+    new InfectionMap(chain, statisticsRecorder, properties).outputMap(writer);
 
-    Case root = mock(Case.class);
-    when(root.id()).thenReturn(0);
-    when(root.exposedBy()).thenReturn(Case.getInitial());
-    when(root.exposedTime()).thenReturn(10);
+    String expected =
+        "0(10.0)       ->  [1(10.0)]\n" + "              ->  1(10.0)        ->  [2(10.0)]";
 
-    Case first = mock(Case.class);
-    when(first.id()).thenReturn(1);
-    when(first.exposedBy()).thenReturn(0);
-    when(first.exposedTime()).thenReturn(10);
-    infectors.putIfAbsent(root.id(), List.of(first));
+    Assert.assertEquals(expected, writer.toString().trim());
+    verify(statisticsRecorder).recordInfectionSpread(chain.get(0), 1);
+    verify(statisticsRecorder).recordInfectionSpread(chain.get(1), 1);
+    verify(statisticsRecorder).recordInfectionSpread(chain.get(2), 0);
+  }
 
-    Case second = mock(Case.class);
-    when(second.id()).thenReturn(2);
-    when(second.exposedBy()).thenReturn(1);
-    when(second.exposedTime()).thenReturn(10);
-    infectors.putIfAbsent(first.id(), List.of(second));
+  @Test
+  public void writeEdgeList() {
+    StandardProperties properties = mock(StandardProperties.class);
+    when(properties.timeStepsPerDay()).thenReturn(2);
+    Map<Integer, Case> chain =
+        Map.of(
+            0, chainCase(0, Case.getInitial(), 0),
+            1, chainCase(1, 0, 3),
+            2, chainCase(2, 0, 2),
+            3, chainCase(3, Case.getRandomInfection(), 1));
 
-    List<Case> target = List.of(root);
     Writer writer = new StringBuilderWriter();
-    infectionMap.recurseSet(target, infectors, writer, tab);
+    new InfectionMap(chain, mock(StatisticsRecorder.class), properties)
+        .output(writer, InfectionMapFormat.EDGE_LIST);
 
     String expected =
-        "0(10.0)       ->  [1(10.0)]\n" + "              ->  1(10.0)        ->  [2(10.0)]";
+        "infector,infected,day\n"
+            + "initial,0,0.0\n"
+            + "0,2,1.0\n"
+            + "0,1,1.5\n"
+            + "random,3,0.5\n";
 
-    Assert.assertEquals(expected, writer.toString().trim());
+    Assert.assertEquals(expected, writer.toString());
   }
 }
@@ -0,0 +1,92 @@
+package uk.co.ramp.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class OutputPipelineTest {
+
+  @Test
+  public void testWritesInOrderOnAnotherThread() {
+    List<Integer> written = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+
+    try (OutputPipeline pipeline = new OutputPipeline("test", 4)) {
+      for (int i = 0; i < 100; i++) {
+        int value = i;
+        pipeline.submit(
+            () -> {
+              written.add(value);
+              threads.add(Thread.currentThread());
+            });
+      }
+    }
+
+    assertThat(written).hasSize(100).isSorted();
+    assertThat(threads).doesNotContain(Thread.currentThread());
+  }
+
+  @Test
+  public void testSubmitWaitsWhileTheQueueIsFull() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    AtomicBoolean submitted = new AtomicBoolean();
+
+    try (OutputPipeline pipeline = new OutputPipeline("test", 1)) {
+      pipeline.submit(
+          () -> {
+            started.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+      started.await();
+      // fills the queue while the first write is held up
+      pipeline.submit(() -> {});
+
+      Thread submitter =
+          new Thread(
+              () -> {
+                pipeline.submit(() -> {});
+                submitted.set(true);
+              });
+      submitter.start();
+      submitter.join(200);
+      assertThat(submitted).isFalse();
+
+      release.countDown();
+      submitter.join(TimeUnit.SECONDS.toMillis(10));
+      assertThat(submitted).isTrue();
+    }
+  }
+
+  @Test
+  public void testRethrowsTheFirstFailureOnClose() {
+    AtomicBoolean laterWriteRan = new AtomicBoolean();
+    OutputPipeline pipeline = new OutputPipeline("test");
+    pipeline.submit(
+        () -> {
+          throw new IllegalStateException("first");
+        });
+    pipeline.submit(() -> laterWriteRan.set(true));
+
+    assertThatIllegalStateException().isThrownBy(pipeline::close).withMessage("first");
+    assertThat(laterWriteRan).isFalse();
+  }
+
+  @Test
+  public void testCannotSubmitOnceClosed() {
+    OutputPipeline pipeline = new OutputPipeline("test");
+    pipeline.close();
+
+    assertThatIllegalStateException().isThrownBy(() -> pipeline.submit(() -> {}));
+  }
+}
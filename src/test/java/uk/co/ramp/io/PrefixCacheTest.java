@@ -0,0 +1,155 @@
+package uk.co.ramp.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.co.ramp.TestUtils;
+import uk.co.ramp.event.EventJournalFormat;
+import uk.co.ramp.event.MetricsReporter;
+import uk.co.ramp.io.types.ImmutableInputFiles;
+import uk.co.ramp.io.types.ImmutableStandardProperties;
+import uk.co.ramp.io.types.InputFiles;
+
+public class PrefixCacheTest {
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File cacheFolder;
+  private PrefixCache cache;
+
+  @Before
+  public void setUp() throws IOException {
+    cacheFolder = folder.newFolder();
+    cache =
+        new PrefixCache(
+            ImmutableStandardProperties.copyOf(TestUtils.standardProperties())
+                .withPrefixCache(cacheFolder.getPath())
+                .withPrefixCacheMegabytes(1),
+            inputFiles("shared", 50),
+            TestUtils.diseaseProperties(),
+            TestUtils.populationProperties());
+  }
+
+  // the run's inputs, with a proportion infected isolation policy starting at the given percentage
+  private InputFiles inputFiles(String name, int globalPolicyPercent) throws IOException {
+    File inputs = folder.newFolder();
+    Files.writeString(inputs.toPath().resolve("contacts.csv"), "time,from,to,weight\n");
+    Files.writeString(
+        inputs.toPath().resolve("isolationPolicies.json"),
+        "{\"globalIsolationPolicies\": [{\"proportionInfected\": {\"min\": "
+            + globalPolicyPercent
+            + ", \"max\": 100}, \"isolationProperty\": {\"id\": \""
+            + name
+            + "\"}}], \"defaultPolicy\": {\"id\": \"Default Policy\"}}");
+    return ImmutableInputFiles.builder()
+        .runSettings(inputs + "/runSettings.json")
+        .contactData(inputs + "/contacts.csv")
+        .ageData(inputs + "/ageData.csv")
+        .initialExposures(inputs + "/initialExposures.csv")
+        .tracingPolicies(inputs + "/tracingPolicies.json")
+        .isolationPolicies(inputs + "/isolationPolicies.json")
+        .infectionRates(inputs + "/infectionRates.json")
+        .populationOverrides(inputs + "/populationOverrides.json")
+        .build();
+  }
+
+  private PrefixCache.Run run(InputFiles inputFiles, long seed) {
+    return cache.forRun(inputFiles, seed, out -> out.write(new byte[] {1, 2, 3}));
+  }
+
+  private void store(PrefixCache.Run run, int time, double maxProportionInfectious, int size) {
+    run.store(
+        time,
+        maxProportionInfectious,
+        out -> {
+          DataOutputStream data = new DataOutputStream(out);
+          data.writeInt(time);
+          data.write(new byte[size]);
+          data.flush();
+        });
+  }
+
+  private Optional<Integer> load(PrefixCache.Run run, int timeLimit) {
+    return run.load(timeLimit, in -> new DataInputStream(in).readInt());
+  }
+
+  @Test
+  public void testLoadsTheLatestSnapshotOfTheSameInputs() throws IOException {
+    InputFiles inputFiles = inputFiles("lockdown", 50);
+    PrefixCache.Run first = run(inputFiles, 1);
+    store(first, 4, 0.01, 0);
+    store(first, 9, 0.02, 0);
+
+    assertThat(load(run(inputFiles, 1), 100)).contains(9);
+    assertThat(load(run(inputFiles, 1), 8)).contains(4);
+    assertThat(load(run(inputFiles, 1), 3)).isEmpty();
+    assertThat(load(run(inputFiles, 2), 100)).isEmpty();
+    assertThat(cache.forRun(inputFiles, 1, out -> out.write(4)).load(100, in -> 0)).isEmpty();
+  }
+
+  @Test
+  public void testPoliciesNotYetReachedAreLeftOutOfTheKey() throws IOException {
+    PrefixCache.Run first = run(inputFiles("lockdown", 50), 1);
+    store(first, 4, 0.1, 0);
+    store(first, 9, 0.3, 0);
+
+    // the other policy would not have applied by either snapshot
+    assertThat(load(run(inputFiles("lockdown", 60), 1), 100)).contains(9);
+    // nor by the first snapshot, but it would by the second
+    assertThat(load(run(inputFiles("lockdown", 20), 1), 100)).contains(4);
+    assertThat(load(run(inputFiles("lockdown", 5), 1), 100)).isEmpty();
+  }
+
+  @Test
+  public void testSettingsOfTheOutputsAreLeftOutOfTheKey() throws IOException {
+    InputFiles inputFiles = inputFiles("lockdown", 50);
+    store(run(inputFiles, 1), 4, 0.01, 0);
+
+    PrefixCache reportingCache =
+        new PrefixCache(
+            ImmutableStandardProperties.copyOf(TestUtils.standardProperties())
+                .withPrefixCache(cacheFolder.getPath())
+                .withPrefixCacheMegabytes(1)
+                .withEventJournal(EventJournalFormat.GZIP)
+                .withMetrics(MetricsReporter.CSV)
+                .withMetricsInterval(3),
+            inputFiles("shared", 50),
+            TestUtils.diseaseProperties(),
+            TestUtils.populationProperties());
+    PrefixCache.Run run =
+        reportingCache.forRun(inputFiles, 1, out -> out.write(new byte[] {1, 2, 3}));
+
+    assertThat(load(run, 100)).contains(4);
+  }
+
+  @Test
+  public void testEvictsTheLeastRecentlyUsedSnapshots() throws IOException {
+    PrefixCache.Run first = run(inputFiles("lockdown", 50), 1);
+    store(first, 4, 0, 400_000);
+    store(first, 9, 0, 400_000);
+    try (var snapshots = Files.list(cacheFolder.toPath())) {
+      for (Path snapshot : (Iterable<Path>) snapshots::iterator) {
+        boolean isFirst = snapshot.getFileName().toString().contains("-4-");
+        Files.setLastModifiedTime(snapshot, FileTime.fromMillis(isFirst ? 1000 : 2000));
+      }
+    }
+
+    store(first, 14, 0, 400_000);
+
+    try (var snapshots = Files.list(cacheFolder.toPath())) {
+      assertThat(snapshots).hasSize(2);
+    }
+    assertThat(load(first, 13)).contains(9);
+    assertThat(load(first, 8)).isEmpty();
+  }
+}
@@ -0,0 +1,107 @@
+package uk.co.ramp.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.co.ramp.people.VirusStatus.EXPOSED;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import uk.co.ramp.people.Case;
+import uk.co.ramp.people.Gender;
+import uk.co.ramp.people.ImmutableHuman;
+
+public class TransmissionTreeTest {
+
+  private Case infected(int id, int exposedBy, int exposedTime) {
+    Case aCase =
+        new Case(
+            ImmutableHuman.builder()
+                .id(id)
+                .age(30)
+                .gender(Gender.FEMALE)
+                .isolationCompliance(1)
+                .reportingCompliance(1)
+                .health(1)
+                .hasApp(false)
+                .build());
+    aCase.setVirusStatus(EXPOSED);
+    aCase.setExposedBy(exposedBy);
+    aCase.setExposedTime(exposedTime);
+    return aCase;
+  }
+
+  @Test
+  public void testOffspringInOrderOfExposedTime() {
+    Map<Integer, Case> population = new HashMap<>();
+    population.put(0, infected(0, Case.getInitial(), 0));
+    population.put(1, infected(1, 0, 5));
+    population.put(2, infected(2, 0, 3));
+    population.put(3, infected(3, 2, 6));
+    population.put(4, infected(4, Case.getRandomInfection(), 4));
+
+    TransmissionTree tree = TransmissionTree.of(population);
+
+    assertThat(tree.size()).isEqualTo(5);
+    assertThat(tree.roots()).hasSize(2);
+    int root = tree.roots()[0];
+    assertThat(tree.id(root)).isZero();
+    assertThat(tree.id(tree.roots()[1])).isEqualTo(4);
+    assertThat(tree.offspringCount(root)).isEqualTo(2);
+    assertThat(tree.id(tree.child(root, 0))).isEqualTo(2);
+    assertThat(tree.id(tree.child(root, 1))).isEqualTo(1);
+    assertThat(tree.offspringCount(tree.child(root, 0))).isEqualTo(1);
+    assertThat(tree.offspringCount(tree.child(root, 1))).isZero();
+  }
+
+  @Test
+  public void testVisitsDepthFirst() {
+    Map<Integer, Case> population = new HashMap<>();
+    population.put(0, infected(0, Case.getInitial(), 0));
+    population.put(1, infected(1, 0, 1));
+    population.put(2, infected(2, 0, 2));
+    population.put(3, infected(3, 1, 3));
+
+    TransmissionTree tree = TransmissionTree.of(population);
+    List<String> visited = new ArrayList<>();
+    tree.visitSubtree(tree.roots()[0], (node, depth) -> visited.add(tree.id(node) + ":" + depth));
+
+    assertThat(visited).containsExactly("0:0", "1:1", "3:2", "2:1");
+  }
+
+  @Test
+  public void testLongChainDoesNotRecurse() {
+    int length = 200_000;
+    Map<Integer, Case> population = new HashMap<>();
+    population.put(0, infected(0, Case.getInitial(), 0));
+    for (int id = 1; id < length; id++) {
+      population.put(id, infected(id, id - 1, id));
+    }
+
+    TransmissionTree tree = TransmissionTree.of(population);
+    int[] deepest = {0};
+    tree.visitSubtree(tree.roots()[0], (node, depth) -> deepest[0] = Math.max(deepest[0], depth));
+
+    assertThat(deepest[0]).isEqualTo(length - 1);
+  }
+
+  @Test
+  public void testOffspringCountsMatchCountingInfectors() {
+    Random random = new Random(123);
+    Map<Integer, Case> population = new HashMap<>();
+    Map<Integer, Integer> expected = new HashMap<>();
+    for (int id = 0; id < 1000; id++) {
+      int exposedBy = id < 10 ? Case.getInitial() : random.nextInt(id);
+      population.put(id, infected(id, exposedBy, id < 10 ? 0 : 1 + random.nextInt(50)));
+      expected.merge(exposedBy, 1, Integer::sum);
+    }
+
+    TransmissionTree tree = TransmissionTree.of(population);
+
+    for (int node = 0; node < tree.size(); node++) {
+      assertThat(tree.offspringCount(node)).isEqualTo(expected.getOrDefault(tree.id(node), 0));
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package uk.co.ramp.people;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.co.ramp.people.AlertStatus.ALERTED;
+import static uk.co.ramp.people.AlertStatus.NONE;
+import static uk.co.ramp.people.VirusStatus.EXPOSED;
+import static uk.co.ramp.people.VirusStatus.PRESYMPTOMATIC;
+import static uk.co.ramp.people.VirusStatus.RECOVERED;
+import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.ramp.TestUtils;
+import uk.co.ramp.io.types.StandardProperties;
+
+public class ColumnarPopulationStoreTest {
+
+  private static final int POPULATION_SIZE = 1000;
+  private PopulationStore mapStore;
+  private PopulationStore columnarStore;
+
+  @Before
+  public void setUp() throws IOException {
+    mapStore = generate(PopulationStoreType.MAP);
+    columnarStore = generate(PopulationStoreType.COLUMNAR);
+  }
+
+  private PopulationStore generate(PopulationStoreType storeType) throws IOException {
+    StandardProperties runSettings = mock(StandardProperties.class);
+    when(runSettings.populationSize()).thenReturn(POPULATION_SIZE);
+    when(runSettings.populationStore()).thenReturn(Optional.of(storeType));
+
+    PopulationGenerator populationGenerator = new PopulationGenerator();
+    populationGenerator.setProperties(TestUtils.populationProperties());
+    populationGenerator.setDataGenerator(TestUtils.dataGenerator());
+    populationGenerator.setAgeRetriever(TestUtils.ageRetriever());
+    populationGenerator.setPopulationOverrides(TestUtils.populationOverrides());
+    populationGenerator.setRunProperties(runSettings);
+    return populationGenerator.generateStore();
+  }
+
+  @Test
+  public void testGeneratedStoresMatch() {
+    assertThat(mapStore).isInstanceOf(MapPopulationStore.class);
+    assertThat(columnarStore).isInstanceOf(ColumnarPopulationStore.class);
+    assertThat(columnarStore.size()).isEqualTo(POPULATION_SIZE);
+
+    for (int id = 0; id < POPULATION_SIZE; id++) {
+      Case expected = mapStore.get(id);
+      Case actual = columnarStore.get(id);
+
+      assertThat(actual.id()).isEqualTo(id);
+      assertThat(actual.getHuman()).isEqualTo(expected.getHuman());
+      assertThat(actual.virusStatus()).isEqualTo(SUSCEPTIBLE);
+      assertThat(actual.alertStatus()).isEqualTo(NONE);
+      assertThat(actual.exposedBy()).isEqualTo(expected.exposedBy());
+      assertThat(actual.exposedTime()).isEqualTo(expected.exposedTime());
+      assertThat(columnarStore.getHealth(id)).isEqualTo(mapStore.getHealth(id));
+      assertThat(columnarStore.hasApp(id)).isEqualTo(mapStore.hasApp(id));
+    }
+  }
+
+  @Test
+  public void testUpdatesAreVisibleThroughViews() {
+    Case aCase = columnarStore.get(5);
+
+    columnarStore.setVirusStatus(5, EXPOSED);
+    columnarStore.setExposedBy(5, 3);
+    columnarStore.setExposedTime(5, 12);
+    aCase.setVirusStatus(PRESYMPTOMATIC);
+    aCase.setAlertStatus(ALERTED);
+
+    assertThat(aCase.virusStatus()).isEqualTo(PRESYMPTOMATIC);
+    assertThat(aCase.isInfectious()).isTrue();
+    assertThat(columnarStore.isInfectious(5)).isTrue();
+    assertThat(columnarStore.getAlertStatus(5)).isEqualTo(ALERTED);
+    assertThat(columnarStore.get(5).exposedBy()).isEqualTo(3);
+    assertThat(columnarStore.get(5).exposedTime()).isEqualTo(12);
+    assertThat(columnarStore.get(4).virusStatus()).isEqualTo(SUSCEPTIBLE);
+  }
+
+  @Test
+  public void testInvalidTransitionIsRejected() {
+    assertThatThrownBy(() -> columnarStore.setVirusStatus(1, RECOVERED))
+        .isInstanceOf(InvalidStatusTransitionException.class);
+    assertThat(columnarStore.getVirusStatus(1)).isEqualTo(SUSCEPTIBLE);
+  }
+
+  @Test
+  public void testView() {
+    Map<Integer, Case> view = columnarStore.view();
+
+    assertThat(view).hasSize(POPULATION_SIZE);
+    assertThat(view.get(10).id()).isEqualTo(10);
+    assertThat(view.get(POPULATION_SIZE)).isNull();
+    assertThat(view.values().stream().mapToDouble(Case::health).sum())
+        .isEqualTo(mapStore.view().values().stream().mapToDouble(Case::health).sum());
+  }
+}
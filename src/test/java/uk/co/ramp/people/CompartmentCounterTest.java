@@ -0,0 +1,140 @@
+package uk.co.ramp.people;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static uk.co.ramp.people.VirusStatus.EXPOSED;
+import static uk.co.ramp.people.VirusStatus.PRESYMPTOMATIC;
+import static uk.co.ramp.people.VirusStatus.RECOVERED;
+import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
+import static uk.co.ramp.people.VirusStatus.SYMPTOMATIC;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompartmentCounterTest {
+
+  private CompartmentCounter counter;
+
+  @Before
+  public void setUp() {
+    counter = new CompartmentCounter();
+    counter.add(0, SUSCEPTIBLE);
+    counter.add(1, SUSCEPTIBLE);
+    counter.add(2, PRESYMPTOMATIC);
+  }
+
+  @Test
+  public void testAdd() {
+    assertThat(counter.count(SUSCEPTIBLE)).isEqualTo(2);
+    assertThat(counter.count(PRESYMPTOMATIC)).isEqualTo(1);
+    assertThat(counter.infectiousCount()).isEqualTo(1);
+    assertThat(counter.isInfectious(2)).isTrue();
+    assertThat(counter.isInfectious(0)).isFalse();
+    assertThat(counter.activeCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testUpdate() {
+    counter.update(0, SUSCEPTIBLE, EXPOSED);
+    counter.update(2, PRESYMPTOMATIC, SYMPTOMATIC);
+
+    assertThat(counter.count(SUSCEPTIBLE)).isEqualTo(1);
+    assertThat(counter.count(EXPOSED)).isEqualTo(1);
+    assertThat(counter.count(SYMPTOMATIC)).isEqualTo(1);
+    assertThat(counter.infectiousCount()).isEqualTo(1);
+    assertThat(counter.activeCount()).isEqualTo(2);
+
+    counter.update(2, SYMPTOMATIC, RECOVERED);
+
+    assertThat(counter.isInfectious(2)).isFalse();
+    assertThat(counter.infectiousCount()).isZero();
+    assertThat(counter.activeCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testSusceptibleIds() {
+    counter.add(3, SUSCEPTIBLE);
+    counter.update(0, SUSCEPTIBLE, EXPOSED);
+    counter.update(2, PRESYMPTOMATIC, SUSCEPTIBLE);
+
+    Set<Integer> susceptibleIds = new HashSet<>();
+    for (int i = 0; i < counter.count(SUSCEPTIBLE); i++) {
+      susceptibleIds.add(counter.susceptibleId(i));
+    }
+    assertThat(susceptibleIds).containsExactlyInAnyOrder(1, 2, 3);
+
+    counter.update(3, SUSCEPTIBLE, EXPOSED);
+    counter.update(1, SUSCEPTIBLE, EXPOSED);
+
+    assertThat(counter.count(SUSCEPTIBLE)).isEqualTo(1);
+    assertThat(counter.susceptibleId(0)).isEqualTo(2);
+  }
+
+  @Test
+  public void testRestoreSusceptibleOrder() {
+    counter.add(3, SUSCEPTIBLE);
+
+    counter.restoreSusceptibleOrder(new int[] {3, 0, 1});
+
+    assertThat(counter.count(SUSCEPTIBLE)).isEqualTo(3);
+    assertThat(counter.susceptibleId(0)).isEqualTo(3);
+    assertThat(counter.susceptibleId(1)).isZero();
+    assertThat(counter.susceptibleId(2)).isEqualTo(1);
+
+    // removed ids are still swapped out for the last in the restored order
+    counter.update(3, SUSCEPTIBLE, EXPOSED);
+    assertThat(counter.susceptibleId(0)).isEqualTo(1);
+    assertThat(counter.susceptibleId(1)).isZero();
+  }
+
+  @Test
+  public void testRestoreSusceptibleOrderRejectsOtherIds() {
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> counter.restoreSusceptibleOrder(new int[] {0}));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> counter.restoreSusceptibleOrder(new int[] {0, 2}));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> counter.restoreSusceptibleOrder(new int[] {1, 1}));
+
+    assertThat(counter.susceptibleId(0)).isZero();
+    assertThat(counter.susceptibleId(1)).isEqualTo(1);
+  }
+
+  @Test
+  public void testToMap() {
+    Map<VirusStatus, Integer> stats = counter.toMap();
+
+    assertThat(stats).hasSize(VirusStatus.values().length);
+    assertThat(stats.get(SUSCEPTIBLE)).isEqualTo(2);
+    assertThat(stats.get(PRESYMPTOMATIC)).isEqualTo(1);
+    assertThat(stats.get(RECOVERED)).isZero();
+  }
+
+  @Test
+  public void testStoresKeepCountsInStep() {
+    Map<Integer, Case> cases =
+        Map.of(
+            0,
+            new Case(
+                ImmutableHuman.builder()
+                    .id(0)
+                    .age(30)
+                    .gender(Gender.FEMALE)
+                    .isolationCompliance(1)
+                    .reportingCompliance(1)
+                    .health(1)
+                    .hasApp(false)
+                    .build()));
+    PopulationStore store = new MapPopulationStore(cases);
+
+    store.setVirusStatus(0, EXPOSED);
+    store.setVirusStatus(0, PRESYMPTOMATIC);
+
+    assertThat(store.compartments().count(SUSCEPTIBLE)).isZero();
+    assertThat(store.compartments().count(PRESYMPTOMATIC)).isEqualTo(1);
+    assertThat(store.compartments().isInfectious(0)).isTrue();
+  }
+}
@@ -0,0 +1,93 @@
+package uk.co.ramp.policy.isolation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static uk.co.ramp.TestUtils.createMockBoundedDistribution;
+import static uk.co.ramp.people.AlertStatus.ALERTED;
+import static uk.co.ramp.people.AlertStatus.NONE;
+import static uk.co.ramp.people.VirusStatus.SUSCEPTIBLE;
+import static uk.co.ramp.people.VirusStatus.SYMPTOMATIC;
+
+import org.junit.Test;
+import uk.co.ramp.distribution.BoundedDistribution;
+import uk.co.ramp.utilities.MinMax;
+
+public class IsolationPolicyTableTest {
+  private final BoundedDistribution flatZeroPercent = createMockBoundedDistribution(0, 1);
+  private final BoundedDistribution flatHundredPercent = createMockBoundedDistribution(100, 100);
+
+  private final ImmutableIsolationProperty defaultPolicy =
+      ImmutableIsolationProperty.builder()
+          .id("default")
+          .isolationProbabilityDistribution(flatZeroPercent)
+          .priority(-1)
+          .build();
+
+  private ImmutableProportionInfectedIsolationProperty globalPolicy(String id, int min, int max) {
+    return ImmutableProportionInfectedIsolationProperty.builder()
+        .proportionInfected(MinMax.of(min, max))
+        .isolationProperty(
+            ImmutableIsolationProperty.builder()
+                .id(id)
+                .priority(0)
+                .isolationProbabilityDistribution(flatHundredPercent)
+                .build())
+        .build();
+  }
+
+  @Test
+  public void testFindsGlobalPolicyWithinItsBand() {
+    var lowerPolicy = globalPolicy("lower", 10, 20);
+    var upperPolicy = globalPolicy("upper", 20, 50);
+    IsolationPolicyTable table =
+        new IsolationPolicyTable(
+            ImmutableIsolationProperties.builder()
+                .defaultPolicy(defaultPolicy)
+                .addGlobalIsolationPolicies(lowerPolicy, upperPolicy)
+                .isolationProbabilityDistributionThreshold(flatZeroPercent)
+                .build());
+
+    assertThat(table.find(0.05, SUSCEPTIBLE, NONE)).isEqualTo(defaultPolicy);
+    assertThat(table.find(0.1, SUSCEPTIBLE, NONE)).isEqualTo(lowerPolicy.isolationProperty());
+    assertThat(table.find(0.1999, SUSCEPTIBLE, NONE)).isEqualTo(lowerPolicy.isolationProperty());
+    assertThat(table.find(0.2, SUSCEPTIBLE, NONE)).isEqualTo(upperPolicy.isolationProperty());
+    assertThat(table.find(0.5, SUSCEPTIBLE, NONE)).isEqualTo(defaultPolicy);
+    assertThat(table.find(Double.NaN, SUSCEPTIBLE, NONE)).isEqualTo(defaultPolicy);
+  }
+
+  @Test
+  public void testThrowsOnlyWhenConflictingPoliciesAreFound() {
+    ImmutableIsolationProperties isolationProperties =
+        ImmutableIsolationProperties.builder()
+            .defaultPolicy(defaultPolicy)
+            .addVirusStatusPolicies(
+                ImmutableVirusStatusIsolationProperty.builder()
+                    .virusStatus(SYMPTOMATIC)
+                    .isolationProperty(
+                        ImmutableIsolationProperty.builder()
+                            .id("virus")
+                            .priority(1)
+                            .isolationProbabilityDistribution(flatHundredPercent)
+                            .build())
+                    .build())
+            .addAlertStatusPolicies(
+                ImmutableAlertStatusIsolationProperty.builder()
+                    .alertStatus(ALERTED)
+                    .isolationProperty(
+                        ImmutableIsolationProperty.builder()
+                            .id("alert")
+                            .priority(1)
+                            .isolationProbabilityDistribution(flatZeroPercent)
+                            .build())
+                    .build())
+            .isolationProbabilityDistributionThreshold(flatZeroPercent)
+            .build();
+    IsolationPolicyTable table = new IsolationPolicyTable(isolationProperties);
+
+    assertThat(table.find(0, SYMPTOMATIC, NONE).id()).isEqualTo("virus");
+    assertThat(table.find(0, SUSCEPTIBLE, ALERTED).id()).isEqualTo("alert");
+    assertThatIllegalStateException()
+        .isThrownBy(() -> table.find(0, SYMPTOMATIC, ALERTED))
+        .withMessageContaining("Policy outcome description is not deterministic");
+  }
+}
@@ -3,6 +3,7 @@ package uk.co.ramp.policy.isolation;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.AdditionalAnswers.returnsElementsOf;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -16,6 +17,7 @@ import org.junit.Before;
 import org.junit.Test;
 import uk.co.ramp.distribution.BoundedDistribution;
 import uk.co.ramp.distribution.DistributionSampler;
+import uk.co.ramp.distribution.RandomStreams;
 import uk.co.ramp.io.types.StandardProperties;
 import uk.co.ramp.people.AlertStatus;
 import uk.co.ramp.statistics.StatisticsRecorder;
@@ -1678,4 +1680,87 @@ public class SingleCaseIsolationPolicyTest {
                 exposedTime))
         .isTrue();
   }
+
+  @Test
+  public void testRandomStreamDecisionsDoNotDependOnOrder() {
+    when(flatHundredPercent.getDistributionValue(any(RandomGenerator.class))).thenReturn(100);
+    when(thresholdLinearBoundedDistribution.getDistributionValue(any(RandomGenerator.class)))
+        .thenReturn(50);
+    IsolationProperties isolationProperties =
+        ImmutableIsolationProperties.builder()
+            .defaultPolicy(defaultZeroIsolationProperty)
+            .addVirusStatusPolicies(infectedSymptomaticHundredPercentIsolationProperty)
+            .isolationProbabilityDistributionThreshold(thresholdLinearBoundedDistribution)
+            .build();
+    var forwardPolicy =
+        new SingleCaseIsolationPolicy(
+            isolationProperties,
+            distributionSampler,
+            properties,
+            statisticsRecorder,
+            rng,
+            new RandomStreams(0));
+    var reversePolicy =
+        new SingleCaseIsolationPolicy(
+            isolationProperties,
+            distributionSampler,
+            properties,
+            statisticsRecorder,
+            rng,
+            new RandomStreams(0));
+
+    int people = 100;
+    boolean[] forward = new boolean[people];
+    boolean[] reverse = new boolean[people];
+    for (int i = 0; i < people; i++) {
+      forward[i] =
+          forwardPolicy.isIndividualInIsolation(i, SYMPTOMATIC, NONE, 0.5, 0, currentTime, 0);
+    }
+    for (int i = people - 1; i >= 0; i--) {
+      reverse[i] =
+          reversePolicy.isIndividualInIsolation(i, SYMPTOMATIC, NONE, 0.5, 0, currentTime, 0);
+      // repeated lookups in the same time step give the same decision
+      assertThat(
+              reversePolicy.isIndividualInIsolation(i, SYMPTOMATIC, NONE, 0.5, 0, currentTime, 0))
+          .isEqualTo(reverse[i]);
+    }
+
+    assertThat(reverse).containsExactly(forward);
+    assertThat(forward).contains(true, false);
+  }
+
+  @Test
+  public void testRandomStreamDecisionsAreMadeAgainEachTimeStep() {
+    when(flatHundredPercent.getDistributionValue(any(RandomGenerator.class))).thenReturn(100);
+    when(thresholdLinearBoundedDistribution.getDistributionValue(any(RandomGenerator.class)))
+        .thenReturn(50);
+    IsolationProperties isolationProperties =
+        ImmutableIsolationProperties.builder()
+            .defaultPolicy(defaultZeroIsolationProperty)
+            .addVirusStatusPolicies(infectedSymptomaticHundredPercentIsolationProperty)
+            .isolationProbabilityDistributionThreshold(thresholdLinearBoundedDistribution)
+            .build();
+    var policy =
+        new SingleCaseIsolationPolicy(
+            isolationProperties,
+            distributionSampler,
+            properties,
+            statisticsRecorder,
+            rng,
+            new RandomStreams(0));
+
+    int people = 100;
+    boolean[] first = new boolean[people];
+    boolean[] next = new boolean[people];
+    for (int i = 0; i < people; i++) {
+      first[i] = policy.isIndividualInIsolation(i, SYMPTOMATIC, NONE, 0.5, 0, currentTime, 0);
+    }
+    for (int i = 0; i < people; i++) {
+      next[i] = policy.isIndividualInIsolation(i, SYMPTOMATIC, NONE, 0.5, 0, currentTime + 1, 0);
+    }
+
+    // the policy is not timed, so each time step draws its own decisions
+    assertThat(next).isNotEqualTo(first);
+    assertThat(next).contains(true, false);
+  }
 }
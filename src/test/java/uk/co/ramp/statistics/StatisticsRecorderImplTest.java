@@ -3,6 +3,11 @@ package uk.co.ramp.statistics;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -156,4 +161,37 @@ public class StatisticsRecorderImplTest {
       }
     }
   }
+
+  @Test
+  public void testReadCheckpointReplacesTestsConducted() throws IOException {
+    recorder.recordTestConducted(1);
+    recorder.recordTestConducted(2);
+    recorder.recordTestConducted(2);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    recorder.writeCheckpoint(new DataOutputStream(bytes));
+
+    recorder.recordTestConducted(3);
+    recorder.readCheckpoint(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    assertThat(recorder.getTestsConducted()).isEqualTo(Map.of(1, 1, 2, 2));
+  }
+
+  @Test
+  public void testCheckpointWritesCountsInTimeOrder() throws IOException {
+    // the hash map holds the later time first
+    recorder.recordContactsTraced(17, 2);
+    recorder.recordContactsTraced(3, 1);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    recorder.writeCheckpoint(new DataOutputStream(bytes));
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    // no days in isolation or people infected
+    assertThat(in.readInt()).isZero();
+    assertThat(in.readInt()).isZero();
+    assertThat(in.readInt()).isEqualTo(2);
+    assertThat(in.readInt()).isEqualTo(3);
+    assertThat(in.readInt()).isEqualTo(1);
+    assertThat(in.readInt()).isEqualTo(17);
+    assertThat(in.readInt()).isEqualTo(2);
+  }
 }
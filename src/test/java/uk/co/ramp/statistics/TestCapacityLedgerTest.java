@@ -0,0 +1,160 @@
+package uk.co.ramp.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCapacityLedgerTest {
+
+  @Test
+  public void testReservesAtTheRequestedTimeWhenFree() {
+    TestCapacityLedger ledger = TestCapacityLedger.withCapacity(10, 2);
+
+    assertThat(ledger.reserveFrom(3)).isEqualTo(3);
+    assertThat(ledger.reserveFrom(3)).isEqualTo(3);
+    assertThat(ledger.reserved(3)).isEqualTo(2);
+  }
+
+  @Test
+  public void testReservesAtTheNextFreeTimeWhenFull() {
+    TestCapacityLedger ledger = TestCapacityLedger.withCapacity(10, 1);
+    for (int time = 2; time < 6; time++) {
+      ledger.record(time);
+    }
+
+    assertThat(ledger.reserveFrom(2)).isEqualTo(6);
+    assertThat(ledger.reserveFrom(0)).isZero();
+    assertThat(ledger.reserveFrom(1)).isEqualTo(1);
+    assertThat(ledger.reserveFrom(1)).isEqualTo(7);
+  }
+
+  @Test
+  public void testReturnsMinusOneWhenEveryLaterTimeIsFull() {
+    TestCapacityLedger ledger = TestCapacityLedger.withCapacity(5, 1);
+    ledger.record(3);
+    ledger.record(4);
+
+    assertThat(ledger.reserveFrom(3)).isEqualTo(-1);
+    assertThat(ledger.reserveFrom(5)).isEqualTo(-1);
+    assertThat(ledger.reserved(3)).isEqualTo(1);
+    assertThat(ledger.reserved(4)).isEqualTo(1);
+  }
+
+  @Test
+  public void testReleaseFreesCapacity() {
+    TestCapacityLedger ledger = TestCapacityLedger.withCapacity(5, 1);
+    ledger.record(0);
+    ledger.record(1);
+
+    ledger.release(0);
+
+    assertThat(ledger.reserveFrom(0)).isZero();
+    assertThatIllegalStateException().isThrownBy(() -> ledger.release(2));
+  }
+
+  @Test
+  public void testCapacityChangingOverTime() {
+    // no tests on the first day, then one a time step on the second and two on the third
+    TestCapacityLedger ledger = new TestCapacityLedger(6, time -> time / 2);
+
+    assertThat(ledger.reserveFrom(0)).isEqualTo(2);
+    assertThat(ledger.reserveFrom(0)).isEqualTo(3);
+    assertThat(ledger.reserveFrom(0)).isEqualTo(4);
+
+    ledger.setCapacity(0, 1);
+    assertThat(ledger.reserveFrom(0)).isZero();
+
+    ledger.setCapacity(4, 0);
+    assertThat(ledger.reserveFrom(4)).isEqualTo(5);
+  }
+
+  @Test
+  public void testRecordsOverCapacity() {
+    TestCapacityLedger ledger = TestCapacityLedger.withCapacity(3, 1);
+    ledger.record(1);
+    ledger.record(1);
+
+    assertThat(ledger.reserved(1)).isEqualTo(2);
+
+    ledger.release(1);
+    assertThat(ledger.nextFreeSlot(1)).isEqualTo(2);
+    ledger.release(1);
+    assertThat(ledger.nextFreeSlot(1)).isEqualTo(1);
+  }
+
+  @Test
+  public void testMatchesScanningForward() {
+    Random random = new Random(123);
+    int timeSteps = 37;
+    int[] capacities = random.ints(timeSteps, 0, 3).toArray();
+    TestCapacityLedger ledger = new TestCapacityLedger(timeSteps, time -> capacities[time]);
+    int[] reserved = new int[timeSteps];
+
+    for (int i = 0; i < 500; i++) {
+      int from = random.nextInt(timeSteps + 2) - 1;
+      if (random.nextInt(4) == 0) {
+        int time = random.nextInt(timeSteps);
+        if (reserved[time] > 0) {
+          ledger.release(time);
+          reserved[time]--;
+        }
+        continue;
+      }
+
+      int expected = -1;
+      for (int time = Math.max(from, 0); time < timeSteps; time++) {
+        if (reserved[time] < capacities[time]) {
+          expected = time;
+          break;
+        }
+      }
+      if (expected >= 0) {
+        reserved[expected]++;
+      }
+
+      assertThat(ledger.reserveFrom(from)).isEqualTo(expected);
+    }
+    for (int time = 0; time < timeSteps; time++) {
+      assertThat(ledger.reserved(time)).isEqualTo(reserved[time]);
+    }
+  }
+
+  @Test
+  public void testReservedByTime() {
+    TestCapacityLedger ledger = TestCapacityLedger.withCapacity(5, 3);
+    ledger.record(4);
+    ledger.record(1);
+    ledger.record(4);
+
+    assertThat(ledger.reservedByTime()).containsExactly(Map.entry(1, 1), Map.entry(4, 2));
+  }
+
+  @Test
+  public void testClearReleasesEveryTest() {
+    TestCapacityLedger ledger = TestCapacityLedger.withCapacity(5, 1);
+    ledger.setCapacity(2, 2);
+    ledger.record(0);
+    ledger.record(2);
+    ledger.record(2);
+
+    ledger.clear();
+
+    assertThat(ledger.reservedByTime()).isEmpty();
+    assertThat(ledger.nextFreeSlot(0)).isZero();
+    assertThat(ledger.capacity(2)).isEqualTo(2);
+  }
+
+  @Test
+  public void testRejectsTimesOutsideTheRun() {
+    TestCapacityLedger ledger = TestCapacityLedger.withCapacity(5, 3);
+
+    assertThat(ledger.reserved(7)).isZero();
+    assertThatIllegalArgumentException().isThrownBy(() -> ledger.record(5));
+    assertThatIllegalArgumentException().isThrownBy(() -> ledger.setCapacity(-1, 2));
+    assertThatIllegalArgumentException().isThrownBy(() -> new TestCapacityLedger(3, time -> -1));
+  }
+}